@@ -729,6 +729,96 @@ public class DijkstraBenchmark {
         doTinyPathAStar2();
     }
 
+    public long doPathAStarBuffer()
+    {
+        AStarSearch astar = new AStarSearch(astarMap, AStarSearch.SearchType.CHEBYSHEV);
+        Coord r;
+        long scanned = 0;
+        DungeonUtility utility = new DungeonUtility(new StatefulRNG(0x1337BEEFDEAL));
+        IntVLA latestPath = new IntVLA(PATH_LENGTH);
+        for (int x = 1; x < DIMENSION - 1; x++) {
+            for (int y = 1; y < DIMENSION - 1; y++) {
+                if (map[x][y] == '#')
+                    continue;
+                // this should ensure no blatant correlation between R and W
+                utility.rng.setState((x << 22) | (y << 16) | (x * y));
+                r = floors.singleRandom(utility.rng);
+                astar.path(r.x, r.y, x, y, latestPath);
+                scanned += latestPath.size;
+            }
+        }
+        return scanned;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measurePathAStarBuffer() throws InterruptedException {
+        doPathAStarBuffer();
+    }
+
+    public long doTinyPathAStarBuffer()
+    {
+        AStarSearch astar = new AStarSearch(astarMap, AStarSearch.SearchType.CHEBYSHEV);
+        Coord r;
+        long scanned = 0;
+        IntVLA latestPath = new IntVLA(PATH_LENGTH);
+        for (int x = 1; x < DIMENSION - 1; x++) {
+            for (int y = 1; y < DIMENSION - 1; y++) {
+                if (map[x][y] == '#')
+                    continue;
+                r = nearbyMap[x][y];
+                astar.path(r.x, r.y, x, y, latestPath);
+                scanned += latestPath.size;
+            }
+        }
+        return scanned;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureTinyPathAStarBuffer() throws InterruptedException {
+        doTinyPathAStarBuffer();
+    }
+
+    public long doPathJumpPoint(boolean precompute)
+    {
+        AStarSearch astar = new AStarSearch(astarMap, AStarSearch.SearchType.CHEBYSHEV);
+        if(precompute)
+            astar.precomputeJumps();
+        Coord r;
+        long scanned = 0;
+        DungeonUtility utility = new DungeonUtility(new StatefulRNG(0x1337BEEFDEAL));
+        IntVLA latestPath = new IntVLA(PATH_LENGTH);
+        for (int x = 1; x < DIMENSION - 1; x++) {
+            for (int y = 1; y < DIMENSION - 1; y++) {
+                if (map[x][y] == '#')
+                    continue;
+                // this should ensure no blatant correlation between R and W
+                utility.rng.setState((x << 22) | (y << 16) | (x * y));
+                r = floors.singleRandom(utility.rng);
+                astar.jumpPath(r.x, r.y, x, y, latestPath);
+                scanned += latestPath.size;
+            }
+        }
+        return scanned;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measurePathJumpPoint() throws InterruptedException {
+        doPathJumpPoint(false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measurePathJumpPointPlus() throws InterruptedException {
+        doPathJumpPoint(true);
+    }
+
     class GridGraph implements IndexedGraph<Coord>
     {
         public ObjectIntMap<Coord> points = new ObjectIntMap<>(DIMENSION * DIMENSION);
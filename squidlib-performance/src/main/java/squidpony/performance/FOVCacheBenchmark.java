@@ -8,11 +8,15 @@ import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import squidpony.squidgrid.BatchFOV;
 import squidpony.squidgrid.FOV;
 import squidpony.squidgrid.FOVCache;
+import squidpony.squidgrid.ParallelBatchFOV;
 import squidpony.squidgrid.Radius;
 import squidpony.squidgrid.mapping.DungeonGenerator;
 import squidpony.squidgrid.mapping.DungeonUtility;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.GreasedRegion;
 import squidpony.squidmath.LightRNG;
 import squidpony.squidmath.StatefulRNG;
 
@@ -30,8 +34,16 @@ public class FOVCacheBenchmark {
     public static final double[][] res = DungeonUtility.generateResistances(map);
     public static FOVCache cache = new FOVCache(map, 16, 50, Radius.SQUARE, 8);
     public static FOV fov = new FOV(FOV.RIPPLE);
+    public static FOV shadow = new FOV(FOV.SHADOW);
+    public static Coord[] viewers = new Coord[64];
+    public static BatchFOV batch = new BatchFOV(res, Radius.SQUARE);
+    public static ParallelBatchFOV parallelBatch = new ParallelBatchFOV(res, Radius.SQUARE);
+    public static GreasedRegion visible = new GreasedRegion(DIMENSION, DIMENSION);
     static {
         cache.awaitCache();
+        for (int i = 0; i < viewers.length; i++) {
+            viewers[i] = dungeonGen.utility.randomFloor(map);
+        }
     }
 
     public void doCachedFOV()
@@ -89,6 +101,47 @@ public class FOVCacheBenchmark {
         doFOV();
     }
 
+    public void doViewerFOV()
+    {
+        for (int i = 0; i < viewers.length; i++) {
+            shadow.calculateFOV(res, viewers[i].x, viewers[i].y, 16, Radius.SQUARE);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureViewerFOV() throws InterruptedException {
+        doViewerFOV();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureBatchFOV() throws InterruptedException {
+        batch.calculate(viewers, 16);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureParallelBatchFOV() throws InterruptedException {
+        parallelBatch.calculate(viewers, 16);
+    }
+
+    public void doRegionFOV()
+    {
+        for (int i = 0; i < viewers.length; i++) {
+            FOV.reuseFOV(res, visible, viewers[i].x, viewers[i].y, 16, Radius.SQUARE);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void measureRegionFOV() throws InterruptedException {
+        doRegionFOV();
+    }
 
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
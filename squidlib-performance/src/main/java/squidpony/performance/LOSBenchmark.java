@@ -11,6 +11,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.TimeValue;
 import squidpony.squidgrid.LOS;
 import squidpony.squidgrid.mapping.DungeonGenerator;
+import squidpony.squidgrid.mapping.DungeonUtility;
 import squidpony.squidgrid.mapping.styled.TilesetType;
 import squidpony.squidmath.StatefulRNG;
 
@@ -22,10 +23,12 @@ import java.util.concurrent.TimeUnit;
 public class LOSBenchmark {
     public static final int WIDTH = 102, HEIGHT = 102, END_X = WIDTH - 2, END_Y = HEIGHT - 2;
     public static final char[][] map;
+    public static final double[][] res;
     static
     {
         DungeonGenerator dg = new DungeonGenerator(WIDTH, HEIGHT, new StatefulRNG(2252637788195L));
         map = dg.generate(TilesetType.OPEN_AREAS);
+        res = DungeonUtility.generateResistances(map);
     }
 
     @Benchmark
@@ -87,6 +90,97 @@ public class LOSBenchmark {
             }
         }
     }
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureBresenhamCanSee() throws InterruptedException {
+        LOS los = new LOS(LOS.BRESENHAM);
+        for (int x = 1; x <= END_X; x++) {
+            for (int y = 1; y <= END_Y; y++) {
+                los.canSee(res, x, y, 1, 1);
+                los.canSee(res, x, y, 1, END_Y);
+                los.canSee(res, x, y, END_X, 1);
+                los.canSee(res, x, y, END_X, END_Y);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureBresenhamBuffered() throws InterruptedException {
+        LOS los = new LOS(LOS.BRESENHAM);
+        los.setBufferingPath(true);
+        for (int x = 1; x <= END_X; x++) {
+            for (int y = 1; y <= END_Y; y++) {
+                los.canSee(res, x, y, 1, 1);
+                los.canSee(res, x, y, 1, END_Y);
+                los.canSee(res, x, y, END_X, 1);
+                los.canSee(res, x, y, END_X, END_Y);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureDDACanSee() throws InterruptedException {
+        LOS los = new LOS(LOS.DDA);
+        for (int x = 1; x <= END_X; x++) {
+            for (int y = 1; y <= END_Y; y++) {
+                los.canSee(res, x, y, 1, 1);
+                los.canSee(res, x, y, 1, END_Y);
+                los.canSee(res, x, y, END_X, 1);
+                los.canSee(res, x, y, END_X, END_Y);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureOrthoCanSee() throws InterruptedException {
+        LOS los = new LOS(LOS.ORTHO);
+        for (int x = 1; x <= END_X; x++) {
+            for (int y = 1; y <= END_Y; y++) {
+                los.canSee(res, x, y, 1, 1);
+                los.canSee(res, x, y, 1, END_Y);
+                los.canSee(res, x, y, END_X, 1);
+                los.canSee(res, x, y, END_X, END_Y);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureThick() throws InterruptedException {
+        LOS los = new LOS(LOS.THICK);
+        for (int x = 1; x <= END_X; x++) {
+            for (int y = 1; y <= END_Y; y++) {
+                los.isReachable(res, x, y, 1, 1);
+                los.isReachable(res, x, y, 1, END_Y);
+                los.isReachable(res, x, y, END_X, 1);
+                los.isReachable(res, x, y, END_X, END_Y);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureThickCanSee() throws InterruptedException {
+        LOS los = new LOS(LOS.THICK);
+        for (int x = 1; x <= END_X; x++) {
+            for (int y = 1; y <= END_Y; y++) {
+                los.canSee(res, x, y, 1, 1);
+                los.canSee(res, x, y, 1, END_Y);
+                los.canSee(res, x, y, END_X, 1);
+                los.canSee(res, x, y, END_X, END_Y);
+            }
+        }
+    }
+
     public static void main(String[] args) throws RunnerException{
 
         Options opt = new OptionsBuilder()
@@ -313,6 +313,165 @@ public class NoiseBenchmark {
         System.out.println(doSeeded6D());
     }
 
+    // the grid benchmarks sample the same 1000x1000 grid 64 times, one point at a time or with Noise.fillGrid()
+    private static final double[] gridCoordinates = new double[1000];
+    private static final double[][] grid = new double[1000][1000];
+    static {
+        for (int i = 0; i < 1000; i++) {
+            gridCoordinates[i] = i * 0.0625;
+        }
+    }
+
+    public double doSeededPoints2D()
+    {
+        for (int n = 0; n < 64; n++) {
+            for (int i = 0; i < 1000; i++) {
+                for (int j = 0; j < 1000; j++) {
+                    seed += SeededNoise.instance.getNoise(gridCoordinates[i], gridCoordinates[j]);
+                }
+            }
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureSeededPoints2D() throws InterruptedException {
+        seed = 9000;
+        System.out.println(doSeededPoints2D());
+    }
+
+    public double doSeededGrid2D()
+    {
+        for (int n = 0; n < 64; n++) {
+            Noise.fillGrid(SeededNoise.instance, grid, gridCoordinates, gridCoordinates);
+            seed += grid[n][n];
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureSeededGrid2D() throws InterruptedException {
+        seed = 9000;
+        System.out.println(doSeededGrid2D());
+    }
+
+    public double doSeededPoints4D()
+    {
+        for (int n = 0; n < 64; n++) {
+            for (int i = 0; i < 1000; i++) {
+                for (int j = 0; j < 1000; j++) {
+                    seed += SeededNoise.instance.getNoise(gridCoordinates[i], gridCoordinates[j], 1.5, n * 0.0625);
+                }
+            }
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureSeededPoints4D() throws InterruptedException {
+        seed = 9000;
+        System.out.println(doSeededPoints4D());
+    }
+
+    public double doSeededGrid4D()
+    {
+        for (int n = 0; n < 64; n++) {
+            Noise.fillGrid(SeededNoise.instance, grid, gridCoordinates, gridCoordinates, 1.5, n * 0.0625);
+            seed += grid[n][n];
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureSeededGrid4D() throws InterruptedException {
+        seed = 9000;
+        System.out.println(doSeededGrid4D());
+    }
+
+    public double doWhirlingPoints4D()
+    {
+        for (int n = 0; n < 64; n++) {
+            for (int i = 0; i < 1000; i++) {
+                for (int j = 0; j < 1000; j++) {
+                    seed += WhirlingNoise.instance.getNoise(gridCoordinates[i], gridCoordinates[j], 1.5, n * 0.0625);
+                }
+            }
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureWhirlingPoints4D() throws InterruptedException {
+        seed = 9000;
+        System.out.println(doWhirlingPoints4D());
+    }
+
+    public double doWhirlingGrid4D()
+    {
+        for (int n = 0; n < 64; n++) {
+            Noise.fillGrid(WhirlingNoise.instance, grid, gridCoordinates, gridCoordinates, 1.5, n * 0.0625);
+            seed += grid[n][n];
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureWhirlingGrid4D() throws InterruptedException {
+        seed = 9000;
+        System.out.println(doWhirlingGrid4D());
+    }
+
+    private static final Noise.Layered4D layered4D = new Noise.Layered4D(SeededNoise.instance, 4, 0.5);
+
+    public double doLayeredPoints4D()
+    {
+        for (int n = 0; n < 64; n++) {
+            for (int i = 0; i < 1000; i++) {
+                for (int j = 0; j < 1000; j++) {
+                    seed += layered4D.getNoise(gridCoordinates[i], gridCoordinates[j], 1.5, n * 0.0625);
+                }
+            }
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLayeredPoints4D() throws InterruptedException {
+        seed = 9000;
+        System.out.println(doLayeredPoints4D());
+    }
+
+    public double doLayeredGrid4D()
+    {
+        for (int n = 0; n < 64; n++) {
+            Noise.fillGrid(layered4D, grid, gridCoordinates, gridCoordinates, 1.5, n * 0.0625);
+            seed += grid[n][n];
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLayeredGrid4D() throws InterruptedException {
+        seed = 9000;
+        System.out.println(doLayeredGrid4D());
+    }
+
     /*
      * ============================== HOW TO RUN THIS TEST: ====================================
      *
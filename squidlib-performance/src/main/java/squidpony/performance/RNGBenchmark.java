@@ -527,6 +527,206 @@ public class RNGBenchmark {
         doLightIntR();
     }
 
+    private static final long[] bulkLongs = new long[1 << 16];
+    private static final double[] bulkDoubles = new double[1 << 16];
+    private static final int[] bulkInts = new int[1 << 16];
+
+    public long doLightBulkR()
+    {
+        RNG rng = new RNG(new LightRNG(seed));
+
+        for (int i = 0; i < 1000000000; i += bulkLongs.length) {
+            rng.nextLongs(bulkLongs);
+            for (int j = 0; j < bulkLongs.length; j++) {
+                seed += bulkLongs[j];
+            }
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLightBulkR() throws InterruptedException {
+        seed = 9000;
+        doLightBulkR();
+    }
+
+    public long doXoRoBulkR()
+    {
+        RNG rng = new RNG(new XoRoRNG(seed));
+
+        for (int i = 0; i < 1000000000; i += bulkLongs.length) {
+            rng.nextLongs(bulkLongs);
+            for (int j = 0; j < bulkLongs.length; j++) {
+                seed += bulkLongs[j];
+            }
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureXoRoBulkR() throws InterruptedException {
+        seed = 9000;
+        doXoRoBulkR();
+    }
+
+    public long doThunderBulkR()
+    {
+        RNG rng = new RNG(new ThunderRNG(seed));
+
+        for (int i = 0; i < 1000000000; i += bulkLongs.length) {
+            rng.nextLongs(bulkLongs);
+            for (int j = 0; j < bulkLongs.length; j++) {
+                seed += bulkLongs[j];
+            }
+        }
+        return seed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureThunderBulkR() throws InterruptedException {
+        seed = 9000;
+        doThunderBulkR();
+    }
+
+    public double doLightDoubleR()
+    {
+        RNG rng = new RNG(new LightRNG(seed));
+        double total = 0.0;
+        for (int i = 0; i < 1000000000; i++) {
+            total += rng.nextDouble();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLightDoubleR() throws InterruptedException {
+        seed = 9000;
+        doLightDoubleR();
+    }
+
+    public double doLightBulkDoubleR()
+    {
+        RNG rng = new RNG(new LightRNG(seed));
+        double total = 0.0;
+        for (int i = 0; i < 1000000000; i += bulkDoubles.length) {
+            rng.nextDoubles(bulkDoubles);
+            for (int j = 0; j < bulkDoubles.length; j++) {
+                total += bulkDoubles[j];
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLightBulkDoubleR() throws InterruptedException {
+        seed = 9000;
+        doLightBulkDoubleR();
+    }
+
+    public long doLightBoundedR()
+    {
+        RNG rng = new RNG(new LightRNG(iseed));
+
+        for (int i = 0; i < 1000000000; i++) {
+            iseed += rng.nextInt(1000);
+        }
+        return iseed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLightBoundedR() throws InterruptedException {
+        iseed = 9000;
+        doLightBoundedR();
+    }
+
+    public long doLightHastyR()
+    {
+        RNG rng = new RNG(new LightRNG(iseed));
+
+        for (int i = 0; i < 1000000000; i++) {
+            iseed += rng.nextIntHasty(1000);
+        }
+        return iseed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLightHastyR() throws InterruptedException {
+        iseed = 9000;
+        doLightHastyR();
+    }
+
+    public long doLightBounded()
+    {
+        LightRNG rng = new LightRNG(iseed);
+
+        for (int i = 0; i < 1000000000; i++) {
+            iseed += rng.nextInt(1000);
+        }
+        return iseed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLightBounded() throws InterruptedException {
+        iseed = 9000;
+        doLightBounded();
+    }
+
+    public long doLightShuffleR()
+    {
+        RNG rng = new RNG(new LightRNG(iseed));
+        int[] order = new int[1000];
+        for (int i = 0; i < 1000000; i++) {
+            rng.randomOrdering(order.length, order);
+            iseed += order[0];
+        }
+        return iseed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLightShuffleR() throws InterruptedException {
+        iseed = 9000;
+        doLightShuffleR();
+    }
+
+    public long doLightBulkBoundedR()
+    {
+        RNG rng = new RNG(new LightRNG(iseed));
+
+        for (int i = 0; i < 1000000000; i += bulkInts.length) {
+            rng.nextInts(bulkInts, 1000);
+            for (int j = 0; j < bulkInts.length; j++) {
+                iseed += bulkInts[j];
+            }
+        }
+        return iseed;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void measureLightBulkBoundedR() throws InterruptedException {
+        iseed = 9000;
+        doLightBulkBoundedR();
+    }
+
     /*
     public long doLightBetweenR()
     {
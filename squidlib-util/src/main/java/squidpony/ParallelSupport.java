@@ -0,0 +1,43 @@
+package squidpony;
+
+import squidpony.annotation.GwtIncompatible;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Holds the one fork-join pool that the parallel classes in SquidLib, like
+ * {@link squidpony.squidgrid.ParallelBatchFOV}, {@link squidpony.squidai.ParallelDijkstraMap} and
+ * {@link squidpony.squidgrid.mapping.ParallelWorldMapGenerator}, run their tasks on when they aren't given a pool of
+ * their own. Sharing one pool keeps those classes from starting a thread per processor each and competing for the same
+ * cores. This class uses threads and so isn't available on GWT.
+ */
+@GwtIncompatible
+public final class ParallelSupport {
+    private static ForkJoinPool pool;
+
+    private ParallelSupport() {
+    }
+
+    /**
+     * Gets the fork-join pool shared by all parallel classes that don't specify their own pool; unless
+     * {@link #setPool(ForkJoinPool)} was called first, it is created the first time it is needed and uses one thread
+     * per available processor.
+     * @return the ForkJoinPool shared by SquidLib's parallel classes
+     */
+    public static synchronized ForkJoinPool pool()
+    {
+        if(pool == null)
+            pool = new ForkJoinPool();
+        return pool;
+    }
+
+    /**
+     * Changes the fork-join pool shared by all parallel classes that don't specify their own pool, such as to use a pool
+     * the rest of an application already has. Tasks already running keep the pool they started on.
+     * @param shared the ForkJoinPool to share; if null, a new pool will be created the next time one is needed
+     */
+    public static synchronized void setPool(ForkJoinPool shared)
+    {
+        pool = shared;
+    }
+}
@@ -108,10 +108,10 @@ public class CustomDijkstraMap implements Serializable {
 
     private int[] reuse = new int[9];
 
-    private boolean initialized = false;
+    protected boolean initialized = false;
 
-    private int mappedCount = 0;
-    private double[] heuristics;
+    protected int mappedCount = 0;
+    protected double[] heuristics;
 
     /**
      * Construct a CustomDijkstraMap without a level to actually scan. If you use this constructor, you must call an
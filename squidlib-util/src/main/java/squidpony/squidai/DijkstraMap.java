@@ -89,6 +89,23 @@ public class DijkstraMap implements Serializable {
         }
     }
 
+    /**
+     * The algorithm {@link #scan(Coord, Collection)} uses to fill {@link #gradientMap}.
+     */
+    public enum ScanMode {
+        /**
+         * Expands every cell that changed in the last step, over and over, until nothing changes. This is fast when
+         * all costs are equal, but can re-expand cells many times when {@link #costMap} has varied costs. The default.
+         */
+        WAVEFRONT,
+        /**
+         * Expands cells in order of their distance from the nearest goal using an {@link IntDoubleHeap}, so each cell
+         * is settled exactly once no matter how much costs vary. Produces the same gradientMap as WAVEFRONT for a full
+         * scan, and tends to be much faster than WAVEFRONT on maps with many different costs.
+         */
+        PRIORITY
+    }
+
     /**
      * This affects how distance is measured on diagonal directions vs. orthogonal directions. MANHATTAN should form a
      * diamond shape on a featureless map, while CHEBYSHEV and EUCLIDEAN will form a square. EUCLIDEAN does not affect
@@ -98,6 +115,13 @@ public class DijkstraMap implements Serializable {
      */
     public Measurement measurement = Measurement.MANHATTAN;
 
+    /**
+     * Which algorithm {@link #scan(Coord, Collection)} (and methods that call it, like findPath) will use; defaults to
+     * {@link ScanMode#WAVEFRONT}. Setting this to {@link ScanMode#PRIORITY} is a good idea if you call
+     * {@link #setCost(Coord, double)} or {@link #initializeCost(double[][])} with many different costs.
+     */
+    public ScanMode scanMode = ScanMode.WAVEFRONT;
+
 
     /**
      * Stores which parts of the map are accessible and which are not. Should not be changed unless the actual physical
@@ -163,6 +187,11 @@ public class DijkstraMap implements Serializable {
      */
     protected IntVLA goals = new IntVLA(256), fresh = new IntVLA(256);
 
+    /**
+     * Used by {@link ScanMode#PRIORITY} scans; created when first needed and sized to fit the map.
+     */
+    protected transient IntDoubleHeap open;
+
     /**
      * The RNG used to decide which one of multiple equally-short paths to take.
      */
@@ -172,12 +201,17 @@ public class DijkstraMap implements Serializable {
 
     private Direction[] reuse = new Direction[9];
 
-    private boolean initialized = false;
+    protected boolean initialized = false;
 
-    private int mappedCount = 0;
+    protected int mappedCount = 0;
 
     private int blockingRequirement = 2;
 
+    /**
+     * Counts changes to the terrain, costs, or movement rules; see {@link #getMapVersion()}.
+     */
+    private int mapVersion = 0;
+
     /**
      * Construct a DijkstraMap without a level to actually scan. If you use this constructor, you must call an
      * initialize() method before using this class.
@@ -313,6 +347,7 @@ public class DijkstraMap implements Serializable {
         }
         standardCosts = true;
         initialized = true;
+        ++mapVersion;
         return this;
     }
 
@@ -341,6 +376,7 @@ public class DijkstraMap implements Serializable {
         }
         standardCosts = true;
         initialized = true;
+        ++mapVersion;
         return this;
     }
 
@@ -371,6 +407,7 @@ public class DijkstraMap implements Serializable {
         }
         standardCosts = true;
         initialized = true;
+        ++mapVersion;
         return this;
     }
 
@@ -388,6 +425,7 @@ public class DijkstraMap implements Serializable {
         if (!initialized) throw new IllegalStateException("DijkstraMap must be initialized first!");
         ArrayTools.fill(costMap, 1.0);
         standardCosts = true;
+        ++mapVersion;
         return this;
     }
 
@@ -408,6 +446,7 @@ public class DijkstraMap implements Serializable {
         if (!initialized) throw new IllegalStateException("DijkstraMap must be initialized first!");
         ArrayTools.fill(costMap, 1.0);
         standardCosts = true;
+        ++mapVersion;
         return this;
     }
 
@@ -433,6 +472,7 @@ public class DijkstraMap implements Serializable {
             System.arraycopy(costs[x], 0, costMap[x], 0, height);
         }
         standardCosts = false;
+        ++mapVersion;
         return this;
     }
 
@@ -656,6 +696,7 @@ public class DijkstraMap implements Serializable {
      */
     public void setCost(Coord pt, double cost) {
         if (!initialized || !pt.isWithin(width, height)) return;
+        ++mapVersion;
         if (physicalMap[pt.x][pt.y] > FLOOR) {
             costMap[pt.x][pt.y] = 1.0;
             return;
@@ -675,6 +716,7 @@ public class DijkstraMap implements Serializable {
      */
     public void setCost(int x, int y, double cost) {
         if (!initialized || x < 0 || x >= width || y < 0 || y >= height) return;
+        ++mapVersion;
         if (physicalMap[x][y] > FLOOR) {
             costMap[x][y] = 1.0;
             return;
@@ -693,6 +735,7 @@ public class DijkstraMap implements Serializable {
     public void setOccupied(int x, int y) {
         if (!initialized || x < 0 || x >= width || y < 0 || y >= height) return;
         gradientMap[x][y] = WALL;
+        ++mapVersion;
     }
 
     /**
@@ -704,6 +747,7 @@ public class DijkstraMap implements Serializable {
     public void resetCell(int x, int y) {
         if (!initialized || x < 0 || x >= width || y < 0 || y >= height) return;
         gradientMap[x][y] = physicalMap[x][y];
+        ++mapVersion;
     }
 
     /**
@@ -714,6 +758,7 @@ public class DijkstraMap implements Serializable {
     public void resetCell(Coord pt) {
         if (!initialized || !pt.isWithin(width, height)) return;
         gradientMap[pt.x][pt.y] = physicalMap[pt.x][pt.y];
+        ++mapVersion;
     }
 
     /**
@@ -724,7 +769,8 @@ public class DijkstraMap implements Serializable {
             return;
         int sz = goals.size, t;
         for (int i = 0; i < sz; i++) {
-            resetCell(decodeX(t = goals.pop()), decodeY(t));
+            t = goals.pop();
+            gradientMap[decodeX(t)][decodeY(t)] = physicalMap[decodeX(t)][decodeY(t)];
         }
     }
 
@@ -770,6 +816,28 @@ public class DijkstraMap implements Serializable {
         return gradientClone;
     }
 
+    /**
+     * Recalculate the Dijkstra map and return it without copying it. This is just like {@link #scan(Collection)}, with
+     * unreachable cells given the value DARK, but it returns the {@link #gradientMap} field itself instead of a copy,
+     * so it doesn't allocate a new double[][] each time. The returned array will be changed by later scans; if you need
+     * to keep many scanned gradients around, consider storing each one as a {@link PackedGradient}.
+     *
+     * @param impassable A Collection of Coord keys representing the locations of enemies or other moving obstacles to a
+     *                   path that cannot be moved through; this can be null if there are no such obstacles.
+     * @return the {@link #gradientMap} field, not a copy, after scanning
+     */
+    public double[][] scanInPlace(final Collection<Coord> impassable) {
+        scan(null, impassable);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (gradientMap[x][y] == FLOOR) {
+                    gradientMap[x][y] = DARK;
+                }
+            }
+        }
+        return gradientMap;
+    }
+
     /**
      * Recalculate the Dijkstra map and return it. Cells that were marked as goals with setGoal will have
      * a value of 0, the cells adjacent to goals will have a value of 1, and cells progressively further
@@ -787,6 +855,11 @@ public class DijkstraMap implements Serializable {
     public void scan(final Coord start, final Collection<Coord> impassable) {
 
         if (!initialized) return;
+        if(scanMode == ScanMode.PRIORITY)
+        {
+            scanPriority(start, impassable);
+            return;
+        }
         if (impassable != null && !impassable.isEmpty()) {
             for (Coord pt : impassable) {
                 if(pt != null && pt.isWithin(width, height))
@@ -870,6 +943,250 @@ public class DijkstraMap implements Serializable {
         }
     }
 
+    /**
+     * The {@link ScanMode#PRIORITY} version of {@link #scan(Coord, Collection)}. Cells are taken from a heap in order
+     * of distance, so when a cell is expanded its distance is final and it is never expanded again. If start is
+     * non-null and standardCosts is true, this stops once start has been settled, which leaves all cells closer to the
+     * goals than start with their final values.
+     *
+     * @param start a Coord representing the location of the pathfinder; may be null, which has this scan the whole map
+     * @param impassable A Collection of Coord keys representing the locations of enemies or other moving obstacles to a
+     *                   path that cannot be moved through; this can be null if there are no such obstacles.
+     */
+    protected void scanPriority(final Coord start, final Collection<Coord> impassable) {
+        if (impassable != null && !impassable.isEmpty()) {
+            for (Coord pt : impassable) {
+                if(pt != null && pt.isWithin(width, height))
+                    gradientMap[pt.x][pt.y] = WALL;
+            }
+        }
+        int dec, adjX, adjY, cen, cenX, cenY;
+
+        for (int i = 0; i < goals.size; i++) {
+            dec = goals.get(i);
+            gradientMap[decodeX(dec)][decodeY(dec)] = GOAL;
+        }
+        if(open == null)
+            open = new IntDoubleHeap(width * height);
+        else {
+            open.ensureCapacity(width * height);
+            open.clear();
+        }
+        double currentLowest = 999000, cs, dist;
+        fresh.clear();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (gradientMap[x][y] <= FLOOR) {
+                    if (gradientMap[x][y] < currentLowest) {
+                        currentLowest = gradientMap[x][y];
+                        fresh.clear();
+                        fresh.add(encode(x, y));
+                    } else if (gradientMap[x][y] == currentLowest) {
+                        fresh.add(encode(x, y));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < fresh.size; i++) {
+            open.offer(fresh.items[i], currentLowest);
+        }
+        fresh.clear();
+        mappedCount = goals.size;
+        Direction[] dirs = (measurement == Measurement.MANHATTAN) ? Direction.CARDINALS : Direction.OUTWARDS;
+        final int startEnc = (start != null && standardCosts && start.isWithin(width, height)) ? encode(start) : -1;
+
+        while (!open.isEmpty()) {
+            cen = open.poll();
+            if(cen == startEnc)
+                break;
+            cenX = decodeX(cen);
+            cenY = decodeY(cen);
+            dist = gradientMap[cenX][cenY];
+
+            for (int d = 0; d < dirs.length; d++) {
+                adjX = cenX + dirs[d].deltaX;
+                adjY = cenY + dirs[d].deltaY;
+                if (adjX < 0 || adjY < 0 || width <= adjX || height <= adjY)
+                    /* Outside the map */
+                    continue;
+                if(d >= 4 && blockingRequirement > 0) // diagonal
+                {
+                    if((gradientMap[adjX][cenY] > FLOOR ? 1 : 0)
+                            + (gradientMap[cenX][adjY] > FLOOR ? 1 : 0)
+                            >= blockingRequirement)
+                    {
+                        continue;
+                    }
+                }
+                cs = dist + measurement.heuristic(dirs[d]) * costMap[adjX][adjY];
+                if (gradientMap[adjX][adjY] <= FLOOR && cs < gradientMap[adjX][adjY]) {
+                    gradientMap[adjX][adjY] = cs;
+                    open.offer(encode(adjX, adjY), cs);
+                    ++mappedCount;
+                }
+            }
+        }
+        open.clear();
+        if (impassable != null && !impassable.isEmpty()) {
+            for (Coord pt : impassable) {
+                if(pt != null && pt.isWithin(width, height))
+                    gradientMap[pt.x][pt.y] = physicalMap[pt.x][pt.y];
+            }
+        }
+    }
+
+    /**
+     * Repairs {@link #gradientMap} after a few cells have changed, instead of scanning the whole map again. This is the
+     * same as calling {@link #updateCells(Collection, Collection)} with no impassable cells; see that method for the
+     * details of what counts as a changed cell.
+     *
+     * @param changed every cell that changed since gradientMap was last computed; this should not be null
+     */
+    public void updateCells(final Collection<Coord> changed) {
+        updateCells(changed, null);
+    }
+
+    /**
+     * Repairs {@link #gradientMap} after a few cells have changed, instead of scanning the whole map again. This needs
+     * gradientMap to hold the result of a complete {@link #scan(Collection)} (or an earlier call to this method), and
+     * afterwards gradientMap will hold the same values that calling {@link #scan(Collection)} with the given impassable
+     * Collection would produce, with DARK for unreachable cells. Only cells whose distance could have depended on a
+     * changed cell are invalidated and re-propagated, so when only a door opened or a monster moved, this takes time
+     * proportional to the affected area rather than to the whole map.
+     * <br>
+     * Before calling this, make the changes themselves: edit {@link #physicalMap} (WALL or FLOOR), call
+     * {@link #setCost(int, int, double)}, or call {@link #setGoal(int, int)}. The changed Collection must contain every
+     * cell whose physicalMap, costMap, or goal status changed, plus every cell that entered or left impassable since
+     * the last scan (so both the old and new positions of a monster that moved). Removing a goal is not supported here;
+     * use {@link #clearGoals()} and a full scan for that.
+     *
+     * @param changed    every cell that changed since gradientMap was last computed; this should not be null
+     * @param impassable A Collection of Coord keys representing the locations of enemies or other moving obstacles to a
+     *                   path that cannot be moved through; this can be null if there are no such obstacles.
+     */
+    public void updateCells(final Collection<Coord> changed, final Collection<Coord> impassable) {
+        if (!initialized || changed == null || changed.isEmpty()) return;
+        if(open == null)
+            open = new IntDoubleHeap(width * height);
+        else {
+            open.ensureCapacity(width * height);
+            open.clear();
+        }
+        fresh.clear();
+        Direction[] dirs = (measurement == Measurement.MANHATTAN) ? Direction.CARDINALS : Direction.OUTWARDS;
+        final boolean diagonalBlocking = dirs.length > 4 && blockingRequirement > 0;
+        int cen, cenX, cenY, adjX, adjY;
+        double cs, dist;
+        // first, invalidate the changed cells and every cell whose distance might have been measured through one
+        for (Coord pt : changed) {
+            if (pt == null || !pt.isWithin(width, height))
+                continue;
+            open.offer(encode(pt), gradientMap[pt.x][pt.y]);
+            if (diagonalBlocking) {
+                // a changed cell can open or close diagonal moves between its neighbors
+                for (int d = 0; d < 8; d++) {
+                    adjX = pt.x + dirs[d].deltaX;
+                    adjY = pt.y + dirs[d].deltaY;
+                    if (adjX >= 0 && adjY >= 0 && adjX < width && adjY < height)
+                        open.offer(encode(adjX, adjY), gradientMap[adjX][adjY]);
+                }
+            }
+        }
+        while (!open.isEmpty()) {
+            dist = open.peekPriority();
+            cen = open.poll();
+            cenX = decodeX(cen);
+            cenY = decodeY(cen);
+            if (dist < FLOOR) {
+                for (int d = 0; d < dirs.length; d++) {
+                    adjX = cenX + dirs[d].deltaX;
+                    adjY = cenY + dirs[d].deltaY;
+                    if (adjX < 0 || adjY < 0 || width <= adjX || height <= adjY)
+                        continue;
+                    if (gradientMap[adjX][adjY] < FLOOR
+                            && gradientMap[adjX][adjY] == dist + measurement.heuristic(dirs[d]) * costMap[adjX][adjY])
+                        open.offer(encode(adjX, adjY), gradientMap[adjX][adjY]);
+                }
+            }
+            gradientMap[cenX][cenY] = FLOOR;
+            fresh.add(cen);
+        }
+        if (impassable != null && !impassable.isEmpty()) {
+            for (Coord pt : impassable) {
+                if(pt != null && pt.isWithin(width, height))
+                    gradientMap[pt.x][pt.y] = WALL;
+            }
+        }
+        // then, give each invalidated cell the best distance it can get from cells that are still valid
+        for (int i = 0; i < fresh.size; i++) {
+            cen = fresh.get(i);
+            cenX = decodeX(cen);
+            cenY = decodeY(cen);
+            if (physicalMap[cenX][cenY] > FLOOR) {
+                gradientMap[cenX][cenY] = physicalMap[cenX][cenY];
+                continue;
+            }
+            if (goals.contains(cen)) {
+                open.offer(cen, GOAL);
+                continue;
+            }
+            if (gradientMap[cenX][cenY] == WALL)
+                continue;
+            for (int d = 0; d < dirs.length; d++) {
+                adjX = cenX + dirs[d].deltaX;
+                adjY = cenY + dirs[d].deltaY;
+                if (adjX < 0 || adjY < 0 || width <= adjX || height <= adjY || gradientMap[adjX][adjY] >= FLOOR)
+                    continue;
+                if (d >= 4 && blockingRequirement > 0
+                        && (blocksUpdate(adjX, cenY) ? 1 : 0) + (blocksUpdate(cenX, adjY) ? 1 : 0)
+                        >= blockingRequirement)
+                    continue;
+                open.offer(cen, gradientMap[adjX][adjY] + measurement.heuristic(dirs[d]) * costMap[cenX][cenY]);
+            }
+        }
+        // last, settle cells in order of distance, which also lowers any valid cells that can now get a shorter path
+        while (!open.isEmpty()) {
+            dist = open.peekPriority();
+            cen = open.poll();
+            cenX = decodeX(cen);
+            cenY = decodeY(cen);
+            gradientMap[cenX][cenY] = dist;
+            for (int d = 0; d < dirs.length; d++) {
+                adjX = cenX + dirs[d].deltaX;
+                adjY = cenY + dirs[d].deltaY;
+                if (adjX < 0 || adjY < 0 || width <= adjX || height <= adjY || blocksUpdate(adjX, adjY))
+                    continue;
+                if (d >= 4 && blockingRequirement > 0
+                        && (blocksUpdate(adjX, cenY) ? 1 : 0) + (blocksUpdate(cenX, adjY) ? 1 : 0)
+                        >= blockingRequirement)
+                    continue;
+                cs = dist + measurement.heuristic(dirs[d]) * costMap[adjX][adjY];
+                if (cs < gradientMap[adjX][adjY])
+                    open.offer(encode(adjX, adjY), cs);
+            }
+        }
+        for (int i = 0; i < fresh.size; i++) {
+            cen = fresh.get(i);
+            if (gradientMap[cenX = decodeX(cen)][cenY = decodeY(cen)] == FLOOR)
+                gradientMap[cenX][cenY] = DARK;
+        }
+        fresh.clear();
+        if (impassable != null && !impassable.isEmpty()) {
+            for (Coord pt : impassable) {
+                if(pt != null && pt.isWithin(width, height))
+                    gradientMap[pt.x][pt.y] = physicalMap[pt.x][pt.y] == FLOOR ? DARK : physicalMap[pt.x][pt.y];
+            }
+        }
+    }
+
+    /**
+     * Used by {@link #updateCells(Collection, Collection)}; true if the cell is a wall or is currently impassable, which
+     * is what a fresh scan would consider a solid cell. Unreachable DARK cells don't block anything here.
+     */
+    private boolean blocksUpdate(final int x, final int y) {
+        return physicalMap[x][y] > FLOOR || gradientMap[x][y] == WALL;
+    }
+
     /**
      * Recalculate the Dijkstra map up to a limit and return it. Cells that were marked as goals with setGoal will have
      * a value of 0, the cells adjacent to goals will have a value of 1, and cells progressively further
@@ -1696,6 +2013,197 @@ public class DijkstraMap implements Serializable {
         return new ArrayList<>(path);
     }
 
+    /**
+     * Finds paths for many movers toward the same targets with a single scan, which is much faster than calling
+     * {@link #findPath(int, Collection, Collection, Coord, Coord...)} once per mover when there are many movers. This
+     * is the same as calling {@link #findPaths(int, Collection, List, Coord[], Coord...)} with no extra impassable
+     * cells for individual movers.
+     *
+     * @param length     the length of each path to calculate
+     * @param impassable a Collection of impassable Coord positions shared by all movers, not including the movers
+     *                   themselves; can be null
+     * @param movers     the current positions of every mover; each mover is an obstacle for the others
+     * @param targets    a vararg or array of Coord that all movers will try to pathfind toward
+     * @return an ArrayList with one ArrayList of Coord per mover, in the same order as movers
+     */
+    public ArrayList<ArrayList<Coord>> findPaths(int length, Collection<Coord> impassable, Coord[] movers,
+                                                 Coord... targets) {
+        return findPaths(length, impassable, null, movers, targets);
+    }
+
+    /**
+     * Finds paths for many movers toward the same targets, scanning the map once with only the shared impassable cells
+     * and then walking each mover down that shared gradient. Movers are walked one at a time, nearest to a target first,
+     * so the movers in front get out of the way of the ones behind them. Occupancy is corrected per mover while
+     * walking: each mover treats the other movers' positions (using the end of a path for movers that have already
+     * moved) and its own entry in moverImpassable as blocked, and will not step into them. It also won't step into a cell
+     * that a mover handled earlier is on at that same step, counting steps from the start of each path, or end its path
+     * on a cell such a mover reaches at a later step. This means that if all movers take their steps together, no two
+     * are ever on the same cell. A mover that can't take a single step because other movers or its own impassable cells
+     * block every downhill neighbor gets a full {@link #findPath(int, Collection, Collection, Coord, Coord...)} of its
+     * own after all other movers have been handled, so it can route around the blockage, cut short before it would
+     * share a cell with another mover; usually only a few movers need this, instead of every mover needing a scan.
+     * <br>
+     * This caches the last path it found in the member field path, like other pathfinding methods.
+     *
+     * @param length          the length of each path to calculate
+     * @param impassable      a Collection of impassable Coord positions shared by all movers, not including the movers
+     *                        themselves; can be null
+     * @param moverImpassable a List parallel to movers of extra impassable Coord positions for each mover; the List
+     *                        can be null, as can any of its items
+     * @param movers          the current positions of every mover; each mover is an obstacle for the others
+     * @param targets         a vararg or array of Coord that all movers will try to pathfind toward
+     * @return an ArrayList with one ArrayList of Coord per mover, in the same order as movers
+     */
+    public ArrayList<ArrayList<Coord>> findPaths(int length, Collection<Coord> impassable,
+                                                 List<? extends Collection<Coord>> moverImpassable,
+                                                 final Coord[] movers, Coord... targets) {
+        if (!initialized || movers == null) return null;
+        ArrayList<ArrayList<Coord>> paths = new ArrayList<>(movers.length);
+        path.clear();
+        GreasedRegion occupied = new GreasedRegion(width, height, movers);
+        if (impassable != null)
+            occupied.addAll(impassable);
+        resetMap();
+        setGoals(targets);
+        if (goals.isEmpty() || length <= 0)
+        {
+            cutShort = true;
+            for (int i = 0; i < movers.length; i++) {
+                paths.add(new ArrayList<Coord>());
+            }
+            return paths;
+        }
+        scan(null, impassable);
+        IntVLA stuck = new IntVLA(16);
+        // the cells movers are on at each step after the first (item 0 is step 1), and for each encoded cell, the last
+        // step a mover is on it
+        ArrayList<GreasedRegion> atStep = new ArrayList<>(Math.min(length, 16));
+        IntIntMap lastStep = new IntIntMap(movers.length * Math.min(length, 16));
+        Integer[] order = new Integer[movers.length];
+        for (int i = 0; i < movers.length; i++) {
+            order[i] = i;
+            paths.add(null);
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(gradientMap[movers[a].x][movers[a].y], gradientMap[movers[b].x][movers[b].y]);
+            }
+        });
+        for (int m = 0; m < movers.length; m++) {
+            final int i = order[m];
+            Coord start = movers[i];
+            Collection<Coord> own = (moverImpassable == null || moverImpassable.size() <= i)
+                    ? null : moverImpassable.get(i);
+            ArrayList<Coord> p = new ArrayList<>(length);
+            paths.set(i, p);
+            occupied.remove(start);
+            Coord currentPos = start;
+            double paidLength = 0.0;
+            boolean blocked = false;
+            while (true) {
+                double best = gradientMap[currentPos.x][currentPos.y];
+                final Direction[] dirs = appendDirToShuffle(rng);
+                int choice = rng.nextIntHasty(measurement.directionCount() + 1);
+
+                for (int d = 0; d <= measurement.directionCount(); d++) {
+                    Coord pt = Coord.get(currentPos.x + dirs[d].deltaX, currentPos.y + dirs[d].deltaY);
+                    if (!pt.isWithin(width, height) || gradientMap[pt.x][pt.y] >= best)
+                        continue;
+                    if (occupied.contains(pt.x, pt.y) || claimed(atStep, p.size(), pt)
+                            || (own != null && own.contains(pt))) {
+                        blocked = true;
+                        continue;
+                    }
+                    if (dirs[choice] == Direction.NONE || !p.contains(pt)) {
+                        best = gradientMap[pt.x][pt.y];
+                        choice = d;
+                    }
+                }
+
+                if (best >= gradientMap[currentPos.x][currentPos.y] || physicalMap[currentPos.x + dirs[choice].deltaX][currentPos.y + dirs[choice].deltaY] > FLOOR) {
+                    break;
+                }
+                currentPos = currentPos.translate(dirs[choice].deltaX, dirs[choice].deltaY);
+                p.add(currentPos);
+                paidLength += costMap[currentPos.x][currentPos.y];
+                if (paidLength > length - 1.0 || gradientMap[currentPos.x][currentPos.y] == 0)
+                    break;
+            }
+            if (settle(lastStep, p))
+                blocked = true;
+            if (p.isEmpty() && blocked)
+                stuck.add(i);
+            else
+                claimSteps(atStep, lastStep, p);
+            occupied.add(p.isEmpty() ? start : p.get(p.size() - 1));
+        }
+        cutShort = false;
+        for (int s = 0; s < stuck.size; s++) {
+            int i = stuck.get(s);
+            Coord start = movers[i];
+            Collection<Coord> own = (moverImpassable == null || moverImpassable.size() <= i)
+                    ? null : moverImpassable.get(i);
+            occupied.remove(start);
+            GreasedRegion blocking = new GreasedRegion(occupied);
+            if (own != null)
+                blocking.addAll(own);
+            ArrayList<Coord> p = findPath(length, blocking, null, start, targets);
+            // this path was found without knowing when other movers pass through its cells, so it is cut off before
+            // the first cell it would share with another mover at the same step
+            int valid = 0;
+            while (valid < p.size() && !claimed(atStep, valid, p.get(valid)))
+                valid++;
+            p = new ArrayList<>(p.subList(0, valid));
+            settle(lastStep, p);
+            claimSteps(atStep, lastStep, p);
+            paths.set(i, p);
+            occupied.add(p.isEmpty() ? start : p.get(p.size() - 1));
+        }
+        goals.clear();
+        if (!paths.isEmpty()) {
+            path.clear();
+            path.addAll(paths.get(paths.size() - 1));
+        }
+        return paths;
+    }
+
+    /**
+     * @return true if some mover's path already has it on pt at the step after the one with the given index
+     */
+    private static boolean claimed(ArrayList<GreasedRegion> atStep, int index, Coord pt) {
+        return index < atStep.size() && atStep.get(index).contains(pt.x, pt.y);
+    }
+
+    /**
+     * Shortens p until it doesn't end on a cell that some mover's path reaches after p would end, since the mover
+     * following p would still be standing there.
+     * @return true if p was shortened
+     */
+    private boolean settle(IntIntMap lastStep, ArrayList<Coord> p) {
+        boolean shortened = false;
+        while (!p.isEmpty() && lastStep.get(encode(p.get(p.size() - 1))) > p.size()) {
+            p.remove(p.size() - 1);
+            shortened = true;
+        }
+        return shortened;
+    }
+
+    /**
+     * Records in atStep and lastStep that a mover following p is on each of its cells at that step.
+     */
+    private void claimSteps(ArrayList<GreasedRegion> atStep, IntIntMap lastStep, ArrayList<Coord> p) {
+        Coord c;
+        for (int s = 0; s < p.size(); s++) {
+            if (s == atStep.size())
+                atStep.add(new GreasedRegion(width, height));
+            atStep.get(s).insert(c = p.get(s));
+            if (lastStep.get(encode(c)) <= s)
+                lastStep.put(encode(c), s + 1);
+        }
+    }
+
     /**
      * Scans the dungeon using DijkstraMap.scan with the listed goals and start point, and returns a list
      * of Coord positions (using the current measurement) needed to get closer to a goal, until preferredRange is
@@ -2910,6 +3418,27 @@ public class DijkstraMap implements Serializable {
      */
     public void setBlockingRequirement(int blockingRequirement) {
         this.blockingRequirement = blockingRequirement > 2 ? 2 : blockingRequirement < 0 ? 0 : blockingRequirement;
+        ++mapVersion;
+    }
+
+    /**
+     * Gets a number that changes whenever this DijkstraMap's terrain, costs, or rules for movement change through its
+     * methods: any initialize() or initializeCost() method, {@link #setCost(int, int, double)},
+     * {@link #resetCell(int, int)}, {@link #setOccupied(int, int)}, or {@link #setBlockingRequirement(int)}. Setting
+     * goals and scanning don't change it. This is used by {@link PathCache} to know when its paths may be out of date;
+     * if you change {@link #physicalMap} or {@link #costMap} directly, call {@link #incrementMapVersion()} afterwards.
+     * @return the current version of the map, which is different after any change to the terrain or costs
+     */
+    public int getMapVersion() {
+        return mapVersion;
+    }
+
+    /**
+     * Changes the value returned by {@link #getMapVersion()}, signaling that paths found earlier may no longer be
+     * valid. Only needed if you change {@link #physicalMap} or {@link #costMap} directly.
+     */
+    public void incrementMapVersion() {
+        ++mapVersion;
     }
 
     /* For Gwt compatibility */
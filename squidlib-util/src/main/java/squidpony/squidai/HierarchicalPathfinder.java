@@ -0,0 +1,461 @@
+package squidpony.squidai;
+
+import squidpony.squidgrid.Direction;
+import squidpony.squidgrid.Radius;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.IntDoubleHeap;
+import squidpony.squidmath.OrderedMap;
+import squidpony.squidmath.OrderedSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Hierarchical pathfinding (HPA*) for large maps, where scanning the whole map with a {@link DijkstraMap} for every
+ * long-distance query would be too slow. Like {@link WaypointPathfinder}, this precomputes a small graph of points that
+ * paths will go through, but instead of finding chokepoints it divides the map into square clusters and places
+ * entrances wherever open cells line up on both sides of a border between two clusters. Each cluster caches the
+ * distances between its own entrances, found with a DijkstraMap no bigger than one cluster, so a query only needs A*
+ * on the graph of entrances plus two cluster-sized scans to connect the start and goal. The coarse path this finds
+ * with {@link #findAbstractPath(Coord, Coord)} can be refined into a full cell-by-cell path with
+ * {@link #findPath(Coord, Coord)}, which only scans the clusters the coarse path actually uses.
+ * <br>
+ * When the map changes (a wall is dug out, a door is closed), change the char[][] this was constructed with and call
+ * {@link #update(Collection)} with the changed cells; only the clusters containing those cells and the clusters next
+ * to them are rebuilt. Like DijkstraMap, '#' is treated as a wall and any other char is a floor with normal cost.
+ * <br>
+ * Paths found this way are usually within a few percent of the shortest path, but aren't guaranteed to be optimal,
+ * since they must pass through entrances and only cross between clusters orthogonally.
+ */
+public class HierarchicalPathfinder {
+    private static final double root2m1 = Math.sqrt(2.0) - 1.0;
+
+    public final int width, height, clusterSize, clustersX, clustersY;
+    private final char[][] map;
+    private final DijkstraMap.Measurement measurement;
+    private final Cluster[] clusters;
+    /**
+     * For each entrance, the entrances in neighboring clusters that can be reached in one orthogonal step.
+     */
+    private final OrderedMap<Coord, OrderedSet<Coord>> crossings;
+    /**
+     * A DijkstraMap the size of one cluster, reused for every scan inside a cluster.
+     */
+    private final DijkstraMap local;
+    private final IntDoubleHeap open;
+    private final double[] gScore;
+    private final int[] parent, stamp;
+    private int generation = 0;
+
+    private static class Cluster
+    {
+        final int x0, y0, x1, y1;
+        final OrderedSet<Coord> nodes = new OrderedSet<>(16);
+        double[][] costs = new double[0][0];
+
+        Cluster(int x0, int y0, int x1, int y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+        }
+    }
+
+    /**
+     * Builds the clusters, entrances, and cached distances for map, using clusters of 16x16 cells.
+     * @param map a char[][] where '#' is a wall; this is not copied, so changes to it can be passed to update()
+     * @param measurement a Radius that corresponds to how you want path distance calculated
+     */
+    public HierarchicalPathfinder(char[][] map, Radius measurement)
+    {
+        this(map, measurement, 16);
+    }
+
+    /**
+     * Builds the clusters, entrances, and cached distances for map.
+     * @param map a char[][] where '#' is a wall; this is not copied, so changes to it can be passed to update()
+     * @param measurement a Radius that corresponds to how you want path distance calculated
+     * @param clusterSize the width and height of each cluster; larger clusters mean fewer entrances but slower scans
+     */
+    public HierarchicalPathfinder(char[][] map, Radius measurement, int clusterSize)
+    {
+        if(clusterSize < 2)
+            throw new IllegalArgumentException("clusterSize must be at least 2, not " + clusterSize);
+        this.map = map;
+        width = map.length;
+        height = map[0].length;
+        this.clusterSize = clusterSize;
+        this.measurement = DijkstraMap.findMeasurement(measurement);
+        clustersX = (width + clusterSize - 1) / clusterSize;
+        clustersY = (height + clusterSize - 1) / clusterSize;
+        clusters = new Cluster[clustersX * clustersY];
+        for (int cx = 0; cx < clustersX; cx++) {
+            for (int cy = 0; cy < clustersY; cy++) {
+                clusters[cx * clustersY + cy] = new Cluster(cx * clusterSize, cy * clusterSize,
+                        Math.min(width, (cx + 1) * clusterSize), Math.min(height, (cy + 1) * clusterSize));
+            }
+        }
+        crossings = new OrderedMap<>(clusters.length * 8);
+        local = new DijkstraMap(new double[clusterSize][clusterSize], this.measurement);
+        open = new IntDoubleHeap(width * height);
+        gScore = new double[width * height];
+        parent = new int[width * height];
+        stamp = new int[width * height];
+        for (int cx = 0; cx < clustersX; cx++) {
+            for (int cy = 0; cy < clustersY; cy++) {
+                buildBorders(cx, cy);
+            }
+        }
+        for (int i = 0; i < clusters.length; i++) {
+            buildCluster(clusters[i]);
+        }
+    }
+
+    /**
+     * @return how many entrances the abstract graph currently has
+     */
+    public int getEntranceCount()
+    {
+        return crossings.size();
+    }
+
+    /**
+     * Rebuilds the parts of the abstract graph affected by changes to the map this was constructed with. Only the
+     * clusters containing changed cells, and the clusters that share a border with them, are rebuilt.
+     * @param changed the cells that have changed in the char[][] this was constructed with
+     */
+    public void update(Collection<Coord> changed)
+    {
+        OrderedSet<Cluster> dirty = new OrderedSet<>(16), affected = new OrderedSet<>(32);
+        for (Coord c : changed) {
+            if(c != null && c.isWithin(width, height))
+                dirty.add(clusterAt(c.x, c.y));
+        }
+        for (int i = 0; i < dirty.size(); i++) {
+            Cluster c = dirty.getAt(i);
+            int cx = c.x0 / clusterSize, cy = c.y0 / clusterSize;
+            buildBorders(cx, cy);
+            if(cx > 0) buildBorders(cx - 1, cy);
+            if(cy > 0) buildBorders(cx, cy - 1);
+            affected.add(c);
+            if(cx > 0) affected.add(clusters[(cx - 1) * clustersY + cy]);
+            if(cy > 0) affected.add(clusters[cx * clustersY + cy - 1]);
+            if(cx + 1 < clustersX) affected.add(clusters[(cx + 1) * clustersY + cy]);
+            if(cy + 1 < clustersY) affected.add(clusters[cx * clustersY + cy + 1]);
+        }
+        for (int i = 0; i < affected.size(); i++) {
+            buildCluster(affected.getAt(i));
+        }
+    }
+
+    /**
+     * Finds a coarse path from start to goal, made of start, the entrances the path passes through, and goal. Each pair
+     * of consecutive points is either in the same cluster or one orthogonal step apart across a cluster border. This
+     * only needs two cluster-sized scans plus A* over the entrances, so it stays fast on very large maps.
+     * @param start the starting cell
+     * @param goal the cell to reach
+     * @return an ArrayList of Coord starting with start and ending with goal, or an empty ArrayList if goal can't be
+     * reached from start
+     */
+    public ArrayList<Coord> findAbstractPath(Coord start, Coord goal)
+    {
+        ArrayList<Coord> result = new ArrayList<>();
+        if(!passable(start.x, start.y) || !passable(goal.x, goal.y))
+            return result;
+        if(start.equals(goal)) {
+            result.add(start);
+            return result;
+        }
+        Cluster startCluster = clusterAt(start.x, start.y), goalCluster = clusterAt(goal.x, goal.y);
+        double[] goalCosts = new double[goalCluster.nodes.size()], startCosts = new double[startCluster.nodes.size()];
+        double best = Double.POSITIVE_INFINITY;
+        loadCluster(goalCluster);
+        scanFrom(goalCluster, goal);
+        for (int j = 0; j < goalCosts.length; j++) {
+            goalCosts[j] = localCost(goalCluster, goalCluster.nodes.getAt(j));
+        }
+        if(startCluster == goalCluster)
+            best = localCost(goalCluster, start);
+        else
+            loadCluster(startCluster);
+        scanFrom(startCluster, start);
+        for (int j = 0; j < startCosts.length; j++) {
+            startCosts[j] = localCost(startCluster, startCluster.nodes.getAt(j));
+        }
+
+        if(++generation == 0)
+        {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        open.clear();
+        for (int j = 0; j < startCosts.length; j++) {
+            if(startCosts[j] < Double.POSITIVE_INFINITY)
+                relax(startCluster.nodes.getAt(j), startCosts[j], -1, goal);
+        }
+        int bestLast = -1, current, idx;
+        Coord node;
+        Cluster c;
+        double g, cost;
+        while (!open.isEmpty() && open.peekPriority() < best)
+        {
+            current = open.poll();
+            node = Coord.get(current % width, current / width);
+            g = gScore[current];
+            c = clusterAt(node.x, node.y);
+            idx = c.nodes.indexOf(node);
+            if(c == goalCluster && g + goalCosts[idx] < best)
+            {
+                best = g + goalCosts[idx];
+                bestLast = current;
+            }
+            double[] row = c.costs[idx];
+            for (int j = 0; j < row.length; j++) {
+                if(j != idx && (cost = row[j]) < Double.POSITIVE_INFINITY)
+                    relax(c.nodes.getAt(j), g + cost, current, goal);
+            }
+            OrderedSet<Coord> across = crossings.get(node);
+            if(across != null)
+            {
+                for (int j = 0; j < across.size(); j++) {
+                    relax(across.getAt(j), g + 1.0, current, goal);
+                }
+            }
+        }
+        if(best == Double.POSITIVE_INFINITY)
+            return result;
+        result.add(goal);
+        for (int p = bestLast; p >= 0; p = parent[p]) {
+            result.add(Coord.get(p % width, p / width));
+        }
+        result.add(start);
+        for (int i = 0, j = result.size() - 1; i < j; i++, j--) {
+            result.set(i, result.set(j, result.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Finds a full cell-by-cell path from start to goal by refining {@link #findAbstractPath(Coord, Coord)}; each leg
+     * of the coarse path between two points in the same cluster is filled in with a DijkstraMap scan of just that
+     * cluster. As with DijkstraMap, the path doesn't include start, but does include goal.
+     * @param start the starting cell
+     * @param goal the cell to reach
+     * @return an ArrayList of Coord for each step from start to goal, or an empty ArrayList if goal can't be reached
+     */
+    public ArrayList<Coord> findPath(Coord start, Coord goal)
+    {
+        ArrayList<Coord> coarse = findAbstractPath(start, goal), path = new ArrayList<>();
+        Coord a, b;
+        Cluster c;
+        for (int i = 1; i < coarse.size(); i++) {
+            a = coarse.get(i - 1);
+            b = coarse.get(i);
+            c = clusterAt(a.x, a.y);
+            if(c != clusterAt(b.x, b.y))
+            {
+                path.add(b);
+                continue;
+            }
+            loadCluster(c);
+            scanFrom(c, b);
+            descend(c, a, path);
+        }
+        return path;
+    }
+
+    private void relax(Coord node, double g, int from, Coord goal)
+    {
+        int id = node.y * width + node.x;
+        if(stamp[id] != generation || g < gScore[id])
+        {
+            stamp[id] = generation;
+            gScore[id] = g;
+            parent[id] = from;
+            open.offer(id, g + heuristic(node, goal));
+        }
+    }
+
+    private double heuristic(Coord a, Coord b)
+    {
+        int dx = Math.abs(a.x - b.x), dy = Math.abs(a.y - b.y);
+        switch (measurement)
+        {
+            case MANHATTAN: return dx + dy;
+            case CHEBYSHEV: return Math.max(dx, dy);
+            default: return Math.max(dx, dy) + root2m1 * Math.min(dx, dy);
+        }
+    }
+
+    private boolean passable(int x, int y)
+    {
+        return x >= 0 && y >= 0 && x < width && y < height && map[x][y] != '#';
+    }
+
+    private Cluster clusterAt(int x, int y)
+    {
+        return clusters[(x / clusterSize) * clustersY + y / clusterSize];
+    }
+
+    /**
+     * Rebuilds the entrances on the right and bottom borders of the cluster at cx,cy.
+     */
+    private void buildBorders(int cx, int cy)
+    {
+        Cluster c = clusters[cx * clustersY + cy];
+        if(cx + 1 < clustersX)
+            buildBorder(c.x1 - 1, c.y0, 0, 1, c.y1 - c.y0, 1, 0);
+        if(cy + 1 < clustersY)
+            buildBorder(c.x0, c.y1 - 1, 1, 0, c.x1 - c.x0, 0, 1);
+    }
+
+    /**
+     * Rebuilds the entrances along one border, starting at x,y and moving by stepX,stepY for length cells, where each
+     * cell's partner across the border is at an offset of acrossX,acrossY. Runs of open cells get one entrance in the
+     * middle, or one at each end if the run is long.
+     */
+    private void buildBorder(int x, int y, int stepX, int stepY, int length, int acrossX, int acrossY)
+    {
+        for (int i = 0; i < length; i++) {
+            unlink(Coord.get(x + stepX * i, y + stepY * i), Coord.get(x + stepX * i + acrossX, y + stepY * i + acrossY));
+        }
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean open = i < length && passable(x + stepX * i, y + stepY * i)
+                    && passable(x + stepX * i + acrossX, y + stepY * i + acrossY);
+            if(open && runStart < 0)
+                runStart = i;
+            else if(!open && runStart >= 0)
+            {
+                int runEnd = i - 1;
+                if(runEnd - runStart >= 5)
+                {
+                    link(x + stepX * runStart, y + stepY * runStart, acrossX, acrossY);
+                    link(x + stepX * runEnd, y + stepY * runEnd, acrossX, acrossY);
+                }
+                else
+                {
+                    int mid = (runStart + runEnd) >>> 1;
+                    link(x + stepX * mid, y + stepY * mid, acrossX, acrossY);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void link(int x, int y, int acrossX, int acrossY)
+    {
+        Coord a = Coord.get(x, y), b = Coord.get(x + acrossX, y + acrossY);
+        OrderedSet<Coord> s = crossings.get(a);
+        if(s == null)
+            crossings.put(a, s = new OrderedSet<>(4));
+        s.add(b);
+        s = crossings.get(b);
+        if(s == null)
+            crossings.put(b, s = new OrderedSet<>(4));
+        s.add(a);
+    }
+
+    private void unlink(Coord a, Coord b)
+    {
+        OrderedSet<Coord> s = crossings.get(a);
+        if(s != null && s.remove(b) && s.isEmpty())
+            crossings.remove(a);
+        s = crossings.get(b);
+        if(s != null && s.remove(a) && s.isEmpty())
+            crossings.remove(b);
+    }
+
+    /**
+     * Finds the entrances in cluster c and caches the distance between each pair of them.
+     */
+    private void buildCluster(Cluster c)
+    {
+        c.nodes.clear();
+        for (int x = c.x0; x < c.x1; x++) {
+            for (int y = c.y0; y < c.y1; y++) {
+                if((x == c.x0 || y == c.y0 || x == c.x1 - 1 || y == c.y1 - 1) && crossings.containsKey(Coord.get(x, y)))
+                    c.nodes.add(Coord.get(x, y));
+            }
+        }
+        int n = c.nodes.size();
+        c.costs = new double[n][n];
+        if(n == 0)
+            return;
+        loadCluster(c);
+        for (int i = 0; i < n; i++) {
+            c.costs[i][i] = 0.0;
+            if(i + 1 >= n)
+                break;
+            scanFrom(c, c.nodes.getAt(i));
+            for (int j = i + 1; j < n; j++) {
+                c.costs[i][j] = c.costs[j][i] = localCost(c, c.nodes.getAt(j));
+            }
+        }
+    }
+
+    /**
+     * Sets up the reusable local DijkstraMap so it holds the walls and floors of cluster c, with anything outside the
+     * cluster treated as a wall.
+     */
+    private void loadCluster(Cluster c)
+    {
+        double[][] physical = local.physicalMap;
+        for (int x = 0; x < clusterSize; x++) {
+            for (int y = 0; y < clusterSize; y++) {
+                physical[x][y] = passable(c.x0 + x, c.y0 + y) && c.x0 + x < c.x1 && c.y0 + y < c.y1
+                        ? DijkstraMap.FLOOR : DijkstraMap.WALL;
+            }
+        }
+    }
+
+    private void scanFrom(Cluster c, Coord goal)
+    {
+        local.reset();
+        local.setGoal(goal.x - c.x0, goal.y - c.y0);
+        local.scan((Coord) null, null);
+    }
+
+    private double localCost(Cluster c, Coord target)
+    {
+        double d = local.gradientMap[target.x - c.x0][target.y - c.y0];
+        return d < DijkstraMap.FLOOR ? d : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Walks downhill on the local DijkstraMap from start to its goal, adding each step (in map coordinates) to path.
+     */
+    private void descend(Cluster c, Coord start, ArrayList<Coord> path)
+    {
+        final double[][] gradient = local.gradientMap;
+        final Direction[] dirs = (measurement == DijkstraMap.Measurement.MANHATTAN)
+                ? Direction.CARDINALS : Direction.OUTWARDS;
+        final int blocking = local.getBlockingRequirement();
+        int x = start.x - c.x0, y = start.y - c.y0, bx, by, nx, ny;
+        double best;
+        while (gradient[x][y] > 0.0)
+        {
+            best = gradient[x][y];
+            bx = -1;
+            by = -1;
+            for (int d = 0; d < dirs.length; d++) {
+                nx = x + dirs[d].deltaX;
+                ny = y + dirs[d].deltaY;
+                if(nx < 0 || ny < 0 || nx >= clusterSize || ny >= clusterSize || gradient[nx][ny] >= best)
+                    continue;
+                if(d >= 4 && blocking > 0 && (gradient[nx][y] > DijkstraMap.FLOOR ? 1 : 0)
+                        + (gradient[x][ny] > DijkstraMap.FLOOR ? 1 : 0) >= blocking)
+                    continue;
+                best = gradient[nx][ny];
+                bx = nx;
+                by = ny;
+            }
+            if(bx < 0)
+                return;
+            x = bx;
+            y = by;
+            path.add(Coord.get(c.x0 + x, c.y0 + y));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package squidpony.squidai;
+
+import squidpony.squidgrid.Direction;
+import squidpony.squidmath.Coord;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A compact, read-only copy of a {@link DijkstraMap}'s gradientMap, meant for keeping many finished gradients around
+ * (such as one per faction per level) without keeping a whole DijkstraMap for each. A DijkstraMap holds three
+ * double[][] arrays plus a Coord[][] for every cell, while a PackedGradient holds one flat array of either floats
+ * (4 bytes per cell) or quantized unsigned shorts (2 bytes per cell). The special values {@link DijkstraMap#FLOOR},
+ * {@link DijkstraMap#WALL} and {@link DijkstraMap#DARK} are always stored exactly, and {@link #get(int, int)} returns
+ * them unchanged.
+ * <br>
+ * The usual way to use this is to keep one DijkstraMap per level, set goals and call
+ * {@link DijkstraMap#scanInPlace(Collection)} (which doesn't copy gradientMap) for each faction, and construct a
+ * PackedGradient from {@link DijkstraMap#gradientMap} to store. You can later move down a stored gradient with
+ * {@link #findPath(int, Collection, Coord, ArrayList)}, or write it back into a DijkstraMap with
+ * {@link #unpack(DijkstraMap)} when you need the full set of DijkstraMap features.
+ */
+public class PackedGradient implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Codes at or above this are reserved in quantized storage for FLOOR, WALL, and DARK.
+     */
+    private static final int QUANTIZED_FLOOR = 0xFFFD, QUANTIZED_WALL = 0xFFFE, QUANTIZED_DARK = 0xFFFF;
+
+    public final int width, height;
+    /**
+     * How distances in the original gradient are measured; used to decide whether diagonal moves are possible.
+     */
+    public final DijkstraMap.Measurement measurement;
+    /**
+     * The size of one step in quantized storage, or 0.0 if this stores floats.
+     */
+    public final double precision;
+    private final float[] floats;
+    private final short[] shorts;
+
+    /**
+     * Packs gradient into float storage, which takes half the memory of the double[][] it copies and keeps the order
+     * of all but the most nearly-equal distances.
+     * @param gradient a double[][] produced by a DijkstraMap scan, usually its gradientMap field
+     * @param measurement the Measurement the DijkstraMap used
+     */
+    public PackedGradient(final double[][] gradient, final DijkstraMap.Measurement measurement)
+    {
+        width = gradient.length;
+        height = gradient[0].length;
+        this.measurement = measurement;
+        precision = 0.0;
+        shorts = null;
+        floats = new float[width * height];
+        for (int x = 0, i = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                floats[i++] = (float) gradient[x][y];
+            }
+        }
+    }
+
+    /**
+     * Packs gradient into quantized 16-bit storage, which takes a quarter of the memory of the double[][] it copies.
+     * Each distance is rounded to the nearest multiple of precision, so precision should be small enough to tell apart
+     * the costs you use (0.125 or 0.0625 work well for the default costs and EUCLIDEAN measurement), and distances
+     * are capped at 65532 times precision.
+     * @param gradient a double[][] produced by a DijkstraMap scan, usually its gradientMap field
+     * @param measurement the Measurement the DijkstraMap used
+     * @param precision the size of one step in the stored distances; must be greater than 0
+     */
+    public PackedGradient(final double[][] gradient, final DijkstraMap.Measurement measurement, final double precision)
+    {
+        if(precision <= 0.0)
+            throw new IllegalArgumentException("precision must be greater than 0, not " + precision);
+        width = gradient.length;
+        height = gradient[0].length;
+        this.measurement = measurement;
+        this.precision = precision;
+        floats = null;
+        shorts = new short[width * height];
+        final double inverse = 1.0 / precision;
+        double v;
+        for (int x = 0, i = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                v = gradient[x][y];
+                if(v >= DijkstraMap.DARK)
+                    shorts[i++] = (short) QUANTIZED_DARK;
+                else if(v >= DijkstraMap.WALL)
+                    shorts[i++] = (short) QUANTIZED_WALL;
+                else if(v >= DijkstraMap.FLOOR)
+                    shorts[i++] = (short) QUANTIZED_FLOOR;
+                else
+                    shorts[i++] = (short) Math.min(QUANTIZED_FLOOR - 1, (int) (v * inverse + 0.5));
+            }
+        }
+    }
+
+    /**
+     * @return true if this stores quantized 16-bit distances, false if it stores floats
+     */
+    public boolean isQuantized()
+    {
+        return shorts != null;
+    }
+
+    /**
+     * Gets the stored distance at x,y, or one of DijkstraMap's FLOOR, WALL or DARK constants. Does not check bounds.
+     * @param x the x-coordinate, from 0 to width - 1
+     * @param y the y-coordinate, from 0 to height - 1
+     * @return the distance to the nearest goal as stored, or FLOOR, WALL or DARK
+     */
+    public double get(final int x, final int y)
+    {
+        if(floats != null)
+            return floats[x * height + y];
+        final int s = shorts[x * height + y] & 0xFFFF;
+        switch (s)
+        {
+            case QUANTIZED_FLOOR: return DijkstraMap.FLOOR;
+            case QUANTIZED_WALL: return DijkstraMap.WALL;
+            case QUANTIZED_DARK: return DijkstraMap.DARK;
+            default: return s * precision;
+        }
+    }
+
+    /**
+     * Writes the stored distances back into target, which must be at least width by height.
+     * @param target a double[][] to overwrite
+     * @return target, after modification
+     */
+    public double[][] unpackInto(final double[][] target)
+    {
+        for (int x = 0; x < width; x++) {
+            final double[] column = target[x];
+            for (int y = 0; y < height; y++) {
+                column[y] = get(x, y);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Writes the stored distances into map's gradientMap, so methods like
+     * {@link DijkstraMap#findPathPreScanned(Coord)} can use them. The map should have been initialized with the same
+     * level this gradient came from, and its goals are not changed.
+     * @param map a DijkstraMap initialized with a level the same size as this
+     * @return map's gradientMap, after modification
+     */
+    public double[][] unpack(final DijkstraMap map)
+    {
+        return unpackInto(map.gradientMap);
+    }
+
+    /**
+     * Moves downhill from start toward the nearest goal, choosing the lowest neighbor each step (preferring cardinal
+     * directions when two are equally low), and stopping after length steps, at a goal, or when no neighbor is lower.
+     * This doesn't need a DijkstraMap and doesn't allocate anything if buffer has enough capacity.
+     * @param length the most steps to take
+     * @param impassable cells that can't be entered, such as other creatures; may be null
+     * @param start where the path starts; not included in the path
+     * @param buffer an ArrayList that will be cleared and filled with the path; if null, a new one is created
+     * @return buffer, or a new ArrayList if buffer was null, containing each step of the path
+     */
+    public ArrayList<Coord> findPath(final int length, final Collection<Coord> impassable, final Coord start,
+                                     ArrayList<Coord> buffer)
+    {
+        if(buffer == null)
+            buffer = new ArrayList<>(Math.max(length, 1));
+        else
+            buffer.clear();
+        final Direction[] dirs = (measurement == DijkstraMap.Measurement.MANHATTAN)
+                ? Direction.CARDINALS : Direction.OUTWARDS;
+        int cx = start.x, cy = start.y, bx, by, nx, ny;
+        double current = get(cx, cy), best, v;
+        for (int step = 0; step < length && current > 0.0; step++) {
+            best = current;
+            bx = -1;
+            by = -1;
+            for (int d = 0; d < dirs.length; d++) {
+                nx = cx + dirs[d].deltaX;
+                ny = cy + dirs[d].deltaY;
+                if(nx < 0 || ny < 0 || nx >= width || ny >= height)
+                    continue;
+                if((v = get(nx, ny)) < best && (impassable == null || !impassable.contains(Coord.get(nx, ny))))
+                {
+                    best = v;
+                    bx = nx;
+                    by = ny;
+                }
+            }
+            if(bx < 0)
+                break;
+            buffer.add(Coord.get(cx = bx, cy = by));
+            current = best;
+        }
+        return buffer;
+    }
+}
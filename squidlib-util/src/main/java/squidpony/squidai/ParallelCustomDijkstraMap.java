@@ -0,0 +1,238 @@
+package squidpony.squidai;
+
+import squidpony.ParallelSupport;
+import squidpony.annotation.GwtIncompatible;
+import squidpony.squidgrid.Adjacency;
+import squidpony.squidmath.IntDoubleHeap;
+import squidpony.squidmath.IntDoubleOrderedMap;
+import squidpony.squidmath.IntVLA;
+import squidpony.squidmath.RNG;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@link CustomDijkstraMap} that can scan very large maps on multiple threads, the same way
+ * {@link ParallelDijkstraMap} does for DijkstraMap. Because an {@link Adjacency} can connect any cell to any other (with
+ * rotations or portals), the encoded cells are split into contiguous sections of {@link #sectionSize} cells instead of
+ * square tiles. Each section settles its own cells in distance order on a fork-join pool, distances found for cells in
+ * other sections are handed over between rounds, and rounds continue until nothing changes. The gradientMap produced is
+ * bit-for-bit identical to a full single-threaded scan.
+ * <br>
+ * A parallel scan always processes the whole map, even when scanning toward a start cell. Adjacency implementations
+ * that use {@link Adjacency#twoStepRule} are always scanned on one thread, since they assign values to the middle cell
+ * of each step as they go. This class uses threads and so isn't available on GWT.
+ */
+@GwtIncompatible
+public class ParallelCustomDijkstraMap extends CustomDijkstraMap {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * If true (the default), scans of maps with more than one section will be split up and run on multiple threads;
+     * if false, this behaves exactly like a CustomDijkstraMap.
+     */
+    public boolean parallel = true;
+    /**
+     * How many consecutive encoded cells are processed by one task; defaults to 4096.
+     */
+    public int sectionSize = 4096;
+    /**
+     * The pool to run section tasks on; if null (the default), the pool from {@link ParallelSupport#pool()} is used.
+     */
+    public transient ForkJoinPool pool;
+
+    private transient Section[] sections;
+    private transient int lastLength, lastSectionSize;
+    private transient double[] solid;
+
+    public ParallelCustomDijkstraMap() {
+        super();
+    }
+
+    public ParallelCustomDijkstraMap(RNG random) {
+        super(random);
+    }
+
+    public ParallelCustomDijkstraMap(final double[] level, Adjacency adjacency) {
+        super(level, adjacency);
+    }
+
+    public ParallelCustomDijkstraMap(final char[][] level) {
+        super(level);
+    }
+
+    public ParallelCustomDijkstraMap(final char[][] level, Adjacency adjacency) {
+        super(level, adjacency);
+    }
+
+    public ParallelCustomDijkstraMap(final char[][] level, Adjacency adjacency, RNG rng) {
+        super(level, adjacency, rng);
+    }
+
+    @Override
+    protected void scanInternal(int start, int[] impassable, int usable) {
+        if (!parallel || adjacency == null || adjacency.twoStepRule || sectionSize <= 0
+                || gradientMap == null || gradientMap.length <= sectionSize) {
+            super.scanInternal(start, impassable, usable);
+            return;
+        }
+        if (!initialized) return;
+        if (impassable != null) {
+            if(usable > impassable.length)
+                usable = impassable.length;
+            for (int i = 0; i < usable; i++) {
+                adjacency.putAllVariants(null, gradientMap, impassable[i], WALL);
+            }
+        }
+        mappedCount = goals.size;
+        for (int i = 0; i < mappedCount; i++) {
+            gradientMap[goals.get(i)] = 0;
+        }
+        final int maxLength = gradientMap.length;
+        prepareSections(maxLength);
+        // isBlocked() only cares whether cells are walls, which doesn't change during a scan
+        if(solid == null || solid.length != maxLength)
+            solid = new double[maxLength];
+        System.arraycopy(gradientMap, 0, solid, 0, maxLength);
+        double currentLowest = 999000;
+        fresh.clear();
+        for (int l = 0; l < maxLength; l++) {
+            if (gradientMap[l] <= FLOOR) {
+                if (gradientMap[l] < currentLowest) {
+                    currentLowest = gradientMap[l];
+                    fresh.clear();
+                    fresh.add(l);
+                } else if (gradientMap[l] == currentLowest) {
+                    fresh.add(l);
+                }
+            }
+        }
+        for (int i = 0; i < fresh.size; i++) {
+            sections[fresh.get(i) / sectionSize].inbox.add(fresh.get(i));
+        }
+        fresh.clear();
+        final ForkJoinPool fjp = pool == null ? ParallelSupport.pool() : pool;
+        final ArrayList<Section> active = new ArrayList<>(sections.length);
+        while (true) {
+            active.clear();
+            for (int i = 0; i < sections.length; i++) {
+                if(sections[i].inbox.size > 0)
+                {
+                    sections[i].reinitialize();
+                    active.add(sections[i]);
+                }
+            }
+            if(active.isEmpty())
+                break;
+            fjp.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(active);
+                }
+            });
+            // hand each distance that crossed a section boundary to the section that owns that cell
+            for (int i = 0; i < active.size(); i++) {
+                Section s = active.get(i);
+                mappedCount += s.mapped;
+                for (int j = 0; j < s.outCells.size; j++) {
+                    int near = s.outCells.get(j);
+                    double cs = s.outCosts[j];
+                    if(cs < gradientMap[near])
+                    {
+                        gradientMap[near] = cs;
+                        sections[near / sectionSize].inbox.add(near);
+                        ++mappedCount;
+                    }
+                }
+                s.outCells.clear();
+            }
+        }
+        if (impassable != null)
+            adjacency.resetAllVariants(gradientMap, impassable, usable, physicalMap, 1);
+    }
+
+    private void prepareSections(int length)
+    {
+        if(sections != null && length == lastLength && sectionSize == lastSectionSize)
+        {
+            for (int i = 0; i < sections.length; i++) {
+                sections[i].inbox.clear();
+                sections[i].outCells.clear();
+            }
+            return;
+        }
+        lastLength = length;
+        lastSectionSize = sectionSize;
+        int count = (length + sectionSize - 1) / sectionSize;
+        sections = new Section[count];
+        for (int i = 0; i < count; i++) {
+            sections[i] = new Section(i * sectionSize, Math.min(length, (i + 1) * sectionSize));
+        }
+    }
+
+    /**
+     * A range of encoded cells; it settles its own cells in distance order and only ever writes to those cells, storing
+     * any distances it finds for cells in other sections so they can be handed over between rounds.
+     */
+    private class Section extends RecursiveAction {
+        final int low, high;
+        final IntVLA inbox = new IntVLA(64), outCells = new IntVLA(64);
+        double[] outCosts = new double[64];
+        final IntDoubleHeap heap;
+        int mapped;
+
+        Section(int low, int high) {
+            this.low = low;
+            this.high = high;
+            heap = new IntDoubleHeap(high - low);
+        }
+
+        @Override
+        protected void compute() {
+            final double[] gradientMap = ParallelCustomDijkstraMap.this.gradientMap, solid = ParallelCustomDijkstraMap.this.solid;
+            final int[] costMap = ParallelCustomDijkstraMap.this.costMap;
+            final Adjacency adjacency = ParallelCustomDijkstraMap.this.adjacency;
+            final IntDoubleOrderedMap costs = adjacency.costRules;
+            final int[][] fromNeighbors = neighbors[0];
+            final int neighborCount = fromNeighbors.length;
+            int near, cen;
+            double dist, cs;
+            mapped = 0;
+            heap.clear();
+            for (int i = 0; i < inbox.size; i++) {
+                cen = inbox.get(i);
+                heap.offer(cen - low, gradientMap[cen]);
+            }
+            inbox.clear();
+            while (!heap.isEmpty()) {
+                cen = heap.poll() + low;
+                dist = gradientMap[cen];
+                for (int d = 0; d < neighborCount; d++) {
+                    near = fromNeighbors[d][cen];
+                    if (!adjacency.validate(near))
+                        continue;
+                    if (adjacency.isBlocked(cen, d, neighbors, solid, WALL))
+                        continue;
+                    cs = dist + costs.get(costMap[near] | (adjacency.extractR(cen) == adjacency.extractR(near) ? 0 : 0x10000))
+                            * heuristics[d];
+                    if (near >= low && near < high) {
+                        if (cs < gradientMap[near]) {
+                            gradientMap[near] = cs;
+                            heap.offer(near - low, cs);
+                            ++mapped;
+                        }
+                    }
+                    else if(cs < solid[near])
+                    {
+                        if(outCells.size == outCosts.length)
+                            outCosts = Arrays.copyOf(outCosts, outCosts.length << 1);
+                        outCosts[outCells.size] = cs;
+                        outCells.add(near);
+                    }
+                }
+            }
+        }
+    }
+}
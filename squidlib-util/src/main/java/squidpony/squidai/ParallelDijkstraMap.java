@@ -0,0 +1,289 @@
+package squidpony.squidai;
+
+import squidpony.ParallelSupport;
+import squidpony.annotation.GwtIncompatible;
+import squidpony.squidgrid.Direction;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.GreasedRegion;
+import squidpony.squidmath.IntDoubleHeap;
+import squidpony.squidmath.IntVLA;
+import squidpony.squidmath.RNG;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@link DijkstraMap} that can scan very large maps on multiple threads. When {@link #parallel} is true (the
+ * default) and the map is larger than one tile, {@link #scan(Coord, Collection)} splits the map into square tiles of
+ * {@link #tileSize} cells on a side, and settles each tile in distance order on a fork-join pool. Distances that cross
+ * from one tile into another are collected after every round and handed to the tile that owns the cell, and rounds
+ * continue until no tile border changes. Because every cell still ends up with the shortest distance to a goal, and
+ * each distance is added up along its path in the same order as a single-threaded scan, the resulting gradientMap is
+ * bit-for-bit identical to what {@link DijkstraMap} would produce for a full scan.
+ * <br>
+ * A parallel scan always processes the whole map, even if a start Coord is given, so it is most useful for the kind of
+ * large, full scans that are shared between many pathfinders. Small maps and any scan with {@link #parallel} set to
+ * false use the normal single-threaded scan, including its {@link DijkstraMap#scanMode}. This class uses threads and
+ * so isn't available on GWT.
+ */
+@GwtIncompatible
+public class ParallelDijkstraMap extends DijkstraMap {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * If true (the default), scans of maps larger than one tile will be split up and run on multiple threads; if
+     * false, this behaves exactly like a DijkstraMap.
+     */
+    public boolean parallel = true;
+    /**
+     * The width and height of each square tile processed by one task; defaults to 64. Larger tiles need fewer rounds
+     * of exchanging borders, while smaller tiles give more tasks to balance between threads.
+     */
+    public int tileSize = 64;
+    /**
+     * The pool to run tile tasks on; if null (the default), the pool from {@link ParallelSupport#pool()} is used.
+     */
+    public transient ForkJoinPool pool;
+
+    private transient Tile[] tiles;
+    private transient int tilesX, tilesY, lastTileSize;
+    private transient GreasedRegion passable;
+
+    public ParallelDijkstraMap() {
+        super();
+    }
+
+    public ParallelDijkstraMap(RNG random) {
+        super(random);
+    }
+
+    public ParallelDijkstraMap(final double[][] level) {
+        super(level);
+    }
+
+    public ParallelDijkstraMap(final double[][] level, Measurement measurement) {
+        super(level, measurement);
+    }
+
+    public ParallelDijkstraMap(final char[][] level) {
+        super(level);
+    }
+
+    public ParallelDijkstraMap(final char[][] level, RNG rng) {
+        super(level, rng);
+    }
+
+    public ParallelDijkstraMap(final char[][] level, Measurement measurement) {
+        super(level, measurement);
+    }
+
+    public ParallelDijkstraMap(final char[][] level, Measurement measurement, RNG rng) {
+        super(level, measurement, rng);
+    }
+
+    /**
+     * Recalculate the Dijkstra map, using multiple threads if {@link #parallel} is true and the map is larger than one
+     * tile. The result is stored in the {@link #gradientMap} field. Unlike the single-threaded scan, a parallel scan
+     * ignores start and always scans the whole map; cells that the scan couldn't reach keep the value FLOOR, which
+     * {@link #scan(Collection)} changes to DARK, as in DijkstraMap.
+     *
+     * @param start a Coord representing the location of the pathfinder; only used if this doesn't scan in parallel
+     * @param impassable A Collection of Coord keys representing the locations of enemies or other moving obstacles to a
+     *                   path that cannot be moved through; this can be null if there are no such obstacles.
+     */
+    @Override
+    public void scan(final Coord start, final Collection<Coord> impassable) {
+        if (!parallel || tileSize <= 0 || (width <= tileSize && height <= tileSize)) {
+            super.scan(start, impassable);
+            return;
+        }
+        if (!initialized) return;
+        if (impassable != null && !impassable.isEmpty()) {
+            for (Coord pt : impassable) {
+                if(pt != null && pt.isWithin(width, height))
+                    gradientMap[pt.x][pt.y] = WALL;
+            }
+        }
+        int dec;
+        for (int i = 0; i < goals.size; i++) {
+            dec = goals.get(i);
+            gradientMap[decodeX(dec)][decodeY(dec)] = GOAL;
+        }
+        prepareTiles();
+        if(passable == null)
+            passable = new GreasedRegion(gradientMap, FLOOR);
+        else
+            passable.refill(gradientMap, FLOOR);
+        double currentLowest = 999000;
+        fresh.clear();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (gradientMap[x][y] <= FLOOR) {
+                    if (gradientMap[x][y] < currentLowest) {
+                        currentLowest = gradientMap[x][y];
+                        fresh.clear();
+                        fresh.add(encode(x, y));
+                    } else if (gradientMap[x][y] == currentLowest) {
+                        fresh.add(encode(x, y));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < fresh.size; i++) {
+            dec = fresh.get(i);
+            tileOf(decodeX(dec), decodeY(dec)).inbox.add(dec);
+        }
+        fresh.clear();
+        mappedCount = goals.size;
+        final ForkJoinPool fjp = pool == null ? ParallelSupport.pool() : pool;
+        final ArrayList<Tile> active = new ArrayList<>(tiles.length);
+        while (true) {
+            active.clear();
+            for (int i = 0; i < tiles.length; i++) {
+                if(tiles[i].inbox.size > 0)
+                {
+                    tiles[i].reinitialize();
+                    active.add(tiles[i]);
+                }
+            }
+            if(active.isEmpty())
+                break;
+            fjp.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(active);
+                }
+            });
+            // hand each distance that crossed a tile border to the tile that owns that cell
+            for (int i = 0; i < active.size(); i++) {
+                Tile t = active.get(i);
+                mappedCount += t.mapped;
+                for (int j = 0; j < t.outCells.size; j++) {
+                    int cell = t.outCells.get(j), x = decodeX(cell), y = decodeY(cell);
+                    double cs = t.outCosts[j];
+                    if(cs < gradientMap[x][y])
+                    {
+                        gradientMap[x][y] = cs;
+                        tileOf(x, y).inbox.add(cell);
+                        ++mappedCount;
+                    }
+                }
+                t.outCells.clear();
+            }
+        }
+        if (impassable != null && !impassable.isEmpty()) {
+            for (Coord pt : impassable) {
+                if(pt != null && pt.isWithin(width, height))
+                    gradientMap[pt.x][pt.y] = physicalMap[pt.x][pt.y];
+            }
+        }
+    }
+
+    private void prepareTiles()
+    {
+        int tx = (width + tileSize - 1) / tileSize, ty = (height + tileSize - 1) / tileSize;
+        if(tiles != null && tx == tilesX && ty == tilesY && tileSize == lastTileSize)
+        {
+            for (int i = 0; i < tiles.length; i++) {
+                tiles[i].inbox.clear();
+                tiles[i].outCells.clear();
+            }
+            return;
+        }
+        tilesX = tx;
+        tilesY = ty;
+        lastTileSize = tileSize;
+        tiles = new Tile[tx * ty];
+        for (int x = 0; x < tx; x++) {
+            for (int y = 0; y < ty; y++) {
+                tiles[x * ty + y] = new Tile(x * tileSize, y * tileSize,
+                        Math.min(width, (x + 1) * tileSize), Math.min(height, (y + 1) * tileSize));
+            }
+        }
+    }
+
+    private Tile tileOf(int x, int y)
+    {
+        return tiles[(x / tileSize) * tilesY + y / tileSize];
+    }
+
+    /**
+     * One square section of the map; it settles its own cells in distance order and only ever writes to those cells,
+     * storing any distances it finds for cells in other tiles so they can be handed over between rounds.
+     */
+    private class Tile extends RecursiveAction {
+        final int x0, y0, x1, y1, tileHeight;
+        final IntVLA inbox = new IntVLA(64), outCells = new IntVLA(64);
+        double[] outCosts = new double[64];
+        final IntDoubleHeap heap;
+        int mapped;
+
+        Tile(int x0, int y0, int x1, int y1) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+            tileHeight = y1 - y0;
+            heap = new IntDoubleHeap((x1 - x0) * tileHeight);
+        }
+
+        @Override
+        protected void compute() {
+            final double[][] gradientMap = ParallelDijkstraMap.this.gradientMap, costMap = ParallelDijkstraMap.this.costMap;
+            final Measurement measurement = ParallelDijkstraMap.this.measurement;
+            final int blockingRequirement = getBlockingRequirement();
+            final Direction[] dirs = (measurement == Measurement.MANHATTAN) ? Direction.CARDINALS : Direction.OUTWARDS;
+            int cen, cenX, cenY, adjX, adjY;
+            double dist, cs;
+            mapped = 0;
+            heap.clear();
+            for (int i = 0; i < inbox.size; i++) {
+                cen = inbox.get(i);
+                cenX = decodeX(cen);
+                cenY = decodeY(cen);
+                heap.offer((cenX - x0) * tileHeight + cenY - y0, gradientMap[cenX][cenY]);
+            }
+            inbox.clear();
+            while (!heap.isEmpty()) {
+                cen = heap.poll();
+                cenX = x0 + cen / tileHeight;
+                cenY = y0 + cen % tileHeight;
+                dist = gradientMap[cenX][cenY];
+                for (int d = 0; d < dirs.length; d++) {
+                    adjX = cenX + dirs[d].deltaX;
+                    adjY = cenY + dirs[d].deltaY;
+                    if (adjX < 0 || adjY < 0 || width <= adjX || height <= adjY || !passable.contains(adjX, adjY))
+                        continue;
+                    if(d >= 4 && blockingRequirement > 0) // diagonal
+                    {
+                        if((passable.contains(adjX, cenY) ? 0 : 1)
+                                + (passable.contains(cenX, adjY) ? 0 : 1)
+                                >= blockingRequirement)
+                        {
+                            continue;
+                        }
+                    }
+                    cs = dist + measurement.heuristic(dirs[d]) * costMap[adjX][adjY];
+                    if(adjX >= x0 && adjX < x1 && adjY >= y0 && adjY < y1)
+                    {
+                        if (cs < gradientMap[adjX][adjY]) {
+                            gradientMap[adjX][adjY] = cs;
+                            heap.offer((adjX - x0) * tileHeight + adjY - y0, cs);
+                            ++mapped;
+                        }
+                    }
+                    else
+                    {
+                        if(outCells.size == outCosts.length)
+                            outCosts = Arrays.copyOf(outCosts, outCosts.length << 1);
+                        outCosts[outCells.size] = cs;
+                        outCells.add(encode(adjX, adjY));
+                    }
+                }
+            }
+        }
+    }
+}
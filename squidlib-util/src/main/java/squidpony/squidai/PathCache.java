@@ -0,0 +1,257 @@
+package squidpony.squidai;
+
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.OrderedMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A least-recently-used cache of paths found by a {@link DijkstraMap}, for games where the same creatures ask for paths
+ * between the same places turn after turn while the map stays the same. Instead of calling
+ * {@link DijkstraMap#findPath(int, Collection, Collection, Coord, Coord...)} or
+ * {@link DijkstraMap#findPathPreScanned(Coord)} on the DijkstraMap, call the methods with the same names here; the
+ * first request for a given start and set of targets scans and finds the whole route as usual, and later requests
+ * reuse that route as long as the DijkstraMap's {@link DijkstraMap#getMapVersion() map version} is unchanged and none of
+ * the cells the path would use this turn are in the current impassable Collection. Changing the terrain or costs
+ * through the DijkstraMap's methods (initialize(), setCost(), resetCell(), and so on) clears the whole cache.
+ * <br>
+ * A cached path was the shortest path when it was found; if an obstacle has moved out of the way since then, a shorter
+ * path may exist but the cached one will still be used until it is evicted or blocked. Use {@link #getHits()} and
+ * {@link #getMisses()} to decide on a good capacity; only the most recently used {@link #capacity} routes are kept.
+ */
+public class PathCache {
+    /**
+     * The DijkstraMap used to find paths that aren't cached.
+     */
+    public final DijkstraMap map;
+    /**
+     * The most routes this will keep at once; when another route is added, the least recently used one is removed.
+     */
+    public int capacity;
+
+    private final OrderedMap<Key, Coord[]> routes;
+    private int version;
+    private long hits = 0L, misses = 0L;
+
+    /**
+     * Makes a PathCache for map that keeps up to 256 routes.
+     * @param map a DijkstraMap that has already been initialized
+     */
+    public PathCache(DijkstraMap map)
+    {
+        this(map, 256);
+    }
+
+    /**
+     * Makes a PathCache for map that keeps up to capacity routes.
+     * @param map a DijkstraMap that has already been initialized
+     * @param capacity the most routes to keep; should be at least 1
+     */
+    public PathCache(DijkstraMap map, int capacity)
+    {
+        this.map = map;
+        this.capacity = Math.max(1, capacity);
+        routes = new OrderedMap<>(this.capacity);
+        version = map.getMapVersion();
+    }
+
+    /**
+     * Works like {@link DijkstraMap#findPath(int, Collection, Collection, Coord, Coord...)}, but reuses the route found
+     * by an earlier call with the same start and targets when the map hasn't changed and the cells this would move
+     * through aren't in impassable. Paths that couldn't reach a target aren't cached, and neither are paths that would
+     * end on a cell in onlyPassable (those are found by the DijkstraMap each time).
+     *
+     * @param length       the length of the path to calculate
+     * @param impassable   a Collection of impassable Coord positions that may change (not constant like walls); can be null
+     * @param onlyPassable a Collection of Coord positions that this pathfinder cannot end a path occupying (typically allies); can be null
+     * @param start        the start of the path, should correspond to the minimum-x, minimum-y position of the pathfinder
+     * @param targets      a vararg or array of Coord that this will try to pathfind toward
+     * @return an ArrayList of Coord that will contain the locations of this creature as it goes toward a target
+     */
+    public ArrayList<Coord> findPath(int length, Collection<Coord> impassable, Collection<Coord> onlyPassable,
+                                     Coord start, Coord... targets)
+    {
+        if(length <= 0)
+            return new ArrayList<>();
+        checkVersion();
+        final Key key = new Key(false, start, targets);
+        Coord[] route = routes.get(key);
+        if(route != null)
+        {
+            int end = prefixLength(route, length);
+            if(usable(route, end, impassable, onlyPassable))
+            {
+                ++hits;
+                routes.putAndMoveToLast(key, route);
+                return result(route, end);
+            }
+        }
+        ++misses;
+        // a length this large never runs out before reaching a target, so the whole route is found
+        ArrayList<Coord> found = map.findPath(Integer.MAX_VALUE, impassable, null, start, targets);
+        if(found == null || found.isEmpty() || map.cutShort)
+        {
+            routes.remove(key);
+            return map.findPath(length, impassable, onlyPassable, start, targets);
+        }
+        route = found.toArray(new Coord[found.size()]);
+        store(key, route);
+        int end = prefixLength(route, length);
+        if(onlyPassable != null && onlyPassable.contains(route[end - 1]))
+            return map.findPath(length, impassable, onlyPassable, start, targets);
+        return result(route, end);
+    }
+
+    /**
+     * Works like {@link DijkstraMap#findPathPreScanned(Coord)}, but reuses the route found by an earlier call with the
+     * same target and the same goals set on the DijkstraMap, as long as the map hasn't changed. This doesn't check
+     * whether the DijkstraMap was scanned with different impassable cells since the route was cached.
+     *
+     * @param target the target cell, where the path will start before going toward the closest goal
+     * @return an ArrayList of Coord that make up the path from the goal to the target, like findPathPreScanned()
+     */
+    public ArrayList<Coord> findPathPreScanned(Coord target)
+    {
+        checkVersion();
+        final Coord[] goals = new Coord[map.goals.size];
+        for (int i = 0; i < goals.length; i++) {
+            goals[i] = map.decode(map.goals.get(i));
+        }
+        final Key key = new Key(true, target, goals);
+        Coord[] route = routes.get(key);
+        if(route != null)
+        {
+            ++hits;
+            routes.putAndMoveToLast(key, route);
+            return result(route, route.length);
+        }
+        ++misses;
+        ArrayList<Coord> found = map.findPathPreScanned(target);
+        if(!found.isEmpty() && !map.cutShort)
+            store(key, found.toArray(new Coord[found.size()]));
+        return found;
+    }
+
+    /**
+     * @return how many requests were answered with a cached route since this was created or
+     * {@link #resetCounters()} was called
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return how many requests needed the DijkstraMap to find a path since this was created or
+     * {@link #resetCounters()} was called
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Sets the hit and miss counters back to 0.
+     */
+    public void resetCounters() {
+        hits = 0L;
+        misses = 0L;
+    }
+
+    /**
+     * @return how many routes are currently cached
+     */
+    public int size() {
+        return routes.size();
+    }
+
+    /**
+     * Removes all cached routes, without changing the hit and miss counters.
+     */
+    public void clear() {
+        routes.clear();
+    }
+
+    private void checkVersion()
+    {
+        if(version != map.getMapVersion())
+        {
+            routes.clear();
+            version = map.getMapVersion();
+        }
+    }
+
+    private void store(Key key, Coord[] route)
+    {
+        routes.putAndMoveToLast(key, route);
+        while (routes.size() > capacity)
+            routes.removeFirst();
+    }
+
+    /**
+     * Finds how many cells of route a creature would move through with the given length, using the same costs as
+     * DijkstraMap.findPath().
+     */
+    private int prefixLength(Coord[] route, int length)
+    {
+        double paid = 0.0;
+        int end = 0;
+        Coord c;
+        while (end < route.length) {
+            c = route[end++];
+            paid += map.costMap[c.x][c.y];
+            if(paid > length - 1.0)
+                break;
+        }
+        return end;
+    }
+
+    private static boolean usable(Coord[] route, int end, Collection<Coord> impassable, Collection<Coord> onlyPassable)
+    {
+        if(impassable != null && !impassable.isEmpty())
+        {
+            for (int i = 0; i < end; i++) {
+                if(impassable.contains(route[i]))
+                    return false;
+            }
+        }
+        return onlyPassable == null || !onlyPassable.contains(route[end - 1]);
+    }
+
+    private ArrayList<Coord> result(Coord[] route, int end)
+    {
+        map.path.clear();
+        map.path.addAll(Arrays.asList(route).subList(0, end));
+        map.cutShort = false;
+        return new ArrayList<>(map.path);
+    }
+
+    private static final class Key
+    {
+        final boolean preScanned;
+        final Coord start;
+        final Coord[] targets;
+        final int hash;
+
+        Key(boolean preScanned, Coord start, Coord[] targets) {
+            this.preScanned = preScanned;
+            this.start = start;
+            this.targets = targets == null ? new Coord[0] : targets.clone();
+            hash = (start.hashCode() * 31 + Arrays.hashCode(this.targets)) * 31 + (preScanned ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return hash == k.hash && preScanned == k.preScanned && start.equals(k.start)
+                    && Arrays.equals(targets, k.targets);
+        }
+    }
+}
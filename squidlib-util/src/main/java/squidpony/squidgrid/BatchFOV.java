@@ -0,0 +1,304 @@
+package squidpony.squidgrid;
+
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.IntVLA;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Calculates shadowcasting FOV for many viewers on the same map at once, such as for every monster on a level each
+ * turn. Calling {@link FOV#calculateFOV(double[][], int, int, double, Radius)} once per viewer clears or allocates a
+ * whole light map for each call; this class instead runs the same shadowcasting ({@link FOV#reuseFOV(double[][],
+ * double[][], int, int, double, Radius)}) on one reused scratch map, and keeps only the square window around each
+ * viewer that its radius can reach, with every viewer's window packed into one shared buffer. The light maps match
+ * what FOV's SHADOW type produces for the same viewer, radius and Radius.
+ * <br>
+ * Because AI usually needs to know which creatures can see which other creatures more than it needs full FOV maps,
+ * after {@link #calculate(Coord[], double[])} you can use {@link #getVisibleViewers(int)} or
+ * {@link #canSee(int, int)}, where viewers are referred to by their index in the array given to calculate(). Single
+ * cells can be checked with {@link #getLight(int, int, int)}, and full light maps are only built when asked for with
+ * {@link #getLight(int)} or {@link #getLight(int, double[][])}. The visible viewer lists are reused by the next call to
+ * calculate(), so copy them if they need to last longer. {@link ParallelBatchFOV} does the same work split up between
+ * multiple threads.
+ */
+public class BatchFOV implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The Radius used to measure how far each viewer can see; defaults to CIRCLE.
+     */
+    public Radius radiusTechnique;
+
+    protected int width, height;
+    protected double[][] resistances;
+    protected int count;
+    protected Coord[] viewers = new Coord[0];
+    protected double[] radii = new double[0];
+    /**
+     * For each viewer, the area its light is stored for, as minX, minY, maxX, maxY; maxX is less than minX if the
+     * viewer has no light stored.
+     */
+    protected int[] windows = new int[0];
+    /**
+     * For each viewer, where its window starts in {@link #lightBuffer}; each window is stored column by column.
+     */
+    protected int[] offsets = new int[0];
+    protected double[] lightBuffer = new double[0];
+    protected IntVLA[] visible = new IntVLA[0];
+    private transient double[][] scratch;
+
+    /**
+     * Makes a BatchFOV for the given resistance map, using Radius.CIRCLE.
+     * @param resistanceMap the kind of map made by DungeonUtility.generateResistances(); cells at 1.0 or more block sight
+     */
+    public BatchFOV(double[][] resistanceMap)
+    {
+        this(resistanceMap, Radius.CIRCLE);
+    }
+
+    /**
+     * Makes a BatchFOV for the given resistance map, measuring distance with the given Radius.
+     * @param resistanceMap the kind of map made by DungeonUtility.generateResistances(); cells at 1.0 or more block sight
+     * @param radiusTechnique how to measure the distance viewers can see; usually matches the game's movement
+     */
+    public BatchFOV(double[][] resistanceMap, Radius radiusTechnique)
+    {
+        this.radiusTechnique = radiusTechnique == null ? Radius.CIRCLE : radiusTechnique;
+        setResistances(resistanceMap);
+    }
+
+    /**
+     * Changes the map this uses to the given resistance map, such as after a door opens. The map is copied, so later
+     * changes to resistanceMap only take effect when this is called again.
+     * @param resistanceMap the kind of map made by DungeonUtility.generateResistances(); cells at 1.0 or more block sight
+     */
+    public void setResistances(double[][] resistanceMap)
+    {
+        if(resistanceMap == null || resistanceMap.length == 0)
+            throw new IllegalArgumentException("resistanceMap must not be null or empty");
+        if(resistances == null || width != resistanceMap.length || height != resistanceMap[0].length)
+        {
+            width = resistanceMap.length;
+            height = resistanceMap[0].length;
+            resistances = new double[width][height];
+        }
+        for (int x = 0; x < width; x++) {
+            System.arraycopy(resistanceMap[x], 0, resistances[x], 0, height);
+        }
+    }
+
+    /**
+     * Calculates FOV for every Coord in viewers, all with the same radius.
+     * @param viewers the positions of all viewers; a viewer's index in this array is used to refer to it afterwards
+     * @param radius how far every viewer can see
+     */
+    public void calculate(Coord[] viewers, double radius)
+    {
+        prepare(viewers, null, radius);
+        computeAll();
+    }
+
+    /**
+     * Calculates FOV for every Coord in viewers, where the viewer at index i can see as far as radii[i].
+     * @param viewers the positions of all viewers; a viewer's index in this array is used to refer to it afterwards
+     * @param radii how far each viewer can see; must be at least as long as viewers
+     */
+    public void calculate(Coord[] viewers, double[] radii)
+    {
+        if(radii.length < viewers.length)
+            throw new IllegalArgumentException("radii must have at least as many items as viewers");
+        prepare(viewers, radii, 0.0);
+        computeAll();
+    }
+
+    /**
+     * @return how many viewers were given to the last call to calculate()
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Gets how brightly the viewer at the given index in the last call to calculate() lights the cell at x,y, from 1.0
+     * at the viewer to 0.0 where it can't see.
+     * @param viewer the index of a viewer in the array given to calculate()
+     * @param x the x-coordinate of the cell to check
+     * @param y the y-coordinate of the cell to check
+     * @return the light level at x,y for that viewer, or 0.0 if it can't see x,y or x,y is out of bounds
+     */
+    public double getLight(int viewer, int x, int y)
+    {
+        if(viewer < 0 || viewer >= count)
+            throw new IndexOutOfBoundsException("viewer index " + viewer + " is not in the last batch");
+        final int d = viewer << 2;
+        if(x < windows[d] || y < windows[d | 1] || x > windows[d | 2] || y > windows[d | 3])
+            return 0.0;
+        return lightBuffer[offsets[viewer] + (x - windows[d]) * (windows[d | 3] - windows[d | 1] + 1)
+                + y - windows[d | 1]];
+    }
+
+    /**
+     * Fills into with the light map for the viewer at the given index in the last call to calculate(), with values
+     * from 1.0 at the viewer to 0.0 where it can't see.
+     * @param viewer the index of a viewer in the array given to calculate()
+     * @param into a 2D array with the same size as the resistance map; will be modified
+     * @return into, after modifications
+     */
+    public double[][] getLight(int viewer, double[][] into)
+    {
+        if(viewer < 0 || viewer >= count)
+            throw new IndexOutOfBoundsException("viewer index " + viewer + " is not in the last batch");
+        for (int x = 0; x < width; x++) {
+            Arrays.fill(into[x], 0.0);
+        }
+        final int d = viewer << 2, minY = windows[d | 1], h = windows[d | 3] - minY + 1;
+        for (int x = windows[d], o = offsets[viewer]; x <= windows[d | 2]; x++, o += h) {
+            System.arraycopy(lightBuffer, o, into[x], minY, h);
+        }
+        return into;
+    }
+
+    /**
+     * Gets the light map for the viewer at the given index in the last call to calculate(), with values from 1.0 at
+     * the viewer to 0.0 where it can't see. This allocates a new 2D array each time; use
+     * {@link #getLight(int, double[][])} to reuse one, or {@link #getLight(int, int, int)} to check single cells.
+     * @param viewer the index of a viewer in the array given to calculate()
+     * @return a new light map for that viewer
+     */
+    public double[][] getLight(int viewer)
+    {
+        return getLight(viewer, new double[width][height]);
+    }
+
+    /**
+     * Gets the indices of all other viewers (in the array given to calculate()) that the given viewer can see, in
+     * ascending order. This is the same IntVLA each time, so it will be changed by the next call to calculate().
+     * @param viewer the index of a viewer in the array given to calculate()
+     * @return an IntVLA of the indices of other viewers in sight; do not modify it
+     */
+    public IntVLA getVisibleViewers(int viewer)
+    {
+        if(viewer < 0 || viewer >= count)
+            throw new IndexOutOfBoundsException("viewer index " + viewer + " is not in the last batch");
+        return visible[viewer];
+    }
+
+    /**
+     * Checks whether the viewer at index viewer could see the viewer at index target in the last call to calculate().
+     * @param viewer the index of the viewer that may be able to see target
+     * @param target the index of the viewer that may be seen
+     * @return true if target's position is lit in viewer's light map
+     */
+    public boolean canSee(int viewer, int target)
+    {
+        if(target < 0 || target >= count)
+            throw new IndexOutOfBoundsException("viewer index " + target + " is not in the last batch");
+        final Coord t = viewers[target];
+        return t != null && getLight(viewer, t.x, t.y) > 0.0;
+    }
+
+    /**
+     * Copies the viewers and radii to reuse, works out the window and buffer offset for each viewer's light, and makes
+     * sure the buffer and a visible viewer list for each viewer are big enough.
+     */
+    protected void prepare(Coord[] viewers, double[] radii, double radius)
+    {
+        count = viewers.length;
+        if(this.viewers.length < count)
+        {
+            this.viewers = new Coord[count];
+            this.radii = new double[count];
+            windows = new int[count << 2];
+            offsets = new int[count];
+        }
+        System.arraycopy(viewers, 0, this.viewers, 0, count);
+        if(radii == null) {
+            for (int i = 0; i < count; i++) {
+                this.radii[i] = radius;
+            }
+        }
+        else
+            System.arraycopy(radii, 0, this.radii, 0, count);
+        int total = 0;
+        Coord v;
+        for (int i = 0, d = 0; i < count; i++, d += 4) {
+            offsets[i] = total;
+            if((v = viewers[i]) == null || !v.isWithin(width, height))
+            {
+                windows[d] = windows[d | 1] = 0;
+                windows[d | 2] = windows[d | 3] = -1;
+                continue;
+            }
+            final int reach = (int) Math.min(Math.ceil(Math.max(1, this.radii[i])), width + height);
+            windows[d] = Math.max(0, v.x - reach);
+            windows[d | 1] = Math.max(0, v.y - reach);
+            windows[d | 2] = Math.min(width - 1, v.x + reach);
+            windows[d | 3] = Math.min(height - 1, v.y + reach);
+            total += (windows[d | 2] - windows[d] + 1) * (windows[d | 3] - windows[d | 1] + 1);
+        }
+        if(lightBuffer.length < total)
+            lightBuffer = new double[total];
+        if(visible.length < count)
+        {
+            IntVLA[] nextVisible = new IntVLA[count];
+            System.arraycopy(visible, 0, nextVisible, 0, visible.length);
+            for (int i = visible.length; i < count; i++) {
+                nextVisible[i] = new IntVLA(16);
+            }
+            visible = nextVisible;
+        }
+    }
+
+    /**
+     * Computes each viewer in turn; {@link ParallelBatchFOV} overrides this to split the viewers between threads.
+     */
+    protected void computeAll()
+    {
+        for (int i = 0; i < count; i++) {
+            computeViewer(i);
+        }
+    }
+
+    /**
+     * Gets a light map the size of the resistance map, with every cell at 0.0, that the current thread can
+     * shadowcast into; {@link #computeViewer(int)} leaves it cleared again when it is done.
+     * {@link ParallelBatchFOV} overrides this to give each thread its own.
+     * @return a cleared 2D array with the same size as the resistance map
+     */
+    protected double[][] scratch()
+    {
+        if(scratch == null || scratch.length != width || scratch[0].length != height)
+            scratch = new double[width][height];
+        return scratch;
+    }
+
+    /**
+     * Computes the light and visible viewers for the viewer at index i. Apart from the light map given by
+     * {@link #scratch()}, this only writes to data that belongs to that viewer, so different viewers can be computed
+     * at the same time.
+     * @param i the index of the viewer to compute
+     */
+    protected void computeViewer(int i)
+    {
+        final IntVLA seen = visible[i];
+        seen.clear();
+        final int d = i << 2, minX = windows[d], minY = windows[d | 1], maxX = windows[d | 2], maxY = windows[d | 3];
+        if(maxX < minX)
+            return;
+        final Coord v = viewers[i];
+        final double[][] light = scratch();
+        FOV.reuseFOV(resistances, light, v.x, v.y, radii[i], radiusTechnique);
+        final int h = maxY - minY + 1;
+        for (int x = minX, o = offsets[i]; x <= maxX; x++, o += h) {
+            System.arraycopy(light[x], minY, lightBuffer, o, h);
+            Arrays.fill(light[x], minY, maxY + 1, 0.0);
+        }
+        Coord t;
+        for (int j = 0; j < count; j++) {
+            if(j != i && (t = viewers[j]) != null && getLight(i, t.x, t.y) > 0.0)
+                seen.add(j);
+        }
+    }
+}
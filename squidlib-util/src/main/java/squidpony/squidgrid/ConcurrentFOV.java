@@ -0,0 +1,76 @@
+package squidpony.squidgrid;
+
+import squidpony.annotation.GwtIncompatible;
+
+/**
+ * An FOV that can be shared by many threads at once, such as the tasks of a fork-join pool that evaluate different AI
+ * agents in parallel. A plain FOV reuses its light map (and the extra map the RIPPLE types need) between calls, so two
+ * threads calling it at the same time overwrite each other's results; this class instead gives each thread its own FOV
+ * of the same type the first time that thread uses it, and every call after that on the same thread reuses that
+ * thread's arrays, so there is no allocation per call as long as the map size stays the same.
+ * <br>
+ * Like FOV, the double[][] returned by calculateFOV() is reused by the next call, but only by the next call on the
+ * same thread, so each thread can use its result freely until it calculates FOV again. Copy the result if it needs to
+ * be kept or handed to another thread. The static methods in FOV, such as
+ * {@link FOV#reuseFOV(double[][], double[][], int, int, double, Radius)}, were already safe to call from many threads.
+ * This class uses ThreadLocal and so isn't available on GWT.
+ */
+@GwtIncompatible
+public class ConcurrentFOV extends FOV {
+    private static final long serialVersionUID = 1L;
+
+    private final int solverType;
+    private final transient ThreadLocal<FOV> solvers;
+
+    /**
+     * Creates a thread-safe solver which will use the default SHADOW solver.
+     */
+    public ConcurrentFOV() {
+        this(SHADOW);
+    }
+
+    /**
+     * Creates a thread-safe solver which will use the provided FOV solver type, such as {@link FOV#RIPPLE}.
+     *
+     * @param type one of the FOV type constants, such as SHADOW or RIPPLE
+     */
+    public ConcurrentFOV(final int type) {
+        super(type);
+        solverType = type;
+        solvers = new ThreadLocal<FOV>() {
+            @Override
+            protected FOV initialValue() {
+                return new FOV(type);
+            }
+        };
+    }
+
+    /**
+     * Calculates FOV like {@link FOV#calculateFOV(double[][], int, int, double, Radius)}, using the calling thread's
+     * own FOV, so this can be called by many threads at once.
+     * @return the calling thread's light map; it will be changed by this thread's next call
+     */
+    @Override
+    public double[][] calculateFOV(double[][] resistanceMap, int startX, int startY, double radius,
+                                   Radius radiusTechnique) {
+        return solvers.get().calculateFOV(resistanceMap, startX, startY, radius, radiusTechnique);
+    }
+
+    /**
+     * Calculates FOV like {@link FOV#calculateFOV(double[][], int, int, double, Radius, double, double)}, using the
+     * calling thread's own FOV, so this can be called by many threads at once.
+     * @return the calling thread's light map; it will be changed by this thread's next call
+     */
+    @Override
+    public double[][] calculateFOV(double[][] resistanceMap, int startX, int startY, double radius,
+                                   Radius radiusTechnique, double angle, double span) {
+        return solvers.get().calculateFOV(resistanceMap, startX, startY, radius, radiusTechnique, angle, span);
+    }
+
+    /**
+     * The per-thread solvers aren't serialized, so this makes a new ConcurrentFOV of the same type instead.
+     */
+    private Object readResolve() {
+        return new ConcurrentFOV(solverType);
+    }
+}
@@ -0,0 +1,128 @@
+package squidpony.squidgrid;
+
+import squidpony.annotation.GwtIncompatible;
+import squidpony.squidmath.Coord;
+
+import java.util.LinkedList;
+
+/**
+ * An LOS that can be shared by many threads at once, such as the tasks of a fork-join pool that evaluate different AI
+ * agents in parallel. A plain LOS stores the map, endpoints, and path of the line it is checking in its fields, so it
+ * can't be used by two threads at the same time; this class instead gives each thread its own LOS of the same type the
+ * first time that thread uses it, and passes each call on to the calling thread's LOS. Used with
+ * {@link #canSee(double[][], int, int, int, int, Radius)}, nothing is allocated per call after a thread's first.
+ * <br>
+ * Settings made on this object with {@link #setRadiusStrategy(Radius)}, {@link #setVisibilityMatrix(VisibilityMatrix)}
+ * and {@link #setBufferingPath(boolean)} are used by every thread; they should be set before this is shared, not while
+ * other threads are using it. Results that describe the last line checked, like {@link #getLastPath()} and
+ * {@link #getBufferedPathX()}, belong to the calling thread, so each thread sees the path of its own last call.
+ * This class uses ThreadLocal and so isn't available on GWT.
+ */
+@GwtIncompatible
+public class ConcurrentLOS extends LOS {
+    private final ThreadLocal<LOS> solvers;
+
+    /**
+     * Constructs a thread-safe LOS that will draw Bresenham lines and measure distances using the CIRCLE radius
+     * strategy.
+     */
+    public ConcurrentLOS() {
+        this(BRESENHAM);
+    }
+
+    /**
+     * Constructs a thread-safe LOS with the given type number, which must equal a static field in LOS such as
+     * BRESENHAM.
+     * @param type an int that must correspond to the value of a static field in LOS (such as BRESENHAM)
+     */
+    public ConcurrentLOS(final int type) {
+        super(type);
+        solvers = new ThreadLocal<LOS>() {
+            @Override
+            protected LOS initialValue() {
+                return new LOS(type);
+            }
+        };
+    }
+
+    /**
+     * Gets the calling thread's LOS, with the same settings as this one.
+     */
+    private LOS local() {
+        final LOS los = solvers.get();
+        los.setRadiusStrategy(getRadiusStrategy());
+        los.setVisibilityMatrix(getVisibilityMatrix());
+        if(los.isBufferingPath() != isBufferingPath())
+            los.setBufferingPath(isBufferingPath());
+        return los;
+    }
+
+    @Override
+    public boolean isReachable(char[][] walls, int startx, int starty, int targetx, int targety) {
+        return local().isReachable(walls, startx, starty, targetx, targety);
+    }
+
+    @Override
+    public boolean isReachable(double[][] resistanceMap, int startx, int starty, int targetx, int targety) {
+        return local().isReachable(resistanceMap, startx, starty, targetx, targety);
+    }
+
+    @Override
+    public boolean isReachable(double[][] resistanceMap, int startx, int starty, int targetx, int targety,
+                               Radius radiusStrategy) {
+        return local().isReachable(resistanceMap, startx, starty, targetx, targety, radiusStrategy);
+    }
+
+    @Override
+    public boolean isReachable(char[][] walls, int startx, int starty, int targetx, int targety,
+                               Radius radiusStrategy) {
+        return local().isReachable(walls, startx, starty, targetx, targety, radiusStrategy);
+    }
+
+    @Override
+    public boolean canSee(double[][] resistanceMap, int startx, int starty, int targetx, int targety) {
+        return local().canSee(resistanceMap, startx, starty, targetx, targety);
+    }
+
+    @Override
+    public boolean canSee(double[][] resistanceMap, int startx, int starty, int targetx, int targety,
+                          Radius radiusStrategy) {
+        return local().canSee(resistanceMap, startx, starty, targetx, targety, radiusStrategy);
+    }
+
+    @Override
+    public boolean spreadReachable(char[][] walls, int startx, int starty, int targetx, int targety,
+                                   Radius radiusStrategy, int spread) {
+        return local().spreadReachable(walls, startx, starty, targetx, targety, radiusStrategy, spread);
+    }
+
+    @Override
+    public boolean spreadReachable(double[][] resistanceMap, int startx, int starty, int targetx, int targety,
+                                   Radius radiusStrategy, int spread) {
+        return local().spreadReachable(resistanceMap, startx, starty, targetx, targety, radiusStrategy, spread);
+    }
+
+    /**
+     * Returns the path of the calling thread's last LOS calculation, with the starting point as the head of the queue.
+     * @return the calling thread's last path
+     */
+    @Override
+    public LinkedList<Coord> getLastPath() {
+        return solvers.get().getLastPath();
+    }
+
+    @Override
+    public int getBufferedPathLength() {
+        return solvers.get().getBufferedPathLength();
+    }
+
+    @Override
+    public int[] getBufferedPathX() {
+        return solvers.get().getBufferedPathX();
+    }
+
+    @Override
+    public int[] getBufferedPathY() {
+        return solvers.get().getBufferedPathY();
+    }
+}
@@ -3,6 +3,7 @@ package squidpony.squidgrid;
 import squidpony.ArrayTools;
 import squidpony.GwtCompatibility;
 import squidpony.squidmath.Coord;
+import squidpony.squidmath.GreasedRegion;
 
 import java.io.Serializable;
 import java.util.*;
@@ -603,6 +604,53 @@ public class FOV implements Serializable {
         }
         return lightMap;
     }
+    private static void shadowCastRegion(int row, double start, double end, int xx, int xy, int yx, int yy,
+                                         double radius, int startx, int starty, double decay, long[] data,
+                                         int ySections, double[][] map, Radius radiusStrategy) {
+        double newStart = 0;
+        if (start < end) {
+            return;
+        }
+        int width = map.length;
+        int height = map[0].length;
+
+        boolean blocked = false;
+        for (int distance = row; distance <= radius && distance < width + height && !blocked; distance++) {
+            int deltaY = -distance;
+            for (int deltaX = -distance; deltaX <= 0; deltaX++) {
+                int currentX = startx + deltaX * xx + deltaY * xy;
+                int currentY = starty + deltaX * yx + deltaY * yy;
+                double leftSlope = (deltaX - 0.5f) / (deltaY + 0.5f);
+                double rightSlope = (deltaX + 0.5f) / (deltaY - 0.5f);
+
+                if (!(currentX >= 0 && currentY >= 0 && currentX < width && currentY < height) || start < rightSlope) {
+                    continue;
+                } else if (end > leftSlope) {
+                    break;
+                }
+                double deltaRadius = radiusStrategy.radius(deltaX, deltaY);
+                //same test as a light map having a value greater than 0.0
+                if (deltaRadius <= radius && 1 - decay * deltaRadius > 0) {
+                    data[currentX * ySections + (currentY >> 6)] |= 1L << (currentY & 63);
+                }
+
+                if (blocked) { //previous cell was a blocking one
+                    if (map[currentX][currentY] >= 1) {//hit a wall
+                        newStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = newStart;
+                    }
+                } else {
+                    if (map[currentX][currentY] >= 1 && distance < radius) {//hit a wall within sight line
+                        blocked = true;
+                        shadowCastRegion(distance + 1, start, leftSlope, xx, xy, yx, yy, radius, startx, starty, decay, data, ySections, map, radiusStrategy);
+                        newStart = rightSlope;
+                    }
+                }
+            }
+        }
+    }
     private static double[][] shadowCastLimited(int row, double start, double end, int xx, int xy, int yx, int yy,
                                          double radius, int startx, int starty, double decay, double[][] lightMap,
                                          double[][] map, Radius radiusStrategy, double angle, double span) {
@@ -657,6 +705,65 @@ public class FOV implements Serializable {
         return lightMap;
     }
 
+    /**
+     * Calculates which cells are visible from the given x, y coordinates, using
+     * shadowcasting FOV, and stores the result in the given GreasedRegion
+     * instead of a light map. A cell is "on" in the result exactly when it would
+     * have a value greater than 0.0 in the light map that
+     * {@link #reuseFOV(double[][], double[][], int, int, double, Radius)} would
+     * produce. Each cell only takes one bit instead of a double, so this writes
+     * far less memory than a light map, and the result can be combined with
+     * other GreasedRegions (such as the vision of other team members) using
+     * or(), and(), and the like. The visible GreasedRegion is resized to match
+     * resistanceMap if needed, and is cleared before being filled.
+     * <br>
+     * The starting point for the calculation is considered to be at the center
+     * of the origin cell. Radius determinations are determined by the provided
+     * RadiusStrategy.
+     * @param resistanceMap the grid of cells to calculate on; the kind made by DungeonUtility.generateResistances()
+     * @param visible a GreasedRegion that will be modified to contain the visible cells; usually reused between calls
+     * @param startX the horizontal component of the starting location
+     * @param startY the vertical component of the starting location
+     * @param radius the distance the light will extend to
+     * @param radiusTechnique provides a means to calculate the radius as desired
+     * @return visible, after modifications, for chaining
+     */
+    public static GreasedRegion reuseFOV(double[][] resistanceMap, GreasedRegion visible, int startX, int startY,
+                                         double radius, Radius radiusTechnique) {
+        final int width = resistanceMap.length, height = resistanceMap[0].length, ySections = (height + 63) >> 6;
+        visible.resizeAndEmpty(width, height);
+        if(startX < 0 || startY < 0 || startX >= width || startY >= height)
+            return visible;
+        double rad = Math.max(1, radius);
+        double decay = 1.0 / rad;
+        final long[] data = visible.data;
+        data[startX * ySections + (startY >> 6)] |= 1L << (startY & 63);
+        for (Direction d : Direction.DIAGONALS) {
+            shadowCastRegion(1, 1.0, 0.0, 0, d.deltaX, d.deltaY, 0, rad, startX, startY, decay, data, ySections, resistanceMap, radiusTechnique);
+            shadowCastRegion(1, 1.0, 0.0, d.deltaX, 0, 0, d.deltaY, rad, startX, startY, decay, data, ySections, resistanceMap, radiusTechnique);
+        }
+        return visible;
+    }
+
+    /**
+     * Calculates which cells are in line of sight from (startX,startY), with no
+     * limit on distance, and stores the result in the given GreasedRegion; this
+     * is the bitset counterpart to {@link #calculateLOSMap(double[][], int, int)},
+     * and can be intersected with other GreasedRegions to limit them to what can
+     * be seen from the starting point. The visible GreasedRegion is resized to
+     * match resistanceMap if needed, and is cleared before being filled.
+     * @param resistanceMap the grid of cells to calculate on; the kind made by DungeonUtility.generateResistances()
+     * @param visible a GreasedRegion that will be modified to contain the visible cells; usually reused between calls
+     * @param startX the center of the LOS map; typically the player's x-position
+     * @param startY the center of the LOS map; typically the player's y-position
+     * @return visible, after modifications, for chaining
+     */
+    public static GreasedRegion reuseLOS(double[][] resistanceMap, GreasedRegion visible, int startX, int startY)
+    {
+        return reuseFOV(resistanceMap, visible, startX, startY,
+                resistanceMap.length + resistanceMap[0].length, Radius.SQUARE);
+    }
+
     /**
      * Adds multiple FOV maps together in the simplest way possible; does not check line-of-sight between FOV maps.
      * Clamps the highest value for any single position at 1.0.
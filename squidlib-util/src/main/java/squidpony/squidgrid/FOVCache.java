@@ -32,6 +32,11 @@ import static squidpony.squidmath.CoordPacker.*;
  * closed or the player quits, you should call destroy() on this FOVCache to avoid threads possibly lingering after the
  * game should have ended.
  * <br>
+ * For maps that are too large to cache fully, or when the game needs to start immediately, call cacheLazily() instead
+ * of cacheAll(); each cell's FOV and LOS will then be calculated the first time it is needed and kept in a bounded
+ * cache that forgets the least-recently-used cells, with prefetch() available to calculate cells near a moving viewer
+ * ahead of time on this FOVCache's threads.
+ * <br>
  * The FOV calculation this class performs includes a post-processing stage that guarantees symmetry for both LOS and
  * FOV. This works by checking every cell that is within the maximum radius for each non-wall cell, and if any cell A
  * can see cell B, but cell B can not yet see A, then B's cached FOV map will be altered so it can see A. The other
@@ -110,6 +115,12 @@ public class FOVCache extends FOV {
     private double[][] levels;
     protected double decay;
     private Thread performanceThread = null, qualityThread = null;
+    protected boolean lazy;
+    protected int lazyCapacity;
+    private LazyStore<short[][]> lazyFOV;
+    private LazyStore<short[]> lazyLOS;
+    private volatile int lazyGeneration;
+    protected VisibilityMatrix visibility;
     private static final double HALF_PI = Math.PI * 0.5, QUARTER_PI = Math.PI * 0.25125,
             SLIVER_PI = Math.PI * 0.05, PI2 = Math.PI * 2;
 
@@ -537,7 +548,8 @@ public class FOVCache extends FOV {
         {
             return ALL_WALL;
         }
-        return pack(fov.calculateFOV(resMap, viewerX, viewerY, maxLOSRadius, radiusKind));
+        // the shared fov field isn't safe to use from several threads, so this gets its own light map
+        return pack(FOV.reuseFOV(resMap, new double[width][height], viewerX, viewerY, maxLOSRadius, radiusKind));
     }
 
     /**
@@ -571,30 +583,244 @@ public class FOVCache extends FOV {
     }
     public short[][] getCacheEntry(int x, int y)
     {
-        return cache[x + y * width];
+        return fovEntry(x, y);
     }
     public short[] getCacheEntry(int x, int y, int radius)
     {
-        return cache[x + y * width][maxRadius - radius];
+        return fovEntry(x, y)[maxRadius - radius];
     }
 
     public short[] getLOSEntry(int x, int y)
     {
-        return losCache[x + y * width];
+        return losEntry(x, y);
     }
 
     public boolean queryCache(int visionRange, int viewerX, int viewerY, int targetX, int targetY)
     {
-        return queryPacked(cache[viewerX + viewerY  * width][maxRadius - visionRange], targetX, targetY);
+        return queryPacked(fovEntry(viewerX, viewerY)[maxRadius - visionRange], targetX, targetY);
     }
     public boolean isCellVisible(int visionRange, int viewerX, int viewerY, int targetX, int targetY)
     {
-        return queryPacked(cache[viewerX + viewerY  * width][maxRadius - visionRange], targetX, targetY) ||
-                queryPacked(cache[targetX + targetY  * width][maxRadius - visionRange], viewerX, viewerY);
+        return queryPacked(fovEntry(viewerX, viewerY)[maxRadius - visionRange], targetX, targetY) ||
+                queryPacked(fovEntry(targetX, targetY)[maxRadius - visionRange], viewerX, viewerY);
     }
     public boolean queryLOS(int viewerX, int viewerY, int targetX, int targetY)
     {
-        return queryPacked(losCache[viewerX + viewerY  * width], targetX, targetY);
+        final VisibilityMatrix vm = visibility;
+        if(vm != null && vm.covers(viewerX, viewerY, targetX, targetY))
+            return vm.isVisible(viewerX, viewerY, targetX, targetY);
+        return queryPacked(losEntry(viewerX, viewerY), targetX, targetY);
+    }
+
+    /**
+     * Makes queryLOS() answer from the given VisibilityMatrix (usually made by {@link VisibilityMatrixTools#fromCache}
+     * from this FOVCache, or loaded from a file) for any pair of cells it covers, as a single bit test instead of
+     * searching a packed LOS entry. The VisibilityMatrix is symmetric, so a viewer is considered able to see a target
+     * if the target could see the viewer. Calling refreshCache() removes it, since the map it was made for has changed.
+     * @param visibility a VisibilityMatrix for this map, or null to stop using one
+     */
+    public void setVisibilityMatrix(VisibilityMatrix visibility)
+    {
+        if(visibility != null && (visibility.width != width || visibility.height != height))
+            throw new IllegalArgumentException("VisibilityMatrix must have the same size as the map");
+        this.visibility = visibility;
+    }
+
+    /**
+     * @return the VisibilityMatrix used by queryLOS(), or null if there isn't one
+     */
+    public VisibilityMatrix getVisibilityMatrix()
+    {
+        return visibility;
+    }
+
+    /**
+     * Switches this FOVCache to lazy mode, keeping up to 1024 FOV entries and 1024 LOS entries; see
+     * {@link #cacheLazily(int)}.
+     */
+    public void cacheLazily()
+    {
+        cacheLazily(1024);
+    }
+
+    /**
+     * Switches this FOVCache to lazy mode, where nothing is calculated up front and the FOV or LOS for a cell is
+     * calculated and packed the first time it is requested by getCacheEntry(), getLOSEntry(), queryCache(), queryLOS(),
+     * or any other method that reads from the cache. Only the most recently used capacity FOV entries and capacity LOS
+     * entries are kept, so memory use depends on the area that viewers actually visit instead of the size of the map,
+     * and this FOVCache can be used immediately after it is constructed. Entries calculated lazily don't get the
+     * symmetry and distant lighting pass that cacheAll() performs, so they match calculatePackedSlopeShadowFOV() and
+     * calculatePackedLOS() exactly. Lazy entries may be requested from multiple threads at once. If cacheAll() is
+     * called later and finishes, the full cache is used instead of the lazy one. Use {@link #prefetch(int, int, int)}
+     * to calculate entries around a moving viewer before they are needed.
+     * @param capacity the most FOV entries (and separately, LOS entries) to keep at once; should be at least 1
+     */
+    public void cacheLazily(int capacity)
+    {
+        lazyCapacity = Math.max(1, capacity);
+        lazyFOV = new LazyStore<>(lazyCapacity);
+        lazyLOS = new LazyStore<>(lazyCapacity);
+        lazy = true;
+    }
+
+    /**
+     * @return true if {@link #cacheLazily(int)} has been called, so entries are calculated when first requested
+     */
+    public boolean isLazy()
+    {
+        return lazy;
+    }
+
+    /**
+     * Gets how many FOV entries the lazy cache currently holds; this is always 0 if this is not in lazy mode.
+     * @return the number of lazily-calculated FOV entries currently stored, at most the capacity given to cacheLazily()
+     */
+    public int getLazyCount()
+    {
+        if(!lazy)
+            return 0;
+        synchronized (lazyFOV) {
+            return lazyFOV.size();
+        }
+    }
+
+    /**
+     * In lazy mode, calculates the FOV and LOS entries for every walkable cell within radius (measured as Chebyshev
+     * distance) of x,y that is not already cached, using this FOVCache's threads. This method returns immediately,
+     * and any queries made while the entries are still being calculated will calculate them on the calling thread, so
+     * calling this for a creature's position each time it moves keeps the cells it will probably step into ready
+     * without ever blocking. Does nothing if this is not in lazy mode or if the full cache has been completed.
+     * @param x the x position of the center of the area to calculate
+     * @param y the y position of the center of the area to calculate
+     * @param radius how far from x,y (in each direction) to calculate entries; should be small, like 1 to 3
+     */
+    public void prefetch(int x, int y, int radius)
+    {
+        if(!lazy || complete)
+            return;
+        Integer key;
+        for (int i = Math.max(0, x - radius); i <= x + radius && i < width; i++) {
+            for (int j = Math.max(0, y - radius); j <= y + radius && j < height; j++) {
+                if(resMap[i][j] >= 1.0)
+                    continue;
+                key = i + j * width;
+                synchronized (lazyFOV) {
+                    if(lazyFOV.containsKey(key) && lazyLOS.containsKey(key))
+                        continue;
+                }
+                executor.submit(new LazyUnit(key));
+            }
+        }
+    }
+
+    /**
+     * Gets the cached FOV for x,y, calculating it if this is in lazy mode and it isn't cached yet.
+     * @param x the x position of the viewer
+     * @param y the y position of the viewer
+     * @return a multi-packed series of progressively wider FOV radii
+     */
+    protected short[][] fovEntry(int x, int y)
+    {
+        if(!lazy || complete)
+            return cache[x + y * width];
+        if(x < 0 || y < 0 || x >= width || y >= height || resMap[x][y] >= 1.0)
+            return ALL_WALLS;
+        final Integer key = x + y * width;
+        short[][] entry;
+        synchronized (lazyFOV) {
+            entry = lazyFOV.get(key);
+        }
+        if(entry == null)
+        {
+            final int generation = lazyGeneration;
+            entry = calculatePackedSlopeShadowFOV(x, y);
+            synchronized (lazyFOV) {
+                if(generation == lazyGeneration)
+                    lazyFOV.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the cached LOS for x,y, calculating it if this is in lazy mode and it isn't cached yet.
+     * @param x the x position of the viewer
+     * @param y the y position of the viewer
+     * @return a packed FOV map for radius equal to maxLOSRadius
+     */
+    protected short[] losEntry(int x, int y)
+    {
+        if(!lazy || complete)
+            return losCache[x + y * width];
+        if(x < 0 || y < 0 || x >= width || y >= height || resMap[x][y] >= 1.0)
+            return ALL_WALL;
+        final Integer key = x + y * width;
+        short[] entry;
+        synchronized (lazyFOV) {
+            entry = lazyLOS.get(key);
+        }
+        if(entry == null)
+        {
+            final int generation = lazyGeneration;
+            entry = calculatePackedLOS(x, y);
+            synchronized (lazyFOV) {
+                if(generation == lazyGeneration)
+                    lazyLOS.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Calculates and stores the lazy FOV and LOS entries for a cell, if they aren't already stored.
+     * @param index an int that stores the x,y center of FOV as calculated by: x + y * width
+     * @return the time taken, in milliseconds
+     */
+    protected long storeCellLazy(int index) {
+        long startTime = System.currentTimeMillis();
+        fovEntry(index % width, index / width);
+        losEntry(index % width, index / width);
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Finds every cell where res differs from the current resistance map.
+     * @param res a resistance map with the same size as this FOVCache's map
+     * @return the positions of all cells with a different resistance in res
+     */
+    protected Coord[] findChanges(double[][] res)
+    {
+        ArrayList<Coord> changes = new ArrayList<>(16);
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                if(resMap[i][j] != res[i][j])
+                    changes.add(Coord.get(i, j));
+            }
+        }
+        return changes.toArray(new Coord[changes.size()]);
+    }
+
+    /**
+     * Checks whether x,y is close enough to any of changes for its FOV (limited to maxRadius) to include that change.
+     */
+    private boolean nearChange(int x, int y, Coord[] changes)
+    {
+        for (int i = 0; i < changes.length; i++) {
+            if(Math.abs(changes[i].x - x) <= maxRadius && Math.abs(changes[i].y - y) <= maxRadius)
+                return true;
+        }
+        return false;
+    }
+
+    private short[] packWalls(double[][] res)
+    {
+        boolean[][] walls = new boolean[width][height];
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                walls[i][j] = res[i][j] >= 1.0;
+            }
+        }
+        return pack(walls);
     }
 
     private long arrayMemoryUsage(int length, long bytesPerItem)
@@ -610,7 +836,8 @@ public class FOVCache extends FOV {
     {
         int ctr = 0;
         for (int i = 0; i < arr.length; i++) {
-            ctr += arrayMemoryUsage(arr[i].length, 2);
+            if(arr[i] != null)
+                ctr += arrayMemoryUsage(arr[i].length, 2);
         }
         return (((ctr + 12 - 1) / 8) + 1) * 8;
     }
@@ -618,10 +845,22 @@ public class FOVCache extends FOV {
     {
         long ctr = 0;
         for (int i = 0; i < cache.length; i++) {
-            ctr += arrayMemoryUsageJagged(cache[i]);
+            if(cache[i] != null)
+                ctr += arrayMemoryUsageJagged(cache[i]);
         }
         ctr = (((ctr + 12L - 1L) / 8L) + 1L) * 8L;
         ctr += (((arrayMemoryUsageJagged(losCache) + 12L - 1L) / 8L) + 1L) * 8L;
+        if(lazy && !complete)
+        {
+            synchronized (lazyFOV) {
+                for (short[][] entry : lazyFOV.values()) {
+                    ctr += arrayMemoryUsageJagged(entry);
+                }
+                for (short[] entry : lazyLOS.values()) {
+                    ctr += arrayMemoryUsage(entry.length, 2);
+                }
+            }
+        }
         return ctr;
     }
 
@@ -1290,9 +1529,47 @@ public class FOVCache extends FOV {
      * to the FOVCache constructor. It runs these on another thread, without interrupting this one. Before using the
      * cache, you should call awaitRefresh() to ensure this method has finished on its own thread, but be aware that
      * this will cause the thread that calls awaitRefresh() to essentially freeze until FOV calculations are over.
+     * <br>
+     * Only the entries that could be affected are recalculated: FOV for cells within maxRadius of a changed cell, and
+     * LOS for changed cells and for cells whose cached LOS included a changed cell (if a cell couldn't see any changed
+     * cell before, the change can't alter what it sees). A few changed cells, like a door closing or a wall being
+     * dug out, only cost the work for the area around them. In lazy mode, the affected entries are simply forgotten
+     * and will be recalculated when next requested.
      */
     public void refreshCache(char[][] newMap)
     {
+        visibility = null;
+        if(lazy && !complete)
+        {
+            double[][] res = DungeonUtility.generateResistances(newMap);
+            synchronized (lazyFOV) {
+                Coord[] changes = findChanges(res);
+                if(changes.length > 0) {
+                    short[] changed = packSeveral(changes);
+                    Iterator<Map.Entry<Integer, short[][]>> fovIt = lazyFOV.entrySet().iterator();
+                    int idx;
+                    while (fovIt.hasNext()) {
+                        idx = fovIt.next().getKey();
+                        if (nearChange(idx % width, idx / width, changes))
+                            fovIt.remove();
+                    }
+                    Iterator<Map.Entry<Integer, short[]>> losIt = lazyLOS.entrySet().iterator();
+                    Map.Entry<Integer, short[]> e;
+                    while (losIt.hasNext()) {
+                        e = losIt.next();
+                        idx = e.getKey();
+                        if (res[idx % width][idx / width] != resMap[idx % width][idx / width]
+                                || intersectPacked(e.getValue(), changed).length > 0)
+                            losIt.remove();
+                    }
+                    resMap = res;
+                    wallMap = packWalls(res);
+                    lazyGeneration++;
+                }
+            }
+            refreshComplete = true;
+            return;
+        }
         performanceThread = new Thread(new RefreshUnit(newMap));
         performanceThread.start();
     }
@@ -1306,6 +1583,13 @@ public class FOVCache extends FOV {
      */
     public boolean awaitRefresh(char[][] newMap)
     {
+        if(lazy && !complete)
+        {
+            if(!refreshComplete)
+                refreshCache(newMap);
+            refreshComplete = false;
+            return true;
+        }
         if(!performanceThread.isAlive() && !refreshComplete)
             refreshCache(newMap);
         if(refreshComplete) return true;
@@ -1383,8 +1667,8 @@ public class FOVCache extends FOV {
      */
     @Override
     public double[][] calculateFOV(double[][] resistanceMap, int startx, int starty) {
-        if(qualityComplete || complete)
-            return unpackDouble(losCache[startx + starty * width], width, height);
+        if(qualityComplete || complete || lazy)
+            return unpackDouble(losEntry(startx, starty), width, height);
         else
             return fov.calculateFOV(resMap, startx, starty, maxRadius, radiusKind);
     }
@@ -1523,8 +1807,8 @@ public class FOVCache extends FOV {
      */
     @Override
 	public double[][] calculateFOV(double[][] resistanceMap, int startx, int starty, double radius) {
-        if((qualityComplete || complete) && radius > 0 && radius <= maxRadius)
-            return unpackMultiDoublePartial(cache[startx + starty * width], width, height,
+        if((qualityComplete || complete || lazy) && radius > 0 && radius <= maxRadius)
+            return unpackMultiDoublePartial(fovEntry(startx, starty), width, height,
                     levels[(int) Math.round(radius)], (int) Math.round(radius));
         else
             return gradedFOV.calculateFOV(resMap, startx, starty, radius, radiusKind);
@@ -1561,9 +1845,9 @@ public class FOVCache extends FOV {
     @Override
 	public double[][] calculateFOV(double[][] resistanceMap, int startX, int startY, double radius,
                                    Radius radiusTechnique) {
-        if((qualityComplete || complete) && radius > 0 && radius <= maxRadius &&
+        if((qualityComplete || complete || lazy) && radius > 0 && radius <= maxRadius &&
                 radiusKind.equals2D(radiusTechnique))
-            return unpackMultiDoublePartial(cache[startX + startY * width], width, height,
+            return unpackMultiDoublePartial(fovEntry(startX, startY), width, height,
                     levels[(int) Math.round(radius)], (int) Math.round(radius));
         else
             return gradedFOV.calculateFOV(resMap, startX, startY, radius, radiusTechnique);
@@ -1605,9 +1889,9 @@ public class FOVCache extends FOV {
     @Override
 	public double[][] calculateFOV(double[][] resistanceMap, int startX, int startY, double radius,
                                    Radius radiusTechnique, double angle, double span) {
-        if((qualityComplete || complete) && radius > 0 && radius <= maxRadius &&
+        if((qualityComplete || complete || lazy) && radius > 0 && radius <= maxRadius &&
                 radiusKind.equals2D(radiusTechnique))
-            return unpackMultiDoublePartialConical(cache[startX + startY * width], width, height,
+            return unpackMultiDoublePartialConical(fovEntry(startX, startY), width, height,
                     levels[(int) Math.round(radius)], (int) Math.round(radius), startX, startY, angle, span);
         else
             return gradedFOV.calculateFOV(resMap, startX, startY, radius, radiusTechnique, angle, span);
@@ -1628,11 +1912,11 @@ public class FOVCache extends FOV {
      */
     public Coord[] calculateLOS(int startX, int startY, int endX, int endY)
     {
-        if(!complete || startX < 0 || startX >= width || startY < 0 || startY >= height)
+        if((!complete && !lazy) || startX < 0 || startX >= width || startY < 0 || startY >= height)
             return new Coord[0];
         int max = distance(endX - startX, endY - startY);
         ArrayList<Coord> path = new ArrayList<>(max / 2 + 1);
-        short[] losCached = losCache[startX + startY * width];
+        short[] losCached = losEntry(startX, startY);
         if(losCached.length == 0)
             return new Coord[0];
         boolean on = false;
@@ -1712,7 +1996,7 @@ public class FOVCache extends FOV {
      */
     public short[][] pathFOVPacked(List<Coord> path, int fovRange)
     {
-        if(!complete)
+        if(!complete && !lazy)
             throw new IllegalStateException("Cache is not yet constructed");
         if(fovRange > maxRadius)
             throw new UnsupportedOperationException("Given fovRange parameter exceeds maximum cached range");
@@ -1725,11 +2009,11 @@ public class FOVCache extends FOV {
                 + c);
             if(idx == 0)
             {
-                fovSteps[idx] = cache[c.x + c.y * width][maxRadius - fovRange];
+                fovSteps[idx] = fovEntry(c.x, c.y)[maxRadius - fovRange];
             }
             else
             {
-                fovSteps[idx] = unionPacked(fovSteps[idx - 1], cache[c.x + c.y * width][maxRadius - fovRange]);
+                fovSteps[idx] = unionPacked(fovSteps[idx - 1], fovEntry(c.x, c.y)[maxRadius - fovRange]);
             }
             idx++;
         }
@@ -1773,7 +2057,7 @@ public class FOVCache extends FOV {
      */
     public short[] teamFOVPacked(Map<Coord, Integer> team)
     {
-        if(!complete)
+        if(!complete && !lazy)
             throw new IllegalStateException("Cache is not yet constructed");
         short[] packing = new short[0];
         int idx = 0;
@@ -1788,11 +2072,11 @@ public class FOVCache extends FOV {
                         + c);
             if(idx == 0)
             {
-                packing = cache[c.x + c.y * width][maxRadius - range];
+                packing = fovEntry(c.x, c.y)[maxRadius - range];
             }
             else
             {
-                packing = unionPacked(packing, cache[c.x + c.y * width][maxRadius - range]);
+                packing = unionPacked(packing, fovEntry(c.x, c.y)[maxRadius - range]);
             }
             idx++;
         }
@@ -1830,6 +2114,10 @@ public class FOVCache extends FOV {
         return maxRadius;
     }
 
+    public int getMaxLOSRadius() {
+        return maxLOSRadius;
+    }
+
     public Radius getRadiusKind() {
         return radiusKind;
     }
@@ -2021,29 +2309,32 @@ public class FOVCache extends FOV {
         @Override
         public void run() {
             System.arraycopy(cache, 0, tmpCache, 0, tmpCache.length);
-            short[] needsChange = new short[0];
-            for (int i = 0; i < width; i++) {
-                for (int j = 0; j < height; j++) {
-                    if(resMap[i][j] != res[i][j])
-                    {
-                        needsChange = unionPacked(needsChange, losCache[i + j * width]);
-                    }
-                }
-            }
-            needsChange = differencePacked(needsChange, wallMap);
-            resMap = res;
-            Coord[] changingCoords = allPacked(needsChange);
-            List<LOSUnit> losUnits = new ArrayList<>(changingCoords.length);
-            List<FOVUnit> fovUnits = new ArrayList<>(changingCoords.length);
-            List<SymmetryUnit> symUnits = new ArrayList<>(changingCoords.length);
-
-            for (int i = 0, idx; i < changingCoords.length; i++)
+            Coord[] changes = findChanges(res);
+            if(changes.length == 0)
             {
-                idx = changingCoords[i].x + changingCoords[i].y * width;
-                losUnits.add(new LOSUnit(idx));
-                fovUnits.add(new FOVUnit(idx));
-                symUnits.add(new SymmetryUnit(idx));
+                refreshComplete = true;
+                return;
+            }
+            short[] changed = packSeveral(changes);
+            List<LOSUnit> losUnits = new ArrayList<>(changes.length * 16);
+            List<FOVUnit> fovUnits = new ArrayList<>(changes.length * 16);
+            List<SymmetryUnit> symUnits = new ArrayList<>(changes.length * 16);
+            boolean needsLOS, needsFOV;
+            for (int idx = 0, x, y; idx < mapLimit; idx++) {
+                x = idx % width;
+                y = idx / width;
+                needsLOS = resMap[x][y] != res[x][y]
+                        || (losCache[idx] != null && intersectPacked(losCache[idx], changed).length > 0);
+                needsFOV = nearChange(x, y, changes);
+                if(needsLOS)
+                    losUnits.add(new LOSUnit(idx));
+                if(needsFOV)
+                    fovUnits.add(new FOVUnit(idx));
+                if(needsLOS || needsFOV)
+                    symUnits.add(new SymmetryUnit(idx));
             }
+            resMap = res;
+            wallMap = packWalls(res);
 
             try {
                 final List<Future<Long>> invoke = executor.invokeAll(losUnits);
@@ -2143,6 +2434,48 @@ public class FOVCache extends FOV {
         }
     }
 
+    @GwtIncompatible
+    protected class LazyUnit implements Callable<Long>
+    {
+        protected int index;
+        public LazyUnit(int index)
+        {
+            this.index = index;
+        }
+
+        /**
+         * Computes a result, or throws an exception if unable to do so.
+         *
+         * @return computed result
+         * @throws Exception if unable to compute a result
+         */
+        @Override
+        public Long call() throws Exception {
+            return storeCellLazy(index);
+        }
+    }
+
+    /**
+     * A LinkedHashMap in access order that removes its least-recently-used entry when it grows past capacity. All
+     * access must be synchronized on the lazyFOV store.
+     */
+    @GwtIncompatible
+    private static final class LazyStore<V> extends LinkedHashMap<Integer, V>
+    {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+        LazyStore(int capacity)
+        {
+            super(Math.min(capacity, 1024) * 4 / 3 + 1, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+            return size() > capacity;
+        }
+    }
+
     /**
      * Shuts down any threads that may prevent the game from closing properly.
      * It is recommended you call this at the end of the program to avoid threads lingering too long.
@@ -2150,8 +2483,10 @@ public class FOVCache extends FOV {
      */
     public void destroy()
     {
-        performanceThread.interrupt();
-        qualityThread.interrupt();
+        if(performanceThread != null)
+            performanceThread.interrupt();
+        if(qualityThread != null)
+            qualityThread.interrupt();
         executor.shutdown();
     }
 }
@@ -81,6 +81,12 @@ public class LOS {
     private double[][] resistanceMap;
     private int startx, starty, targetx, targety;
     private Elias elias = null;
+    private VisibilityMatrix visibility = null;
+    private boolean bufferingPath = false;
+    private int[] bufferX = new int[0], bufferY = new int[0];
+    private int bufferLength = 0;
+    private final double[] thickForces = new double[4];
+    private static final int[] THICK_X = {0x3fff, 0x3fff, 0xbfff, 0xbfff}, THICK_Y = {0x3fff, 0xbfff, 0x3fff, 0xbfff};
 
     /**
      * Gets the radius strategy this uses.
@@ -100,6 +106,77 @@ public class LOS {
 
     private Radius radiusStrategy = Radius.CIRCLE;
 
+    /**
+     * Gets the VisibilityMatrix this uses to answer isReachable() quickly, if one was set.
+     * @return the current VisibilityMatrix, or null if none is used
+     */
+    public VisibilityMatrix getVisibilityMatrix() {
+        return visibility;
+    }
+
+    /**
+     * Sets a precomputed VisibilityMatrix that isReachable() will use instead of drawing a line, whenever the map
+     * given to isReachable() has the same size as the VisibilityMatrix and it covers both cells. Those answers come
+     * from the symmetric shadowcasting LOS the VisibilityMatrix was built from rather than from this LOS's line type,
+     * and leave {@link #getLastPath()} empty, so don't set one if you need the path. The VisibilityMatrix must have
+     * been built for the same map that is passed to isReachable(). Pass null to always draw lines again.
+     * @param visibility a VisibilityMatrix for the map this will be used on, or null
+     */
+    public void setVisibilityMatrix(VisibilityMatrix visibility) {
+        this.visibility = visibility;
+    }
+
+    /**
+     * Checks whether {@link #canSee(double[][], int, int, int, int, Radius)} records the cells its line passes
+     * through; false by default.
+     * @return true if canSee() stores its path in the buffers from {@link #getBufferedPathX()} and
+     * {@link #getBufferedPathY()}
+     */
+    public boolean isBufferingPath() {
+        return bufferingPath;
+    }
+
+    /**
+     * Sets whether {@link #canSee(double[][], int, int, int, int, Radius)} should record the cells its line passes
+     * through, in the same order and with the same cells that {@link #getLastPath()} would have after isReachable().
+     * The path is stored as x and y positions in two int arrays that are reused between calls (and only grown when a
+     * longer line needs them), so recording it doesn't create any Coord or list objects. Use
+     * {@link #getBufferedPathLength()} to know how many items in {@link #getBufferedPathX()} and
+     * {@link #getBufferedPathY()} belong to the last path.
+     * @param bufferingPath true if canSee() should record its path; false (the default) if only the result is needed
+     */
+    public void setBufferingPath(boolean bufferingPath) {
+        this.bufferingPath = bufferingPath;
+        bufferLength = 0;
+    }
+
+    /**
+     * @return how many cells the last call to canSee() recorded, or 0 if it wasn't buffering its path
+     */
+    public int getBufferedPathLength() {
+        return bufferLength;
+    }
+
+    /**
+     * Gets the x positions of the path recorded by the last call to canSee() when buffering is on; only the first
+     * {@link #getBufferedPathLength()} items are part of that path. This array is reused (or replaced with a larger
+     * one) by the next call, so don't keep it if you need the path later.
+     * @return the int array of x positions; do not modify it
+     */
+    public int[] getBufferedPathX() {
+        return bufferX;
+    }
+
+    /**
+     * Gets the y positions of the path recorded by the last call to canSee() when buffering is on; only the first
+     * {@link #getBufferedPathLength()} items are part of that path. This array is reused (or replaced with a larger
+     * one) by the next call, so don't keep it if you need the path later.
+     * @return the int array of y positions; do not modify it
+     */
+    public int[] getBufferedPathY() {
+        return bufferY;
+    }
+
     /**
      * Constructs an LOS that will draw Bresenham lines and measure distances using the CIRCLE radius strategy.
      */
@@ -132,6 +209,8 @@ public class LOS {
      */
     public boolean isReachable(char[][] walls, int startx, int starty, int targetx, int targety) {
         if(walls.length < 1) return false;
+        if(precomputed(walls.length, walls[0].length, startx, starty, targetx, targety))
+            return visibility.isVisible(startx, starty, targetx, targety);
         double[][] resMap = new double[walls.length][walls[0].length];
         for(int x = 0; x < walls.length; x++)
         {
@@ -176,6 +255,8 @@ public class LOS {
      */
     public boolean isReachable(double[][] resistanceMap, int startx, int starty, int targetx, int targety, Radius radiusStrategy) {
         if(resistanceMap.length < 1) return false;
+        if(precomputed(resistanceMap.length, resistanceMap[0].length, startx, starty, targetx, targety))
+            return visibility.isVisible(startx, starty, targetx, targety);
         this.resistanceMap = resistanceMap;
         this.startx = startx;
         this.starty = starty;
@@ -214,6 +295,8 @@ public class LOS {
      */
     public boolean isReachable(char[][] walls, int startx, int starty, int targetx, int targety, Radius radiusStrategy) {
         if(walls.length < 1) return false;
+        if(precomputed(walls.length, walls[0].length, startx, starty, targetx, targety))
+            return visibility.isVisible(startx, starty, targetx, targety);
         double[][] resMap = new double[walls.length][walls[0].length];
         for(int x = 0; x < walls.length; x++)
         {
@@ -225,6 +308,66 @@ public class LOS {
         return isReachable(resMap, startx, starty, targetx, targety, radiusStrategy);
     }
 
+    /**
+     * Returns true if a line can be drawn from the start point to the target point without intervening obstructions,
+     * exactly like {@link #isReachable(double[][], int, int, int, int)}, but without storing the path in
+     * {@link #getLastPath()}. Uses RadiusStrategy.CIRCLE, or whatever RadiusStrategy was set with setRadiusStrategy.
+     *
+     * @param resistanceMap 0.0 is fully transparent, 1.0 is fully opaque, as always this uses x,y indexing.
+     * @param startx starting x position on the grid
+     * @param starty starting y position on the grid
+     * @param targetx ending x position on the grid
+     * @param targety ending y position on the grid
+     * @return true if a line can be drawn without being obstructed, false otherwise
+     * @see #canSee(double[][], int, int, int, int, Radius) the overload this calls, for more information
+     */
+    public boolean canSee(double[][] resistanceMap, int startx, int starty, int targetx, int targety) {
+        return canSee(resistanceMap, startx, starty, targetx, targety, radiusStrategy);
+    }
+
+    /**
+     * Returns true if a line can be drawn from the start point to the target point without intervening obstructions,
+     * exactly like {@link #isReachable(double[][], int, int, int, int, Radius)}, but without storing the path in
+     * {@link #getLastPath()}. For the BRESENHAM, DDA, ORTHO, and THICK types, this walks the line directly instead of
+     * drawing it first, and doesn't allocate anything, so it is the better choice when the same LOS object is used to
+     * check many lines and only the results matter. If a VisibilityMatrix was set with
+     * {@link #setVisibilityMatrix(VisibilityMatrix)}, it is used the same way as in isReachable(). Other types call
+     * isReachable(). If {@link #setBufferingPath(boolean)} was given true, the path is recorded in reusable int arrays.
+     *
+     * @param resistanceMap 0.0 is fully transparent, 1.0 is fully opaque, as always this uses x,y indexing.
+     * @param startx starting x position on the grid
+     * @param starty starting y position on the grid
+     * @param targetx ending x position on the grid
+     * @param targety ending y position on the grid
+     * @param radiusStrategy the strategy to use in computing unit distance
+     * @return true if a line can be drawn without being obstructed, false otherwise
+     */
+    public boolean canSee(double[][] resistanceMap, int startx, int starty, int targetx, int targety, Radius radiusStrategy) {
+        bufferLength = 0;
+        if(resistanceMap.length < 1) return false;
+        if(covered(resistanceMap.length, resistanceMap[0].length, startx, starty, targetx, targety))
+            return visibility.isVisible(startx, starty, targetx, targety);
+        switch (type) {
+            case BRESENHAM:
+                return bresenhamSees(resistanceMap, startx, starty, targetx, targety, radiusStrategy);
+            case ORTHO:
+                return orthoSees(resistanceMap, startx, starty, targetx, targety, radiusStrategy);
+            case DDA:
+                return ddaSees(resistanceMap, startx, starty, targetx, targety, radiusStrategy);
+            case THICK:
+                return thickSees(resistanceMap, startx, starty, targetx, targety, radiusStrategy);
+        }
+        boolean reached = isReachable(resistanceMap, startx, starty, targetx, targety, radiusStrategy);
+        if(bufferingPath) {
+            ensureBuffer(lastPath.size());
+            for (Coord p : lastPath) {
+                bufferX[bufferLength] = p.x;
+                bufferY[bufferLength++] = p.y;
+            }
+        }
+        return reached;
+    }
+
     /**
      * Returns true if a line can be drawn from the any of the points within spread cells of the start point,
      * to any of the corresponding points at the same direction and distance from the target point, without
@@ -289,6 +432,231 @@ public class LOS {
     public LinkedList<Coord> getLastPath() {
         return lastPath;
     }
+
+    /**
+     * Checks whether the VisibilityMatrix, if set, can answer for these cells on a map of this size; if so, the last
+     * path is cleared, since no line will be drawn.
+     */
+    private boolean precomputed(int width, int height, int startx, int starty, int targetx, int targety) {
+        if(!covered(width, height, startx, starty, targetx, targety))
+            return false;
+        lastPath = new LinkedList<>();
+        return true;
+    }
+
+    private boolean covered(int width, int height, int startx, int starty, int targetx, int targety) {
+        return visibility != null && visibility.width == width && visibility.height == height
+                && visibility.covers(startx, starty, targetx, targety);
+    }
+
+    private void ensureBuffer(int size) {
+        if(bufferX.length < size) {
+            bufferX = new int[Math.max(size, bufferX.length << 1)];
+            bufferY = new int[bufferX.length];
+        }
+    }
+
+    private void record(int x, int y) {
+        bufferX[bufferLength] = x;
+        bufferY[bufferLength++] = y;
+    }
+
+    /**
+     * Records a cell unless it was already recorded at or after index since; used by thick lines, where the lines for
+     * the different corners can share cells, but only at the same step.
+     */
+    private void recordOnce(int x, int y, int since) {
+        for (int i = since; i < bufferLength; i++) {
+            if(bufferX[i] == x && bufferY[i] == y)
+                return;
+        }
+        record(x, y);
+    }
+
+    /**
+     * Walks the same line as {@link Bresenham#line2D_(int, int, int, int)} and checks it like bresenhamReachable().
+     */
+    private boolean bresenhamSees(double[][] resistanceMap, int startx, int starty, int targetx, int targety,
+                                  Radius radiusStrategy) {
+        int dx = targetx - startx, dy = targety - starty;
+        final int signx = (dx > 0) ? 1 : (dx < 0) ? -1 : 0, signy = (dy > 0) ? 1 : (dy < 0) ? -1 : 0;
+        final int ax = (dx = Math.abs(dx)) << 1, ay = (dy = Math.abs(dy)) << 1;
+        double rad = radiusStrategy.radius(startx, starty, targetx, targety);
+        if(bufferingPath) ensureBuffer(Math.max(dx, dy) + 1);
+        if(rad == 0.0) {
+            if(bufferingPath) record(startx, starty);
+            return true; // already at the point; we can see our own feet just fine!
+        }
+        final double decay = 1 / rad;
+        double currentForce = 1;
+        int x = startx, y = starty;
+        if (ax >= ay) /* x dominant */ {
+            int deltay = ay - (ax >> 1);
+            for (int i = 0; i <= dx; i++) {
+                if(bufferingPath) record(x, y);
+                if (x == targetx && y == targety) {
+                    return true;//reached the end
+                }
+                if (x != startx || y != starty) {//don't discount the start location even if on resistant cell
+                    currentForce -= resistanceMap[x][y];
+                }
+                if (currentForce - (radiusStrategy.radius(startx, starty, x, y) * decay) <= 0) {
+                    return false;//too much resistance
+                }
+                if (deltay >= 0) {
+                    y += signy;
+                    deltay -= ax;
+                }
+                x += signx;
+                deltay += ay;
+            }
+        } else /* y dominant */ {
+            int deltax = ax - (ay >> 1);
+            for (int i = 0; i <= dy; i++) {
+                if(bufferingPath) record(x, y);
+                if (x == targetx && y == targety) {
+                    return true;//reached the end
+                }
+                if (x != startx || y != starty) {//don't discount the start location even if on resistant cell
+                    currentForce -= resistanceMap[x][y];
+                }
+                if (currentForce - (radiusStrategy.radius(startx, starty, x, y) * decay) <= 0) {
+                    return false;//too much resistance
+                }
+                if (deltax >= 0) {
+                    x += signx;
+                    deltax -= ay;
+                }
+                y += signy;
+                deltax += ax;
+            }
+        }
+        return false;//never got to the target point
+    }
+
+    /**
+     * Walks the same line as {@link OrthoLine#line_(int, int, int, int)} and checks it like orthoReachable().
+     */
+    private boolean orthoSees(double[][] resistanceMap, int startx, int starty, int targetx, int targety,
+                              Radius radiusStrategy) {
+        final int dx = targetx - startx, dy = targety - starty, nx = Math.abs(dx), ny = Math.abs(dy);
+        final int signX = (dx > 0) ? 1 : -1, signY = (dy > 0) ? 1 : -1;
+        double rad = radiusStrategy.radius(startx, starty, targetx, targety);
+        if(bufferingPath) ensureBuffer(nx + ny + 1);
+        if(rad == 0.0) {
+            if(bufferingPath) record(startx, starty);
+            return true; // already at the point; we can see our own feet just fine!
+        }
+        final double decay = 1 / rad;
+        double currentForce = 1;
+        int x = startx, y = starty;
+        for (int ix = 0, iy = 0; ; ) {
+            if(bufferingPath) record(x, y);
+            if (x == targetx && y == targety) {
+                return true;//reached the end
+            }
+            if (x != startx || y != starty) {//don't discount the start location even if on resistant cell
+                currentForce -= resistanceMap[x][y];
+            }
+            if (currentForce - (radiusStrategy.radius(startx, starty, x, y) * decay) <= 0) {
+                return false;//too much resistance
+            }
+            if (ix >= nx && iy >= ny) {
+                return false;//never got to the target point
+            }
+            if ((0.5f + ix) / nx < (0.5 + iy) / ny) {
+                x += signX;
+                ix++;
+            } else {
+                y += signY;
+                iy++;
+            }
+        }
+    }
+
+    /**
+     * Walks the same line as {@link DDALine#line_(int, int, int, int)} and checks it like ddaReachable().
+     */
+    private boolean ddaSees(double[][] resistanceMap, int startx, int starty, int targetx, int targety,
+                            Radius radiusStrategy) {
+        final int dx = targetx - startx, dy = targety - starty, nx = Math.abs(dx), ny = Math.abs(dy),
+                signX = (dx < 0) ? -1 : 1, signY = (dy < 0) ? -1 : 1, n = Math.max(nx, ny);
+        final boolean xMajor = nx >= ny;
+        double rad = radiusStrategy.radius(startx, starty, targetx, targety);
+        if(bufferingPath) ensureBuffer(n + 1);
+        if(rad == 0.0) {
+            if(bufferingPath) record(startx, starty);
+            return true; // already at the point; we can see our own feet just fine!
+        }
+        final double decay = 1 / rad;
+        final int move = ((xMajor ? ny : nx) << 16) / n;
+        double currentForce = 1;
+        int x, y;
+        for (int i = 0, frac = 0; i <= n; i++, frac += move) {
+            if(xMajor) {
+                x = startx + i * signX;
+                y = starty + ((frac + 0x7fff) >> 16) * signY;
+            } else {
+                x = startx + ((frac + 0x7fff) >> 16) * signX;
+                y = starty + i * signY;
+            }
+            if (x == targetx && y == targety) {
+                if(bufferingPath) record(x, y);
+                return true;//reached the end
+            }
+            if (x != startx || y != starty) {//don't discount the start location even if on resistant cell
+                currentForce -= resistanceMap[x][y];
+            }
+            if (currentForce - (radiusStrategy.radius(startx, starty, x, y) * decay) <= 0) {
+                return false;//too much resistance
+            }
+            if(bufferingPath) record(x, y);
+        }
+        return false;//never got to the target point
+    }
+
+    /**
+     * Walks the same four DDA lines as thickReachable(), one step at a time, and checks them the same way.
+     */
+    private boolean thickSees(double[][] resistanceMap, int startx, int starty, int targetx, int targety,
+                              Radius radiusStrategy) {
+        final int dx = targetx - startx, dy = targety - starty, nx = Math.abs(dx), ny = Math.abs(dy),
+                signX = (dx < 0) ? -1 : 1, signY = (dy < 0) ? -1 : 1, n = Math.max(nx, ny);
+        final boolean xMajor = nx >= ny;
+        final double decay = 1.0 / radiusStrategy.radius(startx, starty, targetx, targety); // can be infinite; this is OK
+        final int move = n == 0 ? 0 : ((xMajor ? ny : nx) << 16) / n;
+        if(bufferingPath) ensureBuffer(n + 1 << 2);
+        final double[] forces = thickForces;
+        forces[0] = forces[1] = forces[2] = forces[3] = 1.0;
+        int go = 15, x, y;
+        for (int d = 0, frac = 0; d <= n && go != 0; d++, frac += move) {
+            final int step = bufferLength;
+            for (int pc = 0; pc < 4; pc++) {
+                if((go & 1 << pc) == 0)
+                    continue;
+                if(xMajor) {
+                    x = startx + d * signX;
+                    y = starty + ((frac + THICK_Y[pc]) >> 16) * signY;
+                } else {
+                    x = startx + ((frac + THICK_X[pc]) >> 16) * signX;
+                    y = starty + d * signY;
+                }
+                if (x == targetx && y == targety) {
+                    if(bufferingPath) recordOnce(x, y, step);
+                    return true;//reached the end
+                }
+                if (x != startx || y != starty) {//don't discount the start location even if on resistant cell
+                    forces[pc] -= resistanceMap[x][y];
+                }
+                if (forces[pc] - (radiusStrategy.radius(startx, starty, x, y) * decay) <= 0) {
+                    go &= ~(1 << pc);
+                    continue;//too much resistance
+                }
+                if(bufferingPath) recordOnce(x, y, step);
+            }
+        }
+        return false;//never got to the target point
+    }
 /*
     private boolean bresenhamReachable(Radius radiusStrategy) {
         Queue<Coord> path = Bresenham.line2D(startx, starty, targetx, targety);
@@ -0,0 +1,98 @@
+package squidpony.squidgrid;
+
+import squidpony.ParallelSupport;
+import squidpony.annotation.GwtIncompatible;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@link BatchFOV} that splits the viewers in each batch between the threads of a fork-join pool. Each thread
+ * shadowcasts into its own scratch light map, each viewer's window of the light buffer and list of visible viewers is
+ * only written by the task that computes that viewer, and the resistance map is only read, so the results are the same
+ * as BatchFOV's. Batches with fewer than twice {@link #threshold}
+ * viewers, or any batch when {@link #parallel} is false, are computed on the calling thread. This class uses threads
+ * and so isn't available on GWT.
+ */
+@GwtIncompatible
+public class ParallelBatchFOV extends BatchFOV {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * If true (the default), batches with enough viewers will be split up and run on multiple threads; if false, this
+     * behaves exactly like a BatchFOV.
+     */
+    public boolean parallel = true;
+    /**
+     * The most viewers one task will compute without splitting its share in half; defaults to 4.
+     */
+    public int threshold = 4;
+    /**
+     * The pool to run tasks on; if null (the default), the pool from {@link ParallelSupport#pool()} is used.
+     */
+    public transient ForkJoinPool pool;
+
+    private transient ThreadLocal<double[][]> scratches;
+
+    public ParallelBatchFOV(double[][] resistanceMap) {
+        super(resistanceMap);
+    }
+
+    public ParallelBatchFOV(double[][] resistanceMap, Radius radiusTechnique) {
+        super(resistanceMap, radiusTechnique);
+    }
+
+    @Override
+    protected void computeAll() {
+        final int t = Math.max(1, threshold);
+        if(!parallel || count < t << 1)
+        {
+            super.computeAll();
+            return;
+        }
+        if(scratches == null)
+            scratches = new ThreadLocal<>();
+        (pool == null ? ParallelSupport.pool() : pool).invoke(new Batch(0, count, t));
+    }
+
+    @Override
+    protected double[][] scratch() {
+        if(scratches == null)
+            return super.scratch();
+        double[][] light = scratches.get();
+        if(light == null || light.length != width || light[0].length != height)
+        {
+            light = new double[width][height];
+            scratches.set(light);
+        }
+        return light;
+    }
+
+    /**
+     * Computes the viewers from start (inclusive) to end (exclusive), splitting in half while there are too many.
+     */
+    private class Batch extends RecursiveAction {
+        final int start, end, threshold;
+
+        Batch(int start, int end, int threshold) {
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if(end - start <= threshold)
+            {
+                for (int i = start; i < end; i++) {
+                    computeViewer(i);
+                }
+            }
+            else
+            {
+                final int mid = (start + end) >>> 1;
+                invokeAll(new Batch(start, mid, threshold), new Batch(mid, end, threshold));
+            }
+        }
+    }
+}
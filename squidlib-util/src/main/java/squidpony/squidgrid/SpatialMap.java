@@ -14,16 +14,37 @@ import java.util.*;
  * a new value, and perform analogues to most of the features of the Map interface, though this does not implement Map
  * because it essentially has two key types and one value type. You can also iterate through the values in insertion
  * order, where insertion order should be stable even when elements are moved or modified (the relevant key is the
- * identity, which is never changed in this class). Uses two OrderedMap fields internally.
+ * identity, which is never changed in this class). Uses two OrderedMap fields internally, plus a grid index that
+ * groups elements into 8x8 cells by position, so the section methods like {@link #radiusSection(int, int, Radius, int)}
+ * only look at elements in the cells that overlap the area they cover instead of every element.
  * Created by Tommy Ettinger on 1/2/2016.
  */
 public class SpatialMap<I, E> implements Iterable<E> {
 
+    /**
+     * Decides which elements {@link #nearest(int, int, int, Radius, SpatialFilter, ArrayList)} may return.
+     * @param <I> the identity type of the SpatialMap
+     * @param <E> the element type of the SpatialMap
+     */
+    public interface SpatialFilter<I, E>
+    {
+        /**
+         * @param triple the position, identity and element of an entry in a SpatialMap; should not be modified
+         * @return true if the entry may be returned by the query
+         */
+        boolean accept(SpatialTriple<I, E> triple);
+    }
+
     public static class SpatialTriple<I,E>
     {
         public Coord position;
         public I id;
         public E element;
+        /**
+         * When this was added to the SpatialMap holding it, counting up from 0; sections sort by this so they keep
+         * insertion order.
+         */
+        long order;
 
         public SpatialTriple()
         {
@@ -61,6 +82,24 @@ public class SpatialMap<I, E> implements Iterable<E> {
 
     protected OrderedMap<I, SpatialTriple<I, E>> itemMapping;
     protected OrderedMap<Coord, SpatialTriple<I, E>> positionMapping;
+    /**
+     * The grid index; keys are cell positions (a position shifted right by {@link #CELL_SHIFT} on each axis), and values
+     * are the triples whose positions are in that cell, in no particular order. A cell is removed when its last triple
+     * leaves it, so this only holds cells with something in them.
+     */
+    protected OrderedMap<Coord, ArrayList<SpatialTriple<I, E>>> cells;
+    /**
+     * How far positions are shifted to get their cell in the grid index; cells are 8x8.
+     */
+    protected static final int CELL_SHIFT = 3;
+    /**
+     * The smallest and largest cell positions that have been used by the grid index; if maxCellX is less than minCellX,
+     * no cells have been used.
+     */
+    protected int minCellX = Integer.MAX_VALUE, minCellY = Integer.MAX_VALUE,
+            maxCellX = Integer.MIN_VALUE, maxCellY = Integer.MIN_VALUE;
+    private double[] nearestDistances = new double[8];
+    private long insertions = 0L;
 
     /**
      * Constructs a SpatialMap with capacity 32.
@@ -69,6 +108,7 @@ public class SpatialMap<I, E> implements Iterable<E> {
     {
         itemMapping = new OrderedMap<>(32);
         positionMapping = new OrderedMap<>(32);
+        cells = new OrderedMap<>(32);
     }
 
     /**
@@ -79,6 +119,7 @@ public class SpatialMap<I, E> implements Iterable<E> {
     {
         itemMapping = new OrderedMap<>(capacity);
         positionMapping = new OrderedMap<>(capacity);
+        cells = new OrderedMap<>(capacity);
     }
 
     /**
@@ -95,6 +136,8 @@ public class SpatialMap<I, E> implements Iterable<E> {
                 Math.min(coords.length, Math.min(ids.length, elements.length)));
         positionMapping = new OrderedMap<>(
                 Math.min(coords.length, Math.min(ids.length, elements.length)));
+        cells = new OrderedMap<>(
+                Math.min(coords.length, Math.min(ids.length, elements.length)));
 
         for (int i = 0; i < coords.length && i < ids.length && i < elements.length; i++) {
             add(coords[i], ids[i], elements[i]);
@@ -116,6 +159,8 @@ public class SpatialMap<I, E> implements Iterable<E> {
                 Math.min(coords.size(), Math.min(ids.size(), elements.size())));
         positionMapping = new OrderedMap<>(
                 Math.min(coords.size(), Math.min(ids.size(), elements.size())));
+        cells = new OrderedMap<>(
+                Math.min(coords.size(), Math.min(ids.size(), elements.size())));
         if(itemMapping.size() <= 0)
             return;
         Iterator<Coord> cs = coords.iterator();
@@ -146,8 +191,10 @@ public class SpatialMap<I, E> implements Iterable<E> {
         if(!positionMapping.containsKey(coord))
         {
             SpatialTriple<I, E> triple = new SpatialTriple<>(coord, id, element);
+            triple.order = insertions++;
             itemMapping.put(id, triple);
             positionMapping.put(coord, triple);
+            index(triple);
         }
     }
 
@@ -161,11 +208,7 @@ public class SpatialMap<I, E> implements Iterable<E> {
      */
     public void put(Coord coord, I id, E element)
     {
-        SpatialTriple<I, E> triple = new SpatialTriple<>(coord, id, element);
-        itemMapping.remove(id);
-        positionMapping.remove(coord);
-        itemMapping.put(id, triple);
-        positionMapping.put(coord, triple);
+        put(new SpatialTriple<>(coord, id, element));
     }
 
     /**
@@ -178,10 +221,12 @@ public class SpatialMap<I, E> implements Iterable<E> {
      */
     public void put(SpatialTriple<I, E> triple)
     {
-        itemMapping.remove(triple.id);
-        positionMapping.remove(triple.position);
+        remove(triple.id);
+        remove(triple.position);
+        triple.order = insertions++;
         itemMapping.put(triple.id, triple);
         positionMapping.put(triple.position, triple);
+        index(triple);
     }
 
     /**
@@ -231,8 +276,10 @@ public class SpatialMap<I, E> implements Iterable<E> {
     {
         if(positionMapping.containsKey(previous) && !positionMapping.containsKey(target)) {
             SpatialTriple<I, E> gotten = positionMapping.remove(previous);
+            unindex(gotten);
             gotten.position = target;
             positionMapping.put(target, gotten);
+            index(gotten);
             return gotten.element;
         }
         return null;
@@ -251,8 +298,10 @@ public class SpatialMap<I, E> implements Iterable<E> {
         if(itemMapping.containsKey(id) && !positionMapping.containsKey(target)) {
             SpatialTriple<I, E> gotten = itemMapping.get(id);
             positionMapping.remove(gotten.position);
+            unindex(gotten);
             gotten.position = target;
             positionMapping.put(target, gotten);
+            index(gotten);
             return gotten.element;
         }
         return null;
@@ -270,6 +319,7 @@ public class SpatialMap<I, E> implements Iterable<E> {
         SpatialTriple<I, E> gotten = positionMapping.remove(coord);
         if(gotten != null) {
             itemMapping.remove(gotten.id);
+            unindex(gotten);
             return gotten.element;
         }
         return null;
@@ -286,6 +336,7 @@ public class SpatialMap<I, E> implements Iterable<E> {
         SpatialTriple<I, E> gotten = itemMapping.remove(id);
         if(gotten != null) {
             positionMapping.remove(gotten.position);
+            unindex(gotten);
             return gotten.element;
         }
         return null;
@@ -516,7 +567,8 @@ public class SpatialMap<I, E> implements Iterable<E> {
      * Given the size and position of a rectangular area, creates a new SpatialMap from this one that refers only to the
      * subsection of this SpatialMap shared with the rectangular area. Will not include any elements from this
      * SpatialMap with positions beyond the bounds of the given rectangular area, and will include all elements from
-     * this that are in the area.
+     * this that are in the area. Only the cells of the grid index that overlap the area are checked, and the elements
+     * found are put in the new SpatialMap in the same order they have in this one.
      * @param x the minimum x-coordinate of the rectangular area
      * @param y the minimum y-coordinate of the rectangular area
      * @param width the total width of the rectangular area
@@ -525,15 +577,10 @@ public class SpatialMap<I, E> implements Iterable<E> {
      */
     public SpatialMap<I, E> rectangleSection(int x, int y, int width, int height)
     {
-        SpatialMap<I, E> next = new SpatialMap<>(positionMapping.size());
-        Coord tmp;
-        for(SpatialTriple<I, E> ie : positionMapping.values())
-        {
-            tmp = ie.position;
-            if(tmp.x >= x && tmp.y >= y && tmp.x + width > x && tmp.y + height > y)
-                next.put(ie);
-        }
-        return next;
+        ArrayList<SpatialTriple<I, E>> found = new ArrayList<>();
+        if(width > 0 && height > 0)
+            gather(x, y, x + width - 1, y + height - 1, null, 0, 0, 0, found);
+        return section(found);
     }
 
     /**
@@ -541,6 +588,8 @@ public class SpatialMap<I, E> implements Iterable<E> {
      * SpatialMap from this one that refers only to the subsection of this SpatialMap shared with the area within the
      * given distance from the center as measured by measurement. Will not include any elements from this SpatialMap
      * with positions beyond the bounds of the given area, and will include all elements from this that are in the area.
+     * Only the cells of the grid index that overlap the area are checked, and the elements found are put in the new
+     * SpatialMap in the same order they have in this one.
      * @param x the center x-coordinate of the area
      * @param y the center y-coordinate of the area
      * @param measurement a Radius enum, such as Radius.CIRCLE or Radius.DIAMOND, that calculates distance
@@ -549,15 +598,122 @@ public class SpatialMap<I, E> implements Iterable<E> {
      */
     public SpatialMap<I, E> radiusSection(int x, int y, Radius measurement, int distance)
     {
-        SpatialMap<I, E> next = new SpatialMap<>(positionMapping.size());
-        Coord tmp;
-        for(SpatialTriple<I, E> ie : positionMapping.values())
-        {
-            tmp = ie.position;
-            if(measurement.inRange(x, y, tmp.x, tmp.y, 0, distance))
-                next.put(ie);
+        ArrayList<SpatialTriple<I, E>> found = new ArrayList<>();
+        if(distance >= 0)
+            gather(x - distance, y - distance, x + distance, y + distance, measurement, x, y, distance, found);
+        return section(found);
+    }
+
+    /**
+     * Finds the k entries closest to x,y, as measured by measurement, that filter accepts, and returns them nearest
+     * first in a new ArrayList. If fewer than k entries are accepted, all of them are returned. Entries at equal
+     * distances may be returned in any order. See
+     * {@link #nearest(int, int, int, Radius, SpatialFilter, ArrayList)} for a version that fills a reusable list.
+     * @param x the x-coordinate to measure from
+     * @param y the y-coordinate to measure from
+     * @param k the most entries to return
+     * @param measurement a Radius enum, such as Radius.CIRCLE or Radius.DIAMOND, that calculates distance
+     * @param filter decides which entries may be returned; if null, any entry may be
+     * @return an ArrayList of up to k SpatialTriples, sorted from nearest to farthest
+     */
+    public ArrayList<SpatialTriple<I, E>> nearest(int x, int y, int k, Radius measurement, SpatialFilter<I, E> filter)
+    {
+        return nearest(x, y, k, measurement, filter, new ArrayList<SpatialTriple<I, E>>(Math.max(0, Math.min(k, size()))));
+    }
+
+    /**
+     * Finds the k entries closest to x,y, as measured by measurement, that filter accepts, and puts them in buffer
+     * nearest first, after clearing it. If fewer than k entries are accepted, all of them are returned. Entries at
+     * equal distances may be returned in any order. This searches the grid index in square rings of cells around x,y,
+     * and stops as soon as no unsearched cell can hold anything closer than the k-th entry found, so it usually only
+     * looks at entries near x,y. Reusing the same buffer between calls means nothing is allocated per call once the
+     * buffer has grown to hold k items.
+     * @param x the x-coordinate to measure from
+     * @param y the y-coordinate to measure from
+     * @param k the most entries to return
+     * @param measurement a Radius enum, such as Radius.CIRCLE or Radius.DIAMOND, that calculates distance
+     * @param filter decides which entries may be returned; if null, any entry may be
+     * @param buffer an ArrayList that will be cleared and filled with the results; must not be null
+     * @return buffer, after it has been filled with up to k SpatialTriples sorted from nearest to farthest
+     */
+    public ArrayList<SpatialTriple<I, E>> nearest(int x, int y, int k, Radius measurement, SpatialFilter<I, E> filter,
+                                                   ArrayList<SpatialTriple<I, E>> buffer)
+    {
+        buffer.clear();
+        if(k <= 0 || maxCellX < minCellX)
+            return buffer;
+        if(nearestDistances.length < k)
+            nearestDistances = new double[Math.max(k, nearestDistances.length << 1)];
+        final int cx = x >> CELL_SHIFT, cy = y >> CELL_SHIFT,
+                maxRing = Math.max(Math.max(cx - minCellX, maxCellX - cx), Math.max(cy - minCellY, maxCellY - cy));
+        for (int r = 0; r <= maxRing; r++) {
+            // anything in ring r is at least this far away on one axis, and no Radius measures less than that
+            if(buffer.size() == k && nearestDistances[k - 1] <= (r << CELL_SHIFT) - (1 << CELL_SHIFT) + 1)
+                break;
+            if((2L * r + 1) * (2L * r + 1) > cells.size())
+            {
+                // the rings have more cells than the index uses, so check every used cell not already searched
+                for (Map.Entry<Coord, ArrayList<SpatialTriple<I, E>>> ent : cells.entrySet()) {
+                    Coord c = ent.getKey();
+                    if(Math.max(Math.abs(c.x - cx), Math.abs(c.y - cy)) >= r)
+                        nearestInCell(ent.getValue(), x, y, k, measurement, filter, buffer);
+                }
+                break;
+            }
+            if(r == 0)
+                nearestInCell(cells.get(Coord.get(cx, cy)), x, y, k, measurement, filter, buffer);
+            else
+            {
+                for (int i = cx - r; i <= cx + r; i++) {
+                    nearestInCell(i, cy - r, x, y, k, measurement, filter, buffer);
+                    nearestInCell(i, cy + r, x, y, k, measurement, filter, buffer);
+                }
+                for (int j = cy - r + 1; j < cy + r; j++) {
+                    nearestInCell(cx - r, j, x, y, k, measurement, filter, buffer);
+                    nearestInCell(cx + r, j, x, y, k, measurement, filter, buffer);
+                }
+            }
+        }
+        return buffer;
+    }
+
+    private void nearestInCell(int cellX, int cellY, int x, int y, int k, Radius measurement,
+                               SpatialFilter<I, E> filter, ArrayList<SpatialTriple<I, E>> buffer)
+    {
+        if(cellX >= minCellX && cellX <= maxCellX && cellY >= minCellY && cellY <= maxCellY)
+            nearestInCell(cells.get(Coord.get(cellX, cellY)), x, y, k, measurement, filter, buffer);
+    }
+
+    /**
+     * Inserts each accepted triple in cell into buffer, which is kept sorted by distance (stored in nearestDistances)
+     * and no longer than k.
+     */
+    private void nearestInCell(ArrayList<SpatialTriple<I, E>> cell, int x, int y, int k, Radius measurement,
+                               SpatialFilter<I, E> filter, ArrayList<SpatialTriple<I, E>> buffer)
+    {
+        if(cell == null)
+            return;
+        final double[] dists = nearestDistances;
+        SpatialTriple<I, E> triple;
+        for (int c = 0; c < cell.size(); c++) {
+            triple = cell.get(c);
+            final double dist = measurement.radius(x, y, triple.position.x, triple.position.y);
+            int i = buffer.size();
+            if(i == k && dist >= dists[k - 1])
+                continue;
+            if(filter != null && !filter.accept(triple))
+                continue;
+            if(i < k)
+                buffer.add(triple);
+            else
+                i--;
+            for (; i > 0 && dists[i - 1] > dist; i--) {
+                buffer.set(i, buffer.get(i - 1));
+                dists[i] = dists[i - 1];
+            }
+            buffer.set(i, triple);
+            dists[i] = dist;
         }
-        return next;
     }
 
     /**
@@ -579,6 +735,9 @@ public class SpatialMap<I, E> implements Iterable<E> {
     {
         itemMapping.clear();
         positionMapping.clear();
+        cells.clear();
+        minCellX = minCellY = Integer.MAX_VALUE;
+        maxCellX = maxCellY = Integer.MIN_VALUE;
     }
     public boolean isEmpty()
     {
@@ -864,6 +1023,115 @@ public class SpatialMap<I, E> implements Iterable<E> {
         }
     }
 
+    /**
+     * Adds triple to the cell of the grid index that contains its position.
+     */
+    protected void index(SpatialTriple<I, E> triple)
+    {
+        final int cx = triple.position.x >> CELL_SHIFT, cy = triple.position.y >> CELL_SHIFT;
+        final Coord key = Coord.get(cx, cy);
+        ArrayList<SpatialTriple<I, E>> cell = cells.get(key);
+        if(cell == null)
+        {
+            cell = new ArrayList<>(4);
+            cells.put(key, cell);
+            minCellX = Math.min(minCellX, cx);
+            minCellY = Math.min(minCellY, cy);
+            maxCellX = Math.max(maxCellX, cx);
+            maxCellY = Math.max(maxCellY, cy);
+        }
+        cell.add(triple);
+    }
+
+    /**
+     * Removes triple from the cell of the grid index that contains its position; a cell holds at most 64 triples, and
+     * the last one is swapped into the removed one's place, so this takes constant time unless it empties the cell, in
+     * which case the cell is removed from the index.
+     */
+    protected void unindex(SpatialTriple<I, E> triple)
+    {
+        final Coord key = Coord.get(triple.position.x >> CELL_SHIFT, triple.position.y >> CELL_SHIFT);
+        final ArrayList<SpatialTriple<I, E>> cell = cells.get(key);
+        if(cell == null)
+            return;
+        for (int i = cell.size() - 1; i >= 0; i--) {
+            if(cell.get(i) == triple)
+            {
+                cell.set(i, cell.get(cell.size() - 1));
+                cell.remove(cell.size() - 1);
+                if(cell.isEmpty())
+                    cells.remove(key);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds every triple with a position in the given inclusive bounds to found, also requiring it to be within distance
+     * of centerX,centerY if measurement is non-null. Checks either the cells that overlap the bounds or every cell that
+     * holds any triples, whichever is fewer. The triples are added in no particular order.
+     */
+    protected void gather(int minX, int minY, int maxX, int maxY, Radius measurement, int centerX, int centerY,
+                          int distance, ArrayList<SpatialTriple<I, E>> found)
+    {
+        final int cx0 = minX >> CELL_SHIFT, cy0 = minY >> CELL_SHIFT, cx1 = maxX >> CELL_SHIFT, cy1 = maxY >> CELL_SHIFT;
+        if((cx1 - cx0 + 1L) * (cy1 - cy0 + 1L) <= cells.size())
+        {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int cy = cy0; cy <= cy1; cy++) {
+                    gatherCell(cells.get(Coord.get(cx, cy)), minX, minY, maxX, maxY,
+                            measurement, centerX, centerY, distance, found);
+                }
+            }
+        }
+        else
+        {
+            for (ArrayList<SpatialTriple<I, E>> cell : cells.values()) {
+                gatherCell(cell, minX, minY, maxX, maxY, measurement, centerX, centerY, distance, found);
+            }
+        }
+    }
+
+    private static <I, E> void gatherCell(ArrayList<SpatialTriple<I, E>> cell, int minX, int minY, int maxX, int maxY,
+                                          Radius measurement, int centerX, int centerY, int distance,
+                                          ArrayList<SpatialTriple<I, E>> found)
+    {
+        if(cell == null)
+            return;
+        SpatialTriple<I, E> triple;
+        Coord p;
+        for (int i = 0; i < cell.size(); i++) {
+            p = (triple = cell.get(i)).position;
+            if(p.x >= minX && p.y >= minY && p.x <= maxX && p.y <= maxY
+                    && (measurement == null || measurement.inRange(centerX, centerY, p.x, p.y, 0, distance)))
+                found.add(triple);
+        }
+    }
+
+    /**
+     * Makes a SpatialMap holding the found triples in the order they were added to this one. The triples are shared
+     * with this SpatialMap, so they keep the insertion order they have here rather than being given new ones.
+     */
+    private SpatialMap<I, E> section(ArrayList<SpatialTriple<I, E>> found)
+    {
+        Collections.sort(found, new Comparator<SpatialTriple<I, E>>() {
+            @Override
+            public int compare(SpatialTriple<I, E> o1, SpatialTriple<I, E> o2) {
+                return o1.order < o2.order ? -1 : o1.order == o2.order ? 0 : 1;
+            }
+        });
+        SpatialMap<I, E> next = new SpatialMap<>(found.size());
+        next.insertions = insertions;
+        SpatialTriple<I, E> triple;
+        for (int i = 0; i < found.size(); i++) {
+            triple = found.get(i);
+            next.itemMapping.put(triple.id, triple);
+            next.positionMapping.put(triple.position, triple);
+            next.index(triple);
+        }
+        return next;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
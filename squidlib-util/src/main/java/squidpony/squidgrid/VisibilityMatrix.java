@@ -0,0 +1,194 @@
+package squidpony.squidgrid;
+
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.CoordPacker;
+import squidpony.squidmath.GreasedRegion;
+
+import java.io.Serializable;
+
+/**
+ * A precomputed, symmetric index of which walkable cells on a static map can see which other walkable cells, so that
+ * checking line of sight between two walkable cells is a single bit test. Every walkable cell gets a row of bits with
+ * one bit per walkable cell, so this uses (walkable cells) squared divided by 8 bytes; a 100x100 dungeon with 5000
+ * walkable cells needs about 3 MB. Cell A can see cell B here if A's shadowcasting LOS includes B or B's includes A,
+ * which makes the index symmetric even where shadowcasting isn't.
+ * <br>
+ * You can build one from a resistance map with {@link #VisibilityMatrix(double[][])}, which uses {@link FOV#reuseLOS}
+ * with no distance limit, or in parallel from the LOS data of an {@link FOVCache} with
+ * {@link VisibilityMatrixTools#fromCache(FOVCache)}, which only covers pairs of cells within that FOVCache's
+ * maxLOSRadius. {@link #covers(int, int, int, int)} tells
+ * whether a pair of cells is stored at all (both must be walkable and close enough), and
+ * {@link #isVisible(int, int, int, int)} answers the query. You can give a VisibilityMatrix to
+ * {@link LOS#setVisibilityMatrix(VisibilityMatrix)} and {@link FOVCache#setVisibilityMatrix(VisibilityMatrix)} so
+ * their LOS queries use it whenever it covers the cells involved.
+ * <br>
+ * Because building one can take a while on large maps and the map doesn't change, this is Serializable, and can also
+ * be written and loaded with {@link VisibilityMatrixTools}, which works well with a memory-mapped file. This class
+ * is available on GWT; VisibilityMatrixTools, which needs threads and java.nio, is not.
+ */
+public class VisibilityMatrix implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final int width, height;
+    /**
+     * Pairs of cells are only stored if their distance, measured with {@link #radiusKind}, is less than this.
+     */
+    public final int range;
+    public final Radius radiusKind;
+    /**
+     * For each cell (indexed by x + y * width), its index among walkable cells, or -1 if it isn't walkable.
+     */
+    protected final int[] cellIndex;
+    protected final int count, rowLongs;
+    protected final long[] bits;
+
+    /**
+     * Builds a VisibilityMatrix for the given resistance map on the current thread, with no limit on the distance
+     * between cells that can see each other. Cells with a resistance of 1.0 or more are not walkable and are not
+     * stored.
+     * @param resistanceMap the kind of map made by DungeonUtility.generateResistances()
+     */
+    public VisibilityMatrix(double[][] resistanceMap)
+    {
+        this(resistanceMap, resistanceMap.length + resistanceMap[0].length, Radius.SQUARE);
+        GreasedRegion visible = new GreasedRegion(width, height);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                final int i = cellIndex[x + y * width];
+                if(i >= 0)
+                    fillRow(i, FOV.reuseLOS(resistanceMap, visible, x, y));
+            }
+        }
+        for (int a = 0; a < rowLongs; a++) {
+            symmetrize(a);
+        }
+    }
+
+    protected VisibilityMatrix(double[][] resistanceMap, int range, Radius radiusKind)
+    {
+        width = resistanceMap.length;
+        height = resistanceMap[0].length;
+        this.range = range;
+        this.radiusKind = radiusKind;
+        cellIndex = new int[width * height];
+        int c = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                cellIndex[x + y * width] = resistanceMap[x][y] >= 1.0 ? -1 : c++;
+            }
+        }
+        count = c;
+        rowLongs = (count + 63) >> 6;
+        if((long) count * rowLongs > Integer.MAX_VALUE)
+            throw new UnsupportedOperationException("Too many walkable cells (" + count + ") for a VisibilityMatrix");
+        bits = new long[count * rowLongs];
+    }
+
+    protected VisibilityMatrix(int width, int height, int range, Radius radiusKind, int[] cellIndex, int count,
+                               long[] bits)
+    {
+        this.width = width;
+        this.height = height;
+        this.range = range;
+        this.radiusKind = radiusKind;
+        this.cellIndex = cellIndex;
+        this.count = count;
+        rowLongs = (count + 63) >> 6;
+        this.bits = bits;
+    }
+
+    /**
+     * @return how many walkable cells this stores visibility for
+     */
+    public int getCellCount()
+    {
+        return count;
+    }
+
+    /**
+     * Checks whether this stores the visibility between the two given cells, which is true when both are walkable and
+     * their distance (measured with radiusKind) is less than range.
+     * @return true if {@link #isVisible(int, int, int, int)} gives a reliable answer for these cells
+     */
+    public boolean covers(int startX, int startY, int endX, int endY)
+    {
+        return startX >= 0 && startY >= 0 && startX < width && startY < height
+                && endX >= 0 && endY >= 0 && endX < width && endY < height
+                && cellIndex[startX + startY * width] >= 0 && cellIndex[endX + endY * width] >= 0
+                && radiusKind.radius(endX - startX, endY - startY) < range;
+    }
+
+    /**
+     * Checks whether the two given cells can see each other; this is symmetric. Returns false if either cell isn't
+     * walkable or is out of bounds, and also if the cells are too far apart to be stored; see
+     * {@link #covers(int, int, int, int)}.
+     * @return true if the cells are both walkable and can see each other
+     */
+    public boolean isVisible(int startX, int startY, int endX, int endY)
+    {
+        if(startX < 0 || startY < 0 || startX >= width || startY >= height
+                || endX < 0 || endY < 0 || endX >= width || endY >= height)
+            return false;
+        final int i = cellIndex[startX + startY * width], j = cellIndex[endX + endY * width];
+        return i >= 0 && j >= 0 && (bits[i * rowLongs + (j >> 6)] & 1L << (j & 63)) != 0;
+    }
+
+    /**
+     * @see #isVisible(int, int, int, int)
+     */
+    public boolean isVisible(Coord start, Coord end)
+    {
+        return isVisible(start.x, start.y, end.x, end.y);
+    }
+
+    /**
+     * Sets the bits in row i for every walkable cell in a packed LOS map.
+     */
+    void fillRow(int i, short[] packed)
+    {
+        final Coord[] seen = CoordPacker.allPacked(packed);
+        final int row = i * rowLongs;
+        for (int s = 0, j; s < seen.length; s++) {
+            if((j = cellIndex[seen[s].x + seen[s].y * width]) >= 0)
+                bits[row + (j >> 6)] |= 1L << (j & 63);
+        }
+    }
+
+    /**
+     * Sets the bits in row i for every walkable cell in visible.
+     */
+    private void fillRow(int i, GreasedRegion visible)
+    {
+        final int row = i * rowLongs;
+        for (int x = 0, j; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if((j = cellIndex[x + y * width]) >= 0 && visible.contains(x, y))
+                    bits[row + (j >> 6)] |= 1L << (j & 63);
+            }
+        }
+    }
+
+    /**
+     * Makes the 64x64 blocks of bits in block-row a (at block-columns a and later) symmetric with their transposes.
+     * Different values of a never touch the same words, so separate block-rows can be done at the same time.
+     */
+    void symmetrize(int a)
+    {
+        final int r0 = a << 6, r1 = Math.min(count, r0 + 64);
+        for (int b = a; b < rowLongs; b++) {
+            final int c0 = b << 6, c1 = Math.min(count, c0 + 64);
+            for (int r = r0; r < r1; r++) {
+                long word = bits[r * rowLongs + b];
+                for (int c = (a == b ? r + 1 : c0), t; c < c1; c++) {
+                    t = c * rowLongs + a;
+                    if(((word >>> (c & 63) | bits[t] >>> (r & 63)) & 1L) != 0L)
+                    {
+                        word |= 1L << (c & 63);
+                        bits[t] |= 1L << (r & 63);
+                    }
+                }
+                bits[r * rowLongs + b] = word;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package squidpony.squidgrid;
+
+import squidpony.ParallelSupport;
+import squidpony.annotation.GwtIncompatible;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Static methods for {@link VisibilityMatrix} that need threads or java.nio, and so aren't available on GWT: building
+ * one in parallel from an {@link FOVCache}, and writing one to a stream and reading it back, such as from a
+ * memory-mapped file.
+ */
+@GwtIncompatible
+public final class VisibilityMatrixTools {
+    private VisibilityMatrixTools() {
+    }
+
+    /**
+     * Builds a VisibilityMatrix from the LOS entries of the given FOVCache, using the fork-join pool from
+     * {@link ParallelSupport#pool()}. The FOVCache should have finished caching (see {@link FOVCache#awaitCache()}), or
+     * be in lazy mode; its LOS only reaches maxLOSRadius, so pairs of cells farther apart than that aren't covered by
+     * the result.
+     * @param cache an FOVCache for a map that won't change
+     * @return a new VisibilityMatrix with the same LOS as cache, made symmetric
+     */
+    public static VisibilityMatrix fromCache(final FOVCache cache)
+    {
+        return fromCache(cache, null);
+    }
+
+    /**
+     * Builds a VisibilityMatrix from the LOS entries of the given FOVCache, running its tasks on pool. The FOVCache
+     * should have finished caching (see {@link FOVCache#awaitCache()}), or be in lazy mode; its LOS only reaches
+     * maxLOSRadius, so pairs of cells farther apart than that aren't covered by the result.
+     * @param cache an FOVCache for a map that won't change
+     * @param pool the ForkJoinPool to run on; if null, the pool from {@link ParallelSupport#pool()} is used
+     * @return a new VisibilityMatrix with the same LOS as cache, made symmetric
+     */
+    public static VisibilityMatrix fromCache(final FOVCache cache, final ForkJoinPool pool)
+    {
+        final VisibilityMatrix vm = new VisibilityMatrix(cache.resMap, cache.getMaxLOSRadius(),
+                cache.getRadiusKind());
+        final int chunk = 64;
+        (pool == null ? ParallelSupport.pool() : pool).invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                final int tasks = (vm.cellIndex.length + chunk - 1) / chunk;
+                RecursiveAction[] rows = new RecursiveAction[tasks];
+                for (int t = 0; t < tasks; t++) {
+                    final int start = t * chunk, end = Math.min(vm.cellIndex.length, start + chunk);
+                    rows[t] = new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            for (int p = start, i; p < end; p++) {
+                                if((i = vm.cellIndex[p]) >= 0)
+                                    vm.fillRow(i, cache.getLOSEntry(p % vm.width, p / vm.width));
+                            }
+                        }
+                    };
+                }
+                invokeAll(rows);
+                RecursiveAction[] blocks = new RecursiveAction[vm.rowLongs];
+                for (int a = 0; a < blocks.length; a++) {
+                    final int block = a;
+                    blocks[a] = new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            vm.symmetrize(block);
+                        }
+                    };
+                }
+                invokeAll(blocks);
+            }
+        });
+        return vm;
+    }
+
+    /**
+     * Writes vm to the given stream in a simple binary format (all big-endian) that {@link #readFrom(ByteBuffer)} can
+     * load. The stream is not closed.
+     * @param vm the VisibilityMatrix to write
+     * @param out an OutputStream, usually for a file
+     * @throws IOException if the stream throws one
+     */
+    public static void writeTo(VisibilityMatrix vm, OutputStream out) throws IOException
+    {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(vm.width);
+        data.writeInt(vm.height);
+        data.writeInt(vm.range);
+        data.writeInt(vm.radiusKind.ordinal());
+        data.writeInt(vm.count);
+        for (int i = 0; i < vm.cellIndex.length; i++) {
+            data.writeInt(vm.cellIndex[i]);
+        }
+        for (int i = 0; i < vm.bits.length; i++) {
+            data.writeLong(vm.bits[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a VisibilityMatrix written by {@link #writeTo(VisibilityMatrix, OutputStream)} from the buffer's current
+     * position, such as a MappedByteBuffer obtained from a FileChannel. The buffer's position is moved past the data
+     * read.
+     * @param buffer a ByteBuffer in big-endian order (the default)
+     * @return the VisibilityMatrix stored in buffer
+     */
+    public static VisibilityMatrix readFrom(ByteBuffer buffer)
+    {
+        final int width = buffer.getInt(), height = buffer.getInt(), range = buffer.getInt();
+        final Radius radiusKind = Radius.values()[buffer.getInt()];
+        final int count = buffer.getInt();
+        final int[] cellIndex = new int[width * height];
+        buffer.asIntBuffer().get(cellIndex);
+        buffer.position(buffer.position() + (cellIndex.length << 2));
+        final long[] bits = new long[count * ((count + 63) >> 6)];
+        buffer.asLongBuffer().get(bits);
+        buffer.position(buffer.position() + (bits.length << 3));
+        return new VisibilityMatrix(width, height, range, radiusKind, cellIndex, count, bits);
+    }
+}
@@ -0,0 +1,94 @@
+package squidpony.squidgrid.mapping;
+
+import squidpony.ParallelSupport;
+import squidpony.annotation.GwtIncompatible;
+import squidpony.squidmath.Noise;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A {@link WorldMapGenerator} that generates the noise for its maps, and normalizes and assigns biomes to them, on the
+ * threads of a fork-join pool. The columns of the map are split into strips, each task fills its own strips and finds
+ * the smallest and largest values there, and those bounds are combined as tasks finish; since a minimum or maximum is
+ * the same in any order, and each cell is computed from the same inputs as in WorldMapGenerator, the maps this produces
+ * are bit-for-bit identical to WorldMapGenerator's for the same seed. River and lake placement uses the generator's RNG
+ * and still runs on the calling thread. Maps narrower than twice {@link #threshold} columns, or any map when
+ * {@link #parallel} is false, are generated on the calling thread.
+ * <br>
+ * The Noise4D given to the constructor is called from several threads at once, so it must not keep any state between
+ * calls; {@link squidpony.squidmath.SeededNoise} and {@link squidpony.squidmath.WhirlingNoise} are both fine. This
+ * class uses threads and so isn't available on GWT.
+ */
+@GwtIncompatible
+public class ParallelWorldMapGenerator extends WorldMapGenerator {
+    /**
+     * If true (the default), maps with enough columns will be split up and generated on multiple threads; if false,
+     * this behaves exactly like a WorldMapGenerator.
+     */
+    public boolean parallel = true;
+    /**
+     * The most columns one task will process without splitting its share in half; defaults to 16.
+     */
+    public int threshold = 16;
+    /**
+     * The pool to run tasks on; if null (the default), the pool from {@link ParallelSupport#pool()} is used.
+     */
+    public ForkJoinPool pool;
+
+    public ParallelWorldMapGenerator() {
+        super();
+    }
+
+    public ParallelWorldMapGenerator(int mapWidth, int mapHeight) {
+        super(mapWidth, mapHeight);
+    }
+
+    public ParallelWorldMapGenerator(long initialSeed, int mapWidth, int mapHeight) {
+        super(initialSeed, mapWidth, mapHeight);
+    }
+
+    public ParallelWorldMapGenerator(long initialSeed, int mapWidth, int mapHeight, Noise.Noise4D noiseGenerator) {
+        super(initialSeed, mapWidth, mapHeight, noiseGenerator);
+    }
+
+    @Override
+    protected double[] runPass(ColumnPass pass) {
+        final int t = Math.max(1, threshold);
+        if(!parallel || width < t << 1)
+            return super.runPass(pass);
+        return (pool == null ? ParallelSupport.pool() : pool).invoke(new Strip(pass, 0, width, t));
+    }
+
+    /**
+     * Runs a pass on the columns from start (inclusive) to end (exclusive), splitting in half while there are too many,
+     * and returns the bounds found in all of them.
+     */
+    private static class Strip extends RecursiveTask<double[]> {
+        final ColumnPass pass;
+        final int start, end, threshold;
+
+        Strip(ColumnPass pass, int start, int end, int threshold) {
+            this.pass = pass;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected double[] compute() {
+            if(end - start <= threshold)
+            {
+                final double[] bounds = newBounds();
+                pass.run(start, end, bounds);
+                return bounds;
+            }
+            final int mid = (start + end) >>> 1;
+            final Strip right = new Strip(pass, mid, end, threshold);
+            right.fork();
+            final double[] bounds = new Strip(pass, start, mid, threshold).compute();
+            mergeBounds(bounds, right.join());
+            return bounds;
+        }
+    }
+}
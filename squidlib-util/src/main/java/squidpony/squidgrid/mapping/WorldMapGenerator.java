@@ -56,6 +56,10 @@ public class WorldMapGenerator {
             minWet0 = Double.POSITIVE_INFINITY, maxWet0 = Double.NEGATIVE_INFINITY;
     public int zoom = 0;
     protected IntVLA startCacheX = new IntVLA(8), startCacheY = new IntVLA(8);
+    private int seedA, seedB, seedC;
+    private double heightDiff, heatDiff, wetDiff;
+    // the sine and cosine of the angle each column and row maps to, and how much latitude warms each row
+    private final double[] xSin, xCos, ySin, yCos, latitudeHeat;
     public static final double
             deepWaterLower = -1.0, deepWaterUpper = -0.7,        // 0
             mediumWaterLower = -0.7, mediumWaterUpper = -0.3,    // 1
@@ -98,6 +102,11 @@ public class WorldMapGenerator {
         partialLakeData = new GreasedRegion(width, height);
         workingData = new GreasedRegion(width, height);
         heightCodeData = new int[width][height];
+        xSin = new double[width];
+        xCos = new double[width];
+        ySin = new double[height];
+        yCos = new double[height];
+        latitudeHeat = new double[height];
         terrain = new Noise.Layered4D(noiseGenerator, 8, terrainFreq);
         terrainRidged = new Noise.Ridged4D(noiseGenerator, 10, terrainRidgedFreq);
         heat = new Noise.Layered4D(noiseGenerator, 3, heatFreq);
@@ -277,137 +286,64 @@ public class WorldMapGenerator {
             fresh = true;
         }
         rng.setState(state);
-        int seedA = rng.nextInt(), seedB = rng.nextInt(), seedC = rng.nextInt(), t;
+        seedA = rng.nextInt();
+        seedB = rng.nextInt();
+        seedC = rng.nextInt();
 
         waterModifier = (waterMod <= 0) ? rng.nextDouble(0.25) + 0.89 : waterMod;
         coolingModifier = (coolMod <= 0) ? rng.nextDouble(0.45) * (rng.nextDouble()-0.5) + 1.1 : coolMod;
 
-        double p, q,
-                ps, pc,
-                qs, qc,
-                h, temp,
+        double p, q, temp,
                 i_w = 6.283185307179586 / width, i_h = 6.283185307179586 / height,
-                xPos = startX, yPos = startY, i_uw = usedWidth / (double)width, i_uh = usedHeight / (double)height;
-        double[] trigTable = new double[width << 1];
+                xPos = startX, yPos = startY, i_uw = usedWidth / (double)width, i_uh = usedHeight / (double)height,
+                halfHeight = (height - 1) * 0.5, i_half = 1.0 / halfHeight;
         for (int x = 0; x < width; x++, xPos += i_uw) {
             p = xPos * i_w;
-            trigTable[x<<1]   = Math.sin(p);
-            trigTable[x<<1|1] = Math.cos(p);
+            xSin[x] = Math.sin(p);
+            xCos[x] = Math.cos(p);
         }
         for (int y = 0; y < height; y++, yPos += i_uh) {
             q = yPos * i_h;
-            qs = Math.sin(q);
-            qc = Math.cos(q);
-            for (int x = 0, xt = 0; x < width; x++) {
-                ps = trigTable[xt++];//Math.sin(p);
-                pc = trigTable[xt++];//Math.cos(p);
-                h = terrain.getNoiseWithSeed(pc +
-                                terrainRidged.getNoiseWithSeed(pc, ps, qc, qs, seedA + seedB),
-                        ps, qc, qs, seedA);
-                h *= waterModifier;
-                heightData[x][y] = h;
-                heatData[x][y] = (p = heat.getNoiseWithSeed(pc, ps, qc
-                                + otherRidged.getNoiseWithSeed(pc, ps, qc, qs, seedB + seedC)
-                        , qs, seedB));
-                moistureData[x][y] = (temp = moisture.getNoiseWithSeed(pc, ps, qc, qs
-                                + otherRidged.getNoiseWithSeed(pc, ps, qc, qs, seedC + seedA)
-                        , seedC));
-                minHeightActual = Math.min(minHeightActual, h);
-                maxHeightActual = Math.max(maxHeightActual, h);
-                if(fresh) {
-                    minHeight = Math.min(minHeight, h);
-                    maxHeight = Math.max(maxHeight, h);
-
-                    minHeat0 = Math.min(minHeat0, p);
-                    maxHeat0 = Math.max(maxHeat0, p);
-
-                    minWet0 = Math.min(minWet0, temp);
-                    maxWet0 = Math.max(maxWet0, temp);
-
-                }
-            }
+            ySin[y] = Math.sin(q);
+            yCos[y] = Math.cos(q);
+            temp = Math.abs(yPos - halfHeight) * i_half;
+            temp *= (2.4 - temp);
+            latitudeHeat[y] = 2.2 - temp;
+        }
+        double[] bounds = runPass(noisePass);
+        minHeightActual = Math.min(minHeightActual, bounds[0]);
+        maxHeightActual = Math.max(maxHeightActual, bounds[1]);
+        if(fresh) {
+            minHeight = Math.min(minHeight, bounds[0]);
+            maxHeight = Math.max(maxHeight, bounds[1]);
+            minHeat0 = Math.min(minHeat0, bounds[2]);
+            maxHeat0 = Math.max(maxHeat0, bounds[3]);
+            minWet0 = Math.min(minWet0, bounds[4]);
+            maxWet0 = Math.max(maxWet0, bounds[5]);
+        }
+        if(height > 0) {
             minHeightActual = Math.min(minHeightActual, minHeight);
             maxHeightActual = Math.max(maxHeightActual, maxHeight);
-
         }
-        double heightDiff = 2.0 / (maxHeightActual - minHeightActual),
-                heatDiff = 0.8 / (maxHeat0 - minHeat0),
-                wetDiff = 1.0 / (maxWet0 - minWet0),
-                hMod,
-                halfHeight = (height - 1) * 0.5, i_half = 1.0 / halfHeight;
-        double minHeightActual0 = minHeightActual;
-        double maxHeightActual0 = maxHeightActual;
-        yPos = startY;
-        ps = Double.POSITIVE_INFINITY;
-        pc = Double.NEGATIVE_INFINITY;
+        heightDiff = 2.0 / (maxHeightActual - minHeightActual);
+        heatDiff = 0.8 / (maxHeat0 - minHeat0);
+        wetDiff = 1.0 / (maxWet0 - minWet0);
 
-        for (int y = 0; y < height; y++, yPos += i_uh) {
-            temp = Math.abs(yPos - halfHeight) * i_half;
-            temp *= (2.4 - temp);
-            temp = 2.2 - temp;
-            for (int x = 0; x < width; x++) {
-                heightData[x][y] = (h = (heightData[x][y] - minHeightActual) * heightDiff - 1.0);
-                minHeightActual0 = Math.min(minHeightActual0, h);
-                maxHeightActual0 = Math.max(maxHeightActual0, h);
-                heightCodeData[x][y] = (t = codeHeight(h));
-                hMod = 1.0;
-                switch (t) {
-                    case 0:
-                    case 1:
-                    case 2:
-                    case 3:
-                        h = 0.4;
-                        hMod = 0.2;
-                        break;
-                    case 6:
-                        h = -0.1 * (h - forestLower - 0.08);
-                        break;
-                    case 7:
-                        h *= -0.25;
-                        break;
-                    case 8:
-                        h *= -0.4;
-                        break;
-                    default:
-                        h *= 0.05;
-                }
-                heatData[x][y] = (h = (((heatData[x][y] - minHeat0) * heatDiff * hMod) + h + 0.6) * temp);
-                if (fresh) {
-                    ps = Math.min(ps, h); //minHeat0
-                    pc = Math.max(pc, h); //maxHeat0
-                }
-            }
-        }
+        bounds = runPass(heatPass);
         if(fresh)
         {
-            minHeat1 = ps;
-            maxHeat1 = pc;
+            minHeat1 = bounds[0];
+            maxHeat1 = bounds[1];
         }
         heatDiff = coolingModifier / (maxHeat1 - minHeat1);
-        qs = Double.POSITIVE_INFINITY;
-        qc = Double.NEGATIVE_INFINITY;
-        ps = Double.POSITIVE_INFINITY;
-        pc = Double.NEGATIVE_INFINITY;
-
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                heatData[x][y] = (h = ((heatData[x][y] - minHeat1) * heatDiff));
-                moistureData[x][y] = (temp = (moistureData[x][y] - minWet0) * wetDiff);
-                if (fresh) {
-                    qs = Math.min(qs, h);
-                    qc = Math.max(qc, h);
-                    ps = Math.min(ps, temp);
-                    pc = Math.max(pc, temp);
-                }
-            }
-        }
+
+        bounds = runPass(finishPass);
         if(fresh)
         {
-            minHeat = qs;
-            maxHeat = qc;
-            minWet = ps;
-            maxWet = pc;
+            minHeat = bounds[0];
+            maxHeat = bounds[1];
+            minWet = bounds[2];
+            maxWet = bounds[3];
         }
         landData.refill(heightCodeData, 4, 999);
         if(generateRivers) {
@@ -438,6 +374,160 @@ public class WorldMapGenerator {
             }
         }
     }
+    /**
+     * One step of generating a map that can be run on any range of columns by itself. It only writes to the columns
+     * it is given, and only reads data that no other column writes during the same step.
+     */
+    protected interface ColumnPass {
+        /**
+         * Runs this step on the columns from startX (inclusive) to endX (exclusive), widening bounds to hold the
+         * smallest and largest values produced there; bounds holds pairs of a minimum and a maximum.
+         * @param startX the first column to run on
+         * @param endX the column after the last one to run on
+         * @param bounds an array from {@link #newBounds()} that will be modified
+         */
+        void run(int startX, int endX, double[] bounds);
+    }
+
+    /**
+     * Runs pass on every column, in order, and returns the bounds it found. {@link ParallelWorldMapGenerator} overrides
+     * this to split the columns between threads; because taking a minimum or maximum gives the same result in any
+     * order, the map it produces is identical.
+     * @param pass the step to run on every column
+     * @return the bounds pass found, as pairs of a minimum and a maximum
+     */
+    protected double[] runPass(ColumnPass pass)
+    {
+        final double[] bounds = newBounds();
+        pass.run(0, width, bounds);
+        return bounds;
+    }
+
+    /**
+     * Makes an array to hold three pairs of a minimum and a maximum, each starting out empty (positive infinity for
+     * the minimum and negative infinity for the maximum).
+     * @return a new 6-element double array
+     */
+    protected static double[] newBounds()
+    {
+        return new double[]{Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    }
+
+    /**
+     * Widens each pair of a minimum and a maximum in bounds so it also holds the matching pair in other.
+     * @param bounds an array from {@link #newBounds()} that will be modified
+     * @param other an array from {@link #newBounds()} that won't be modified
+     */
+    protected static void mergeBounds(double[] bounds, double[] other)
+    {
+        for (int i = 0; i < 6; i += 2) {
+            bounds[i] = Math.min(bounds[i], other[i]);
+            bounds[i + 1] = Math.max(bounds[i + 1], other[i + 1]);
+        }
+    }
+
+    /**
+     * Fills heightData, heatData and moistureData with raw noise, and finds the bounds of each in that order.
+     */
+    private final ColumnPass noisePass = new ColumnPass() {
+        @Override
+        public void run(int startX, int endX, double[] bounds) {
+            double ps, pc, qs, qc, h, p, temp;
+            for (int x = startX; x < endX; x++) {
+                final double[] heights = heightData[x], heats = heatData[x], wets = moistureData[x];
+                ps = xSin[x];
+                pc = xCos[x];
+                for (int y = 0; y < height; y++) {
+                    qs = ySin[y];
+                    qc = yCos[y];
+                    h = terrain.getNoiseWithSeed(pc +
+                                    terrainRidged.getNoiseWithSeed(pc, ps, qc, qs, seedA + seedB),
+                            ps, qc, qs, seedA);
+                    h *= waterModifier;
+                    heights[y] = h;
+                    heats[y] = (p = heat.getNoiseWithSeed(pc, ps, qc
+                                    + otherRidged.getNoiseWithSeed(pc, ps, qc, qs, seedB + seedC)
+                            , qs, seedB));
+                    wets[y] = (temp = moisture.getNoiseWithSeed(pc, ps, qc, qs
+                                    + otherRidged.getNoiseWithSeed(pc, ps, qc, qs, seedC + seedA)
+                            , seedC));
+                    bounds[0] = Math.min(bounds[0], h);
+                    bounds[1] = Math.max(bounds[1], h);
+                    bounds[2] = Math.min(bounds[2], p);
+                    bounds[3] = Math.max(bounds[3], p);
+                    bounds[4] = Math.min(bounds[4], temp);
+                    bounds[5] = Math.max(bounds[5], temp);
+                }
+            }
+        }
+    };
+
+    /**
+     * Scales heightData to the -1.0 to 1.0 range and assigns heightCodeData from it, then adjusts heatData for height
+     * and latitude, finding the bounds of the adjusted heat.
+     */
+    private final ColumnPass heatPass = new ColumnPass() {
+        @Override
+        public void run(int startX, int endX, double[] bounds) {
+            double h, hMod;
+            int t;
+            for (int x = startX; x < endX; x++) {
+                final double[] heights = heightData[x], heats = heatData[x];
+                final int[] codes = heightCodeData[x];
+                for (int y = 0; y < height; y++) {
+                    heights[y] = (h = (heights[y] - minHeightActual) * heightDiff - 1.0);
+                    codes[y] = (t = codeHeight(h));
+                    hMod = 1.0;
+                    switch (t) {
+                        case 0:
+                        case 1:
+                        case 2:
+                        case 3:
+                            h = 0.4;
+                            hMod = 0.2;
+                            break;
+                        case 6:
+                            h = -0.1 * (h - forestLower - 0.08);
+                            break;
+                        case 7:
+                            h *= -0.25;
+                            break;
+                        case 8:
+                            h *= -0.4;
+                            break;
+                        default:
+                            h *= 0.05;
+                    }
+                    heats[y] = (h = (((heats[y] - minHeat0) * heatDiff * hMod) + h + 0.6) * latitudeHeat[y]);
+                    bounds[0] = Math.min(bounds[0], h);
+                    bounds[1] = Math.max(bounds[1], h);
+                }
+            }
+        }
+    };
+
+    /**
+     * Scales heatData and moistureData to their final ranges, and finds the bounds of each in that order.
+     */
+    private final ColumnPass finishPass = new ColumnPass() {
+        @Override
+        public void run(int startX, int endX, double[] bounds) {
+            double h, temp;
+            for (int x = startX; x < endX; x++) {
+                final double[] heats = heatData[x], wets = moistureData[x];
+                for (int y = 0; y < height; y++) {
+                    heats[y] = (h = ((heats[y] - minHeat1) * heatDiff));
+                    wets[y] = (temp = (wets[y] - minWet0) * wetDiff);
+                    bounds[0] = Math.min(bounds[0], h);
+                    bounds[1] = Math.max(bounds[1], h);
+                    bounds[2] = Math.min(bounds[2], temp);
+                    bounds[3] = Math.max(bounds[3], temp);
+                }
+            }
+        }
+    };
+
     public int codeHeight(final double high)
     {
         if(high < deepWaterUpper)
@@ -838,7 +928,7 @@ public class WorldMapGenerator {
          * taken from {@link #biomeCodeData} and used as indices into {@link #biomeTable} or a custom biome table.
          * @param world a WorldMapGenerator that should have generated at least one map; it may be at any zoom
          */
-        public void makeBiomes(WorldMapGenerator world) {
+        public void makeBiomes(final WorldMapGenerator world) {
             if(world == null || world.width <= 0 || world.height <= 0)
                 return;
             if(heatCodeData == null || (heatCodeData.length != world.width || heatCodeData[0].length != world.height))
@@ -848,7 +938,20 @@ public class WorldMapGenerator {
             if(biomeCodeData == null || (biomeCodeData.length != world.width || biomeCodeData[0].length != world.height))
                 biomeCodeData = new int[world.width][world.height];
             final double i_hot = (world.maxHeat == world.minHeat) ? 1.0 : 1.0 / (world.maxHeat - world.minHeat);
-            for (int x = 0; x < world.width; x++) {
+            world.runPass(new ColumnPass() {
+                @Override
+                public void run(int startX, int endX, double[] bounds) {
+                    biomeColumns(world, startX, endX, i_hot);
+                }
+            });
+        }
+
+        /**
+         * Assigns heat, moisture and biome codes for the columns from startX (inclusive) to endX (exclusive); only
+         * writes to those columns, so different ranges of columns can be done at the same time.
+         */
+        private void biomeColumns(WorldMapGenerator world, int startX, int endX, double i_hot) {
+            for (int x = startX; x < endX; x++) {
                 for (int y = 0; y < world.height; y++) {
                     final double hot = (world.heatData[x][y] - world.minHeat) * i_hot, moist = world.moistureData[x][y];
                     final int heightCode = world.heightCodeData[x][y];
@@ -1,9 +1,9 @@
 package squidpony.squidmath;
 
-import squidpony.ArrayTools;
 import squidpony.squidgrid.Direction;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -14,24 +14,20 @@ import java.util.Queue;
  * value to reduce the total search space. If the heuristic is too large then
  * the optimal path is not guaranteed to be returned.
  * <br>
- * This implementation outperforms DijkstraMap (it can be about 8x faster) on relatively short
- * paths (8 or less cells), but when an especially long path is requested (20 or more cells),
- * this can be slower by a significant degree (it can be 10x slower for paths of 40-50 cells).
- * This replaces an earlier version of AStarSearch that was almost always slower than
- * DijkstraMap and had serious issues. One issue was recursion-related, and previously led to
- * very long paths taking 200x as much time as DijkstraMap instead of this version's comparably
- * modest 10x slowdown on the same paths. That recursion-related issue could have caused
- * StackOverflowExceptions to be thrown when finding very long paths, though that may not have
- * occurred "in the wild." The only caveat to the optimizations here is that an AStarSearch
- * object has slightly more state that it stores now, though it also reuses more state and
- * produces less garbage data to collect.
+ * Cells are handled internally as ints (see {@link #encode(int, int)}), the open list is an indexed binary heap
+ * ({@link IntDoubleHeap}), and the per-cell bookkeeping is stored in flat arrays that are marked with a generation
+ * number instead of being cleared before each search. This means a search only touches the cells it actually visits,
+ * and {@link #path(int, int, int, int, IntVLA)} doesn't allocate anything once its buffer is large enough, so the
+ * same AStarSearch can be used for many short searches per turn without creating garbage. The older
+ * {@link #path(Coord, Coord)} methods are still available and return a new Queue of Coord each time.
  * <br>
- * If you want pathfinding over an arbitrary graph or need really fast searches, you may want
- * to use gdx-ai's pathfinding code in its {@code com.badlogic.gdx.ai.pfa} package. Their
- * {@code IndexedAStarPathFinder} class outperforms all of the pathfinders in squidlib in all
- * cases tested, though it has less features than DijkstraMap. You would need a dependency on
- * gdx-ai and libGDX, which the squidlib-util module does not have, but if you use the squidlib
- * display module, then you already depend on libGDX.
+ * On maps where every passable cell costs the same, {@link #jumpPath(int, int, int, int, IntVLA)} finds paths of the
+ * same length using Jump Point Search, which can skip across open rooms instead of expanding every cell in them, and
+ * {@link #precomputeJumps()} can make it faster still on maps that don't change often.
+ * <br>
+ * If you want pathfinding over an arbitrary graph, you may want to use gdx-ai's pathfinding code in its
+ * {@code com.badlogic.gdx.ai.pfa} package. You would need a dependency on gdx-ai and libGDX, which the squidlib-util
+ * module does not have, but if you use the squidlib display module, then you already depend on libGDX.
  * @see squidpony.squidai.DijkstraMap a sometimes-faster pathfinding algorithm that can pathfind to multiple goals
  * @see squidpony.squidai.CustomDijkstraMap an alternative to DijkstraMap; faster and supports complex adjacency rules
  * @author Eben Howard - http://squidpony.com - howard@squidpony.com
@@ -66,26 +62,49 @@ public class AStarSearch implements Serializable {
     }
 
     protected final double[][] map;
-    protected final OrderedSet<Coord> open = new OrderedSet<>();
     protected final int width, height;
-    protected byte[][] parent;
-    protected double[][] gCache;
     protected transient Coord start, target;
+    protected transient int targetX, targetY;
     protected final SearchType type;
     protected Direction[] dirs;
 
+    /**
+     * The cells waiting to be expanded, by encoded cell, ordered by their estimated total distance.
+     */
+    protected transient IntDoubleHeap open;
+    /**
+     * The best known distance from the start to each encoded cell; only valid where {@link #stamp} equals
+     * {@link #generation}.
+     */
+    protected transient double[] gScore;
+    /**
+     * The encoded cell each encoded cell was reached from, or -1 for the start; only valid where {@link #stamp} equals
+     * {@link #generation}.
+     */
+    protected transient int[] parent;
+    /**
+     * The generation of the search that last reached each encoded cell; cells with an older stamp are unvisited.
+     */
+    protected transient int[] stamp;
+    protected transient int generation;
+
+    /**
+     * The jump distances used by {@link #jumpPath(int, int, int, int, IntVLA)} when {@link #precomputeJumps()} has
+     * been called, with 8 entries per encoded cell (one per direction in {@link Direction#OUTWARDS}). A positive entry
+     * is the number of steps to the next jump point in that direction; zero or a negative entry is the negated number
+     * of steps that can be taken before reaching an obstacle, with no jump point on the way.
+     */
+    protected int[] jumps;
+
     private int dirCount;
-    private transient Direction inner = Direction.DOWN;
-    private boolean[][] finished;
+    private int blockingRequirement = 0;
+    private transient IntVLA cells;
     protected AStarSearch()
     {
         width = 0;
         height = 0;
         type = SearchType.MANHATTAN;
         map = new double[width][height];
-        parent = new byte[width][height];
-        gCache = new double[width][height];
-        finished = new boolean[width][height];
         dirs = Direction.CARDINALS;
         dirCount = 4;
     }
@@ -111,11 +130,8 @@ public class AStarSearch implements Serializable {
         this.map = map;
         width = map.length;
         height = width == 0 ? 0 : map[0].length;
-        parent = new byte[width][height];
-        gCache = new double[width][height];
-        finished = new boolean[width][height];
         this.type = type == null ? SearchType.DIJKSTRA : type;
-        switch (type) {
+        switch (this.type) {
             case MANHATTAN:
                 dirs = Direction.CARDINALS;
                 dirCount = 4;
@@ -128,127 +144,493 @@ public class AStarSearch implements Serializable {
                 dirCount = 8;
                 break;
         }
+        prepare();
+    }
+
+    /**
+     * Allocates the arrays used during a search if they haven't been allocated yet (such as after deserialization).
+     */
+    protected void prepare()
+    {
+        if(open != null)
+            return;
+        open = new IntDoubleHeap(Math.max(1, width * height));
+        gScore = new double[width * height];
+        parent = new int[width * height];
+        stamp = new int[width * height];
+        generation = 0;
+        cells = new IntVLA(64);
+    }
+
+    /**
+     * Converts an x,y point to the int this uses internally for that cell, which is {@code y * width + x}.
+     * @param x the x component of the point to encode
+     * @param y the y component of the point to encode
+     * @return an int that encodes the given x,y point for this AStarSearch's width
+     */
+    public int encode(final int x, final int y)
+    {
+        return width * y + x;
+    }
+
+    /**
+     * Gets the x component of a cell encoded by {@link #encode(int, int)}, such as the items in the IntVLA filled by
+     * {@link #path(int, int, int, int, IntVLA)}.
+     * @param encoded an encoded int specific to this AStarSearch's width
+     * @return the x component of the position that the given encoded int stores
+     */
+    public int decodeX(final int encoded)
+    {
+        return encoded % width;
+    }
+
+    /**
+     * Gets the y component of a cell encoded by {@link #encode(int, int)}, such as the items in the IntVLA filled by
+     * {@link #path(int, int, int, int, IntVLA)}.
+     * @param encoded an encoded int specific to this AStarSearch's width
+     * @return the y component of the position that the given encoded int stores
+     */
+    public int decodeY(final int encoded)
+    {
+        return encoded / width;
     }
 
     /**
      * Finds an A* path to the target from the start. If no path is possible,
-     * returns null.
+     * returns an empty Queue.
      *
      * @param startx the x coordinate of the start location
      * @param starty the y coordinate of the start location
      * @param targetx the x coordinate of the target location
      * @param targety the y coordinate of the target location
-     * @return the shortest path, or null
+     * @return the shortest path, or an empty Queue
      */
     public Queue<Coord> path(int startx, int starty, int targetx, int targety) {
         return path(Coord.get(startx, starty), Coord.get(targetx, targety));
     }
     /**
      * Finds an A* path to the target from the start. If no path is possible,
-     * returns null.
+     * returns an empty Queue.
      *
      * @param start the start location
      * @param target the target location
-     * @return the shortest path, or null
+     * @return the shortest path, or an empty Queue
      */
     public Queue<Coord> path(Coord start, Coord target) {
-        this.start = start;
-        this.target = target;
-        open.clear();
-        ArrayTools.fill(finished, false);
-        ArrayTools.fill(parent, (byte)-1);
-        ArrayTools.fill(gCache, -1.0);
-        gCache[start.x][start.y] = 0;
-
-
+        prepare();
         /* Not using Deque nor ArrayDeque, they aren't Gwt compatible */
         final LinkedList<Coord> deq = new LinkedList<>();
+        path(start.x, start.y, target.x, target.y, cells);
+        this.start = start;
+        this.target = target;
+        for (int i = 0; i < cells.size; i++) {
+            int c = cells.get(i);
+            deq.add(Coord.get(c % width, c / width));
+        }
+        return deq;
+    }
 
-        Coord p = start;
-        open.add(p);
+    /**
+     * Finds an A* path to the target from the start, storing each cell of the path as an int encoded by
+     * {@link #encode(int, int)} in buffer. The path doesn't include the start, but does include the target, and if no
+     * path is possible (or start and target are the same), buffer will be empty. This doesn't allocate anything unless
+     * buffer is null or needs to grow, so reusing one IntVLA for many searches produces no garbage.
+     *
+     * @param startx the x coordinate of the start location
+     * @param starty the y coordinate of the start location
+     * @param targetx the x coordinate of the target location
+     * @param targety the y coordinate of the target location
+     * @param buffer an IntVLA that will be cleared and filled with the encoded path; if null, a new one is created
+     * @return buffer, or a new IntVLA if buffer was null, containing the encoded cells of the shortest path in order
+     */
+    public IntVLA path(int startx, int starty, int targetx, int targety, IntVLA buffer) {
+        if(buffer == null)
+            buffer = new IntVLA();
+        else
+            buffer.clear();
+        if(startx < 0 || starty < 0 || startx >= width || starty >= height
+                || targetx < 0 || targety < 0 || targetx >= width || targety >= height
+                || map[targetx][targety] < 0)
+            return buffer;
+        prepare();
+        targetX = targetx;
+        targetY = targety;
+        final int s = encode(startx, starty), t = encode(targetx, targety);
+        if(s == t)
+            return buffer;
+        if(++generation == 0)
+        {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        open.clear();
+        stamp[s] = generation;
+        gScore[s] = 0.0;
+        parent[s] = -1;
+        open.offer(s, h(startx, starty));
+        int current, cx, cy, x, y, next;
+        double g, cost;
         Direction dir;
-        byte turn;
-        while (!p.equals(target)) {
-            finished[p.x][p.y] = true;
-            open.remove(p);
-            for (byte d = 0; d < dirCount; d++) {
+        while (true) {
+            if(open.isEmpty())
+                return buffer; //no path possible
+            current = open.poll();
+            if(current == t)
+                break;
+            cx = current % width;
+            cy = current / width;
+            g = gScore[current];
+            for (int d = 0; d < dirCount; d++) {
                 dir = dirs[d];
-                int x = p.x + dir.deltaX;
+                x = cx + dir.deltaX;
                 if (x < 0 || x >= width) {
                     continue;//out of bounds so skip ahead
                 }
-
-                int y = p.y + dir.deltaY;
+                y = cy + dir.deltaY;
                 if (y < 0 || y >= height) {
                     continue;//out of bounds so skip ahead
                 }
+                if ((cost = map[x][y]) < 0) {
+                    continue;//impassable
+                }
+                if (d >= 4 && blockingRequirement > 0
+                        && (isOpen(x, cy) ? 0 : 1) + (isOpen(cx, y) ? 0 : 1) >= blockingRequirement) {
+                    continue;//diagonal move blocked by corners
+                }
+                cost += g + 1;
+                next = width * y + x;
+                if(stamp[next] != generation || cost < gScore[next])
+                {
+                    stamp[next] = generation;
+                    gScore[next] = cost;
+                    parent[next] = current;
+                    open.offer(next, cost + h(x, y));
+                }
+            }
+        }
+        for (int p = t; p != s; p = parent[p]) {
+            buffer.add(p);
+        }
+        buffer.reverse();
+        return buffer;
+    }
 
-                if (!finished[x][y]) {
-                    Coord test = Coord.get(x, y);
-                    if (open.contains(test)) {
-                        turn = parent[x][y];
-                        if(turn < 0)
-                            continue;
-                        // look back and find what we had in gCache
-                        inner = dirs[turn];
-                        double parentG = g(x - inner.deltaX, y - inner.deltaY);
-                        //double parentG = g(parent[x][y].x, parent[x][y].y);
-                        if (parentG < 0) {
-                            continue;//not a valid point so skip ahead
-                        }
-                        double g = g(p.x, p.y);
-                        if (g < 0) {
-                            continue;//not a valid point so skip ahead
-                        }
-                        if (parentG > g) {
-                            parent[x][y] = d;
-                        }
-                    } else {
-                        open.add(test);
-                        parent[x][y] = d;
-                    }
+    /**
+     * Finds a path to the target from the start using Jump Point Search, which gives the same length of path as
+     * {@link #path(int, int, int, int, IntVLA)} on maps where every passable cell has the same cost, but skips over
+     * the many equally-short ways to cross open areas instead of adding each cell to the open list. Cells with negative
+     * values, or values at least as high as {@link squidpony.squidai.DijkstraMap#WALL} (which
+     * {@link squidpony.squidgrid.mapping.DungeonUtility#generateAStarCostMap(char[][], java.util.Map, double)} uses for
+     * walls), are obstacles, and all other cells are treated as having the same cost. Diagonal moves follow the same
+     * rule as {@link #path(int, int, int, int, IntVLA)}, set by {@link #setBlockingRequirement(int)}. If
+     * {@link #precomputeJumps()} has been called, the distances between jump points are looked up instead of found by
+     * walking across the map (this is sometimes called JPS+). MANHATTAN searches don't benefit from jumping, so they
+     * just call {@link #path(int, int, int, int, IntVLA)}.
+     * <br>
+     * Like the other path methods, the path doesn't include the start but does include the target, and the path will
+     * be empty if the target can't be reached. This doesn't allocate anything unless buffer is null or needs to grow.
+     *
+     * @param startx the x coordinate of the start location
+     * @param starty the y coordinate of the start location
+     * @param targetx the x coordinate of the target location
+     * @param targety the y coordinate of the target location
+     * @param buffer an IntVLA that will be cleared and filled with the encoded path; if null, a new one is created
+     * @return buffer, or a new IntVLA if buffer was null, containing the encoded cells of the shortest path in order
+     */
+    public IntVLA jumpPath(int startx, int starty, int targetx, int targety, IntVLA buffer) {
+        if(dirCount == 4)
+            return path(startx, starty, targetx, targety, buffer);
+        if(buffer == null)
+            buffer = new IntVLA();
+        else
+            buffer.clear();
+        if(!isOpen(startx, starty) || !isOpen(targetx, targety))
+            return buffer;
+        prepare();
+        targetX = targetx;
+        targetY = targety;
+        final int s = encode(startx, starty), t = encode(targetx, targety);
+        if(s == t)
+            return buffer;
+        if(++generation == 0)
+        {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        open.clear();
+        stamp[s] = generation;
+        gScore[s] = 0.0;
+        parent[s] = -1;
+        open.offer(s, h(startx, starty));
+        int current, from, keep, steps, cx, cy, x, y, next;
+        double g, cost;
+        while (true) {
+            if(open.isEmpty())
+                return buffer; //no path possible
+            current = open.poll();
+            if(current == t)
+                break;
+            cx = current % width;
+            cy = current / width;
+            g = gScore[current];
+            if((from = parent[current]) < 0)
+                keep = 0xFF;
+            else
+                keep = KEEP[(blockingRequirement << 11)
+                        | (DIR_INDEX[(Integer.signum(cy - from / width) + 1) * 3 + Integer.signum(cx - from % width) + 1] << 8)
+                        | neighborMask(cx, cy)] & 0xFF;
+            for (int d = 0; d < 8; d++) {
+                if((keep & 1 << d) == 0)
+                    continue;
+                if(jumps != null)
+                    steps = lookUpJump(cx, cy, d);
+                else if(d < 4)
+                    steps = jumpStraight(cx, cy, d);
+                else
+                    steps = jumpDiagonal(cx, cy, d);
+                if(steps <= 0)
+                    continue;
+                x = cx + DX[d] * steps;
+                y = cy + DY[d] * steps;
+                cost = g + steps;
+                next = width * y + x;
+                if(stamp[next] != generation || cost < gScore[next])
+                {
+                    stamp[next] = generation;
+                    gScore[next] = cost;
+                    parent[next] = current;
+                    open.offer(next, cost + h(x, y));
                 }
             }
-            p = smallestF();
-            if (p == null) {
-                return deq;//no path possible
+        }
+        // fill in the straight or diagonal lines between jump points, from the target back to the start
+        for (int p = t, q, dx, dy; p != s; p = q) {
+            q = parent[p];
+            dx = Integer.signum(q % width - p % width);
+            dy = Integer.signum(q / width - p / width);
+            for (int c = p; c != q; c += dy * width + dx) {
+                buffer.add(c);
             }
         }
+        buffer.reverse();
+        return buffer;
+    }
 
-        while (!p.equals(start)) {
-            deq.addFirst(p);
-            inner = dirs[parent[p.x][p.y]];
-            p = p.translate(-inner.deltaX, -inner.deltaY);
+    /**
+     * Builds a table of how far it is from each cell to the next jump point in each direction, which
+     * {@link #jumpPath(int, int, int, int, IntVLA)} will use instead of walking across the map to find them. This
+     * takes some time and 32 bytes per cell, so it's best for maps that are searched many times between changes. The
+     * table must be rebuilt by calling this again if the map changes; changing the blocking requirement discards it.
+     */
+    public void precomputeJumps()
+    {
+        jumps = null;
+        if(dirCount == 4)
+            return;
+        final int[] table = new int[width * height << 3];
+        for (int d = 0; d < 8; d++) {
+            // straight directions come first, since diagonal jumps depend on them
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if(isOpen(x, y))
+                        table[(y * width + x) << 3 | d] = measureJump(x, y, d, table);
+                }
+            }
         }
-        return deq;
+        jumps = table;
     }
+
     /**
-     * Finds the g value (start to current) for the given location.
-     *
-     * If the given location is not valid or not attached to the pathfinding
-     * then -1 is returned.
-     *
-     * @param x coordinate
-     * @param y coordinate
+     * Gets the current setting of the blocking requirement for diagonal moves; see
+     * {@link #setBlockingRequirement(int)}.
+     * @return the current level of blocking required to stop a diagonal move
      */
-    protected double g(int x, int y) {
-        if (x == start.x && y == start.y) {
-            gCache[x][y] = 0;
-            return 0;
+    public int getBlockingRequirement() {
+        return blockingRequirement;
+    }
+
+    /**
+     * Sets how many orthogonal obstacles must be next to a diagonal move to block it, using the same rule as
+     * {@link squidpony.squidai.DijkstraMap#setBlockingRequirement(int)}. Obstacles are cells with negative values or
+     * values at least as high as {@link squidpony.squidai.DijkstraMap#WALL}.
+     * <br>
+     * If this is 0 (the default), as a special case no orthogonal obstacles will block diagonal moves.
+     * <br>
+     * If this is 1, having one orthogonal obstacle adjacent to both the current cell and the cell the pathfinder is
+     * trying to diagonally enter will block diagonal moves. This generally blocks movement around corners.
+     * <br>
+     * If this is 2, having two orthogonal obstacles adjacent to both the current cell and the cell the pathfinder is
+     * trying to diagonally enter will block diagonal moves.
+     * <br>
+     * This discards any table built by {@link #precomputeJumps()}, since jump points depend on this rule.
+     * @param blockingRequirement the desired level of blocking required to stop a diagonal move
+     */
+    public void setBlockingRequirement(int blockingRequirement) {
+        this.blockingRequirement = blockingRequirement > 2 ? 2 : blockingRequirement < 0 ? 0 : blockingRequirement;
+        jumps = null;
+    }
+
+    private static final int[] DX = {0, 0, -1, 1, -1, 1, -1, 1}, DY = {-1, 1, 0, 0, -1, -1, 1, 1},
+            HORIZONTAL = {-1, -1, -1, -1, 2, 3, 2, 3}, VERTICAL = {-1, -1, -1, -1, 0, 0, 1, 1},
+            DIR_INDEX = {4, 0, 5, 2, -1, 3, 6, 1, 7};
+    /**
+     * For each blocking requirement, direction a cell was entered from (as an index into {@link Direction#OUTWARDS}),
+     * and bit mask of which neighbors are open, the bit mask of neighbors that a jump point search must still look
+     * at. Neighbors are pruned when some other path from the previous cell reaches them, without going through the
+     * current cell, in no more distance (for straight moves) or strictly less distance (for diagonal moves).
+     */
+    private static final byte[] KEEP = new byte[3 << 11];
+    /**
+     * The neighbors kept when every neighbor is open, for each blocking requirement and direction; any other neighbor
+     * that is kept is a forced neighbor, which makes its cell a jump point.
+     */
+    private static final byte[] NATURAL = new byte[3 << 3];
+    static {
+        for (int mode = 0; mode < 3; mode++) {
+            for (int d = 0; d < 8; d++) {
+                for (int mask = 0; mask < 256; mask++) {
+                    KEEP[mode << 11 | d << 8 | mask] = prunedNeighbors(mode, d, mask);
+                }
+                NATURAL[mode << 3 | d] = KEEP[mode << 11 | d << 8 | 0xFF];
+            }
+        }
+    }
+
+    private static byte prunedNeighbors(int mode, int d, int mask)
+    {
+        // a 3x3 neighborhood, indexed by x + y * 3, with the current cell in the center
+        final boolean[] openCells = new boolean[9];
+        openCells[4] = true;
+        for (int i = 0; i < 8; i++) {
+            openCells[1 + DX[i] + (1 + DY[i]) * 3] = (mask & 1 << i) != 0;
+        }
+        final double root2 = Math.sqrt(2.0);
+        final double[] dist = new double[9];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        final int previous = 1 - DX[d] + (1 - DY[d]) * 3;
+        dist[previous] = 0.0;
+        for (int round = 0; round < 9; round++) {
+            for (int a = 0; a < 9; a++) {
+                if(a == 4 || !openCells[a] || dist[a] == Double.POSITIVE_INFINITY)
+                    continue;
+                for (int i = 0; i < 8; i++) {
+                    int b = localStep(openCells, mode, a, i);
+                    if(b >= 0 && b != 4)
+                        dist[b] = Math.min(dist[b], dist[a] + (i < 4 ? 1.0 : root2));
+                }
+            }
+        }
+        final double via = d < 4 ? 1.0 : root2;
+        int keep = 0;
+        for (int i = 0; i < 8; i++) {
+            int n = localStep(openCells, mode, 4, i);
+            if(n < 0 || n == previous)
+                continue;
+            double total = via + (i < 4 ? 1.0 : root2);
+            if(d < 4 ? dist[n] <= total + 1e-9 : dist[n] < total - 1e-9)
+                continue;
+            keep |= 1 << i;
+        }
+        return (byte) keep;
+    }
+
+    private static int localStep(boolean[] openCells, int mode, int a, int i)
+    {
+        int ax = a % 3, ay = a / 3, bx = ax + DX[i], by = ay + DY[i];
+        if(bx < 0 || by < 0 || bx > 2 || by > 2 || !openCells[bx + by * 3])
+            return -1;
+        if(i >= 4 && mode > 0 && (openCells[bx + ay * 3] ? 0 : 1) + (openCells[ax + by * 3] ? 0 : 1) >= mode)
+            return -1;
+        return bx + by * 3;
+    }
+
+    private boolean isOpen(int x, int y)
+    {
+        if(x < 0 || y < 0 || x >= width || y >= height)
+            return false;
+        final double v = map[x][y];
+        return v >= 0 && v < squidpony.squidai.DijkstraMap.WALL;
+    }
+
+    private boolean canStep(int x, int y, int d)
+    {
+        final int nx = x + DX[d], ny = y + DY[d];
+        return isOpen(nx, ny) && (d < 4 || blockingRequirement == 0
+                || (isOpen(nx, y) ? 0 : 1) + (isOpen(x, ny) ? 0 : 1) < blockingRequirement);
+    }
+
+    private int neighborMask(int x, int y)
+    {
+        int mask = 0;
+        for (int i = 0; i < 8; i++) {
+            if(isOpen(x + DX[i], y + DY[i]))
+                mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    private boolean isJumpPoint(int x, int y, int d)
+    {
+        return (KEEP[blockingRequirement << 11 | d << 8 | neighborMask(x, y)] & ~NATURAL[blockingRequirement << 3 | d]) != 0;
+    }
+
+    private int jumpStraight(int x, int y, int d)
+    {
+        for (int steps = 1; canStep(x, y, d); steps++) {
+            x += DX[d];
+            y += DY[d];
+            if((x == targetX && y == targetY) || isJumpPoint(x, y, d))
+                return steps;
         }
-        if (x < 0 || y < 0 || x >= width || y >= height || map[x][y] < 0 || parent[x][y] < 0) {
-            gCache[x][y] = -1;
-            return -1;//not a valid location
+        return -1;
+    }
+
+    private int jumpDiagonal(int x, int y, int d)
+    {
+        for (int steps = 1; canStep(x, y, d); steps++) {
+            x += DX[d];
+            y += DY[d];
+            if((x == targetX && y == targetY) || isJumpPoint(x, y, d)
+                    || jumpStraight(x, y, HORIZONTAL[d]) > 0 || jumpStraight(x, y, VERTICAL[d]) > 0)
+                return steps;
         }
-        inner = dirs[parent[x][y]];
-        double parentG = gCache[x - inner.deltaX][y - inner.deltaY];
-        //double parentG = g(parent[x][y].x, parent[x][y].y);
-        if (parentG < 0) {
-            gCache[x][y] = -1;
-            return -1;//if any part of the path is not valid, this part is not valid
+        return -1;
+    }
+
+    private int measureJump(int x, int y, int d, int[] table)
+    {
+        int steps = 0;
+        while (canStep(x, y, d)) {
+            x += DX[d];
+            y += DY[d];
+            steps++;
+            if(isJumpPoint(x, y, d) || (d >= 4 && (table[(y * width + x) << 3 | HORIZONTAL[d]] > 0
+                    || table[(y * width + x) << 3 | VERTICAL[d]] > 0)))
+                return steps;
         }
+        return -steps;
+    }
 
-        return (gCache[x][y] = map[x][y] + parentG + 1);//follow path back to start
+    /**
+     * Finds the steps to the next jump point from x,y in direction d using {@link #jumps}, also stopping where the
+     * target is reached or where a straight line toward the target can start.
+     */
+    private int lookUpJump(int x, int y, int d)
+    {
+        final int v = jumps[(y * width + x) << 3 | d], dist = v > 0 ? v : -v,
+                tdx = (targetX - x) * DX[d], tdy = (targetY - y) * DY[d];
+        if(d < 4)
+        {
+            if(DX[d] == 0 ? targetX == x && tdy > 0 && tdy <= dist : targetY == y && tdx > 0 && tdx <= dist)
+                return tdx + tdy;
+        }
+        else if(tdx > 0 && tdy > 0)
+        {
+            final int m = Math.min(tdx, tdy);
+            if(m <= dist && (v <= 0 || m < v))
+                return m;
+        }
+        return v;
     }
 
     /**
@@ -262,13 +644,13 @@ public class AStarSearch implements Serializable {
     protected double h(int x, int y) {
         switch (type) {
             case MANHATTAN:
-                return Math.abs(x - target.x) + Math.abs(y - target.y);
+                return Math.abs(x - targetX) + Math.abs(y - targetY);
             case CHEBYSHEV:
-                return Math.max(Math.abs(x - target.x), Math.abs(y - target.y));
+                return Math.max(Math.abs(x - targetX), Math.abs(y - targetY));
             case EUCLIDEAN:
-                int xDist = Math.abs(x - target.x);
+                int xDist = Math.abs(x - targetX);
                 xDist *= xDist;
-                int yDist = Math.abs(y - target.y);
+                int yDist = Math.abs(y - targetY);
                 yDist *= yDist;
                 return Math.sqrt(xDist + yDist);
             case DIJKSTRA:
@@ -278,6 +660,23 @@ public class AStarSearch implements Serializable {
         }
     }
 
+    /**
+     * Finds the g value (start to current) for the given location, as found by the last search.
+     *
+     * If the given location is not valid or was not reached by the last search, then -1 is returned.
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @deprecated searches no longer call this; read {@link #gScore} where {@link #stamp} equals {@link #generation}
+     */
+    @Deprecated
+    protected double g(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height || gScore == null)
+            return -1;
+        final int cell = encode(x, y);
+        return generation != 0 && stamp[cell] == generation ? gScore[cell] : -1;
+    }
+
     /**
      * Combines g and h to get the estimated distance from start to goal going on the current route.
      * @param x coordinate
@@ -285,7 +684,9 @@ public class AStarSearch implements Serializable {
      * @return The current known shortest distance to the start position from
      *         the given position. If the current position cannot reach the
      *         start position or is invalid, -1 is returned.
+     * @deprecated searches no longer call this; the priorities in {@link #open} hold these values
      */
+    @Deprecated
     protected double f(int x, int y) {
         double foundG = g(x, y);
         if (foundG < 0) {
@@ -295,29 +696,16 @@ public class AStarSearch implements Serializable {
     }
 
     /**
-     * @return the current open point with the smallest F
+     * @return the current open point with the smallest F, or null if no points are open
+     * @deprecated searches no longer call this; use {@link IntDoubleHeap#peek()} on {@link #open} and
+     * {@link #decodeX(int)}/{@link #decodeY(int)}
      */
+    @Deprecated
     protected Coord smallestF() {
-        Coord smallest = null;
-        double smallF = Double.POSITIVE_INFINITY;
-        double f;
-        int sz = open.size();
-        Coord p;
-        for (int o = 0; o < sz; o++) {
-            p = open.getAt(o);
-            if(p == null)
-                continue;
-            f = f(p.x, p.y);
-            if (f < 0) {
-                continue;//current tested point is not valid so skip it
-            }
-            if (smallest == null || f < smallF) {
-                smallest = p;
-                smallF = f;
-            }
-        }
-
-        return smallest;
+        if (open == null || open.isEmpty())
+            return null;
+        final int cell = open.peek();
+        return Coord.get(decodeX(cell), decodeY(cell));
     }
 
     @Override
@@ -0,0 +1,19 @@
+package squidpony.squidmath;
+
+/**
+ * A RandomnessSource that can fill an array with random longs in one call. Implementations keep their state in local
+ * variables for the whole loop instead of reading and writing fields for every number, so filling a large array is
+ * much faster than calling {@link #nextLong()} once per item through the interface. {@link RNG#nextLongs(long[])},
+ * {@link RNG#nextInts(int[], int)} and {@link RNG#nextDoubles(double[])} use this when their RandomnessSource
+ * implements it, and fall back to calling nextLong() repeatedly otherwise.
+ */
+public interface BulkRandomness extends RandomnessSource {
+    /**
+     * Fills length items of dest, starting at offset, with random longs, leaving this in the same state (and filling
+     * dest with the same numbers) as calling {@link #nextLong()} length times would.
+     * @param dest the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    void nextLongs(long[] dest, int offset, int length);
+}
@@ -0,0 +1,140 @@
+package squidpony.squidmath;
+
+/**
+ * An unordered hash map from grid positions to Object values, storing each position as its x and y packed into one
+ * long instead of as a Coord, so lookups by x and y don't need to fetch or create a Coord and the table never holds
+ * references to keys. Any pair of ints can be a position, including negative ones outside the Coord pool. Methods
+ * that take a Coord are provided for convenience; {@link #coordAt(int)} rebuilds the Coord for a slot when iterating.
+ * This is a {@link LongObjectMap} underneath, so the long methods work with keys from {@link #pack(int, int)}. If the
+ * iteration order matters, use {@link CoordObjectOrderedMap}.
+ * @param <V> the type of values
+ */
+public class CoordObjectMap<V> extends LongObjectMap<V> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new map with room for 16 entries before it needs to resize, and a load factor of 0.75f.
+     */
+    public CoordObjectMap() {
+        super();
+    }
+
+    /**
+     * Creates a new map with room for {@code expected} entries before it needs to resize, and a load factor of 0.75f.
+     * @param expected the expected number of entries
+     */
+    public CoordObjectMap(final int expected) {
+        super(expected);
+    }
+
+    /**
+     * Creates a new map with room for {@code expected} entries before it needs to resize, with the given load factor.
+     * @param expected the expected number of entries
+     * @param f the load factor, greater than 0 and at most 1
+     */
+    public CoordObjectMap(final int expected, final float f) {
+        super(expected, f);
+    }
+
+    /**
+     * Creates a new map holding the same entries as {@code other}, visiting them in the order {@code other} iterates
+     * in. The values are not copied.
+     * @param other the map to copy
+     */
+    public CoordObjectMap(final LongObjectMap<? extends V> other) {
+        super(other);
+    }
+
+    /**
+     * Packs a position into the long key this class uses for it, with x in the upper 32 bits and y in the lower.
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return a long that holds both x and y
+     */
+    public static long pack(final int x, final int y) {
+        return (long) x << 32 | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param packed a long from {@link #pack(int, int)}
+     * @return the x-coordinate packed into it
+     */
+    public static int unpackX(final long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    /**
+     * @param packed a long from {@link #pack(int, int)}
+     * @return the y-coordinate packed into it
+     */
+    public static int unpackY(final long packed) {
+        return (int) packed;
+    }
+
+    public V get(final int x, final int y) {
+        return get(pack(x, y));
+    }
+
+    public V get(final Coord c) {
+        return get(pack(c.x, c.y));
+    }
+
+    public boolean containsKey(final int x, final int y) {
+        return find(pack(x, y)) >= 0;
+    }
+
+    public boolean containsKey(final Coord c) {
+        return find(pack(c.x, c.y)) >= 0;
+    }
+
+    public V put(final int x, final int y, final V v) {
+        return put(pack(x, y), v);
+    }
+
+    public V put(final Coord c, final V v) {
+        return put(pack(c.x, c.y), v);
+    }
+
+    public V remove(final int x, final int y) {
+        return remove(pack(x, y));
+    }
+
+    public V remove(final Coord c) {
+        return remove(pack(c.x, c.y));
+    }
+
+    /**
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @return the x-coordinate of the key in that slot
+     */
+    public int xAt(final int slot) {
+        return (int) (key[slot] >>> 32);
+    }
+
+    /**
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @return the y-coordinate of the key in that slot
+     */
+    public int yAt(final int slot) {
+        return (int) key[slot];
+    }
+
+    /**
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @return the key in that slot as a Coord, which will be pooled if it is in the Coord pool's range
+     */
+    public Coord coordAt(final int slot) {
+        return Coord.get((int) (key[slot] >>> 32), (int) key[slot]);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (int s = firstSlot(); s >= 0; s = nextSlot(s)) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append('(').append(xAt(s)).append(',').append(yAt(s)).append(")=")
+                    .append(value[s] == this ? "(this map)" : String.valueOf(value[s]));
+        }
+        return sb.append('}').toString();
+    }
+}
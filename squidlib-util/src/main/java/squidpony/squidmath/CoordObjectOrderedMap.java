@@ -0,0 +1,113 @@
+package squidpony.squidmath;
+
+/**
+ * A hash map from grid positions to Object values that iterates in insertion order, storing each position as its x
+ * and y packed into one long like {@link CoordObjectMap} does, and keeping the order with a doubly linked list like
+ * {@link LongObjectOrderedMap}. This can replace an {@code OrderedMap<Coord, V>} wherever the map is only reached
+ * through its own methods, without boxing, hashing Coords, or the linear-time removal of OrderedMap's order list; keys
+ * from {@link CoordObjectMap#pack(int, int)} work with the long methods.
+ * @param <V> the type of values
+ */
+public class CoordObjectOrderedMap<V> extends LongObjectOrderedMap<V> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new map with room for 16 entries before it needs to resize, and a load factor of 0.75f.
+     */
+    public CoordObjectOrderedMap() {
+        super();
+    }
+
+    /**
+     * Creates a new map with room for {@code expected} entries before it needs to resize, and a load factor of 0.75f.
+     * @param expected the expected number of entries
+     */
+    public CoordObjectOrderedMap(final int expected) {
+        super(expected);
+    }
+
+    /**
+     * Creates a new map with room for {@code expected} entries before it needs to resize, with the given load factor.
+     * @param expected the expected number of entries
+     * @param f the load factor, greater than 0 and at most 1
+     */
+    public CoordObjectOrderedMap(final int expected, final float f) {
+        super(expected, f);
+    }
+
+    /**
+     * Creates a new map holding the same entries as {@code other}, visiting them in the order {@code other} iterates
+     * in. The values are not copied.
+     * @param other the map to copy
+     */
+    public CoordObjectOrderedMap(final LongObjectMap<? extends V> other) {
+        super(other);
+    }
+
+    public V get(final int x, final int y) {
+        return get(CoordObjectMap.pack(x, y));
+    }
+
+    public V get(final Coord c) {
+        return get(CoordObjectMap.pack(c.x, c.y));
+    }
+
+    public boolean containsKey(final int x, final int y) {
+        return find(CoordObjectMap.pack(x, y)) >= 0;
+    }
+
+    public boolean containsKey(final Coord c) {
+        return find(CoordObjectMap.pack(c.x, c.y)) >= 0;
+    }
+
+    public V put(final int x, final int y, final V v) {
+        return put(CoordObjectMap.pack(x, y), v);
+    }
+
+    public V put(final Coord c, final V v) {
+        return put(CoordObjectMap.pack(c.x, c.y), v);
+    }
+
+    public V remove(final int x, final int y) {
+        return remove(CoordObjectMap.pack(x, y));
+    }
+
+    public V remove(final Coord c) {
+        return remove(CoordObjectMap.pack(c.x, c.y));
+    }
+
+    /**
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @return the x-coordinate of the key in that slot
+     */
+    public int xAt(final int slot) {
+        return (int) (key[slot] >>> 32);
+    }
+
+    /**
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @return the y-coordinate of the key in that slot
+     */
+    public int yAt(final int slot) {
+        return (int) key[slot];
+    }
+
+    /**
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @return the key in that slot as a Coord, which will be pooled if it is in the Coord pool's range
+     */
+    public Coord coordAt(final int slot) {
+        return Coord.get((int) (key[slot] >>> 32), (int) key[slot]);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (int s = firstSlot(); s >= 0; s = nextSlot(s)) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append('(').append(xAt(s)).append(',').append(yAt(s)).append(")=")
+                    .append(value[s] == this ? "(this map)" : String.valueOf(value[s]));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -41,16 +41,16 @@ public class DDALine {
             drawn.add(Coord.get(startX, startY));
             return drawn;
         }
-        if(mn == nx) //ny is 0
+        if(ny == 0)
         {
-            for (int x = startX; x <= endX; x++) {
+            for (int x = startX, i = 0; i <= nx; x += (dx > 0) ? 1 : -1, i++) {
                 drawn.add(Coord.get(x, startY));
             }
             return drawn;
         }
-        if(mn == ny) //nx is 0
+        if(nx == 0)
         {
-            for (int y = startY; y <= endY; y++) {
+            for (int y = startY, i = 0; i <= ny; y += (dy > 0) ? 1 : -1, i++) {
                 drawn.add(Coord.get(startX, y));
             }
             return drawn;
@@ -155,7 +155,7 @@ public class DDALine {
             return new Coord[]{Coord.get(startX, startY)};
         }
         Coord[] drawn = new Coord[mn + 1];
-        if(mn == nx) //ny is 0
+        if(ny == 0)
         {
             if(dx > 0) {
                 for (int x = startX, i = 0; x <= endX; x++, i++) {
@@ -170,7 +170,7 @@ public class DDALine {
 
             return drawn;
         }
-        if(mn == ny) //nx is 0
+        if(nx == 0)
         {
             if(dy > 0) {
                 for (int y = startY, i = 0; y <= endY; y++, i++) {
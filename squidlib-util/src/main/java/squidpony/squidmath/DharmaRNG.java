@@ -583,4 +583,34 @@ public class DharmaRNG extends RNG implements Serializable{
         result = 31 * result + (int) (temp ^ (temp >>> 32));
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc} This calls {@link #nextLong()} once per item, since this class adjusts its numbers to stay fair.
+     */
+    @Override
+    public void nextLongs(long[] dest, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            dest[i] = nextLong();
+        }
+    }
+
+    /**
+     * {@inheritDoc} Like {@link #nextLongs(long[], int, int)}, this calls {@link #nextDouble()} once per item.
+     */
+    @Override
+    public void nextDoubles(double[] dest, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            dest[i] = nextDouble();
+        }
+    }
+
+    /**
+     * {@inheritDoc} Like {@link #nextLongs(long[], int, int)}, this calls {@link #nextInt(int)} once per item.
+     */
+    @Override
+    public void nextInts(int[] dest, int offset, int length, int bound) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            dest[i] = nextInt(bound);
+        }
+    }
+}
@@ -666,5 +666,34 @@ public class EditRNG extends StatefulRNG implements Serializable{
         return (int)(nextDouble() * bound);
     }
 
+    /**
+     * {@inheritDoc} This calls {@link #nextLong()} once per item, since this class changes the average and centrality
+     * of its numbers.
+     */
+    @Override
+    public void nextLongs(long[] dest, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            dest[i] = nextLong();
+        }
+    }
+
+    /**
+     * {@inheritDoc} Like {@link #nextLongs(long[], int, int)}, this calls {@link #nextDouble()} once per item.
+     */
+    @Override
+    public void nextDoubles(double[] dest, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            dest[i] = nextDouble();
+        }
+    }
 
-}
\ No newline at end of file
+    /**
+     * {@inheritDoc} Like {@link #nextLongs(long[], int, int)}, this calls {@link #nextInt(int)} once per item.
+     */
+    @Override
+    public void nextInts(int[] dest, int offset, int length, int bound) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            dest[i] = nextInt(bound);
+        }
+    }
+}
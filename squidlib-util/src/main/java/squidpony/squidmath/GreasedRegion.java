@@ -1524,6 +1524,29 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
         return this;
     }
 
+    /**
+     * If this GreasedRegion already has the given width and height, this acts like {@link #empty()} and makes no
+     * allocations; otherwise, this allocates new data with the given width and height, with all cells "off." Useful
+     * for methods that fill a GreasedRegion given by the caller, so the same one can be reused across calls.
+     * @param width the width this should have
+     * @param height the height this should have
+     * @return this for chaining
+     */
+    public GreasedRegion resizeAndEmpty(int width, int height)
+    {
+        if(this.width == width && this.height == height)
+        {
+            Arrays.fill(data, 0L);
+            return this;
+        }
+        this.width = width;
+        this.height = height;
+        ySections = (height + 63) >> 6;
+        yEndMask = -1L >>> (64 - (height & 63));
+        data = new long[width * ySections];
+        return this;
+    }
+
     /**
      * Sets all cells in this to "on."
      * @return this for chaining
@@ -1782,9 +1805,17 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
      */
     public GreasedRegion or(GreasedRegion other)
     {
-        for (int x = 0; x < width && x < other.width; x++) {
-            for (int y = 0; y < ySections && y < other.ySections; y++) {
-                data[x * ySections + y] |= other.data[x * ySections + y];
+        if(width == other.width && ySections == other.ySections) {
+            final long[] d = data, o = other.data;
+            for (int i = 0; i < d.length; i++) {
+                d[i] |= o[i];
+            }
+        }
+        else {
+            for (int x = 0; x < width && x < other.width; x++) {
+                for (int y = 0; y < ySections && y < other.ySections; y++) {
+                    data[x * ySections + y] |= other.data[x * ySections + y];
+                }
             }
         }
 
@@ -1805,9 +1836,17 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
      */
     public GreasedRegion and(GreasedRegion other)
     {
-        for (int x = 0; x < width && x < other.width; x++) {
-            for (int y = 0; y < ySections && y < other.ySections; y++) {
-                data[x * ySections + y] &= other.data[x * ySections + y];
+        if(width == other.width && ySections == other.ySections) {
+            final long[] d = data, o = other.data;
+            for (int i = 0; i < d.length; i++) {
+                d[i] &= o[i];
+            }
+        }
+        else {
+            for (int x = 0; x < width && x < other.width; x++) {
+                for (int y = 0; y < ySections && y < other.ySections; y++) {
+                    data[x * ySections + y] &= other.data[x * ySections + y];
+                }
             }
         }
         return this;
@@ -1821,9 +1860,17 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
      */
     public GreasedRegion andNot(GreasedRegion other)
     {
-        for (int x = 0; x < width && x < other.width; x++) {
-            for (int y = 0; y < ySections && y < other.ySections; y++) {
-                data[x * ySections + y] &= ~other.data[x * ySections + y];
+        if(width == other.width && ySections == other.ySections) {
+            final long[] d = data, o = other.data;
+            for (int i = 0; i < d.length; i++) {
+                d[i] &= ~o[i];
+            }
+        }
+        else {
+            for (int x = 0; x < width && x < other.width; x++) {
+                for (int y = 0; y < ySections && y < other.ySections; y++) {
+                    data[x * ySections + y] &= ~other.data[x * ySections + y];
+                }
             }
         }
         return this;
@@ -1838,9 +1885,17 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
      */
     public GreasedRegion notAnd(GreasedRegion other)
     {
-        for (int x = 0; x < width && x < other.width; x++) {
-            for (int y = 0; y < ySections && y < other.ySections; y++) {
-                data[x * ySections + y] = other.data[x * ySections + y] & ~data[x * ySections + y];
+        if(width == other.width && ySections == other.ySections) {
+            final long[] d = data, o = other.data;
+            for (int i = 0; i < d.length; i++) {
+                d[i] = o[i] & ~d[i];
+            }
+        }
+        else {
+            for (int x = 0; x < width && x < other.width; x++) {
+                for (int y = 0; y < ySections && y < other.ySections; y++) {
+                    data[x * ySections + y] = other.data[x * ySections + y] & ~data[x * ySections + y];
+                }
             }
         }
         return this;
@@ -1856,9 +1911,17 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
      */
     public GreasedRegion xor(GreasedRegion other)
     {
-        for (int x = 0; x < width && x < other.width; x++) {
-            for (int y = 0; y < ySections && y < other.ySections; y++) {
-                data[x * ySections + y] ^= other.data[x * ySections + y];
+        if(width == other.width && ySections == other.ySections) {
+            final long[] d = data, o = other.data;
+            for (int i = 0; i < d.length; i++) {
+                d[i] ^= o[i];
+            }
+        }
+        else {
+            for (int x = 0; x < width && x < other.width; x++) {
+                for (int y = 0; y < ySections && y < other.ySections; y++) {
+                    data[x * ySections + y] ^= other.data[x * ySections + y];
+                }
             }
         }
 
@@ -2395,35 +2458,61 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
             return this;
 
         final long[] next = new long[width * ySections];
-        System.arraycopy(data, 0, next, 0, width * ySections);
-        for (int a = 0; a < ySections; a++) {
-            next[a] |= (data[a] << 1) | (data[a] >>> 1) | data[a+ySections];
-            next[(width-1)*ySections+a] |= (data[(width-1)*ySections+a] << 1) | (data[(width-1)*ySections+a] >>> 1) | data[(width-2) *ySections+a];
+        expandInto(data, next);
+        data = next;
+        return this;
+    }
 
-            for (int i = ySections+a; i < (width - 1) * ySections; i+= ySections) {
-                next[i] |= (data[i] << 1) | (data[i] >>> 1) | data[i - ySections] | data[i + ySections];
+    /**
+     * Writes the orthogonal expansion of src, which must have this GreasedRegion's dimensions, into dst. Nearly all of
+     * the work is one flat loop over the inner columns with no branches inside, reading the bits that carry between
+     * 64-cell sections from the neighboring longs, which HotSpot can unroll and turn into SIMD instructions; the first
+     * and last column, and the sections where a carry would cross into another column, are redone afterwards.
+     * Requires width to be at least 2.
+     * @param src the region data to read; not modified
+     * @param dst the array to overwrite with the expanded data; must be a different array from src
+     */
+    private void expandInto(final long[] src, final long[] dst)
+    {
+        final int ys = ySections, end = (width - 1) * ys, len = end + ys;
+        long d;
+        if(ys == 1) {
+            for (int i = 1; i < end; i++) {
+                d = src[i];
+                dst[i] = d | d << 1 | d >>> 1 | src[i - 1] | src[i + 1];
             }
-
-            if(a > 0) {
-                for (int i = ySections+a; i < (width-1) * ySections; i+= ySections) {
-                    next[i] |= (data[i - 1] & 0x8000000000000000L) >>> 63;
-                }
+        }
+        else {
+            for (int i = ys; i < end; i++) {
+                d = src[i];
+                dst[i] = d | d << 1 | d >>> 1 | src[i - 1] >>> 63 | src[i + 1] << 63 | src[i - ys] | src[i + ys];
             }
-
-            if(a < ySections - 1) {
-                for (int i = ySections+a; i < (width-1) * ySections; i+= ySections) {
-                    next[i] |= (data[i + 1] & 1L) << 63;
-                }
+            for (int x = ys, i; x < end; x += ys) {
+                d = src[x];
+                dst[x] = d | d << 1 | d >>> 1 | src[x + 1] << 63 | src[x - ys] | src[x + ys];
+                d = src[i = x + ys - 1];
+                dst[i] = d | d << 1 | d >>> 1 | src[i - 1] >>> 63 | src[i - ys] | src[i + ys];
             }
         }
-
-        if(ySections > 0 && yEndMask != -1) {
-            for (int a = ySections - 1; a < next.length; a += ySections) {
-                next[a] &= yEndMask;
+        for (int i = 0, j = end; i < ys; i++, j++) {
+            d = src[i];
+            dst[i] = d | d << 1 | d >>> 1 | src[i + ys];
+            d = src[j];
+            dst[j] = d | d << 1 | d >>> 1 | src[j - ys];
+            if(i > 0) {
+                dst[i] |= src[i - 1] >>> 63;
+                dst[j] |= src[j - 1] >>> 63;
+            }
+            if(i < ys - 1) {
+                dst[i] |= src[i + 1] << 63;
+                dst[j] |= src[j + 1] << 63;
+            }
+        }
+        if(yEndMask != -1) {
+            for (int i = ys - 1; i < len; i += ys) {
+                dst[i] &= yEndMask;
             }
         }
-        data = next;
-        return this;
     }
     /**
      * Takes the "on" cells in this GreasedRegion and expands them by amount cells in the 4 orthogonal directions,
@@ -2438,9 +2527,16 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
     @Override
     public GreasedRegion expand(int amount)
     {
+        if(amount <= 0 || width < 2 || ySections == 0)
+            return this;
+        long[] src = data, dst = new long[width * ySections], t;
         for (int i = 0; i < amount; i++) {
-            expand();
+            expandInto(src, dst);
+            t = src;
+            src = dst;
+            dst = t;
         }
+        data = src;
         return this;
     }
     /**
@@ -2488,9 +2584,13 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
      */
     public GreasedRegion fringe()
     {
-        GreasedRegion cpy = new GreasedRegion(this);
+        final long[] old = data;
         expand();
-        return andNot(cpy);
+        final long[] d = data;
+        for (int i = 0; i < d.length; i++) {
+            d[i] &= ~old[i];
+        }
+        return this;
     }
     /**
      * Takes the "on" cells in this GreasedRegion and expands them by amount cells in the 4 orthogonal directions
@@ -2508,9 +2608,15 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
 
     public GreasedRegion fringe(int amount)
     {
-        GreasedRegion cpy = new GreasedRegion(this);
+        final long[] old = data;
+        data = new long[old.length];
+        System.arraycopy(old, 0, data, 0, old.length);
         expand(amount);
-        return andNot(cpy);
+        final long[] d = data;
+        for (int i = 0; i < d.length; i++) {
+            d[i] &= ~old[i];
+        }
+        return this;
     }
 
     /**
@@ -2566,47 +2672,45 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
             return this;
 
         final long[] next = new long[width * ySections];
-        System.arraycopy(data, ySections, next, ySections, (width - 2) * ySections);
-        for (int a = 0; a < ySections; a++) {
-            if(a > 0 && a < ySections - 1) {
-                for (int i = ySections+a; i < (width - 1) * ySections; i+= ySections) {
-                    next[i] &= ((data[i] << 1) | ((data[i - 1] & 0x8000000000000000L) >>> 63))
-                            & ((data[i] >>> 1) | ((data[i + 1] & 1L) << 63))
-                            & data[i - ySections]
-                            & data[i + ySections];
-                }
-            }
-            else if(a > 0) {
-                for (int i = ySections+a; i < (width - 1) * ySections; i+= ySections) {
-                    next[i] &= ((data[i] << 1) | ((data[i - 1] & 0x8000000000000000L) >>> 63))
-                            & (data[i] >>> 1)
-                            & data[i - ySections]
-                            & data[i + ySections];
-                }
-            }
-            else if(a < ySections - 1) {
-                for (int i = ySections+a; i < (width - 1) * ySections; i+= ySections) {
-                    next[i] &= (data[i] << 1)
-                            & ((data[i] >>> 1) | ((data[i + 1] & 1L) << 63))
-                            & data[i - ySections]
-                            & data[i + ySections];
-                }
-            }
-            else // only the case when ySections == 1
-            {
-                for (int i = ySections+a; i < (width - 1) * ySections; i+= ySections) {
-                    next[i] &= (data[i] << 1) & (data[i] >>> 1) & data[i - ySections] & data[i + ySections];
-                }
+        retractInto(data, next);
+        data = next;
+        return this;
+    }
+
+    /**
+     * Writes the orthogonal retraction of src, which must have this GreasedRegion's dimensions, into dst. Like
+     * {@link #expandInto(long[], long[])}, nearly all of the work is one flat, branch-free loop that HotSpot can unroll
+     * and vectorize, and the sections where a carry would cross into another column are redone afterwards. Cells in
+     * the first and last column, and in the first and last row, are always retracted. Requires width to be at least 3.
+     * @param src the region data to read; not modified
+     * @param dst the array to overwrite with the retracted data; must be a different array from src
+     */
+    private void retractInto(final long[] src, final long[] dst)
+    {
+        final int ys = ySections, end = (width - 1) * ys;
+        long d;
+        for (int i = 0; i < ys; i++) {
+            dst[i] = 0L;
+            dst[end + i] = 0L;
+        }
+        if(ys == 1) {
+            for (int i = 1; i < end; i++) {
+                d = src[i];
+                dst[i] = d & d << 1 & d >>> 1 & src[i - 1] & src[i + 1];
             }
         }
-
-        if(yEndMask != -1) {
-            for (int a = ySections - 1; a < next.length; a += ySections) {
-                next[a] &= yEndMask;
+        else {
+            for (int i = ys; i < end; i++) {
+                d = src[i];
+                dst[i] = d & (d << 1 | src[i - 1] >>> 63) & (d >>> 1 | src[i + 1] << 63) & src[i - ys] & src[i + ys];
+            }
+            for (int x = ys, i; x < end; x += ys) {
+                d = src[x];
+                dst[x] = d & d << 1 & (d >>> 1 | src[x + 1] << 63) & src[x - ys] & src[x + ys];
+                d = src[i = x + ys - 1];
+                dst[i] = d & (d << 1 | src[i - 1] >>> 63) & d >>> 1 & src[i - ys] & src[i + ys];
             }
         }
-        data = next;
-        return this;
     }
 
     /**
@@ -2621,9 +2725,16 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
      */
     public GreasedRegion retract(int amount)
     {
+        if(amount <= 0 || width <= 2 || ySections <= 0)
+            return this;
+        long[] src = data, dst = new long[width * ySections], t;
         for (int i = 0; i < amount; i++) {
-            retract();
+            retractInto(src, dst);
+            t = src;
+            src = dst;
+            dst = t;
         }
+        data = src;
         return this;
     }
 
@@ -2650,13 +2761,25 @@ public class GreasedRegion extends Zone.Skeleton implements Collection<Coord>, S
 
     public GreasedRegion surface()
     {
-        GreasedRegion cpy = new GreasedRegion(this).retract();
-        return xor(cpy);
+        final long[] old = data;
+        retract();
+        final long[] d = data;
+        for (int i = 0; i < d.length; i++) {
+            d[i] = old[i] & ~d[i];
+        }
+        return this;
     }
     public GreasedRegion surface(int amount)
     {
-        GreasedRegion cpy = new GreasedRegion(this).retract(amount);
-        return xor(cpy);
+        final long[] old = data;
+        data = new long[old.length];
+        System.arraycopy(old, 0, data, 0, old.length);
+        retract(amount);
+        final long[] d = data;
+        for (int i = 0; i < d.length; i++) {
+            d[i] = old[i] & ~d[i];
+        }
+        return this;
     }
 
     public GreasedRegion[] surfaceSeries(int amount)
@@ -0,0 +1,204 @@
+package squidpony.squidmath;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An indexed binary min-heap of int items in the range {@code [0, capacity)}, each with a double priority. Because the
+ * heap tracks where each item is stored, {@link #offer(int, double)} can lower the priority of an item that is already
+ * present instead of adding a duplicate, which is what Dijkstra's algorithm and A* need to settle every cell exactly
+ * once. The item type is meant to be an encoded cell index, like the ones produced by
+ * {@link squidpony.squidai.DijkstraMap#encode(int, int)}, so nothing is boxed and nothing is allocated once the heap
+ * has been constructed (or resized to fit a larger map).
+ * <br>
+ * The order in which items with equal priorities are removed is unspecified.
+ */
+public class IntDoubleHeap implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The items in heap order; only the first {@link #size} entries are meaningful.
+     */
+    public int[] items;
+    /**
+     * The priorities of the items in heap order, parallel to {@link #items}.
+     */
+    public double[] priorities;
+    /**
+     * For each possible item, its index in {@link #items}, or -1 if it is not in the heap.
+     */
+    protected int[] positions;
+    /**
+     * How many items are currently in the heap.
+     */
+    public int size;
+
+    /**
+     * Creates an empty heap that can hold items from 0 (inclusive) to 256 (exclusive).
+     */
+    public IntDoubleHeap()
+    {
+        this(256);
+    }
+
+    /**
+     * Creates an empty heap that can hold items from 0 (inclusive) to capacity (exclusive).
+     * @param capacity one more than the largest item this can hold; for a map, usually width * height
+     */
+    public IntDoubleHeap(int capacity)
+    {
+        capacity = Math.max(1, capacity);
+        items = new int[capacity];
+        priorities = new double[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Makes sure this can hold items from 0 (inclusive) to capacity (exclusive), clearing the heap if it needs to grow.
+     * @param capacity one more than the largest item this should be able to hold
+     */
+    public void ensureCapacity(int capacity)
+    {
+        if(capacity <= positions.length)
+            return;
+        items = new int[capacity];
+        priorities = new double[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        size = 0;
+    }
+
+    /**
+     * @return the largest item this can hold, plus 1
+     */
+    public int capacity()
+    {
+        return positions.length;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * @param item an int between 0 (inclusive) and {@link #capacity()} (exclusive)
+     * @return true if item is currently in the heap
+     */
+    public boolean contains(int item)
+    {
+        return positions[item] >= 0;
+    }
+
+    /**
+     * Gets the priority item currently has in the heap, or {@link Double#POSITIVE_INFINITY} if it isn't present.
+     * @param item an int between 0 (inclusive) and {@link #capacity()} (exclusive)
+     * @return the priority of item, or positive infinity if it isn't in the heap
+     */
+    public double priority(int item)
+    {
+        int p = positions[item];
+        return p < 0 ? Double.POSITIVE_INFINITY : priorities[p];
+    }
+
+    /**
+     * Adds item with the given priority if it isn't present, or lowers its priority if it is present and the new
+     * priority is lower. Does nothing if item is present with a priority less than or equal to the given one.
+     * @param item an int between 0 (inclusive) and {@link #capacity()} (exclusive)
+     * @param priority the priority to give item; lower priorities are removed first
+     * @return true if the heap was changed, false otherwise
+     */
+    public boolean offer(int item, double priority)
+    {
+        int p = positions[item];
+        if(p < 0)
+        {
+            p = size++;
+        }
+        else if(priority >= priorities[p])
+            return false;
+        siftUp(p, item, priority);
+        return true;
+    }
+
+    /**
+     * @return the item with the lowest priority, without removing it; undefined if the heap is empty
+     */
+    public int peek()
+    {
+        return items[0];
+    }
+
+    /**
+     * @return the lowest priority in the heap; undefined if the heap is empty
+     */
+    public double peekPriority()
+    {
+        return priorities[0];
+    }
+
+    /**
+     * Removes and returns the item with the lowest priority. Call {@link #peekPriority()} first if you need the
+     * priority as well. Undefined if the heap is empty.
+     * @return the item that had the lowest priority
+     */
+    public int poll()
+    {
+        int top = items[0];
+        positions[top] = -1;
+        if(--size > 0)
+            siftDown(0, items[size], priorities[size]);
+        return top;
+    }
+
+    /**
+     * Removes all items from the heap; this takes time proportional to the number of items in the heap, not to its
+     * capacity.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < size; i++) {
+            positions[items[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int idx, int item, double priority)
+    {
+        int parent;
+        while (idx > 0)
+        {
+            parent = (idx - 1) >>> 1;
+            if(priorities[parent] <= priority)
+                break;
+            items[idx] = items[parent];
+            priorities[idx] = priorities[parent];
+            positions[items[idx]] = idx;
+            idx = parent;
+        }
+        items[idx] = item;
+        priorities[idx] = priority;
+        positions[item] = idx;
+    }
+
+    private void siftDown(int idx, int item, double priority)
+    {
+        int child, half = size >>> 1;
+        while (idx < half)
+        {
+            child = (idx << 1) + 1;
+            if(child + 1 < size && priorities[child + 1] < priorities[child])
+                ++child;
+            if(priority <= priorities[child])
+                break;
+            items[idx] = items[child];
+            priorities[idx] = priorities[child];
+            positions[items[idx]] = idx;
+            idx = child;
+        }
+        items[idx] = item;
+        priorities[idx] = priority;
+        positions[item] = idx;
+    }
+}
@@ -0,0 +1,458 @@
+package squidpony.squidmath;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An unordered hash map from int keys to int values that never boxes either one, using open addressing with linear
+ * probing in the style of fastutil's Int2IntOpenHashMap. This is meant for hot paths where an OrderedMap of Integer
+ * keys would spend most of its time boxing and maintaining its order list; if the iteration order matters, use
+ * {@link IntIntOrderedMap}, which keeps insertion order at the cost of two more int arrays and some bookkeeping.
+ * <br>
+ * The key 0 is stored in a slot of its own past the end of the table, so any int can be a key. A missing key gets
+ * {@link #defaultReturnValue()} from {@link #get(int)}, which is 0 unless changed. Removal shifts the following
+ * entries back instead of leaving tombstones, so the table doesn't degrade with many removals, and {@link #clear()}
+ * keeps the table's capacity so a map can be refilled without allocating.
+ * <br>
+ * Entries can be visited without allocating with {@link #firstSlot()}, {@link #nextSlot(int)}, {@link #keyAt(int)}
+ * and {@link #valueAt(int)}:
+ * <pre>
+ * for (int s = map.firstSlot(); s &gt;= 0; s = map.nextSlot(s)) {
+ *     total += map.valueAt(s);
+ * }
+ * </pre>
+ * This doesn't implement {@link java.util.Map}, since that would mean boxing every key and value it handles.
+ */
+public class IntIntMap implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /**
+     * The initial default size of a hash table.
+     */
+    public static final int DEFAULT_INITIAL_SIZE = 16;
+    /**
+     * The default load factor of a hash table.
+     */
+    public static final float DEFAULT_LOAD_FACTOR = .75f;
+
+    /**
+     * The array of keys; slot {@link #n} holds the key 0 if {@link #containsZeroKey} is true.
+     */
+    protected int[] key;
+    /**
+     * The array of values, parallel to {@link #key}.
+     */
+    protected int[] value;
+    /**
+     * The mask for wrapping a position counter.
+     */
+    protected int mask;
+    /**
+     * The current table size, always a power of two; the arrays have one more slot for the key 0.
+     */
+    protected int n;
+    /**
+     * Whether this map contains the key 0.
+     */
+    protected boolean containsZeroKey;
+    /**
+     * Threshold after which we rehash. It must be the table size times {@link #f}.
+     */
+    protected int maxFill;
+    /**
+     * Number of entries in the map, including the key 0 if present.
+     */
+    protected int size;
+    /**
+     * The acceptable load factor.
+     */
+    protected final float f;
+    /**
+     * The value returned by {@link #get(int)} and {@link #remove(int)} for a missing key.
+     */
+    protected int defRetValue;
+
+    /**
+     * Creates a new map with room for 16 entries before it needs to resize, and a load factor of 0.75f.
+     */
+    public IntIntMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a new map with room for {@code expected} entries before it needs to resize, and a load factor of 0.75f.
+     * @param expected the expected number of entries
+     */
+    public IntIntMap(final int expected) {
+        this(expected, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a new map with room for {@code expected} entries before it needs to resize, with the given load factor.
+     * @param expected the expected number of entries
+     * @param f the load factor, greater than 0 and at most 1
+     */
+    public IntIntMap(final int expected, final float f) {
+        if (f <= 0 || f > 1)
+            throw new IllegalArgumentException("Load factor must be greater than 0 and smaller than or equal to 1");
+        if (expected < 0) throw new IllegalArgumentException("The expected number of elements must be nonnegative");
+        this.f = f;
+        n = OrderedMap.arraySize(expected, f);
+        mask = n - 1;
+        maxFill = OrderedMap.maxFill(n, f);
+        key = new int[n + 1];
+        value = new int[n + 1];
+    }
+
+    /**
+     * Creates a new map holding the same entries and default return value as {@code other}, visiting them in the
+     * order {@code other} iterates in.
+     * @param other the map to copy
+     */
+    public IntIntMap(final IntIntMap other) {
+        this(other.size, other.f);
+        defRetValue = other.defRetValue;
+        putAll(other);
+    }
+
+    /**
+     * Scrambles a key so that keys that differ only in their upper bits still spread over the table.
+     * @param x any int
+     * @return a hash of x with its bits mixed
+     */
+    protected static int mix(final int x) {
+        final int h = x * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Sets the value returned by {@link #get(int)} and {@link #remove(int)} when a key isn't present.
+     * @param rv the new default return value
+     */
+    public void defaultReturnValue(final int rv) {
+        defRetValue = rv;
+    }
+
+    /**
+     * @return the value returned by {@link #get(int)} and {@link #remove(int)} when a key isn't present
+     */
+    public int defaultReturnValue() {
+        return defRetValue;
+    }
+
+    /**
+     * Finds the slot that holds k.
+     * @param k a key
+     * @return the slot holding k, or -1 if k is not present
+     */
+    protected int find(final int k) {
+        if (k == 0) return containsZeroKey ? n : -1;
+        final int[] key = this.key;
+        int curr, pos;
+        if ((curr = key[pos = mix(k) & mask]) == 0) return -1;
+        while (curr != k) {
+            if ((curr = key[pos = pos + 1 & mask]) == 0) return -1;
+        }
+        return pos;
+    }
+
+    public int get(final int k) {
+        final int pos = find(k);
+        return pos < 0 ? defRetValue : value[pos];
+    }
+
+    public int getOrDefault(final int k, final int defaultValue) {
+        final int pos = find(k);
+        return pos < 0 ? defaultValue : value[pos];
+    }
+
+    public boolean containsKey(final int k) {
+        return find(k) >= 0;
+    }
+
+    public boolean containsValue(final int v) {
+        for (int s = firstSlot(); s >= 0; s = nextSlot(s)) {
+            if (value[s] == v) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Finds the slot for k, adding k with a value of {@link #defRetValue} if it isn't present.
+     * @param k a key
+     * @return the slot holding k, or the bitwise complement of that slot (a negative number) if k was just added
+     */
+    protected int insert(final int k) {
+        int pos;
+        if (k == 0) {
+            if (containsZeroKey) return n;
+            containsZeroKey = true;
+            pos = n;
+        } else {
+            final int[] key = this.key;
+            int curr;
+            if ((curr = key[pos = mix(k) & mask]) != 0) {
+                if (curr == k) return pos;
+                while ((curr = key[pos = pos + 1 & mask]) != 0)
+                    if (curr == k) return pos;
+            }
+            key[pos] = k;
+        }
+        value[pos] = defRetValue;
+        placed(pos);
+        if (size++ >= maxFill) {
+            rehash(OrderedMap.arraySize(size + 1, f));
+            return ~find(k);
+        }
+        return ~pos;
+    }
+
+    /**
+     * Associates v with k, replacing any value k had.
+     * @param k a key
+     * @param v the value to associate with k
+     * @return the value k had, or {@link #defaultReturnValue()} if k wasn't present
+     */
+    public int put(final int k, final int v) {
+        int pos = insert(k);
+        if (pos < 0) {
+            value[~pos] = v;
+            return defRetValue;
+        }
+        final int oldValue = value[pos];
+        value[pos] = v;
+        return oldValue;
+    }
+
+    /**
+     * Adds incr to the value associated with k, treating a missing key as having {@link #defaultReturnValue()}. This
+     * is handy for counting.
+     * @param k a key
+     * @param incr the amount to add to k's value
+     * @return the value k had before this call, or {@link #defaultReturnValue()} if it wasn't present
+     */
+    public int addTo(final int k, final int incr) {
+        int pos = insert(k);
+        if (pos < 0) pos = ~pos;
+        final int oldValue = value[pos];
+        value[pos] += incr;
+        return oldValue;
+    }
+
+    /**
+     * Puts every entry of m into this map, in the order m iterates in.
+     * @param m another IntIntMap; its entries replace any for the same keys here
+     */
+    public void putAll(final IntIntMap m) {
+        for (int s = m.firstSlot(); s >= 0; s = m.nextSlot(s)) {
+            put(m.key[s], m.value[s]);
+        }
+    }
+
+    /**
+     * Removes k and its value from this map.
+     * @param k a key
+     * @return the value k had, or {@link #defaultReturnValue()} if it wasn't present
+     */
+    public int remove(final int k) {
+        final int pos = find(k);
+        if (pos < 0) return defRetValue;
+        final int oldValue = value[pos];
+        removed(pos);
+        size--;
+        if (pos == n) containsZeroKey = false;
+        else shiftKeys(pos);
+        return oldValue;
+    }
+
+    /**
+     * Shifts left entries with the specified hash code, starting at the specified position, and empties the resulting
+     * free entry.
+     * @param pos a starting position
+     */
+    protected final void shiftKeys(int pos) {
+        int last, slot, curr;
+        final int[] key = this.key;
+        for (; ; ) {
+            pos = (last = pos) + 1 & mask;
+            for (; ; ) {
+                if ((curr = key[pos]) == 0) {
+                    key[last] = 0;
+                    return;
+                }
+                slot = mix(curr) & mask;
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) break;
+                pos = pos + 1 & mask;
+            }
+            key[last] = curr;
+            value[last] = value[pos];
+            moved(pos, last);
+        }
+    }
+
+    /**
+     * Rebuilds the table with a new size, putting every entry into its slot in the new table.
+     * @param newN the new table size, a power of two
+     */
+    protected void rehash(final int newN) {
+        final int[] key = this.key, value = this.value;
+        final int mask = newN - 1;
+        final int[] newKey = new int[newN + 1], newValue = new int[newN + 1];
+        int i = n, pos;
+        for (int j = containsZeroKey ? size - 1 : size; j-- != 0; ) {
+            while (key[--i] == 0) ;
+            if (newKey[pos = mix(key[i]) & mask] != 0)
+                while (newKey[pos = pos + 1 & mask] != 0) ;
+            newKey[pos] = key[i];
+            newValue[pos] = value[i];
+        }
+        newValue[newN] = value[n];
+        n = newN;
+        this.mask = mask;
+        maxFill = OrderedMap.maxFill(n, f);
+        this.key = newKey;
+        this.value = newValue;
+    }
+
+    /**
+     * Called when a new entry has been put in slot pos, before {@link #size} counts it. Does nothing here; ordered
+     * subclasses use it to link the entry in.
+     * @param pos the slot of the new entry
+     */
+    protected void placed(final int pos) {
+    }
+
+    /**
+     * Called when the entry in slot pos is about to be removed. Does nothing here.
+     * @param pos the slot of the entry being removed
+     */
+    protected void removed(final int pos) {
+    }
+
+    /**
+     * Called when removal shifts the entry in slot from back to slot to. Does nothing here.
+     * @param from the slot the entry was in
+     * @param to the slot the entry is in now
+     */
+    protected void moved(final int from, final int to) {
+    }
+
+    /**
+     * Called after every entry has been removed by {@link #clear()}. Does nothing here.
+     */
+    protected void cleared() {
+    }
+
+    /**
+     * Removes every entry, keeping the current capacity.
+     */
+    public void clear() {
+        if (size == 0) return;
+        size = 0;
+        containsZeroKey = false;
+        Arrays.fill(key, 0);
+        cleared();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the slot of the first entry to visit, for allocation-free iteration with {@link #nextSlot(int)}.
+     * @return the first occupied slot, or -1 if this is empty
+     */
+    public int firstSlot() {
+        return nextSlot(-1);
+    }
+
+    /**
+     * Gets the slot of the entry to visit after the one in slot; this map visits entries in table order. Changing the
+     * map while iterating, other than with {@link #setValueAt(int, int)}, makes the slots meaningless.
+     * @param slot a slot from {@link #firstSlot()} or a previous call to this
+     * @return the next occupied slot, or -1 if there are no more
+     */
+    public int nextSlot(int slot) {
+        final int[] key = this.key;
+        while (++slot < n) {
+            if (key[slot] != 0) return slot;
+        }
+        return slot == n && containsZeroKey ? n : -1;
+    }
+
+    /**
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @return the key in that slot
+     */
+    public int keyAt(final int slot) {
+        return key[slot];
+    }
+
+    /**
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @return the value in that slot
+     */
+    public int valueAt(final int slot) {
+        return value[slot];
+    }
+
+    /**
+     * Changes the value in an occupied slot, which doesn't disturb iteration.
+     * @param slot an occupied slot, such as one from {@link #firstSlot()} or {@link #nextSlot(int)}
+     * @param v the new value for that slot's key
+     * @return the value the slot had
+     */
+    public int setValueAt(final int slot, final int v) {
+        final int oldValue = value[slot];
+        value[slot] = v;
+        return oldValue;
+    }
+
+    /**
+     * Gets every key in iteration order, in a new array.
+     * @return an int array of the keys
+     */
+    public int[] keys() {
+        final int[] ks = new int[size];
+        int i = 0;
+        for (int s = firstSlot(); s >= 0; s = nextSlot(s)) {
+            ks[i++] = key[s];
+        }
+        return ks;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int s = firstSlot(); s >= 0; s = nextSlot(s)) {
+            h += key[s] ^ value[s];
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) return true;
+        if (!(o instanceof IntIntMap)) return false;
+        final IntIntMap m = (IntIntMap) o;
+        if (m.size != size) return false;
+        int pos;
+        for (int s = firstSlot(); s >= 0; s = nextSlot(s)) {
+            if ((pos = m.find(key[s])) < 0 || m.value[pos] != value[s]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("{");
+        for (int s = firstSlot(); s >= 0; s = nextSlot(s)) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(key[s]).append('=').append(value[s]);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,186 @@
+package squidpony.squidmath;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A hash map from int keys to Object values that never boxes its keys and iterates in insertion order, like
+ * {@link IntObjectMap} with a doubly linked list threaded through two extra int arrays. Adding a key that is already
+ * present doesn't change its place in the order, and removing any key takes constant time, unlike the IntVLA order
+ * kept by {@link OrderedMap}. Iterate with {@link #firstSlot()} and {@link #nextSlot(int)} to visit entries from the
+ * oldest to the newest without allocating.
+ * @param <V> the type of values
+ */
+public class IntObjectOrderedMap<V> extends IntObjectMap<V> {
+    private static final long serialVersionUID = 1L;
+    /**
+     * The slot of the previous entry in iteration order for each occupied slot, or -1 for the first entry.
+     */
+    protected int[] prev;
+    /**
+     * The slot of the next entry in iteration order for each occupied slot, or -1 for the last entry.
+     */
+    protected int[] next;
+    /**
+     * The slot of the first entry in iteration order, or -1 if this is empty.
+     */
+    protected int first = -1;
+    /**
+     * The slot of the last entry in iteration order, or -1 if this is empty.
+     */
+    protected int last = -1;
+
+    /**
+     * Creates a new map with room for 16 entries before it needs to resize, and a load factor of 0.75f.
+     */
+    public IntObjectOrderedMap() {
+        this(DEFAULT_INITIAL_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a new map with room for {@code expected} entries before it needs to resize, and a load factor of 0.75f.
+     * @param expected the expected number of entries
+     */
+    public IntObjectOrderedMap(final int expected) {
+        this(expected, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates a new map with room for {@code expected} entries before it needs to resize, with the given load factor.
+     * @param expected the expected number of entries
+     * @param f the load factor, greater than 0 and at most 1
+     */
+    public IntObjectOrderedMap(final int expected, final float f) {
+        super(expected, f);
+        prev = new int[n + 1];
+        next = new int[n + 1];
+    }
+
+    /**
+     * Creates a new map holding the same entries as {@code other}, in the order {@code other} iterates in. The values
+     * are not copied.
+     * @param other the map to copy
+     */
+    public IntObjectOrderedMap(final IntObjectMap<? extends V> other) {
+        this(other.size, other.f);
+        putAll(other);
+    }
+
+    @Override
+    protected void placed(final int pos) {
+        if (size == 0) first = pos;
+        else next[last] = pos;
+        prev[pos] = last;
+        next[pos] = -1;
+        last = pos;
+    }
+
+    @Override
+    protected void removed(final int pos) {
+        final int p = prev[pos], nx = next[pos];
+        if (p < 0) first = nx;
+        else next[p] = nx;
+        if (nx < 0) last = p;
+        else prev[nx] = p;
+    }
+
+    @Override
+    protected void moved(final int from, final int to) {
+        final int p = prev[from], nx = next[from];
+        prev[to] = p;
+        next[to] = nx;
+        if (p < 0) first = to;
+        else next[p] = to;
+        if (nx < 0) last = to;
+        else prev[nx] = to;
+    }
+
+    @Override
+    protected void cleared() {
+        first = last = -1;
+    }
+
+    /**
+     * Rebuilds the table with a new size, keeping the iteration order.
+     * @param newN the new table size, a power of two
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void rehash(final int newN) {
+        final int[] key = this.key, next = this.next;
+        final V[] value = this.value;
+        final int mask = newN - 1;
+        final int[] newKey = new int[newN + 1], newPrev = new int[newN + 1], newNext = new int[newN + 1];
+        final V[] newValue = (V[]) new Object[newN + 1];
+        int i = first, prevPos = -1, pos, k;
+        for (int j = size; j-- != 0; i = next[i]) {
+            if ((k = key[i]) == 0) pos = newN;
+            else if (newKey[pos = mix(k) & mask] != 0)
+                while (newKey[pos = pos + 1 & mask] != 0) ;
+            newKey[pos] = k;
+            newValue[pos] = value[i];
+            newPrev[pos] = prevPos;
+            if (prevPos < 0) first = pos;
+            else newNext[prevPos] = pos;
+            prevPos = pos;
+        }
+        if (prevPos >= 0) newNext[prevPos] = -1;
+        last = prevPos;
+        n = newN;
+        this.mask = mask;
+        maxFill = OrderedMap.maxFill(n, f);
+        this.key = newKey;
+        this.value = newValue;
+        this.prev = newPrev;
+        this.next = newNext;
+    }
+
+    @Override
+    public int firstSlot() {
+        return first;
+    }
+
+    /**
+     * Gets the slot of the entry added after the one in slot. Changing the map while iterating, other than with
+     * {@link #setValueAt(int, Object)}, makes the slots meaningless.
+     * @param slot a slot from {@link #firstSlot()} or a previous call to this
+     * @return the next slot in insertion order, or -1 if there are no more
+     */
+    @Override
+    public int nextSlot(final int slot) {
+        return slot < 0 ? first : next[slot];
+    }
+
+    /**
+     * Gets the slot of the entry added before the one in slot, for iterating backwards from {@link #lastSlot()}.
+     * @param slot an occupied slot
+     * @return the previous slot in insertion order, or -1 if there are no more
+     */
+    public int prevSlot(final int slot) {
+        return prev[slot];
+    }
+
+    /**
+     * @return the slot of the newest entry, or -1 if this is empty
+     */
+    public int lastSlot() {
+        return last;
+    }
+
+    /**
+     * @return the first key in iteration order
+     * @throws NoSuchElementException if this map is empty
+     */
+    public int firstKey() {
+        if (size == 0) throw new NoSuchElementException();
+        return key[first];
+    }
+
+    /**
+     * @return the last key in iteration order
+     * @throws NoSuchElementException if this map is empty
+     */
+    public int lastKey() {
+        if (size == 0) throw new NoSuchElementException();
+        return key[last];
+    }
+}
@@ -40,7 +40,7 @@ import java.io.Serializable;
  * @author Sebastiano Vigna
  * @author Tommy Ettinger
  */
-public class LightRNG implements RandomnessSource, StatefulRandomness, Serializable
+public class LightRNG implements RandomnessSource, BulkRandomness, StatefulRandomness, SplittableRandomness, Serializable
 {
 	/** 2 raised to the 53, - 1. */
     private static final long DOUBLE_MASK = ( 1L << 53 ) - 1;
@@ -81,6 +81,25 @@ public class LightRNG implements RandomnessSource, StatefulRandomness, Serializa
         return z ^ (z >>> 31);
     }
 
+    /**
+     * Fills length items of dest, starting at offset, with the same longs that length calls to {@link #nextLong()}
+     * would return, keeping the state in local variables for the whole loop.
+     * @param dest the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    @Override
+    public final void nextLongs(final long[] dest, final int offset, final int length) {
+        long s = state, z;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            z = (s += 0x9E3779B97F4A7C15L);
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            dest[i] = z ^ (z >>> 31);
+        }
+        state = s;
+    }
+
     /**
      * Produces a copy of this RandomnessSource that, if next() and/or nextLong() are called on this object and the
      * copy, both will generate the same sequence of random numbers from the point copy() was called. This just needs to
@@ -102,18 +121,13 @@ public class LightRNG implements RandomnessSource, StatefulRandomness, Serializa
     }
 
     /**
-     * Exclusive on the upper bound.  The lower bound is 0.
-     * @param bound the upper bound; should be positive
+     * Exclusive on the upper bound.  The lower bound is 0. Unbiased, using the same method as {@link RNG#nextInt(int)}.
+     * Will call nextLong() with no arguments at least 1 time, possibly more.
+     * @param bound the upper bound; should be positive, or this returns 0
      * @return a random int less than n and at least equal to 0
      */
     public int nextInt( final int bound ) {
-        if ( bound <= 0 ) return 0;
-        int threshold = (0x7fffffff - bound + 1) % bound;
-        for (;;) {
-            int bits = (int)(nextLong() & 0x7fffffff);
-            if (bits >= threshold)
-                return bits % bound;
-        }
+        return RNG.boundedInt(this, bound);
     }
     /**
      * Inclusive lower, exclusive upper.
@@ -240,6 +254,26 @@ public class LightRNG implements RandomnessSource, StatefulRandomness, Serializa
         return z ^ (z >>> 31);
     }
 
+    /**
+     * Advances the state as if {@link #nextLong()} had been called pow(2, 48) times, which takes constant time. A
+     * LightRNG can be jumped pow(2, 16) times before it gets back to the same part of its sequence.
+     */
+    @Override
+    public void jump() {
+        state += 0x9E3779B97F4A7C15L << 48;
+    }
+
+    /**
+     * Returns a new LightRNG with this one's current state, then jumps this one ahead by pow(2, 48) steps with
+     * {@link #jump()}, so the two won't overlap unless the returned one generates more than pow(2, 48) numbers.
+     * @return a new LightRNG that will produce the numbers this one would have produced before the jump
+     */
+    @Override
+    public LightRNG split() {
+        LightRNG next = new LightRNG(state);
+        jump();
+        return next;
+    }
 
     @Override
     public String toString() {
@@ -28,7 +28,7 @@ import java.util.Arrays;
  * Created by Tommy Ettinger on 3/21/2016.
  * Ported from CC0-licensed C code by Sebastiano Vigna, at http://xorshift.di.unimi.it/xorshift1024star.c
  */
-public class LongPeriodRNG implements RandomnessSource, Serializable {
+public class LongPeriodRNG implements RandomnessSource, BulkRandomness, SplittableRandomness, Serializable {
 
     public final long[] state = new long[16];
     public int choice;
@@ -227,6 +227,27 @@ public class LongPeriodRNG implements RandomnessSource, Serializable {
         return state[choice] * 1181783497276652981L;
     }
 
+    /**
+     * Fills length items of dest, starting at offset, with the same longs that length calls to {@link #nextLong()}
+     * would return, keeping the state in local variables for the whole loop.
+     * @param dest the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    @Override
+    public void nextLongs(final long[] dest, final int offset, final int length) {
+        final long[] st = state;
+        int c = choice;
+        long s0, s1;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            s0 = st[c];
+            s1 = st[c = (c + 1) & 15];
+            s1 ^= s1 << 31;
+            dest[i] = (st[c] = s1 ^ s0 ^ (s1 >>> 11) ^ (s0 >>> 30)) * 1181783497276652981L;
+        }
+        choice = c;
+    }
+
     /**
      * Produces a copy of this RandomnessSource that, if next() and/or nextLong() are called on this object and the
      * copy, both will generate the same sequence of random numbers from the point copy() was called. This just need to
@@ -249,6 +270,7 @@ public class LongPeriodRNG implements RandomnessSource, Serializable {
      * <br>
      * Written by Sebastiano Vigna, from http://xorshift.di.unimi.it/xorshift1024star.c , don't ask how it works.
      */
+    @Override
     public void jump() {
 
         long[] t = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
@@ -265,6 +287,18 @@ public class LongPeriodRNG implements RandomnessSource, Serializable {
             state[(j + choice) & 15] = t[j];
     }
 
+    /**
+     * Returns a new LongPeriodRNG with this one's current state, then jumps this one ahead by pow(2, 512) steps with
+     * {@link #jump()}, so the two won't overlap unless the returned one generates more than pow(2, 512) numbers.
+     * @return a new LongPeriodRNG that will produce the numbers this one would have produced before the jump
+     */
+    @Override
+    public LongPeriodRNG split() {
+        LongPeriodRNG next = new LongPeriodRNG(this);
+        jump();
+        return next;
+    }
+
     /**
      * Creates many LongPeriodRNG objects in an array, where each will generate a sequence of pow(2, 512) numbers that
      * will not overlap with other sequences in the array. The number of items in the array is specified by count.
@@ -31,6 +31,57 @@ public class Noise {
         double getNoiseWithSeed(double x, double y, double z, double w, double u, double v, int seed);
     }
 
+    /**
+     * A Noise2D that can fill a whole grid of samples at once, sharing work (such as hashing lattice points) between
+     * nearby samples instead of redoing it for each one. The results must be identical to calling getNoise() or
+     * getNoiseWithSeed() on every point. {@link Noise#fill(Noise2D, double[][], double, double, double, double)} and
+     * {@link Noise#fillGrid(Noise2D, double[][], double[], double[])} use this when it's available, and sample one
+     * point at a time for any other Noise2D.
+     */
+    public interface Grid2D extends Noise2D {
+        /**
+         * Sets {@code out[i][j]} to {@code getNoise(xs[i], ys[j])} for every i below xs.length and j below ys.length.
+         */
+        void fillGrid(double[][] out, double[] xs, double[] ys);
+        /**
+         * Sets {@code out[i][j]} to {@code getNoiseWithSeed(xs[i], ys[j], seed)} for every i below xs.length and j
+         * below ys.length.
+         */
+        void fillGridWithSeed(double[][] out, double[] xs, double[] ys, int seed);
+    }
+
+    /**
+     * A Noise3D that can fill a grid of samples that share a z-coordinate at once; see {@link Grid2D}.
+     */
+    public interface Grid3D extends Noise3D {
+        /**
+         * Sets {@code out[i][j]} to {@code getNoise(xs[i], ys[j], z)} for every i below xs.length and j below
+         * ys.length.
+         */
+        void fillGrid(double[][] out, double[] xs, double[] ys, double z);
+        /**
+         * Sets {@code out[i][j]} to {@code getNoiseWithSeed(xs[i], ys[j], z, seed)} for every i below xs.length and j
+         * below ys.length.
+         */
+        void fillGridWithSeed(double[][] out, double[] xs, double[] ys, double z, int seed);
+    }
+
+    /**
+     * A Noise4D that can fill a grid of samples that share z- and w-coordinates at once; see {@link Grid2D}.
+     */
+    public interface Grid4D extends Noise4D {
+        /**
+         * Sets {@code out[i][j]} to {@code getNoise(xs[i], ys[j], z, w)} for every i below xs.length and j below
+         * ys.length.
+         */
+        void fillGrid(double[][] out, double[] xs, double[] ys, double z, double w);
+        /**
+         * Sets {@code out[i][j]} to {@code getNoiseWithSeed(xs[i], ys[j], z, w, seed)} for every i below xs.length and
+         * j below ys.length.
+         */
+        void fillGridWithSeed(double[][] out, double[] xs, double[] ys, double z, double w, int seed);
+    }
+
     public static class Layered1D implements Noise1D {
         protected int octaves;
         protected Noise1D basis;
@@ -77,7 +128,7 @@ public class Noise {
         }
     }
 
-    public static class Layered2D implements Noise2D {
+    public static class Layered2D implements Grid2D {
         protected int octaves;
         protected Noise2D basis;
         public double frequency;
@@ -122,8 +173,42 @@ public class Noise {
             }
             return n / ((1 << octaves) - 1.0);
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            clear(out, width, height);
+            int s = 1 << (octaves - 1);
+            double i_s = 1.0;
+            for (int o = 0; o < octaves; o++, s >>= 1) {
+                i_s *= 0.5;
+                Noise.fillGrid(basis, layer, scaleOffset(x, i_s, o << 6, xo), scaleOffset(y, i_s, o << 7, yo));
+                addLayer(out, layer, s, width, height);
+            }
+            divide(out, (1 << octaves) - 1.0, width, height);
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final int seed) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            clear(out, width, height);
+            int s = 1 << (octaves - 1), seed2 = seed;
+            double i_s = 1.0;
+            for (int o = 0; o < octaves; o++, s >>= 1) {
+                i_s *= 0.5;
+                Noise.fillGridWithSeed(basis, layer, scale(x, i_s, xo), scale(y, i_s, yo), (seed2 += 0x9E3779B9));
+                addLayer(out, layer, s, width, height);
+            }
+            divide(out, (1 << octaves) - 1.0, width, height);
+        }
     }
-    public static class Layered3D implements Noise3D {
+    public static class Layered3D implements Grid3D {
         protected int octaves;
         protected Noise3D basis;
         public double frequency;
@@ -170,8 +255,45 @@ public class Noise {
             }
             return n / ((1 << octaves) - 1.0);
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys, double z) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            z *= frequency;
+            clear(out, width, height);
+            int s = 1 << (octaves - 1);
+            double i_s = 1.0;
+            for (int o = 0; o < octaves; o++, s >>= 1) {
+                i_s *= 0.5;
+                Noise.fillGrid(basis, layer, scaleOffset(x, i_s, o << 6, xo), scaleOffset(y, i_s, o << 7, yo),
+                        z * i_s + (o << 8));
+                addLayer(out, layer, s, width, height);
+            }
+            divide(out, (1 << octaves) - 1.0, width, height);
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, double z, final int seed) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            z *= frequency;
+            clear(out, width, height);
+            int s = 1 << (octaves - 1), seed2 = seed;
+            double i_s = 1.0;
+            for (int o = 0; o < octaves; o++, s >>= 1) {
+                i_s *= 0.5;
+                Noise.fillGridWithSeed(basis, layer, scale(x, i_s, xo), scale(y, i_s, yo), z * i_s, (seed2 += 0x9E3779B9));
+                addLayer(out, layer, s, width, height);
+            }
+            divide(out, (1 << octaves) - 1.0, width, height);
+        }
     }
-    public static class Layered4D implements Noise4D {
+    public static class Layered4D implements Grid4D {
         protected int octaves;
         protected Noise4D basis;
         public double frequency;
@@ -220,6 +342,45 @@ public class Noise {
             }
             return n / ((1 << octaves) - 1.0);
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys, double z, double w) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            z *= frequency;
+            w *= frequency;
+            clear(out, width, height);
+            int s = 1 << (octaves - 1);
+            double i_s = 1.0;
+            for (int o = 0; o < octaves; o++, s >>= 1) {
+                i_s *= 0.5;
+                Noise.fillGrid(basis, layer, scaleOffset(x, i_s, o << 6, xo), scaleOffset(y, i_s, o << 7, yo),
+                        z * i_s + (o << 8), w * i_s + (o << 9));
+                addLayer(out, layer, s, width, height);
+            }
+            divide(out, (1 << octaves) - 1.0, width, height);
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, double z, double w, final int seed) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            z *= frequency;
+            w *= frequency;
+            clear(out, width, height);
+            int s = 1 << (octaves - 1), seed2 = seed;
+            double i_s = 1.0;
+            for (int o = 0; o < octaves; o++, s >>= 1) {
+                i_s *= 0.5;
+                Noise.fillGridWithSeed(basis, layer, scale(x, i_s, xo), scale(y, i_s, yo), z * i_s, w * i_s, (seed2 += 0x9E3779B9));
+                addLayer(out, layer, s, width, height);
+            }
+            divide(out, (1 << octaves) - 1.0, width, height);
+        }
     }
     public static class Layered6D implements Noise6D {
         protected int octaves;
@@ -306,7 +467,7 @@ public class Noise {
         }
     }
 
-    public static class Scaled2D implements Noise2D {
+    public static class Scaled2D implements Grid2D {
         protected double scaleX, scaleY;
         protected Noise2D basis;
 
@@ -333,8 +494,19 @@ public class Noise {
         public double getNoiseWithSeed(final double x, final double y, final int seed) {
             return basis.getNoiseWithSeed(x * scaleX, y * scaleY, seed);
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys) {
+            Noise.fillGrid(basis, out, scale(xs, scaleX, new double[xs.length]), scale(ys, scaleY, new double[ys.length]));
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final int seed) {
+            Noise.fillGridWithSeed(basis, out, scale(xs, scaleX, new double[xs.length]),
+                    scale(ys, scaleY, new double[ys.length]), seed);
+        }
     }
-    public static class Scaled3D implements Noise3D {
+    public static class Scaled3D implements Grid3D {
         protected double scaleX, scaleY, scaleZ;
         protected Noise3D basis;
 
@@ -362,8 +534,20 @@ public class Noise {
         public double getNoiseWithSeed(final double x, final double y, final double z, final int seed) {
             return basis.getNoiseWithSeed(x * scaleX, y * scaleY, z * scaleZ, seed);
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys, final double z) {
+            Noise.fillGrid(basis, out, scale(xs, scaleX, new double[xs.length]), scale(ys, scaleY, new double[ys.length]),
+                    z * scaleZ);
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final double z, final int seed) {
+            Noise.fillGridWithSeed(basis, out, scale(xs, scaleX, new double[xs.length]),
+                    scale(ys, scaleY, new double[ys.length]), z * scaleZ, seed);
+        }
     }
-    public static class Scaled4D implements Noise4D {
+    public static class Scaled4D implements Grid4D {
         protected double scaleX, scaleY, scaleZ, scaleW;
         protected Noise4D basis;
 
@@ -392,6 +576,19 @@ public class Noise {
         public double getNoiseWithSeed(final double x, final double y, final double z, final double w, final int seed) {
             return basis.getNoiseWithSeed(x * scaleX, y * scaleY, z * scaleZ, w * scaleW, seed);
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys, final double z, final double w) {
+            Noise.fillGrid(basis, out, scale(xs, scaleX, new double[xs.length]), scale(ys, scaleY, new double[ys.length]),
+                    z * scaleZ, w * scaleW);
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final double z,
+                                     final double w, final int seed) {
+            Noise.fillGridWithSeed(basis, out, scale(xs, scaleX, new double[xs.length]),
+                    scale(ys, scaleY, new double[ys.length]), z * scaleZ, w * scaleW, seed);
+        }
     }
     public static class Scaled6D implements Noise6D {
         protected double scaleX, scaleY, scaleZ, scaleW, scaleU, scaleV;
@@ -430,7 +627,7 @@ public class Noise {
         }
     }
 
-    public static class Ridged2D implements Noise2D {
+    public static class Ridged2D implements Grid2D {
         protected int octaves;
         public double frequency;
         protected double correct;
@@ -492,9 +689,45 @@ public class Noise {
             }
             return sum * correct - 1.0;
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            double amp = 1.0;
+            clear(out, width, height);
+            for (int i = 0; i < octaves; ++i) {
+                Noise.fillGrid(basis, layer, offset(x, i << 6, xo), offset(y, i << 7, yo));
+                addRidges(out, layer, amp, width, height);
+                amp *= 0.5;
+                scale(x, 2.0, x);
+                scale(y, 2.0, y);
+            }
+            finishRidges(out, correct, width, height);
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, int seed) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]);
+            final double[][] layer = new double[width][height];
+            double amp = 1.0;
+            clear(out, width, height);
+            for (int i = 0; i < octaves; ++i) {
+                seed = PintRNG.determine(seed);
+                Noise.fillGridWithSeed(basis, layer, x, y, (seed += 0x9E3779B9));
+                addRidges(out, layer, amp, width, height);
+                amp *= 0.5;
+                scale(x, 2.0, x);
+                scale(y, 2.0, y);
+            }
+            finishRidges(out, correct, width, height);
+        }
     }
 
-    public static class Ridged3D implements Noise3D {
+    public static class Ridged3D implements Grid3D {
         protected int octaves;
         public double frequency;
         protected double correct;
@@ -558,10 +791,50 @@ public class Noise {
             }
             return sum * correct - 1.0;
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys, double z) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            double amp = 1.0;
+            z *= frequency;
+            clear(out, width, height);
+            for (int i = 0; i < octaves; ++i) {
+                Noise.fillGrid(basis, layer, offset(x, i << 6, xo), offset(y, i << 7, yo), z + (i << 8));
+                addRidges(out, layer, amp, width, height);
+                amp *= 0.5;
+                scale(x, 2.0, x);
+                scale(y, 2.0, y);
+                z *= 2.0;
+            }
+            finishRidges(out, correct, width, height);
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, double z, int seed) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]);
+            final double[][] layer = new double[width][height];
+            double amp = 1.0;
+            z *= frequency;
+            clear(out, width, height);
+            for (int i = 0; i < octaves; ++i) {
+                seed = PintRNG.determine(seed);
+                Noise.fillGridWithSeed(basis, layer, x, y, z, (seed += 0x9E3779B9));
+                addRidges(out, layer, amp, width, height);
+                amp *= 0.5;
+                scale(x, 2.0, x);
+                scale(y, 2.0, y);
+                z *= 2.0;
+            }
+            finishRidges(out, correct, width, height);
+        }
     }
 
 
-    public static class Ridged4D implements Noise4D {
+    public static class Ridged4D implements Grid4D {
         public double exp[];
         protected int octaves;
         public double frequency, correct;
@@ -629,6 +902,45 @@ public class Noise {
             }
             return sum * correct - 1.0;
         }
+
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys, double z, double w) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]),
+                    xo = new double[width], yo = new double[height];
+            final double[][] layer = new double[width][height];
+            z *= frequency;
+            w *= frequency;
+            clear(out, width, height);
+            for (int i = 0; i < octaves; ++i) {
+                Noise.fillGrid(basis, layer, offset(x, i << 6, xo), offset(y, i << 7, yo), z + (i << 8), w + (i << 9));
+                addSquaredRidges(out, layer, exp[i], width, height);
+                scale(x, 2.0, x);
+                scale(y, 2.0, y);
+                z *= 2.0;
+                w *= 2.0;
+            }
+            finishRidges(out, correct, width, height);
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, double z, double w, int seed) {
+            final int width = xs.length, height = ys.length;
+            final double[] x = scale(xs, frequency, new double[width]), y = scale(ys, frequency, new double[height]);
+            final double[][] layer = new double[width][height];
+            z *= frequency;
+            w *= frequency;
+            clear(out, width, height);
+            for (int i = 0; i < octaves; ++i) {
+                Noise.fillGridWithSeed(basis, layer, x, y, z, w, (seed += 0x9E3779B9));
+                addSquaredRidges(out, layer, exp[i], width, height);
+                scale(x, 2.0, x);
+                scale(y, 2.0, y);
+                z *= 2.0;
+                w *= 2.0;
+            }
+            finishRidges(out, correct, width, height);
+        }
     }
 
 
@@ -801,7 +1113,7 @@ public class Noise {
     }
     */
 
-    public static class Turbulent2D implements Noise2D {
+    public static class Turbulent2D implements Grid2D {
         protected int octaves;
         protected Noise2D basis, disturbance;
         public double frequency = 1.0;
@@ -828,7 +1140,41 @@ public class Noise {
 
         @Override
         public double getNoise(double x, double y) {
-            x += disturbance.getNoise(x, y);
+            return layered(x + disturbance.getNoise(x, y), y);
+        }
+
+        @Override
+        public double getNoiseWithSeed(double x, double y, int seed) {
+            return layeredWithSeed(x + disturbance.getNoiseWithSeed(x, y, seed), y, seed);
+        }
+
+        /**
+         * Only the disturbance is filled as a grid; it moves each sample by a different amount in x, so the layers of
+         * basis noise are sampled one point at a time.
+         */
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys) {
+            Noise.fillGrid(disturbance, out, xs, ys);
+            for (int i = 0; i < xs.length; i++) {
+                final double[] column = out[i];
+                for (int j = 0; j < ys.length; j++) {
+                    column[j] = layered(xs[i] + column[j], ys[j]);
+                }
+            }
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final int seed) {
+            Noise.fillGridWithSeed(disturbance, out, xs, ys, seed);
+            for (int i = 0; i < xs.length; i++) {
+                final double[] column = out[i];
+                for (int j = 0; j < ys.length; j++) {
+                    column[j] = layeredWithSeed(xs[i] + column[j], ys[j], seed);
+                }
+            }
+        }
+
+        private double layered(double x, double y) {
             x *= frequency;
             y *= frequency;
             int s = 1 << (octaves - 1);
@@ -840,9 +1186,7 @@ public class Noise {
             return n * correct;
         }
 
-        @Override
-        public double getNoiseWithSeed(double x, double y, int seed) {
-            x += disturbance.getNoiseWithSeed(x, y, seed);
+        private double layeredWithSeed(double x, double y, int seed) {
             x *= frequency;
             y *= frequency;
             int s = 1 << (octaves - 1);
@@ -854,7 +1198,7 @@ public class Noise {
             return n * correct;
         }
     }
-    public static class Turbulent3D implements Noise3D {
+    public static class Turbulent3D implements Grid3D {
         protected int octaves;
         protected Noise3D basis, disturbance;
         public double frequency = 1.0;
@@ -881,7 +1225,41 @@ public class Noise {
 
         @Override
         public double getNoise(double x, double y, double z) {
-            x += disturbance.getNoise(x, y, z);
+            return layered(x + disturbance.getNoise(x, y, z), y, z);
+        }
+
+        @Override
+        public double getNoiseWithSeed(double x, double y, double z, int seed) {
+            return layeredWithSeed(x + disturbance.getNoiseWithSeed(x, y, z, seed), y, z, seed);
+        }
+
+        /**
+         * Only the disturbance is filled as a grid; it moves each sample by a different amount in x, so the layers of
+         * basis noise are sampled one point at a time.
+         */
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys, final double z) {
+            Noise.fillGrid(disturbance, out, xs, ys, z);
+            for (int i = 0; i < xs.length; i++) {
+                final double[] column = out[i];
+                for (int j = 0; j < ys.length; j++) {
+                    column[j] = layered(xs[i] + column[j], ys[j], z);
+                }
+            }
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final double z, final int seed) {
+            Noise.fillGridWithSeed(disturbance, out, xs, ys, z, seed);
+            for (int i = 0; i < xs.length; i++) {
+                final double[] column = out[i];
+                for (int j = 0; j < ys.length; j++) {
+                    column[j] = layeredWithSeed(xs[i] + column[j], ys[j], z, seed);
+                }
+            }
+        }
+
+        private double layered(double x, double y, double z) {
             x *= frequency;
             y *= frequency;
             z *= frequency;
@@ -894,9 +1272,7 @@ public class Noise {
             return n * correct;
         }
 
-        @Override
-        public double getNoiseWithSeed(double x, double y, double z, int seed) {
-            x += disturbance.getNoiseWithSeed(x, y, z, seed);
+        private double layeredWithSeed(double x, double y, double z, int seed) {
             x *= frequency;
             y *= frequency;
             z *= frequency;
@@ -910,7 +1286,7 @@ public class Noise {
         }
     }
 
-    public static class Turbulent4D implements Noise4D {
+    public static class Turbulent4D implements Grid4D {
         protected int octaves;
         protected Noise4D basis, disturbance;
         public double frequency = 1.0;
@@ -937,7 +1313,42 @@ public class Noise {
 
         @Override
         public double getNoise(double x, double y, double z, double w) {
-            x += disturbance.getNoise(x, y, z, w);
+            return layered(x + disturbance.getNoise(x, y, z, w), y, z, w);
+        }
+
+        @Override
+        public double getNoiseWithSeed(double x, double y, double z, double w, int seed) {
+            return layeredWithSeed(x + disturbance.getNoiseWithSeed(x, y, z, w, seed), y, z, w, seed);
+        }
+
+        /**
+         * Only the disturbance is filled as a grid; it moves each sample by a different amount in x, so the layers of
+         * basis noise are sampled one point at a time.
+         */
+        @Override
+        public void fillGrid(final double[][] out, final double[] xs, final double[] ys, final double z, final double w) {
+            Noise.fillGrid(disturbance, out, xs, ys, z, w);
+            for (int i = 0; i < xs.length; i++) {
+                final double[] column = out[i];
+                for (int j = 0; j < ys.length; j++) {
+                    column[j] = layered(xs[i] + column[j], ys[j], z, w);
+                }
+            }
+        }
+
+        @Override
+        public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final double z,
+                                     final double w, final int seed) {
+            Noise.fillGridWithSeed(disturbance, out, xs, ys, z, w, seed);
+            for (int i = 0; i < xs.length; i++) {
+                final double[] column = out[i];
+                for (int j = 0; j < ys.length; j++) {
+                    column[j] = layeredWithSeed(xs[i] + column[j], ys[j], z, w, seed);
+                }
+            }
+        }
+
+        private double layered(double x, double y, double z, double w) {
             x *= frequency;
             y *= frequency;
             z *= frequency;
@@ -951,9 +1362,7 @@ public class Noise {
             return n * correct;
         }
 
-        @Override
-        public double getNoiseWithSeed(double x, double y, double z, double w, int seed) {
-            x += disturbance.getNoiseWithSeed(x, y, z, w, seed);
+        private double layeredWithSeed(double x, double y, double z, double w, int seed) {
             x *= frequency;
             y *= frequency;
             z *= frequency;
@@ -1452,6 +1861,292 @@ public class Noise {
         }
     }
 
+    /**
+     * Fills out with 2D noise sampled on an evenly-spaced grid, so {@code out[i][j]} is
+     * {@code noise.getNoise(x0 + i * dx, y0 + j * dy)}. The grid is as wide as out and as tall as {@code out[0]}. If
+     * noise is a {@link Grid2D}, this lets it share work between samples; otherwise it samples each point in turn.
+     * @param noise the Noise2D to sample
+     * @param out a rectangular 2D array; will be modified
+     * @param x0 the x-coordinate of {@code out[0][0]}
+     * @param y0 the y-coordinate of {@code out[0][0]}
+     * @param dx the distance in x between columns
+     * @param dy the distance in y between rows
+     * @return out, after filling it
+     */
+    public static double[][] fill(final Noise2D noise, final double[][] out, final double x0, final double y0,
+                                  final double dx, final double dy) {
+        fillGrid(noise, out, steps(x0, dx, out.length), steps(y0, dy, out.length == 0 ? 0 : out[0].length));
+        return out;
+    }
+
+    /**
+     * Like {@link #fill(Noise2D, double[][], double, double, double, double)}, but uses getNoiseWithSeed() with the
+     * given seed.
+     * @return out, after filling it
+     */
+    public static double[][] fillWithSeed(final Noise2D noise, final double[][] out, final double x0, final double y0,
+                                          final double dx, final double dy, final int seed) {
+        fillGridWithSeed(noise, out, steps(x0, dx, out.length), steps(y0, dy, out.length == 0 ? 0 : out[0].length), seed);
+        return out;
+    }
+
+    /**
+     * Fills out with a slice of 3D noise at a fixed z, sampled on an evenly-spaced grid, so {@code out[i][j]} is
+     * {@code noise.getNoise(x0 + i * dx, y0 + j * dy, z)}. If noise is a {@link Grid3D}, this lets it share work
+     * between samples; otherwise it samples each point in turn.
+     * @return out, after filling it
+     */
+    public static double[][] fill(final Noise3D noise, final double[][] out, final double x0, final double y0,
+                                  final double z, final double dx, final double dy) {
+        fillGrid(noise, out, steps(x0, dx, out.length), steps(y0, dy, out.length == 0 ? 0 : out[0].length), z);
+        return out;
+    }
+
+    /**
+     * Like {@link #fill(Noise3D, double[][], double, double, double, double, double)}, but uses getNoiseWithSeed()
+     * with the given seed.
+     * @return out, after filling it
+     */
+    public static double[][] fillWithSeed(final Noise3D noise, final double[][] out, final double x0, final double y0,
+                                          final double z, final double dx, final double dy, final int seed) {
+        fillGridWithSeed(noise, out, steps(x0, dx, out.length), steps(y0, dy, out.length == 0 ? 0 : out[0].length), z, seed);
+        return out;
+    }
+
+    /**
+     * Fills out with a slice of 4D noise at a fixed z and w, sampled on an evenly-spaced grid, so {@code out[i][j]} is
+     * {@code noise.getNoise(x0 + i * dx, y0 + j * dy, z, w)}. If noise is a {@link Grid4D}, this lets it share work
+     * between samples; otherwise it samples each point in turn.
+     * @return out, after filling it
+     */
+    public static double[][] fill(final Noise4D noise, final double[][] out, final double x0, final double y0,
+                                  final double z, final double w, final double dx, final double dy) {
+        fillGrid(noise, out, steps(x0, dx, out.length), steps(y0, dy, out.length == 0 ? 0 : out[0].length), z, w);
+        return out;
+    }
+
+    /**
+     * Like {@link #fill(Noise4D, double[][], double, double, double, double, double, double)}, but uses
+     * getNoiseWithSeed() with the given seed.
+     * @return out, after filling it
+     */
+    public static double[][] fillWithSeed(final Noise4D noise, final double[][] out, final double x0, final double y0,
+                                          final double z, final double w, final double dx, final double dy, final int seed) {
+        fillGridWithSeed(noise, out, steps(x0, dx, out.length), steps(y0, dy, out.length == 0 ? 0 : out[0].length), z, w, seed);
+        return out;
+    }
+
+    /**
+     * Sets {@code out[i][j]} to {@code noise.getNoise(xs[i], ys[j])} for every i below xs.length and j below
+     * ys.length. The coordinates don't need to be evenly spaced, but they must form a grid. If noise is a
+     * {@link Grid2D}, this lets it share work between samples; otherwise it samples each point in turn.
+     */
+    public static void fillGrid(final Noise2D noise, final double[][] out, final double[] xs, final double[] ys) {
+        if (noise instanceof Grid2D) {
+            ((Grid2D) noise).fillGrid(out, xs, ys);
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < ys.length; j++) {
+                column[j] = noise.getNoise(xs[i], ys[j]);
+            }
+        }
+    }
+
+    /**
+     * Like {@link #fillGrid(Noise2D, double[][], double[], double[])}, but uses getNoiseWithSeed() with the given seed.
+     */
+    public static void fillGridWithSeed(final Noise2D noise, final double[][] out, final double[] xs, final double[] ys,
+                                        final int seed) {
+        if (noise instanceof Grid2D) {
+            ((Grid2D) noise).fillGridWithSeed(out, xs, ys, seed);
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < ys.length; j++) {
+                column[j] = noise.getNoiseWithSeed(xs[i], ys[j], seed);
+            }
+        }
+    }
+
+    /**
+     * Sets {@code out[i][j]} to {@code noise.getNoise(xs[i], ys[j], z)} for every i below xs.length and j below
+     * ys.length. If noise is a {@link Grid3D}, this lets it share work between samples; otherwise it samples each
+     * point in turn.
+     */
+    public static void fillGrid(final Noise3D noise, final double[][] out, final double[] xs, final double[] ys,
+                                final double z) {
+        if (noise instanceof Grid3D) {
+            ((Grid3D) noise).fillGrid(out, xs, ys, z);
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < ys.length; j++) {
+                column[j] = noise.getNoise(xs[i], ys[j], z);
+            }
+        }
+    }
+
+    /**
+     * Like {@link #fillGrid(Noise3D, double[][], double[], double[], double)}, but uses getNoiseWithSeed() with the
+     * given seed.
+     */
+    public static void fillGridWithSeed(final Noise3D noise, final double[][] out, final double[] xs, final double[] ys,
+                                        final double z, final int seed) {
+        if (noise instanceof Grid3D) {
+            ((Grid3D) noise).fillGridWithSeed(out, xs, ys, z, seed);
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < ys.length; j++) {
+                column[j] = noise.getNoiseWithSeed(xs[i], ys[j], z, seed);
+            }
+        }
+    }
+
+    /**
+     * Sets {@code out[i][j]} to {@code noise.getNoise(xs[i], ys[j], z, w)} for every i below xs.length and j below
+     * ys.length. If noise is a {@link Grid4D}, this lets it share work between samples; otherwise it samples each
+     * point in turn.
+     */
+    public static void fillGrid(final Noise4D noise, final double[][] out, final double[] xs, final double[] ys,
+                                final double z, final double w) {
+        if (noise instanceof Grid4D) {
+            ((Grid4D) noise).fillGrid(out, xs, ys, z, w);
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < ys.length; j++) {
+                column[j] = noise.getNoise(xs[i], ys[j], z, w);
+            }
+        }
+    }
+
+    /**
+     * Like {@link #fillGrid(Noise4D, double[][], double[], double[], double, double)}, but uses getNoiseWithSeed()
+     * with the given seed.
+     */
+    public static void fillGridWithSeed(final Noise4D noise, final double[][] out, final double[] xs, final double[] ys,
+                                        final double z, final double w, final int seed) {
+        if (noise instanceof Grid4D) {
+            ((Grid4D) noise).fillGridWithSeed(out, xs, ys, z, w, seed);
+            return;
+        }
+        for (int i = 0; i < xs.length; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < ys.length; j++) {
+                column[j] = noise.getNoiseWithSeed(xs[i], ys[j], z, w, seed);
+            }
+        }
+    }
+
+    private static double[] steps(final double start, final double step, final int count) {
+        final double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = start + i * step;
+        }
+        return values;
+    }
+
+    /**
+     * Sets each item of into to the matching item of values times mul, and returns into. values and into can be the
+     * same array.
+     */
+    private static double[] scale(final double[] values, final double mul, final double[] into) {
+        for (int i = 0; i < values.length; i++) {
+            into[i] = values[i] * mul;
+        }
+        return into;
+    }
+
+    private static double[] offset(final double[] values, final double add, final double[] into) {
+        for (int i = 0; i < values.length; i++) {
+            into[i] = values[i] + add;
+        }
+        return into;
+    }
+
+    private static double[] scaleOffset(final double[] values, final double mul, final double add, final double[] into) {
+        for (int i = 0; i < values.length; i++) {
+            into[i] = values[i] * mul + add;
+        }
+        return into;
+    }
+
+    /**
+     * Adds each item of layer times mul to the matching item of sum, in the first width by height items of both.
+     */
+    private static void addLayer(final double[][] sum, final double[][] layer, final double mul,
+                                 final int width, final int height) {
+        for (int i = 0; i < width; i++) {
+            final double[] s = sum[i], l = layer[i];
+            for (int j = 0; j < height; j++) {
+                s[j] += l[j] * mul;
+            }
+        }
+    }
+
+    /**
+     * Adds {@code 1.0 - Math.abs(n)} times mul to sum for each item n of layer, in the first width by height items of
+     * both; this is one octave of Ridged noise.
+     */
+    private static void addRidges(final double[][] sum, final double[][] layer, final double mul,
+                                  final int width, final int height) {
+        for (int i = 0; i < width; i++) {
+            final double[] s = sum[i], l = layer[i];
+            for (int j = 0; j < height; j++) {
+                s[j] += mul * (1.0 - Math.abs(l[j]));
+            }
+        }
+    }
+
+    /**
+     * Like addRidges(), but squares each {@code 1.0 - Math.abs(n)} before multiplying by mul, as Ridged4D does.
+     */
+    private static void addSquaredRidges(final double[][] sum, final double[][] layer, final double mul,
+                                         final int width, final int height) {
+        for (int i = 0; i < width; i++) {
+            final double[] s = sum[i], l = layer[i];
+            double n;
+            for (int j = 0; j < height; j++) {
+                n = 1.0 - Math.abs(l[j]);
+                s[j] += n * n * mul;
+            }
+        }
+    }
+
+    private static void finishRidges(final double[][] out, final double correct, final int width, final int height) {
+        for (int i = 0; i < width; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < height; j++) {
+                column[j] = column[j] * correct - 1.0;
+            }
+        }
+    }
+
+    private static void divide(final double[][] out, final double divisor, final int width, final int height) {
+        for (int i = 0; i < width; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < height; j++) {
+                column[j] /= divisor;
+            }
+        }
+    }
+
+    private static void clear(final double[][] out, final int width, final int height) {
+        for (int i = 0; i < width; i++) {
+            final double[] column = out[i];
+            for (int j = 0; j < height; j++) {
+                column[j] = 0.0;
+            }
+        }
+    }
+
     /**
      * Produces a 2D array of noise with values from -1.0 to 1.0 that is seamless on all boundaries.
      * Uses (x,y) order. Allows a seed to change the generated noise.
@@ -845,7 +845,7 @@ public class OrderedMap<K, V> implements SortedMap<K, V>, java.io.Serializable,
             //link[pos] = ((last & 0xFFFFFFFFL) << 32) | (-1 & 0xFFFFFFFFL);
             last = pos;
         }
-        if(order.peek() != pos)
+        if(order.size == 0 || order.peek() != pos)
             order.add(pos);
         if (size++ >= maxFill)
             rehash(arraySize(size, f));
@@ -46,7 +46,7 @@ import java.io.Serializable;
  * @author Tommy Ettinger
  * @see PintRNG PintRNG is similar to this algorithm but uses only 32-bit math, where possible; meant for GWT.
  */
-public class PermutedRNG implements RandomnessSource, StatefulRandomness, Serializable
+public class PermutedRNG implements RandomnessSource, BulkRandomness, StatefulRandomness, SplittableRandomness, Serializable
 {
 	/** 2 raised to the 53, - 1. */
     private static final long DOUBLE_MASK = ( 1L << 53 ) - 1;
@@ -102,6 +102,25 @@ public class PermutedRNG implements RandomnessSource, StatefulRandomness, Serial
         return ((p *= 0xAEF17502108EF2D9L) >>> 43) ^ p;
     }
 
+    /**
+     * Fills length items of dest, starting at offset, with the same longs that length calls to {@link #nextLong()}
+     * would return, keeping the state in local variables for the whole loop.
+     * @param dest the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    @Override
+    public void nextLongs(final long[] dest, final int offset, final int length) {
+        long s = state, p;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            p = (s += 0x9E3779B97F4A7C15L);
+            p ^= p >>> (5 + (p >>> 59));
+            p *= 0xAEF17502108EF2D9L;
+            dest[i] = (p >>> 43) ^ p;
+        }
+        state = s;
+    }
+
     /**
      * Produces a copy of this RandomnessSource that, if next() and/or nextLong() are called on this object and the
      * copy, both will generate the same sequence of random numbers from the point copy() was called. This just needs to
@@ -117,14 +136,13 @@ public class PermutedRNG implements RandomnessSource, StatefulRandomness, Serial
     }
 
     /**
-     * Exclusive on the upper bound n.  The lower bound is 0.
-     * Will call nextLong() with no arguments at least 1 time, possibly more.
-     * @param bound the upper bound; should be positive
+     * Exclusive on the upper bound n.  The lower bound is 0. Unbiased, using the same method as
+     * {@link RNG#nextInt(int)}. Will call nextLong() with no arguments at least 1 time, possibly more.
+     * @param bound the upper bound; should be positive, or this returns 0
      * @return a random int less than n and at least equal to 0
      */
     public int nextInt( final int bound ) {
-        if (bound <= 0) return 0;
-        return (int)((bound * (nextLong() & 0x7FFFFFFFL)) >> 31);
+        return RNG.boundedInt(this, bound);
     }
 
     /**
@@ -287,6 +305,28 @@ public class PermutedRNG implements RandomnessSource, StatefulRandomness, Serial
         return ((p *= 0xAEF17502108EF2D9L) >>> 43) ^ p;
     }
 
+    /**
+     * Advances the state as if {@link #nextLong()} had been called pow(2, 48) times, which takes constant time. A
+     * PermutedRNG can be jumped pow(2, 16) times before it gets back to the same part of its sequence.
+     */
+    @Override
+    public void jump() {
+        state += 0x9E3779B97F4A7C15L << 48;
+    }
+
+    /**
+     * Returns a new PermutedRNG with this one's current state, then jumps this one ahead by pow(2, 48) steps with
+     * {@link #jump()}, so the two won't overlap unless the returned one generates more than pow(2, 48) numbers.
+     * @return a new PermutedRNG that will produce the numbers this one would have produced before the jump
+     */
+    @Override
+    public PermutedRNG split() {
+        PermutedRNG next = new PermutedRNG(state);
+        next.state = state;
+        jump();
+        return next;
+    }
+
     @Override
     public String toString() {
         return "PermutedRNG with state 0x" + StringKit.hex(state) + 'L';
@@ -37,6 +37,7 @@ public class RNG implements Serializable {
 	protected double nextNextGaussian;
 	protected boolean haveNextNextGaussian = false;
 	protected Random ran = null;
+	private transient long[] bulk = null;
 
     private static final long serialVersionUID = 2352426757973945149L;
 
@@ -674,7 +675,7 @@ public class RNG implements Serializable {
     public int[] randomOrdering(int length, int[] dest) {
         if (dest == null) return null;
         for (int i = 0; i < length && i < dest.length; i++) {
-            int r = nextIntHasty(i + 1);
+            int r = nextInt(i + 1);
             if (r != i)
                 dest[i] = dest[r];
             dest[r] = i;
@@ -855,19 +856,39 @@ public class RNG implements Serializable {
 
     /**
      * Returns a random non-negative integer below the given bound, or 0 if the bound is 0 or
-     * negative.
+     * negative. This is unbiased, but avoids division on most calls: it multiplies the upper 32
+     * bits of a random long by bound and keeps the upper half of the product, much like
+     * {@link #nextIntHasty(int)}, and only when the lower half falls below bound (which happens
+     * with probability bound / pow(2, 32)) does it compute a threshold, with one modulus, and
+     * reject results below that. This almost always calls nextLong() on the RandomnessSource once.
+     * <br>
+     * Credit goes to Daniel Lemire, "Fast Random Integer Generation in an Interval," https://arxiv.org/abs/1805.10941
      *
      * @param bound the upper bound (exclusive)
      * @return the found number
      */
     public int nextInt(final int bound) {
+        return boundedInt(random, bound);
+    }
+
+    /**
+     * The method behind {@link #nextInt(int)}, shared with the RandomnessSources in this package that have their own
+     * bounded nextInt.
+     *
+     * @param source the RandomnessSource to call nextLong() on
+     * @param bound  the upper bound (exclusive)
+     * @return a random int at least 0 and less than bound, or 0 if bound is 0 or negative
+     */
+    static int boundedInt(final RandomnessSource source, final int bound) {
         if (bound <= 0) return 0;
-        int threshold = (0x7fffffff - bound + 1) % bound;
-        for (; ; ) {
-            int bits = random.next(31);
-            if (bits >= threshold)
-                return bits % bound;
+        long product = bound * (source.nextLong() >>> 32);
+        if ((product & 0xFFFFFFFFL) < bound) {
+            final long threshold = (0x100000000L - bound) % bound;
+            while ((product & 0xFFFFFFFFL) < threshold) {
+                product = bound * (source.nextLong() >>> 32);
+            }
         }
+        return (int) (product >>> 32);
     }
 
     /**
@@ -887,6 +908,122 @@ public class RNG implements Serializable {
         return (int) ((bound * (random.nextLong() & 0x7FFFFFFFL)) >> 31);
     }
 
+    /**
+     * Fills length items of dest, starting at offset, with random longs, the same ones that length calls to
+     * {@link #nextLong()} would return. If the RandomnessSource implements {@link BulkRandomness}, this lets it fill
+     * the array in one tight loop; otherwise this calls its nextLong() once per item. Subclasses that change how single
+     * numbers are made, like {@link DeckRNG}, override this and the other bulk methods to make one number at a time.
+     *
+     * @param dest   the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    public void nextLongs(final long[] dest, final int offset, final int length) {
+        fillLongs(dest, offset, length);
+    }
+
+    /**
+     * Fills all of dest with random longs, the same ones that dest.length calls to {@link #nextLong()} would return.
+     *
+     * @param dest the array to fill; will be modified
+     */
+    public void nextLongs(final long[] dest) {
+        nextLongs(dest, 0, dest.length);
+    }
+
+    /**
+     * Fills length items of dest, starting at offset, with random doubles between 0.0 (inclusive) and 1.0
+     * (exclusive), the same ones that length calls to {@link #nextDouble()} would return. This gets its random bits
+     * in blocks from {@link BulkRandomness#nextLongs(long[], int, int)} when the RandomnessSource supports that.
+     *
+     * @param dest   the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    public void nextDoubles(final double[] dest, final int offset, final int length) {
+        final long[] buf = bulkBuffer();
+        for (int i = offset, end = offset + length, n; i < end; i += n) {
+            fillLongs(buf, 0, n = Math.min(buf.length, end - i));
+            for (int j = 0; j < n; j++) {
+                dest[i + j] = (buf[j] & 0x1fffffffffffffL) * DOUBLE_UNIT;
+            }
+        }
+    }
+
+    /**
+     * Fills all of dest with random doubles between 0.0 (inclusive) and 1.0 (exclusive), the same ones that
+     * dest.length calls to {@link #nextDouble()} would return.
+     *
+     * @param dest the array to fill; will be modified
+     */
+    public void nextDoubles(final double[] dest) {
+        nextDoubles(dest, 0, dest.length);
+    }
+
+    /**
+     * Fills length items of dest, starting at offset, with random non-negative ints below bound, or with 0 if bound
+     * is 0 or negative. These are the same numbers that length calls to {@link #nextInt(int)} would return on a plain
+     * RNG, but the random longs come in blocks from the RandomnessSource and the rejection threshold is computed only
+     * once, so there is no division per item.
+     *
+     * @param dest   the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     * @param bound  the upper bound (exclusive)
+     */
+    public void nextInts(final int[] dest, final int offset, final int length, final int bound) {
+        final int end = offset + length;
+        if (bound <= 0) {
+            for (int i = offset; i < end; i++) {
+                dest[i] = 0;
+            }
+            return;
+        }
+        final long threshold = (0x100000000L - bound) % bound;
+        final long[] buf = bulkBuffer();
+        long product;
+        for (int i = offset, n; i < end; ) {
+            fillLongs(buf, 0, n = Math.min(buf.length, end - i));
+            for (int j = 0; j < n; j++) {
+                if (((product = bound * (buf[j] >>> 32)) & 0xFFFFFFFFL) >= threshold)
+                    dest[i++] = (int) (product >>> 32);
+            }
+        }
+    }
+
+    /**
+     * Fills all of dest with random non-negative ints below bound, or with 0 if bound is 0 or negative.
+     *
+     * @param dest  the array to fill; will be modified
+     * @param bound the upper bound (exclusive)
+     * @see #nextInts(int[], int, int, int) the full version of this method, with notes on the results
+     */
+    public void nextInts(final int[] dest, final int bound) {
+        nextInts(dest, 0, dest.length, bound);
+    }
+
+    /**
+     * Fills length items of dest, starting at offset, with longs straight from the RandomnessSource, in bulk if it
+     * implements {@link BulkRandomness}. Unlike {@link #nextLongs(long[], int, int)}, subclasses don't override this.
+     */
+    private void fillLongs(final long[] dest, final int offset, final int length) {
+        if (random instanceof BulkRandomness)
+            ((BulkRandomness) random).nextLongs(dest, offset, length);
+        else {
+            final RandomnessSource r = random;
+            for (int i = offset, end = offset + length; i < end; i++) {
+                dest[i] = r.nextLong();
+            }
+        }
+    }
+
+    /**
+     * Gets the reusable block of longs that the bulk methods convert from, creating it if needed.
+     */
+    private long[] bulkBuffer() {
+        return bulk == null ? (bulk = new long[256]) : bulk;
+    }
+
     /**
      * Gets a random Coord that has x between 0 (inclusive) and width (exclusive) and y between 0 (inclusive)
      * and height (exclusive). This makes one call to randomLong to generate (more than) 31 random bits for
@@ -945,6 +1082,77 @@ public class RNG implements Serializable {
         return new RNG(random.copy());
     }
 
+    /**
+     * Creates a new RNG for the substream with the given index, without changing the state of this RNG. Two RNGs in
+     * the same state always fork the same substream for the same index, so work split into numbered pieces (tiles,
+     * rows, chunks) can give each piece {@code fork(pieceIndex)} and get the same results no matter how many threads
+     * run the pieces or in what order. If this RNG's RandomnessSource implements {@link SplittableRandomness}, the
+     * substream is a copy of it jumped {@code index + 1} times, so substreams don't overlap with each other or with
+     * this RNG's own upcoming numbers; this takes time proportional to index for generators without constant-time jumps
+     * (LightRNG and PermutedRNG jump in constant time). Other RandomnessSources are forked into a LightRNG seeded by
+     * this RNG's next number (which isn't consumed) mixed with index.
+     * <br>
+     * Because of that, calling this for every index from 0 to n takes time proportional to n squared with generators
+     * like XoRoRNG, XorRNG and LongPeriodRNG; to get many substreams at once, use {@link #fork(int, int)}, which makes
+     * the same substreams while only jumping each one ahead from the one before it.
+     * @param index the non-negative index of the substream; different indices give independent substreams
+     * @return a new RNG that doesn't share state with this one
+     */
+    public RNG fork(int index) {
+        return new RNG(forkRandomness(random, index, 1)[0]);
+    }
+
+    /**
+     * Creates new RNGs for count consecutive substreams, starting with the substream for index, without changing the
+     * state of this RNG. The RNG at position i in the result is the same as {@code fork(index + i)} would give, but
+     * making all of them takes time proportional to {@code index + count} instead of {@code index * count}.
+     * @param index the non-negative index of the first substream
+     * @param count how many substreams to fork; must be non-negative
+     * @return an array of count new RNGs that don't share state with this one or with each other
+     */
+    public RNG[] fork(int index, int count) {
+        RandomnessSource[] sources = forkRandomness(random, index, count);
+        RNG[] forks = new RNG[count];
+        for (int i = 0; i < count; i++) {
+            forks[i] = new RNG(sources[i]);
+        }
+        return forks;
+    }
+
+    /**
+     * Used by {@link #fork(int)}, {@link #fork(int, int)} and the same methods in subclasses to fork a RandomnessSource
+     * without changing it. A SplittableRandomness is copied and jumped ahead to the first substream once, then each
+     * later substream takes one more jump.
+     * @param random the RandomnessSource to fork; will not be modified
+     * @param index the non-negative index of the first substream
+     * @param count how many consecutive substreams to fork; must be non-negative
+     * @return an array of count new RandomnessSources for the substreams starting at the given index
+     */
+    static RandomnessSource[] forkRandomness(RandomnessSource random, int index, int count) {
+        if (index < 0)
+            throw new IllegalArgumentException("fork index must be non-negative; was " + index);
+        if (count < 0)
+            throw new IllegalArgumentException("fork count must be non-negative; was " + count);
+        RandomnessSource[] forks = new RandomnessSource[count];
+        RandomnessSource source = random.copy();
+        if (source instanceof SplittableRandomness) {
+            SplittableRandomness s = (SplittableRandomness) source;
+            for (int i = 0; i < index; i++) {
+                s.jump();
+            }
+            for (int i = 0; i < count; i++) {
+                s.jump();
+                forks[i] = s.copy();
+            }
+            return forks;
+        }
+        final long next = source.nextLong();
+        for (int i = 0; i < count; i++) {
+            forks[i] = new LightRNG(LightRNG.determine(next ^ LightRNG.determine(index + i)));
+        }
+        return forks;
+    }
+
     /**
      * Generates a random 64-bit long with a number of '1' bits (Hamming weight) approximately equal to bitCount.
      * For example, calling this with a parameter of 32 will be equivalent to calling nextLong() on this object's
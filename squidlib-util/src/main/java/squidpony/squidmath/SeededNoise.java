@@ -57,7 +57,7 @@ package squidpony.squidmath;
  * http://accidentalnoise.sourceforge.net/index.html . Both Joise and ANL have many features that SquidLib has not (yet)
  * incorporated, but now that SquidLib has seamless noise, that's a nice feature that would have needed Joise before.
  */
-public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D, Noise.Noise6D {
+public class SeededNoise implements Noise.Grid2D, Noise.Grid3D, Noise.Grid4D, Noise.Noise6D {
 
     protected final int defaultSeed;
     public static final SeededNoise instance = new SeededNoise();
@@ -96,6 +96,26 @@ public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D,
         return noise(x, y, z, w, u, v, seed);
     }
 
+    public void fillGrid(final double[][] out, final double[] xs, final double[] ys) {
+        noiseGrid(out, xs, ys, defaultSeed);
+    }
+    public void fillGrid(final double[][] out, final double[] xs, final double[] ys, final double z) {
+        noiseGrid(out, xs, ys, z, defaultSeed);
+    }
+    public void fillGrid(final double[][] out, final double[] xs, final double[] ys, final double z, final double w) {
+        noiseGrid(out, xs, ys, z, w, defaultSeed);
+    }
+
+    public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final int seed) {
+        noiseGrid(out, xs, ys, seed);
+    }
+    public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final double z, final int seed) {
+        noiseGrid(out, xs, ys, z, seed);
+    }
+    public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final double z, final double w, final int seed) {
+        noiseGrid(out, xs, ys, z, w, seed);
+    }
+
     protected static final float[] gradient2DLUT = {0, 1, 0, -1,
             1, 0, -1, 0, 0, 1, 0, -1, 1, 0, -1, 0, 0, 1,
             0, -1, 1, 0, -1, 0, 0, 1, 0, -1, 1, 0, -1, 0,
@@ -1183,6 +1203,38 @@ public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D,
         return t >= 0 ? (int) t : (int) t - 1;
     }
 
+    /**
+     * Checks that lattice coordinates from low to high are finite and small enough that fastFloor() can't overflow on
+     * them, so a noiseGrid() method can size a table of hashes from them.
+     */
+    private static boolean inLattice(final float low, final float high) {
+        return low > -0x1p30f && high < 0x1p30f;
+    }
+
+    private static float[] toFloats(final double[] values) {
+        final float[] floats = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            floats[i] = (float) values[i];
+        }
+        return floats;
+    }
+
+    private static float min(final float[] values) {
+        float min = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < values.length; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    private static float max(final float[] values) {
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < values.length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
 
     protected static final float F2 = 0.36602540378443864676372317075294f,
             G2 = 0.21132486540518711774542560974902f,
@@ -1216,6 +1268,56 @@ public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D,
         return noise((float)x, (float)y, seed);
     }
     public static double noise(final float x, final float y, final int seed) {
+        return noise(x, y, seed, null, 0, 0, 0);
+    }
+
+    /**
+     * Sets {@code out[a][b]} to {@code noise(xs[a], ys[b], seed)} for every a below xs.length and b below ys.length.
+     * If the grid has at least as many samples as there are lattice points under it, this hashes each of those lattice
+     * points once and shares the hash between all samples that use it, instead of hashing 3 points per sample. The
+     * results are identical either way.
+     * @param out a 2D array that must be at least {@code xs.length} by {@code ys.length}; will be modified
+     * @param xs the x-coordinates of the grid's columns
+     * @param ys the y-coordinates of the grid's rows
+     * @param seed the seed to use, as in {@link #noise(double, double, int)}
+     */
+    public static void noiseGrid(final double[][] out, final double[] xs, final double[] ys, final int seed) {
+        final int width = xs.length, height = ys.length;
+        final float[] x = toFloats(xs), y = toFloats(ys);
+        final float minX = min(x), maxX = max(x), minY = min(y), maxY = max(y),
+                sMin = (minX + minY) * F2, sMax = (maxX + maxY) * F2;
+        final int iMin, jMin, spanI, spanJ;
+        if (!inLattice(minX + sMin, maxX + sMax) || !inLattice(minY + sMin, maxY + sMax)
+                || (long) (spanI = fastFloor(maxX + sMax) + 2 - (iMin = fastFloor(minX + sMin)))
+                * (spanJ = fastFloor(maxY + sMax) + 2 - (jMin = fastFloor(minY + sMin))) > (long) width * height) {
+            for (int a = 0; a < width; a++) {
+                final double[] column = out[a];
+                for (int b = 0; b < height; b++) {
+                    column[b] = noise(x[a], y[b], seed);
+                }
+            }
+            return;
+        }
+        final int[] hashes = new int[spanI * spanJ];
+        for (int a = 0, h = 0; a < spanI; a++) {
+            for (int b = 0; b < spanJ; b++) {
+                hashes[h++] = hash(iMin + a, jMin + b, seed);
+            }
+        }
+        for (int a = 0; a < width; a++) {
+            final double[] column = out[a];
+            for (int b = 0; b < height; b++) {
+                column[b] = noise(x[a], y[b], seed, hashes, iMin, jMin, spanJ);
+            }
+        }
+    }
+
+    /**
+     * 2D noise that, if hashes is non-null, looks up the hash of each lattice point in hashes instead of computing it;
+     * the hash of (i, j) is at {@code hashes[(i - iMin) * spanJ + j - jMin]}. Used by noiseGrid().
+     */
+    private static double noise(final float x, final float y, final int seed,
+                                final int[] hashes, final int iMin, final int jMin, final int spanJ) {
         final float s = (x + y) * F2;
         final float[] gradient2DLUT = SeededNoise.gradient2DLUT;
         final int i = fastFloor(x + s),
@@ -1238,9 +1340,17 @@ public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D,
                 y1 = y0 - j1 + G2,
                 x2 = x0 - 1f + 2f * G2,
                 y2 = y0 - 1f + 2f * G2;
-        final int h0 = hash(i, j, seed) << 1,
-                h1 = hash(i + i1, j + j1, seed) << 1,
-                h2 = hash(i + 1, j + 1, seed) << 1;
+        final int h0, h1, h2;
+        if (hashes == null) {
+            h0 = hash(i, j, seed) << 1;
+            h1 = hash(i + i1, j + j1, seed) << 1;
+            h2 = hash(i + 1, j + 1, seed) << 1;
+        } else {
+            final int h = (i - iMin) * spanJ + j - jMin;
+            h0 = hashes[h] << 1;
+            h1 = hashes[h + i1 * spanJ + j1] << 1;
+            h2 = hashes[h + spanJ + 1] << 1;
+        }
         float n0, n1, n2;
         float t0 = 0.5f - x0 * x0 - y0 * y0;
         if (t0 < 0)
@@ -1270,6 +1380,61 @@ public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D,
         return noise((float)x, (float)y, (float)z, seed);
     }
     public static double noise(final float x, final float y, final float z, final int seed) {
+        return noise(x, y, z, seed, null, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Sets {@code out[a][b]} to {@code noise(xs[a], ys[b], z, seed)} for every a below xs.length and b below
+     * ys.length, filling a slice of 3D noise at a fixed z. Like {@link #noiseGrid(double[][], double[], double[], int)},
+     * this hashes each lattice point under the grid only once if there are no more of those points than samples, and
+     * gives identical results either way.
+     * @param out a 2D array that must be at least {@code xs.length} by {@code ys.length}; will be modified
+     * @param xs the x-coordinates of the grid's columns
+     * @param ys the y-coordinates of the grid's rows
+     * @param z the z-coordinate shared by every sample
+     * @param seed the seed to use, as in {@link #noise(double, double, double, int)}
+     */
+    public static void noiseGrid(final double[][] out, final double[] xs, final double[] ys, final double z, final int seed) {
+        final int width = xs.length, height = ys.length;
+        final float[] x = toFloats(xs), y = toFloats(ys);
+        final float zf = (float) z, minX = min(x), maxX = max(x), minY = min(y), maxY = max(y),
+                sMin = (minX + minY + zf) * F3, sMax = (maxX + maxY + zf) * F3;
+        final int iMin, jMin, kMin, spanI, spanJ, spanK;
+        if (!inLattice(minX + sMin, maxX + sMax) || !inLattice(minY + sMin, maxY + sMax) || !inLattice(zf + sMin, zf + sMax)
+                || (long) (spanI = fastFloor(maxX + sMax) + 2 - (iMin = fastFloor(minX + sMin)))
+                * (spanJ = fastFloor(maxY + sMax) + 2 - (jMin = fastFloor(minY + sMin)))
+                * (spanK = fastFloor(zf + sMax) + 2 - (kMin = fastFloor(zf + sMin))) > (long) width * height) {
+            for (int a = 0; a < width; a++) {
+                final double[] column = out[a];
+                for (int b = 0; b < height; b++) {
+                    column[b] = noise(x[a], y[b], zf, seed);
+                }
+            }
+            return;
+        }
+        final int[] hashes = new int[spanI * spanJ * spanK];
+        for (int a = 0, h = 0; a < spanI; a++) {
+            for (int b = 0; b < spanJ; b++) {
+                for (int c = 0; c < spanK; c++) {
+                    hashes[h++] = hash(iMin + a, jMin + b, kMin + c, seed);
+                }
+            }
+        }
+        for (int a = 0; a < width; a++) {
+            final double[] column = out[a];
+            for (int b = 0; b < height; b++) {
+                column[b] = noise(x[a], y[b], zf, seed, hashes, iMin, jMin, kMin, spanJ, spanK);
+            }
+        }
+    }
+
+    /**
+     * 3D noise that, if hashes is non-null, looks up the hash of each lattice point in hashes instead of computing it;
+     * the hash of (i, j, k) is at {@code hashes[((i - iMin) * spanJ + j - jMin) * spanK + k - kMin]}. Used by
+     * noiseGrid().
+     */
+    private static double noise(final float x, final float y, final float z, final int seed, final int[] hashes,
+                                final int iMin, final int jMin, final int kMin, final int spanJ, final int spanK) {
         double n0, n1, n2, n3;
         final float[] gradient3DLUT = SeededNoise.gradient3DLUT;
         final float s = (x + y + z) * F3;
@@ -1342,10 +1507,19 @@ public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D,
                 y3 = y0 - 1f + 3f * G3,
                 z3 = z0 - 1f + 3f * G3;
 
-        final int h0 = hash(i, j, k, seed) * 3,
-                h1 = hash(i + i1, j + j1, k + k1, seed) * 3,
-                h2 = hash(i + i2, j + j2, k + k2, seed) * 3,
-                h3 = hash(i + 1, j + 1, k + 1, seed) * 3;
+        final int h0, h1, h2, h3;
+        if (hashes == null) {
+            h0 = hash(i, j, k, seed) * 3;
+            h1 = hash(i + i1, j + j1, k + k1, seed) * 3;
+            h2 = hash(i + i2, j + j2, k + k2, seed) * 3;
+            h3 = hash(i + 1, j + 1, k + 1, seed) * 3;
+        } else {
+            final int h = ((i - iMin) * spanJ + j - jMin) * spanK + k - kMin;
+            h0 = hashes[h] * 3;
+            h1 = hashes[h + (i1 * spanJ + j1) * spanK + k1] * 3;
+            h2 = hashes[h + (i2 * spanJ + j2) * spanK + k2] * 3;
+            h3 = hashes[h + (spanJ + 1) * spanK + 1] * 3;
+        }
 
         float t0 = 0.6f - x0 * x0 - y0 * y0 - z0 * z0;
         if (t0 < 0.0)
@@ -1386,6 +1560,68 @@ public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D,
         return noise((float)x, (float)y, (float)z, (float)w, seed);
     }
     public static double noise(final float x, final float y, final float z, final float w, final int seed) {
+        return noise(x, y, z, w, seed, null, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Sets {@code out[a][b]} to {@code noise(xs[a], ys[b], z, w, seed)} for every a below xs.length and b below
+     * ys.length, filling a slice of 4D noise at a fixed z and w. Like
+     * {@link #noiseGrid(double[][], double[], double[], int)}, this hashes each lattice point under the grid only once
+     * if there are no more of those points than samples, and gives identical results either way.
+     * @param out a 2D array that must be at least {@code xs.length} by {@code ys.length}; will be modified
+     * @param xs the x-coordinates of the grid's columns
+     * @param ys the y-coordinates of the grid's rows
+     * @param z the z-coordinate shared by every sample
+     * @param w the w-coordinate shared by every sample
+     * @param seed the seed to use, as in {@link #noise(double, double, double, double, int)}
+     */
+    public static void noiseGrid(final double[][] out, final double[] xs, final double[] ys, final double z,
+                                 final double w, final int seed) {
+        final int width = xs.length, height = ys.length;
+        final float[] x = toFloats(xs), y = toFloats(ys);
+        final float zf = (float) z, wf = (float) w, minX = min(x), maxX = max(x), minY = min(y), maxY = max(y),
+                sMin = (minX + minY + zf + wf) * F4, sMax = (maxX + maxY + zf + wf) * F4;
+        final int iMin, jMin, kMin, lMin, spanI, spanJ, spanK, spanL;
+        if (!inLattice(minX + sMin, maxX + sMax) || !inLattice(minY + sMin, maxY + sMax)
+                || !inLattice(zf + sMin, zf + sMax) || !inLattice(wf + sMin, wf + sMax)
+                || (long) (spanI = fastFloor(maxX + sMax) + 2 - (iMin = fastFloor(minX + sMin)))
+                * (spanJ = fastFloor(maxY + sMax) + 2 - (jMin = fastFloor(minY + sMin)))
+                * (spanK = fastFloor(zf + sMax) + 2 - (kMin = fastFloor(zf + sMin)))
+                * (spanL = fastFloor(wf + sMax) + 2 - (lMin = fastFloor(wf + sMin))) > (long) width * height) {
+            for (int a = 0; a < width; a++) {
+                final double[] column = out[a];
+                for (int b = 0; b < height; b++) {
+                    column[b] = noise(x[a], y[b], zf, wf, seed);
+                }
+            }
+            return;
+        }
+        final int[] hashes = new int[spanI * spanJ * spanK * spanL];
+        for (int a = 0, h = 0; a < spanI; a++) {
+            for (int b = 0; b < spanJ; b++) {
+                for (int c = 0; c < spanK; c++) {
+                    for (int d = 0; d < spanL; d++) {
+                        hashes[h++] = hash(iMin + a, jMin + b, kMin + c, lMin + d, seed);
+                    }
+                }
+            }
+        }
+        for (int a = 0; a < width; a++) {
+            final double[] column = out[a];
+            for (int b = 0; b < height; b++) {
+                column[b] = noise(x[a], y[b], zf, wf, seed, hashes, iMin, jMin, kMin, lMin, spanJ, spanK, spanL);
+            }
+        }
+    }
+
+    /**
+     * 4D noise that, if hashes is non-null, looks up the hash of each lattice point in hashes instead of computing it;
+     * the hash of (i, j, k, l) is at {@code hashes[(((i - iMin) * spanJ + j - jMin) * spanK + k - kMin) * spanL + l - lMin]}.
+     * Used by noiseGrid().
+     */
+    private static double noise(final float x, final float y, final float z, final float w, final int seed,
+                                final int[] hashes, final int iMin, final int jMin, final int kMin, final int lMin,
+                                final int spanJ, final int spanK, final int spanL) {
         float n = 0.0f;
         final float s = (x + y + z + w) * F4;
         final int i = fastFloor(x + s), j = fastFloor(y + s), k = fastFloor(z + s), l = fastFloor(w + s);
@@ -1428,11 +1664,21 @@ public class SeededNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D,
                 y4 = y0 - 1f + 4f * G4,
                 z4 = z0 - 1f + 4f * G4,
                 w4 = w0 - 1f + 4f * G4;
-        final int h0 = hash(i, j, k, l, seed) << 2,
-                h1 = hash(i + i1, j + j1, k + k1, l + l1, seed) << 2,
-                h2 = hash(i + i2, j + j2, k + k2, l + l2, seed) << 2,
-                h3 = hash(i + i3, j + j3, k + k3, l + l3, seed) << 2,
-                h4 = hash(i + 1, j + 1, k + 1, l + 1, seed) << 2;
+        final int h0, h1, h2, h3, h4;
+        if (hashes == null) {
+            h0 = hash(i, j, k, l, seed) << 2;
+            h1 = hash(i + i1, j + j1, k + k1, l + l1, seed) << 2;
+            h2 = hash(i + i2, j + j2, k + k2, l + l2, seed) << 2;
+            h3 = hash(i + i3, j + j3, k + k3, l + l3, seed) << 2;
+            h4 = hash(i + 1, j + 1, k + 1, l + 1, seed) << 2;
+        } else {
+            final int h = (((i - iMin) * spanJ + j - jMin) * spanK + k - kMin) * spanL + l - lMin;
+            h0 = hashes[h] << 2;
+            h1 = hashes[h + ((i1 * spanJ + j1) * spanK + k1) * spanL + l1] << 2;
+            h2 = hashes[h + ((i2 * spanJ + j2) * spanK + k2) * spanL + l2] << 2;
+            h3 = hashes[h + ((i3 * spanJ + j3) * spanK + k3) * spanL + l3] << 2;
+            h4 = hashes[h + ((spanJ + 1) * spanK + 1) * spanL + 1] << 2;
+        }
         float t0 = LIMIT4 - x0 * x0 - y0 * y0 - z0 * z0 - w0 * w0;
         if(t0 > 0) {
             t0 *= t0;
@@ -0,0 +1,24 @@
+package squidpony.squidmath;
+
+/**
+ * A RandomnessSource that can skip far ahead in its sequence in one step, and so can hand out independent streams of
+ * random numbers that won't overlap with each other. Each implementation documents how far {@link #jump()} goes; a
+ * stream that uses fewer numbers than that won't overlap with the stream that starts after a jump. This is meant for
+ * splitting work between threads while keeping the results reproducible from one seed; {@link RNG#fork(int)} uses it
+ * to give each piece of work a stream that depends only on the RNG's state and the piece's index.
+ */
+public interface SplittableRandomness extends RandomnessSource {
+    /**
+     * Advances the state of this generator as if {@link #nextLong()} had been called a very large number of times,
+     * without generating each number. The exact distance depends on the implementation.
+     */
+    void jump();
+
+    /**
+     * Returns a new generator that will produce the numbers this one would have produced from its current state, and
+     * then jumps this generator ahead as with {@link #jump()}, so the returned generator and this one produce streams
+     * that don't overlap (as long as the returned one generates fewer numbers than the jump distance).
+     * @return a new SplittableRandomness of the same type, with this generator's state before the jump
+     */
+    SplittableRandomness split();
+}
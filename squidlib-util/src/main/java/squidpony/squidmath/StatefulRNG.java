@@ -49,6 +49,34 @@ public class StatefulRNG extends RNG {
         return new StatefulRNG(random.copy());
     }
 
+    /**
+     * Creates a new StatefulRNG for the substream with the given index, without changing the state of this
+     * StatefulRNG; see {@link RNG#fork(int)} for how substreams are chosen.
+     * @param index the non-negative index of the substream; different indices give independent substreams
+     * @return a new StatefulRNG that doesn't share state with this one
+     */
+    @Override
+    public RNG fork(int index) {
+        return new StatefulRNG(forkRandomness(random, index, 1)[0]);
+    }
+
+    /**
+     * Creates new StatefulRNGs for count consecutive substreams, starting with the substream for index, without
+     * changing the state of this StatefulRNG; see {@link RNG#fork(int, int)}.
+     * @param index the non-negative index of the first substream
+     * @param count how many substreams to fork; must be non-negative
+     * @return an array of count new StatefulRNGs that don't share state with this one or with each other
+     */
+    @Override
+    public RNG[] fork(int index, int count) {
+        RandomnessSource[] sources = forkRandomness(random, index, count);
+        RNG[] forks = new RNG[count];
+        for (int i = 0; i < count; i++) {
+            forks[i] = new StatefulRNG(sources[i]);
+        }
+        return forks;
+    }
+
     /**
      * Get a long that can be used to reproduce the sequence of random numbers this object will generate starting now.
      * @return a long that can be used as state.
@@ -51,7 +51,7 @@ import java.io.Serializable;
  * Created by Tommy Ettinger on 8/23/2016.
  */
 @Beta
-public class ThunderRNG implements RandomnessSource, Serializable {
+public class ThunderRNG implements RandomnessSource, BulkRandomness, Serializable {
     private static final long serialVersionUID = 3L;
 
     /** The state can be seeded with any value. */
@@ -142,6 +142,25 @@ public class ThunderRNG implements RandomnessSource, Serializable {
         //return state = state * 2862933555777941757L + 7046029254386353087L; // LCG for comparison
     }
 
+    /**
+     * Fills length items of dest, starting at offset, with the same longs that length calls to {@link #nextLong()}
+     * would return, keeping the state in local variables for the whole loop.
+     * @param dest the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    @Override
+    public final void nextLongs(final long[] dest, final int offset, final int length) {
+        long s = state, j = jumble, n;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            n = s + (j & (j += 0xAB79B96DCD7FE75EL));
+            dest[i] = s ^ (0x9E3779B97F4A7C15L * (n >> 20));
+            s = n;
+        }
+        state = s;
+        jumble = j;
+    }
+
     public int nextInt()
     {
         return (int)(nextLong() >>> 32);
@@ -18,7 +18,7 @@ import static squidpony.squidmath.PintRNG.determineBounded;
  * Created by Tommy Ettinger on 12/14/2016.
  */
 @Beta
-public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.Noise3D, Noise.Noise4D {
+public class WhirlingNoise extends PerlinNoise implements Noise.Grid2D, Noise.Grid3D, Noise.Grid4D {
 
     public static final WhirlingNoise instance = new WhirlingNoise();
 
@@ -28,6 +28,30 @@ public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.N
     private static int fastFloor(float t) {
         return t >= 0 ? (int) t : (int) t - 1;
     }
+
+    /**
+     * Checks that lattice coordinates from low to high are finite and small enough that fastFloor() can't overflow on
+     * them, so a noiseGrid() method can size a table of gradient indices from them.
+     */
+    private static boolean inLattice(final double low, final double high) {
+        return low > -0x1p30 && high < 0x1p30;
+    }
+
+    private static double min(final double[] values) {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < values.length; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    private static double max(final double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < values.length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
     protected static final float root3 = 1.7320508f, root5 = 2.236068f,
             F2f = 0.5f * (root3 - 1f),
             G2f = (3f - root3) * 0.16666667f,
@@ -151,6 +175,40 @@ public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.N
         return noise(x, y, z, w);
     }
 
+    public void fillGrid(final double[][] out, final double[] xs, final double[] ys) {
+        noiseGrid(out, xs, ys);
+    }
+
+    /**
+     * Identical to {@link #fillGrid(double[][], double[], double[])}; ignores seed.
+     */
+    public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final int seed) {
+        noiseGrid(out, xs, ys);
+    }
+
+    public void fillGrid(final double[][] out, final double[] xs, final double[] ys, final double z) {
+        noiseGrid(out, xs, ys, z);
+    }
+
+    /**
+     * Identical to {@link #fillGrid(double[][], double[], double[], double)}; ignores seed.
+     */
+    public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final double z, final int seed) {
+        noiseGrid(out, xs, ys, z);
+    }
+
+    public void fillGrid(final double[][] out, final double[] xs, final double[] ys, final double z, final double w) {
+        noiseGrid(out, xs, ys, z, w);
+    }
+
+    /**
+     * Identical to {@link #fillGrid(double[][], double[], double[], double, double)}; ignores seed.
+     */
+    public void fillGridWithSeed(final double[][] out, final double[] xs, final double[] ys, final double z,
+                                 final double w, final int seed) {
+        noiseGrid(out, xs, ys, z, w);
+    }
+
 
     /**
      * 2D simplex noise. Unlike {@link PerlinNoise}, uses its parameters verbatim, so the scale of the result will be
@@ -164,6 +222,54 @@ public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.N
      * @return noise from -1.0 to 1.0, inclusive
      */
     public static double noise(final double xin, final double yin) {
+        return noise(xin, yin, null, 0, 0, 0);
+    }
+
+    /**
+     * Sets {@code out[a][b]} to {@code noise(xs[a], ys[b])} for every a below xs.length and b below ys.length. If the
+     * grid has at least as many samples as there are lattice points under it, this finds the gradient of each of those
+     * lattice points once and shares it between all samples that use it, instead of hashing 3 points per sample. The
+     * results are identical either way.
+     * @param out a 2D array that must be at least {@code xs.length} by {@code ys.length}; will be modified
+     * @param xs the x-coordinates of the grid's columns
+     * @param ys the y-coordinates of the grid's rows
+     */
+    public static void noiseGrid(final double[][] out, final double[] xs, final double[] ys) {
+        final int width = xs.length, height = ys.length;
+        final double minX = min(xs), maxX = max(xs), minY = min(ys), maxY = max(ys),
+                sMin = (minX + minY) * F2, sMax = (maxX + maxY) * F2;
+        final int iMin, jMin, spanI, spanJ;
+        if (!inLattice(minX + sMin, maxX + sMax) || !inLattice(minY + sMin, maxY + sMax)
+                || (long) (spanI = fastFloor(maxX + sMax) + 2 - (iMin = fastFloor(minX + sMin)))
+                * (spanJ = fastFloor(maxY + sMax) + 2 - (jMin = fastFloor(minY + sMin))) > (long) width * height) {
+            for (int a = 0; a < width; a++) {
+                final double[] column = out[a];
+                for (int b = 0; b < height; b++) {
+                    column[b] = noise(xs[a], ys[b]);
+                }
+            }
+            return;
+        }
+        final int[] gradients = new int[spanI * spanJ];
+        for (int a = 0, g = 0; a < spanI; a++) {
+            for (int b = 0; b < spanJ; b++) {
+                gradients[g++] = determine(iMin + a + determine(jMin + b)) & 15;
+            }
+        }
+        for (int a = 0; a < width; a++) {
+            final double[] column = out[a];
+            for (int b = 0; b < height; b++) {
+                column[b] = noise(xs[a], ys[b], gradients, iMin, jMin, spanJ);
+            }
+        }
+    }
+
+    /**
+     * 2D noise that, if gradients is non-null, looks up the gradient index of each lattice point in gradients instead
+     * of hashing it; the index for (i, j) is at {@code gradients[(i - iMin) * spanJ + j - jMin]}. Used by noiseGrid().
+     */
+    private static double noise(final double xin, final double yin,
+                                final int[] gradients, final int iMin, final int jMin, final int spanJ) {
         //xin *= epi;
         //yin *= epi;
         double noise0, noise1, noise2; // from the three corners
@@ -215,9 +321,17 @@ public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.N
         int gi1 = (hash >>>= 4) & 15;
         int gi2 = (hash >>> 4) & 15;
         */
-        int gi0 = determine(i + determine(j)) & 15;
-        int gi1 = determine(i + i1 + determine(j + j1)) & 15;
-        int gi2 = determine(i + 1 + determine(j + 1)) & 15;
+        int gi0, gi1, gi2;
+        if (gradients == null) {
+            gi0 = determine(i + determine(j)) & 15;
+            gi1 = determine(i + i1 + determine(j + j1)) & 15;
+            gi2 = determine(i + 1 + determine(j + 1)) & 15;
+        } else {
+            final int g = (i - iMin) * spanJ + j - jMin;
+            gi0 = gradients[g];
+            gi1 = gradients[g + i1 * spanJ + j1];
+            gi2 = gradients[g + spanJ + 1];
+        }
 
         // Calculate the contribution from the three corners
         double t0 = 0.5 - x0 * x0 - y0 * y0;
@@ -354,6 +468,59 @@ public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.N
      * @return noise from -1.0 to 1.0, inclusive
      */
     public static double noise(final double xin, final double yin, final double zin) {
+        return noise(xin, yin, zin, null, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Sets {@code out[a][b]} to {@code noise(xs[a], ys[b], z)} for every a below xs.length and b below ys.length,
+     * filling a slice of 3D noise at a fixed z. Like {@link #noiseGrid(double[][], double[], double[])}, this finds the
+     * gradient of each lattice point under the grid only once if there are no more of those points than samples, and
+     * gives identical results either way.
+     * @param out a 2D array that must be at least {@code xs.length} by {@code ys.length}; will be modified
+     * @param xs the x-coordinates of the grid's columns
+     * @param ys the y-coordinates of the grid's rows
+     * @param z the z-coordinate shared by every sample
+     */
+    public static void noiseGrid(final double[][] out, final double[] xs, final double[] ys, final double z) {
+        final int width = xs.length, height = ys.length;
+        final double minX = min(xs), maxX = max(xs), minY = min(ys), maxY = max(ys),
+                sMin = (minX + minY + z) * F3, sMax = (maxX + maxY + z) * F3;
+        final int iMin, jMin, kMin, spanI, spanJ, spanK;
+        if (!inLattice(minX + sMin, maxX + sMax) || !inLattice(minY + sMin, maxY + sMax) || !inLattice(z + sMin, z + sMax)
+                || (long) (spanI = fastFloor(maxX + sMax) + 2 - (iMin = fastFloor(minX + sMin)))
+                * (spanJ = fastFloor(maxY + sMax) + 2 - (jMin = fastFloor(minY + sMin)))
+                * (spanK = fastFloor(z + sMax) + 2 - (kMin = fastFloor(z + sMin))) > (long) width * height) {
+            for (int a = 0; a < width; a++) {
+                final double[] column = out[a];
+                for (int b = 0; b < height; b++) {
+                    column[b] = noise(xs[a], ys[b], z);
+                }
+            }
+            return;
+        }
+        final int[] gradients = new int[spanI * spanJ * spanK];
+        for (int a = 0, g = 0; a < spanI; a++) {
+            for (int b = 0; b < spanJ; b++) {
+                for (int c = 0; c < spanK; c++) {
+                    gradients[g++] = determineBounded(iMin + a + determine(jMin + b + determine(kMin + c)), 12);
+                }
+            }
+        }
+        for (int a = 0; a < width; a++) {
+            final double[] column = out[a];
+            for (int b = 0; b < height; b++) {
+                column[b] = noise(xs[a], ys[b], z, gradients, iMin, jMin, kMin, spanJ, spanK);
+            }
+        }
+    }
+
+    /**
+     * 3D noise that, if gradients is non-null, looks up the gradient index of each lattice point in gradients instead
+     * of hashing it; the index for (i, j, k) is at {@code gradients[((i - iMin) * spanJ + j - jMin) * spanK + k - kMin]}.
+     * Used by noiseGrid().
+     */
+    private static double noise(final double xin, final double yin, final double zin, final int[] gradients,
+                                final int iMin, final int jMin, final int kMin, final int spanJ, final int spanK) {
         //xin *= epi;
         //yin *= epi;
         //zin *= epi;
@@ -461,10 +628,19 @@ public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.N
         int gi3 = perm[ii + 1 + perm[jj + 1 + perm[kk + 1]]] % 12;
         */
 
-        int gi0 = determineBounded(i + determine(j + determine(k)), 12);
-        int gi1 = determineBounded(i + i1 + determine(j + j1 + determine(k + k1)), 12);
-        int gi2 = determineBounded(i + i2 + determine(j + j2 + determine(k + k2)), 12);
-        int gi3 = determineBounded(i + 1 + determine(j + 1 + determine(k + 1)), 12);
+        int gi0, gi1, gi2, gi3;
+        if (gradients == null) {
+            gi0 = determineBounded(i + determine(j + determine(k)), 12);
+            gi1 = determineBounded(i + i1 + determine(j + j1 + determine(k + k1)), 12);
+            gi2 = determineBounded(i + i2 + determine(j + j2 + determine(k + k2)), 12);
+            gi3 = determineBounded(i + 1 + determine(j + 1 + determine(k + 1)), 12);
+        } else {
+            final int g = ((i - iMin) * spanJ + j - jMin) * spanK + k - kMin;
+            gi0 = gradients[g];
+            gi1 = gradients[g + (i1 * spanJ + j1) * spanK + k1];
+            gi2 = gradients[g + (i2 * spanJ + j2) * spanK + k2];
+            gi3 = gradients[g + (spanJ + 1) * spanK + 1];
+        }
 
         /*
         int hash = (int) rawNoise(i + ((j + k * 0x632BE5AB) * 0x9E3779B9),
@@ -700,6 +876,66 @@ public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.N
      * @return noise from -1.0 to 1.0, inclusive
      */
     public static double noise(double x, double y, double z, double w) {
+        return noise(x, y, z, w, null, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Sets {@code out[a][b]} to {@code noise(xs[a], ys[b], z, w)} for every a below xs.length and b below ys.length,
+     * filling a slice of 4D noise at a fixed z and w. Like {@link #noiseGrid(double[][], double[], double[])}, this
+     * finds the gradient of each lattice point under the grid only once if there are no more of those points than
+     * samples, and gives identical results either way. This saves more here than in lower dimensions, since each
+     * gradient takes 4 calls to {@link PintRNG#determine(int)} to find.
+     * @param out a 2D array that must be at least {@code xs.length} by {@code ys.length}; will be modified
+     * @param xs the x-coordinates of the grid's columns
+     * @param ys the y-coordinates of the grid's rows
+     * @param z the z-coordinate shared by every sample
+     * @param w the w-coordinate shared by every sample
+     */
+    public static void noiseGrid(final double[][] out, final double[] xs, final double[] ys, final double z, final double w) {
+        final int width = xs.length, height = ys.length;
+        final double minX = min(xs), maxX = max(xs), minY = min(ys), maxY = max(ys),
+                sMin = (minX + minY + z + w) * F4, sMax = (maxX + maxY + z + w) * F4;
+        final int iMin, jMin, kMin, lMin, spanI, spanJ, spanK, spanL;
+        if (!inLattice(minX + sMin, maxX + sMax) || !inLattice(minY + sMin, maxY + sMax)
+                || !inLattice(z + sMin, z + sMax) || !inLattice(w + sMin, w + sMax)
+                || (long) (spanI = fastFloor(maxX + sMax) + 2 - (iMin = fastFloor(minX + sMin)))
+                * (spanJ = fastFloor(maxY + sMax) + 2 - (jMin = fastFloor(minY + sMin)))
+                * (spanK = fastFloor(z + sMax) + 2 - (kMin = fastFloor(z + sMin)))
+                * (spanL = fastFloor(w + sMax) + 2 - (lMin = fastFloor(w + sMin))) > (long) width * height) {
+            for (int a = 0; a < width; a++) {
+                final double[] column = out[a];
+                for (int b = 0; b < height; b++) {
+                    column[b] = noise(xs[a], ys[b], z, w);
+                }
+            }
+            return;
+        }
+        final int[] gradients = new int[spanI * spanJ * spanK * spanL];
+        for (int a = 0, g = 0; a < spanI; a++) {
+            for (int b = 0; b < spanJ; b++) {
+                for (int c = 0; c < spanK; c++) {
+                    for (int d = 0; d < spanL; d++) {
+                        gradients[g++] = determine(iMin + a + determine(jMin + b + determine(kMin + c + determine(lMin + d)))) & 31;
+                    }
+                }
+            }
+        }
+        for (int a = 0; a < width; a++) {
+            final double[] column = out[a];
+            for (int b = 0; b < height; b++) {
+                column[b] = noise(xs[a], ys[b], z, w, gradients, iMin, jMin, kMin, lMin, spanJ, spanK, spanL);
+            }
+        }
+    }
+
+    /**
+     * 4D noise that, if gradients is non-null, looks up the gradient index of each lattice point in gradients instead
+     * of hashing it; the index for (i, j, k, l) is at
+     * {@code gradients[(((i - iMin) * spanJ + j - jMin) * spanK + k - kMin) * spanL + l - lMin]}. Used by noiseGrid().
+     */
+    private static double noise(double x, double y, double z, double w, final int[] gradients,
+                                final int iMin, final int jMin, final int kMin, final int lMin,
+                                final int spanJ, final int spanK, final int spanL) {
         // The skewing and unskewing factors are hairy again for the 4D case
 
         // Skew the (x,y,z,w) space to determine which cell of 24 simplices
@@ -785,11 +1021,21 @@ public class WhirlingNoise extends PerlinNoise implements Noise.Noise2D, Noise.N
         double z4 = z0 - 1.0 + 4.0 * G4;
         double w4 = w0 - 1.0 + 4.0 * G4;
 
-        int gi0 = determine(i + determine(j + determine(k + determine(l)))) & 31;
-        int gi1 = determine(i + i1 + determine(j + j1 + determine(k + k1 + determine(l + l1)))) & 31;
-        int gi2 = determine(i + i2 + determine(j + j2 + determine(k + k2 + determine(l + l2)))) & 31;
-        int gi3 = determine(i + i3 + determine(j + j3 + determine(k + k3 + determine(l + l3)))) & 31;
-        int gi4 = determine(i + 1 + determine(j + 1 + determine(k + 1 + determine(l + 1)))) & 31;
+        int gi0, gi1, gi2, gi3, gi4;
+        if (gradients == null) {
+            gi0 = determine(i + determine(j + determine(k + determine(l)))) & 31;
+            gi1 = determine(i + i1 + determine(j + j1 + determine(k + k1 + determine(l + l1)))) & 31;
+            gi2 = determine(i + i2 + determine(j + j2 + determine(k + k2 + determine(l + l2)))) & 31;
+            gi3 = determine(i + i3 + determine(j + j3 + determine(k + k3 + determine(l + l3)))) & 31;
+            gi4 = determine(i + 1 + determine(j + 1 + determine(k + 1 + determine(l + 1)))) & 31;
+        } else {
+            final int g = (((i - iMin) * spanJ + j - jMin) * spanK + k - kMin) * spanL + l - lMin;
+            gi0 = gradients[g];
+            gi1 = gradients[g + ((i1 * spanJ + j1) * spanK + k1) * spanL + l1];
+            gi2 = gradients[g + ((i2 * spanJ + j2) * spanK + k2) * spanL + l2];
+            gi3 = gradients[g + ((i3 * spanJ + j3) * spanK + k3) * spanL + l3];
+            gi4 = gradients[g + ((spanJ + 1) * spanK + 1) * spanL + 1];
+        }
 
         // Noise contributions from the five corners are n0 to n4
 
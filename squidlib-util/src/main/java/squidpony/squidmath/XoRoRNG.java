@@ -32,7 +32,7 @@ import java.io.Serializable;
  * @author David Blackman
  * @author Tommy Ettinger
  */
-public class XoRoRNG implements RandomnessSource, Serializable {
+public class XoRoRNG implements RandomnessSource, BulkRandomness, SplittableRandomness, Serializable {
 
 	private static final long DOUBLE_MASK = (1L << 53) - 1;
     private static final double NORM_53 = 1. / (1L << 53);
@@ -43,6 +43,8 @@ public class XoRoRNG implements RandomnessSource, Serializable {
 
     private long state0, state1;
 
+    private static final long[] jumpTable = {0xBEAC0467EBA5FACBL, 0xD86B048B86AA9922L};
+
     /**
      * Creates a new generator seeded using Math.random.
      */
@@ -72,6 +74,26 @@ public class XoRoRNG implements RandomnessSource, Serializable {
         return result;
     }
 
+    /**
+     * Fills length items of dest, starting at offset, with the same longs that length calls to {@link #nextLong()}
+     * would return, keeping the state in local variables for the whole loop.
+     * @param dest the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    @Override
+    public final void nextLongs(final long[] dest, final int offset, final int length) {
+        long s0 = state0, s1 = state1;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            dest[i] = s0 + s1;
+            s1 ^= s0;
+            s0 = Long.rotateLeft(s0, 55) ^ s1 ^ (s1 << 14);
+            s1 = Long.rotateLeft(s1, 36);
+        }
+        state0 = s0;
+        state1 = s1;
+    }
+
     /**
      * Produces a copy of this RandomnessSource that, if next() and/or nextLong() are called on this object and the
      * copy, both will generate the same sequence of random numbers from the point copy() was called. This just needs to
@@ -97,18 +119,13 @@ public class XoRoRNG implements RandomnessSource, Serializable {
     }
 
     /**
-     * Exclusive on the upper bound.  The lower bound is 0.
-     * @param bound the upper bound; should be positive
+     * Exclusive on the upper bound.  The lower bound is 0. Unbiased, using the same method as {@link RNG#nextInt(int)}.
+     * Will call nextLong() with no arguments at least 1 time, possibly more.
+     * @param bound the upper bound; should be positive, or this returns 0
      * @return a random int less than n and at least equal to 0
      */
     public int nextInt( final int bound ) {
-        if ( bound <= 0 ) return 0;
-        int threshold = (0x7fffffff - bound + 1) % bound;
-        for (;;) {
-            int bits = (int)(nextLong() & 0x7fffffff);
-            if (bits >= threshold)
-                return bits % bound;
-        }
+        return RNG.boundedInt(this, bound);
     }
     /**
      * Inclusive lower, exclusive upper.
@@ -176,6 +193,39 @@ public class XoRoRNG implements RandomnessSource, Serializable {
         state1 = z ^ (z >>> 31);
     }
 
+    /**
+     * This is the jump function for the generator. It is equivalent to pow(2, 64) calls to nextLong(); it can be used
+     * to generate pow(2, 64) non-overlapping subsequences for parallel computations. Alters the state of this object.
+     */
+    @Override
+    public void jump() {
+        long s0 = 0L, s1 = 0L;
+        for (int i = 0; i < 2; i++)
+            for (int b = 0; b < 64; b++) {
+                if ((jumpTable[i] & 1L << b) != 0) {
+                    s0 ^= state0;
+                    s1 ^= state1;
+                }
+                nextLong();
+            }
+        state0 = s0;
+        state1 = s1;
+    }
+
+    /**
+     * Returns a new XoRoRNG with this one's current state, then jumps this one ahead by pow(2, 64) steps with
+     * {@link #jump()}, so the two won't overlap unless the returned one generates more than pow(2, 64) numbers.
+     * @return a new XoRoRNG that will produce the numbers this one would have produced before the jump
+     */
+    @Override
+    public XoRoRNG split() {
+        XoRoRNG next = new XoRoRNG(state0);
+        next.state0 = state0;
+        next.state1 = state1;
+        jump();
+        return next;
+    }
+
     @Override
     public String toString() {
         return "XoRoRNG with state hash 0x" + StringKit.hexHash(state0, state1) + 'L';
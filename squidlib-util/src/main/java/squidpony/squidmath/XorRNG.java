@@ -17,7 +17,7 @@ import squidpony.StringKit;
  * @author Sebastiano Vigna
  * @author Tommy Ettinger
  */
-public class XorRNG implements RandomnessSource {
+public class XorRNG implements RandomnessSource, BulkRandomness, SplittableRandomness {
 
 	private static final long DOUBLE_MASK = (1L << 53) - 1;
     private static final double NORM_53 = 1. / (1L << 53);
@@ -28,6 +28,12 @@ public class XorRNG implements RandomnessSource {
 
     private long state0, state1;
 
+    /**
+     * Jump polynomial for the shift constants used here (23, 17, 26), which differ from the ones in Vigna's current
+     * xorshift128+; computed as x to the pow(2, 64) modulo this generator's characteristic polynomial.
+     */
+    private static final long[] jumpTable = {0x8C405782BCA686ADL, 0xC44F35946FEF49C6L};
+
     /**
      * Creates a new generator seeded using Math.random.
      */
@@ -53,15 +59,39 @@ public class XorRNG implements RandomnessSource {
         return ( state1 = s1 ^ s0 ^ ( s1 >>> 17 ) ^ ( s0 >>> 26 )) + s0; // b, c
     }
 
+    /**
+     * Fills length items of dest, starting at offset, with the same longs that length calls to {@link #nextLong()}
+     * would return, keeping the state in local variables for the whole loop.
+     * @param dest the array to fill; will be modified
+     * @param offset the first index in dest to fill
+     * @param length how many items to fill
+     */
+    @Override
+    public void nextLongs(final long[] dest, final int offset, final int length) {
+        long s0 = state0, s1 = state1, a;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            a = s0;
+            s0 = s1;
+            a ^= a << 23;
+            s1 = a ^ s1 ^ (a >>> 17) ^ (s1 >>> 26);
+            dest[i] = s1 + s0;
+        }
+        state0 = s0;
+        state1 = s1;
+    }
+
     public int nextInt() {
         return (int) nextLong();
     }
 
+    /**
+     * Exclusive on the upper bound n.  The lower bound is 0. Unbiased, using the same method as
+     * {@link RNG#nextInt(int)}.
+     * @param n the upper bound; should be positive, or this returns 0
+     * @return a random int less than n and at least equal to 0
+     */
     public int nextInt(final int n) {
-        if (n <= 0) {
-            throw new IllegalArgumentException();
-        }
-        return (int) ((nextLong() >>> 1) % n);
+        return RNG.boundedInt(this, n);
     }
 
     public long nextLong(final long n) {
@@ -122,6 +152,39 @@ public class XorRNG implements RandomnessSource {
         state0 = avalanche(state1);
     }
 
+    /**
+     * This is the jump function for the generator. It is equivalent to pow(2, 64) calls to nextLong(); it can be used
+     * to generate pow(2, 64) non-overlapping subsequences for parallel computations. Alters the state of this object.
+     */
+    @Override
+    public void jump() {
+        long s0 = 0L, s1 = 0L;
+        for (int i = 0; i < 2; i++)
+            for (int b = 0; b < 64; b++) {
+                if ((jumpTable[i] & 1L << b) != 0) {
+                    s0 ^= state0;
+                    s1 ^= state1;
+                }
+                nextLong();
+            }
+        state0 = s0;
+        state1 = s1;
+    }
+
+    /**
+     * Returns a new XorRNG with this one's current state, then jumps this one ahead by pow(2, 64) steps with
+     * {@link #jump()}, so the two won't overlap unless the returned one generates more than pow(2, 64) numbers.
+     * @return a new XorRNG that will produce the numbers this one would have produced before the jump
+     */
+    @Override
+    public XorRNG split() {
+        XorRNG next = new XorRNG(state0);
+        next.state0 = state0;
+        next.state1 = state1;
+        jump();
+        return next;
+    }
+
     @Override
     public String toString() {
         return "XorRNG with state hash 0x" + StringKit.hexHash(state0, state1) + 'L';
@@ -0,0 +1,313 @@
+package squidpony.squidai;
+
+import org.junit.Test;
+import squidpony.squidgrid.Adjacency;
+import squidpony.ArrayTools;
+import squidpony.squidgrid.mapping.DungeonGenerator;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.GreasedRegion;
+import squidpony.squidmath.StatefulRNG;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the different ways of scanning a DijkstraMap agree with each other.
+ */
+public class DijkstraMapTest {
+    public static StatefulRNG srng = new StatefulRNG(0x1337BEEF);
+    public static DungeonGenerator dungeonGen = new DungeonGenerator(80, 60, srng);
+    public static char[][] dungeon = dungeonGen.generate();
+
+    /**
+     * Makes a DijkstraMap for {@link #dungeon} with costs that vary a lot from cell to cell.
+     */
+    public static DijkstraMap costlyMap(DijkstraMap.Measurement measurement, long seed)
+    {
+        StatefulRNG rng = new StatefulRNG(seed);
+        DijkstraMap dm = new DijkstraMap(dungeon, measurement);
+        for (int x = 0; x < dm.width; x++) {
+            for (int y = 0; y < dm.height; y++) {
+                dm.setCost(x, y, rng.between(1, 9) * 0.5);
+            }
+        }
+        return dm;
+    }
+
+    @Test
+    public void testPriorityScan()
+    {
+        for (DijkstraMap.Measurement m : DijkstraMap.Measurement.values()) {
+            for (int blocking = 0; blocking <= 2; blocking++) {
+                DijkstraMap wave = costlyMap(m, 123L + blocking), priority = costlyMap(m, 123L + blocking);
+                wave.setBlockingRequirement(blocking);
+                priority.setBlockingRequirement(blocking);
+                priority.scanMode = DijkstraMap.ScanMode.PRIORITY;
+                Coord goal = dungeonGen.utility.randomFloor(dungeon), enemy = dungeonGen.utility.randomFloor(dungeon);
+                wave.setGoal(goal);
+                priority.setGoal(goal);
+                double[][] w = wave.scan(Collections.singletonList(enemy)),
+                        p = priority.scan(Collections.singletonList(enemy));
+                for (int x = 0; x < w.length; x++) {
+                    assertArrayEquals(w[x], p[x], 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUpdateCells()
+    {
+        for (DijkstraMap.Measurement m : DijkstraMap.Measurement.values()) {
+            for (int blocking = 0; blocking <= 2; blocking++) {
+                StatefulRNG rng = new StatefulRNG(456L + blocking);
+                DijkstraMap dm = costlyMap(m, 789L + blocking);
+                dm.setBlockingRequirement(blocking);
+                Coord goal = dungeonGen.utility.randomFloor(dungeon);
+                ArrayList<Coord> impassable = new ArrayList<>(), changed = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    impassable.add(dungeonGen.utility.randomFloor(dungeon));
+                }
+                dm.setGoal(goal);
+                dm.scan(impassable);
+                for (int turn = 0; turn < 10; turn++) {
+                    changed.clear();
+                    // move a monster
+                    changed.add(impassable.remove(0));
+                    Coord moved = dungeonGen.utility.randomFloor(dungeon);
+                    impassable.add(moved);
+                    changed.add(moved);
+                    // dig out or fill in a cell and change some costs
+                    int x = rng.between(1, dm.width - 1), y = rng.between(1, dm.height - 1);
+                    if (!goal.equals(Coord.get(x, y))) {
+                        dm.physicalMap[x][y] = dm.physicalMap[x][y] == DijkstraMap.WALL ? DijkstraMap.FLOOR : DijkstraMap.WALL;
+                        changed.add(Coord.get(x, y));
+                    }
+                    for (int i = 0; i < 3; i++) {
+                        Coord c = dungeonGen.utility.randomFloor(dungeon);
+                        dm.setCost(c, rng.between(1, 9) * 0.5);
+                        changed.add(c);
+                    }
+                    dm.updateCells(changed, impassable);
+                    double[][] repaired = ArrayTools.copy(dm.gradientMap);
+                    dm.resetMap();
+                    double[][] full = dm.scan(impassable);
+                    for (int i = 0; i < full.length; i++) {
+                        assertArrayEquals(full[i], repaired[i], 0.0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFindPaths()
+    {
+        StatefulRNG rng = new StatefulRNG(0xF1D5L);
+        GreasedRegion floors = new GreasedRegion(dungeon, '.');
+        Coord goal = floors.singleRandom(rng);
+        floors.remove(goal);
+        DijkstraMap reference = new DijkstraMap(dungeon, DijkstraMap.Measurement.CHEBYSHEV);
+        reference.setGoal(goal);
+        reference.scan(null);
+        // a crowd spread over the whole map, and a crowd packed into the area near the goal
+        Coord[] spread = new Coord[40], packed = new Coord[40];
+        GreasedRegion near = new GreasedRegion(floors).empty().insert(goal)
+                .expand8way(6).and(floors);
+        for (int i = 0; i < spread.length; i++) {
+            floors.remove(spread[i] = floors.singleRandom(rng));
+        }
+        for (int i = 0; i < packed.length; i++) {
+            near.remove(packed[i] = near.singleRandom(rng));
+        }
+        for (Coord[] movers : new Coord[][]{spread, packed}) {
+            for (int length : new int[]{1, 5}) {
+                DijkstraMap dm = new DijkstraMap(dungeon, DijkstraMap.Measurement.CHEBYSHEV, new StatefulRNG(1L));
+                ArrayList<ArrayList<Coord>> paths = dm.findPaths(length, null, movers, goal);
+                assertEquals(movers.length, paths.size());
+                int moved = 0;
+                for (int i = 0; i < movers.length; i++) {
+                    ArrayList<Coord> p = paths.get(i);
+                    assertTrue(p.size() <= length);
+                    if(!p.isEmpty())
+                        moved++;
+                    Coord prev = movers[i];
+                    for (Coord c : p) {
+                        assertTrue(prev.distance(c) < 1.5);
+                        assertTrue(reference.gradientMap[c.x][c.y] < reference.gradientMap[prev.x][prev.y]);
+                        prev = c;
+                    }
+                }
+                // movers packed near the goal block each other, but most still get to move
+                assertTrue(moved > movers.length / 2);
+                // if every mover takes its steps at the same time, no two are ever on the same cell
+                for (int step = 0; step <= length; step++) {
+                    GreasedRegion here = new GreasedRegion(dm.width, dm.height);
+                    for (int i = 0; i < movers.length; i++) {
+                        ArrayList<Coord> p = paths.get(i);
+                        Coord c = step == 0 ? movers[i] : p.isEmpty() ? movers[i] : p.get(Math.min(step, p.size()) - 1);
+                        assertFalse(here.contains(c));
+                        here.add(c);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelScan()
+    {
+        for (DijkstraMap.Measurement m : DijkstraMap.Measurement.values()) {
+            DijkstraMap serial = costlyMap(m, 321L);
+            ParallelDijkstraMap parallel = new ParallelDijkstraMap(dungeon, m);
+            parallel.tileSize = 16;
+            for (int x = 0; x < serial.width; x++) {
+                System.arraycopy(serial.costMap[x], 0, parallel.costMap[x], 0, serial.height);
+            }
+            parallel.standardCosts = false;
+            Coord goal = dungeonGen.utility.randomFloor(dungeon), goal2 = dungeonGen.utility.randomFloor(dungeon),
+                    enemy = dungeonGen.utility.randomFloor(dungeon);
+            serial.setGoal(goal);
+            serial.setGoal(goal2);
+            parallel.setGoal(goal);
+            parallel.setGoal(goal2);
+            double[][] s = serial.scan(Collections.singletonList(enemy)),
+                    p = parallel.scan(Collections.singletonList(enemy));
+            for (int x = 0; x < s.length; x++) {
+                assertArrayEquals(s[x], p[x], 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelCustomScan()
+    {
+        for (DijkstraMap.Measurement m : DijkstraMap.Measurement.values()) {
+            CustomDijkstraMap serial = new CustomDijkstraMap(dungeon,
+                    new Adjacency.BasicAdjacency(dungeon.length, dungeon[0].length, m));
+            ParallelCustomDijkstraMap parallel = new ParallelCustomDijkstraMap(dungeon,
+                    new Adjacency.BasicAdjacency(dungeon.length, dungeon[0].length, m));
+            parallel.sectionSize = 256;
+            StatefulRNG rng = new StatefulRNG(654L);
+            for (int i = 0; i < serial.costMap.length; i++) {
+                if(serial.costMap[i] != '#')
+                    serial.costMap[i] = parallel.costMap[i] = 'a' + rng.nextInt(8);
+            }
+            for (int c = 'a'; c < 'a' + 8; c++) {
+                serial.adjacency.addCostRule((char) c, (c - 'a' + 2) * 0.5);
+                parallel.adjacency.addCostRule((char) c, (c - 'a' + 2) * 0.5);
+            }
+            Coord goal = dungeonGen.utility.randomFloor(dungeon);
+            serial.setGoal(serial.adjacency.composite(goal.x, goal.y, 0, 0));
+            parallel.setGoal(parallel.adjacency.composite(goal.x, goal.y, 0, 0));
+            assertArrayEquals(serial.scan(null), parallel.scan(null), 0.0);
+        }
+    }
+
+    @Test
+    public void testPackedGradient()
+    {
+        StatefulRNG rng = new StatefulRNG(0x9AC4L);
+        GreasedRegion floors = new GreasedRegion(dungeon, '.');
+        DijkstraMap dm = costlyMap(DijkstraMap.Measurement.EUCLIDEAN, 987L);
+        Coord goal = floors.singleRandom(rng), start;
+        dm.setGoal(goal);
+        double[][] full = dm.scanInPlace(null);
+        assertSame(dm.gradientMap, full);
+        PackedGradient floats = new PackedGradient(full, dm.measurement),
+                shorts = new PackedGradient(full, dm.measurement, 1.0 / 64.0);
+        for (int x = 0; x < dm.width; x++) {
+            for (int y = 0; y < dm.height; y++) {
+                assertEquals(full[x][y], floats.get(x, y), 0.001);
+                assertEquals(full[x][y], shorts.get(x, y), 1.0 / 128.0);
+            }
+        }
+        // a start that can reach the goal and is a good distance away from it
+        do {
+            start = floors.singleRandom(rng);
+        } while (full[start.x][start.y] >= DijkstraMap.FLOOR || full[start.x][start.y] < 10.0);
+        ArrayList<Coord> path = floats.findPath(1000, null, start, null);
+        assertFalse(path.isEmpty());
+        assertEquals(goal, path.get(path.size() - 1));
+        // on a map where every step costs the same, each step downhill lowers the gradient by exactly 1, so a
+        // PackedGradient path and a DijkstraMap path on the same gradient must be just as long
+        DijkstraMap plain = new DijkstraMap(dungeon, DijkstraMap.Measurement.CHEBYSHEV, new StatefulRNG(3L));
+        plain.setGoal(goal);
+        PackedGradient packed = new PackedGradient(plain.scanInPlace(null), plain.measurement);
+        ArrayList<Coord> expected = plain.findPath(1000, null, null, start, goal),
+                actual = packed.findPath(1000, null, start, null);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), actual.size());
+        assertEquals(goal, expected.get(expected.size() - 1));
+        assertEquals(goal, actual.get(actual.size() - 1));
+        double[][] restored = shorts.unpack(new DijkstraMap(dungeon, dm.measurement));
+        assertEquals(DijkstraMap.WALL, restored[0][0], 0.0);
+    }
+
+    private static boolean openAround(Coord c)
+    {
+        for (int x = c.x - 1; x <= c.x + 1; x++) {
+            for (int y = c.y - 1; y <= c.y + 1; y++) {
+                if(dungeon[x][y] != '.')
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    public void testPathCache()
+    {
+        DijkstraMap dm = new DijkstraMap(dungeon, DijkstraMap.Measurement.CHEBYSHEV, new StatefulRNG(2L));
+        Coord[] starts = new Coord[10], goals = new Coord[10];
+        for (int i = 0; i < starts.length; i++) {
+            // each start is surrounded by floor, so blocking its first step always leaves a detour, and each goal is
+            // reachable and more than 5 steps away, so every route can be cached
+            do {
+                starts[i] = dungeonGen.utility.randomFloor(dungeon);
+                goals[i] = dungeonGen.utility.randomFloor(dungeon);
+                dm.reset();
+                dm.setGoal(goals[i]);
+                dm.scan(null);
+            } while (!openAround(starts[i]) || dm.gradientMap[starts[i].x][starts[i].y] < 6
+                    || dm.gradientMap[starts[i].x][starts[i].y] >= DijkstraMap.FLOOR
+                    || Arrays.asList(starts).subList(0, i).contains(starts[i]));
+        }
+        dm.reset();
+        PathCache cache = new PathCache(dm, 8);
+        ArrayList<Coord> first = cache.findPath(5, null, null, starts[0], goals[0]);
+        assertEquals(5, first.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(first, cache.findPath(5, null, null, starts[0], goals[0]));
+        assertEquals(1, cache.getHits());
+        assertEquals(dm.findPath(5, null, null, starts[0], goals[0]).size(), first.size());
+        // a blocked cached path is found again instead of reused
+        ArrayList<Coord> detour = cache.findPath(5, Collections.singletonList(first.get(0)), null, starts[0], goals[0]);
+        assertEquals(5, detour.size());
+        assertFalse(detour.contains(first.get(0)));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        // only the 8 most recently used routes are kept, so the first two are evicted
+        for (int i = 0; i < starts.length; i++) {
+            cache.findPath(3, null, null, starts[i], goals[i]);
+        }
+        assertEquals(8, cache.size());
+        cache.resetCounters();
+        cache.findPath(3, null, null, starts[starts.length - 1], goals[goals.length - 1]);
+        assertEquals(1, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        cache.findPath(3, null, null, starts[1], goals[1]);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        // changing the map clears the cache
+        cache.resetCounters();
+        dm.setCost(starts[0], 2.0);
+        cache.findPath(3, null, null, starts[starts.length - 1], goals[goals.length - 1]);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
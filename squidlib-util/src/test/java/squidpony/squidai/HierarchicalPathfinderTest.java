@@ -0,0 +1,127 @@
+package squidpony.squidai;
+
+import org.junit.Test;
+import squidpony.squidgrid.Radius;
+import squidpony.squidgrid.mapping.DungeonGenerator;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.StatefulRNG;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that paths from HierarchicalPathfinder are valid and close to the shortest paths a DijkstraMap finds.
+ */
+public class HierarchicalPathfinderTest {
+    public static StatefulRNG srng = new StatefulRNG(0xBADBEEFL);
+    public static DungeonGenerator dungeonGen = new DungeonGenerator(120, 90, srng);
+
+    private static void checkPath(char[][] map, Radius radius, Coord start, Coord goal, ArrayList<Coord> path)
+    {
+        Coord prev = start;
+        for (Coord c : path) {
+            assertNotEquals('#', map[c.x][c.y]);
+            int dx = Math.abs(c.x - prev.x), dy = Math.abs(c.y - prev.y);
+            if(radius == Radius.DIAMOND)
+                assertEquals(1, dx + dy);
+            else
+                assertEquals(1, Math.max(dx, dy));
+            prev = c;
+        }
+        assertEquals(goal, prev);
+    }
+
+    @Test
+    public void testPaths()
+    {
+        char[][] map = dungeonGen.generate();
+        for (Radius radius : new Radius[]{Radius.DIAMOND, Radius.SQUARE, Radius.CIRCLE}) {
+            HierarchicalPathfinder hpa = new HierarchicalPathfinder(map, radius, 12);
+            DijkstraMap dm = new DijkstraMap(map, DijkstraMap.findMeasurement(radius));
+            assertTrue(hpa.getEntranceCount() > 0);
+            for (int i = 0; i < 30; i++) {
+                Coord start = dungeonGen.utility.randomFloor(map), goal = dungeonGen.utility.randomFloor(map);
+                ArrayList<Coord> path = hpa.findPath(start, goal);
+                dm.reset();
+                dm.setGoal(goal);
+                dm.scan(start, null);
+                double best = dm.gradientMap[start.x][start.y];
+                if(start.equals(goal))
+                    assertTrue(path.isEmpty());
+                else if(best >= DijkstraMap.FLOOR)
+                    assertTrue(path.isEmpty());
+                else
+                {
+                    assertFalse(path.isEmpty());
+                    checkPath(map, radius, start, goal, path);
+                    assertTrue(path.size() <= best * 1.5 + 4);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testUpdate()
+    {
+        // one open room spanning several clusters, so walling off any one cell always leaves a way around it
+        char[][] map = new char[36][24];
+        for (int x = 0; x < 36; x++) {
+            for (int y = 0; y < 24; y++) {
+                map[x][y] = (x == 0 || y == 0 || x == 35 || y == 23) ? '#' : '.';
+            }
+        }
+        HierarchicalPathfinder hpa = new HierarchicalPathfinder(map, Radius.SQUARE, 10);
+        Coord start = Coord.get(2, 3), goal = Coord.get(33, 20);
+        ArrayList<Coord> path = hpa.findPath(start, goal);
+        checkPath(map, Radius.SQUARE, start, goal, path);
+        // wall off a cell in the middle of the path; the next path must go around it
+        Coord blocked = path.get(path.size() / 2);
+        map[blocked.x][blocked.y] = '#';
+        hpa.update(Collections.singletonList(blocked));
+        ArrayList<Coord> detour = hpa.findPath(start, goal);
+        assertFalse(detour.isEmpty());
+        assertFalse(detour.contains(blocked));
+        checkPath(map, Radius.SQUARE, start, goal, detour);
+        map[blocked.x][blocked.y] = '.';
+        hpa.update(Collections.singletonList(blocked));
+        assertEquals(path.size(), hpa.findPath(start, goal).size());
+        // a wall across the room with one gap at the bottom forces the path through the gap
+        ArrayList<Coord> wall = new ArrayList<>();
+        for (int y = 1; y < 22; y++) {
+            map[17][y] = '#';
+            wall.add(Coord.get(17, y));
+        }
+        hpa.update(wall);
+        detour = hpa.findPath(start, goal);
+        checkPath(map, Radius.SQUARE, start, goal, detour);
+        assertTrue(detour.contains(Coord.get(17, 22)));
+    }
+
+    @Test
+    public void testSameCluster()
+    {
+        // a wall splits the left cluster in two, so going between its halves means leaving the cluster
+        char[][] map = new char[20][10];
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 10; y++) {
+                map[x][y] = (x == 0 || y == 0 || x == 19 || y == 9 || (x < 10 && y == 5)) ? '#' : '.';
+            }
+        }
+        Coord start = Coord.get(2, 2), goal = Coord.get(2, 7);
+        for (Radius radius : new Radius[]{Radius.DIAMOND, Radius.SQUARE}) {
+            HierarchicalPathfinder hpa = new HierarchicalPathfinder(map, radius, 10);
+            ArrayList<Coord> coarse = hpa.findAbstractPath(start, goal);
+            assertEquals(start, coarse.get(0));
+            assertEquals(goal, coarse.get(coarse.size() - 1));
+            assertTrue(coarse.size() >= 6);
+            ArrayList<Coord> path = hpa.findPath(start, goal);
+            checkPath(map, radius, start, goal, path);
+            DijkstraMap dm = new DijkstraMap(map, DijkstraMap.findMeasurement(radius));
+            dm.setGoal(goal);
+            dm.scan(start, null);
+            assertTrue(path.size() <= dm.gradientMap[start.x][start.y] * 1.5 + 4);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package squidpony.squidgrid;
+
+import org.junit.Test;
+import squidpony.squidgrid.mapping.DungeonGenerator;
+import squidpony.squidgrid.mapping.DungeonUtility;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.IntVLA;
+import squidpony.squidmath.StatefulRNG;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that BatchFOV and ParallelBatchFOV produce the same light maps as FOV's shadowcasting, one viewer at a time.
+ */
+public class BatchFOVTest {
+    public static StatefulRNG srng = new StatefulRNG(0xB47C4L);
+    public static DungeonGenerator dungeonGen = new DungeonGenerator(70, 50, srng);
+
+    @Test
+    public void testBatches()
+    {
+        char[][] map = dungeonGen.generate();
+        double[][] res = DungeonUtility.generateResistances(map);
+        FOV fov = new FOV(FOV.SHADOW);
+        for (Radius radius : new Radius[]{Radius.CIRCLE, Radius.SQUARE, Radius.DIAMOND}) {
+            BatchFOV batch = new BatchFOV(res, radius);
+            ParallelBatchFOV parallel = new ParallelBatchFOV(res, radius);
+            parallel.threshold = 2;
+            for (int round = 0; round < 3; round++) {
+                // later rounds use smaller radii, so light left over from earlier rounds must be cleared
+                int n = 24 - round * 8;
+                Coord[] viewers = new Coord[n];
+                double[] radii = new double[n];
+                for (int i = 0; i < n; i++) {
+                    viewers[i] = dungeonGen.utility.randomFloor(map);
+                    radii[i] = 4 + srng.nextInt(6) + (2 - round) * 3;
+                }
+                batch.calculate(viewers, radii);
+                parallel.calculate(viewers, radii);
+                assertEquals(n, batch.getCount());
+                for (int i = 0; i < n; i++) {
+                    double[][] expected = fov.calculateFOV(res, viewers[i].x, viewers[i].y, radii[i], radius);
+                    double[][] light = batch.getLight(i), pLight = parallel.getLight(i);
+                    for (int x = 0; x < map.length; x++) {
+                        assertArrayEquals(expected[x], light[x], 0.0);
+                        assertArrayEquals(expected[x], pLight[x], 0.0);
+                        for (int y = 0; y < map[x].length; y++) {
+                            assertEquals(expected[x][y], batch.getLight(i, x, y), 0.0);
+                        }
+                    }
+                    IntVLA seen = batch.getVisibleViewers(i), pSeen = parallel.getVisibleViewers(i);
+                    int found = 0;
+                    for (int j = 0; j < n; j++) {
+                        boolean sees = j != i && expected[viewers[j].x][viewers[j].y] > 0.0;
+                        assertEquals(sees, batch.canSee(i, j) && j != i);
+                        if(sees)
+                        {
+                            assertEquals(j, seen.get(found));
+                            assertEquals(j, pSeen.get(found));
+                            found++;
+                        }
+                    }
+                    assertEquals(found, seen.size);
+                    assertEquals(found, pSeen.size);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package squidpony.squidgrid;
+
+import org.junit.Test;
+import squidpony.squidgrid.mapping.DungeonGenerator;
+import squidpony.squidgrid.mapping.DungeonUtility;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.StatefulRNG;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that one ConcurrentFOV and one ConcurrentLOS shared by several threads give the same results as separate
+ * solvers used on one thread.
+ */
+public class ConcurrentFOVTest {
+    public static StatefulRNG srng = new StatefulRNG(0xC0FFEEL);
+    public static DungeonGenerator dungeonGen = new DungeonGenerator(60, 40, srng);
+
+    @Test
+    public void testShared() throws Exception
+    {
+        char[][] map = dungeonGen.generate();
+        final double[][] res = DungeonUtility.generateResistances(map);
+        final int n = 300;
+        final Coord[] starts = new Coord[n], ends = new Coord[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = dungeonGen.utility.randomFloor(map);
+            ends[i] = dungeonGen.utility.randomFloor(map);
+        }
+        final ConcurrentFOV sharedFOV = new ConcurrentFOV(FOV.RIPPLE);
+        final ConcurrentLOS sharedLOS = new ConcurrentLOS(LOS.DDA);
+        sharedLOS.setRadiusStrategy(Radius.SQUARE);
+        final FOV fov = new FOV(FOV.RIPPLE);
+        final LOS los = new LOS(LOS.DDA);
+        los.setRadiusStrategy(Radius.SQUARE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                final int idx = i;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        Coord s = starts[idx], e = ends[idx];
+                        double[][] light = sharedFOV.calculateFOV(res, s.x, s.y, 8);
+                        double lit = light[e.x][e.y];
+                        boolean seen = sharedLOS.isReachable(res, s.x, s.y, e.x, e.y);
+                        // the path belongs to this thread, so it must end where this thread's line ended
+                        if (seen && !sharedLOS.getLastPath().getLast().equals(e))
+                            return null;
+                        return seen == sharedLOS.canSee(res, s.x, s.y, e.x, e.y) ? lit > 0.0 : null;
+                    }
+                }));
+            }
+            for (int i = 0; i < n; i++) {
+                Coord s = starts[i], e = ends[i];
+                assertEquals(fov.calculateFOV(res, s.x, s.y, 8)[e.x][e.y] > 0.0, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (int i = 0; i < n; i++) {
+            Coord s = starts[i], e = ends[i];
+            assertEquals(los.isReachable(res, s.x, s.y, e.x, e.y), sharedLOS.isReachable(res, s.x, s.y, e.x, e.y));
+            assertEquals(los.getLastPath(), sharedLOS.getLastPath());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package squidpony.squidgrid;
+
+import org.junit.Test;
+import squidpony.squidgrid.mapping.DungeonGenerator;
+import squidpony.squidgrid.mapping.DungeonUtility;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.DDALine;
+import squidpony.squidmath.StatefulRNG;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that LOS.canSee() gives the same results and paths as isReachable(), and that DDA lines reach their ends.
+ */
+public class LOSTest {
+    public static StatefulRNG srng = new StatefulRNG(0x1057L);
+    public static DungeonGenerator dungeonGen = new DungeonGenerator(50, 40, srng);
+
+    @Test
+    public void testCanSee()
+    {
+        dungeonGen.addDoors(20, false);
+        char[][] map = dungeonGen.generate();
+        double[][] res = DungeonUtility.generateResistances(map);
+        for (int type : new int[]{LOS.BRESENHAM, LOS.DDA, LOS.ORTHO, LOS.THICK, LOS.RAY}) {
+            for (Radius radius : new Radius[]{Radius.CIRCLE, Radius.SQUARE, Radius.DIAMOND}) {
+                LOS slow = new LOS(type), fast = new LOS(type);
+                fast.setBufferingPath(true);
+                int seen = 0;
+                for (int i = 0; i < 400; i++) {
+                    Coord a = dungeonGen.utility.randomFloor(map), b;
+                    switch (i & 3) {
+                        case 0: b = a;
+                            break;
+                        case 1: b = Coord.get(srng.between(1, 49), a.y);
+                            break;
+                        case 2: b = Coord.get(a.x, srng.between(1, 39));
+                            break;
+                        default: b = dungeonGen.utility.randomFloor(map);
+                    }
+                    boolean expected = slow.isReachable(res, a.x, a.y, b.x, b.y, radius);
+                    assertEquals(expected, fast.canSee(res, a.x, a.y, b.x, b.y, radius));
+                    List<Coord> path = slow.getLastPath();
+                    assertEquals(path.size(), fast.getBufferedPathLength());
+                    int j = 0;
+                    for (Coord p : path) {
+                        assertEquals(p.x, fast.getBufferedPathX()[j]);
+                        assertEquals(p.y, fast.getBufferedPathY()[j++]);
+                    }
+                    if(expected) seen++;
+                }
+                assertTrue(seen > 100);
+                fast.setBufferingPath(false);
+                fast.canSee(res, 1, 1, 10, 10, radius);
+                assertEquals(0, fast.getBufferedPathLength());
+            }
+        }
+    }
+
+    @Test
+    public void testDDAEnds()
+    {
+        for (int i = 0; i < 200; i++) {
+            int sx = srng.nextInt(60), sy = srng.nextInt(60), ex = srng.nextInt(60), ey = srng.nextInt(60);
+            Coord[] drawn = DDALine.line_(sx, sy, ex, ey);
+            assertEquals(Math.max(Math.abs(ex - sx), Math.abs(ey - sy)) + 1, drawn.length);
+            assertEquals(Coord.get(sx, sy), drawn[0]);
+            assertEquals(Coord.get(ex, ey), drawn[drawn.length - 1]);
+            List<Coord> listed = DDALine.line(sx, sy, ex, ey);
+            assertEquals(drawn.length, listed.size());
+            assertEquals(Coord.get(ex, ey), listed.get(listed.size() - 1));
+        }
+    }
+}
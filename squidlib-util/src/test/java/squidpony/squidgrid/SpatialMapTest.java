@@ -0,0 +1,125 @@
+package squidpony.squidgrid;
+
+import org.junit.Test;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.OrderedSet;
+import squidpony.squidmath.StatefulRNG;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that SpatialMap's indexed section queries find the same elements as checking every element, after the
+ * elements have been added, moved, replaced and removed, in the same order, and that the index drops emptied cells.
+ */
+public class SpatialMapTest {
+    public static StatefulRNG srng = new StatefulRNG(0x5EC710L);
+
+    private static OrderedSet<Integer> bruteForce(SpatialMap<Integer, String> map, int x, int y, int width, int height,
+                                                  Radius measurement, int distance)
+    {
+        OrderedSet<Integer> ids = new OrderedSet<>();
+        for (SpatialMap.SpatialTriple<Integer, String> t : map.triples()) {
+            Coord p = t.position;
+            if(measurement == null ? p.x >= x && p.y >= y && p.x < x + width && p.y < y + height
+                    : measurement.inRange(x, y, p.x, p.y, 0, distance))
+                ids.add(t.id);
+        }
+        return ids;
+    }
+
+    @Test
+    public void testSections()
+    {
+        SpatialMap<Integer, String> map = new SpatialMap<>();
+        for (int i = 0; i < 600; i++) {
+            map.add(Coord.get(srng.between(-20, 120), srng.between(-20, 120)), i, "e" + i);
+        }
+        for (int round = 0; round < 30; round++) {
+            for (int i = 0; i < 100; i++) {
+                int id = srng.nextInt(600);
+                switch (srng.nextInt(4)) {
+                    case 0: map.move(id, Coord.get(srng.between(-20, 120), srng.between(-20, 120)));
+                        break;
+                    case 1: map.remove(Integer.valueOf(id));
+                        break;
+                    case 2: map.put(Coord.get(srng.between(-20, 120), srng.between(-20, 120)), id, "p" + id);
+                        break;
+                    default: Coord c = map.getPosition(id);
+                        if(c != null)
+                            map.move(c, c.translate(srng.between(-3, 4), srng.between(-3, 4)));
+                }
+            }
+            assertEquals(map.size(), map.positions().size());
+            int x = srng.between(-30, 110), y = srng.between(-30, 110), w = srng.between(0, 60),
+                    h = srng.between(0, 60), d = srng.between(0, 40);
+            // compared as lists, since sections must keep the order elements were added in
+            assertEquals(new ArrayList<>(bruteForce(map, x, y, w, h, null, 0)),
+                    new ArrayList<>(map.rectangleSection(x, y, w, h).identities()));
+            for (Radius r : new Radius[]{Radius.CIRCLE, Radius.SQUARE, Radius.DIAMOND}) {
+                SpatialMap<Integer, String> section = map.radiusSection(x, y, r, d);
+                assertEquals(new ArrayList<>(bruteForce(map, x, y, 0, 0, r, d)),
+                        new ArrayList<>(section.identities()));
+                for (Integer id : section.identities()) {
+                    assertEquals(map.get(id), section.get(id));
+                    assertEquals(map.getPosition(id), section.getPosition(id));
+                }
+            }
+        }
+        for (ArrayList<SpatialMap.SpatialTriple<Integer, String>> cell : map.cells.values()) {
+            assertFalse(cell.isEmpty());
+        }
+        SpatialMap<Integer, String> all = map.rectangleSection(-200, -200, 500, 500);
+        assertEquals(map.size(), all.size());
+        // elements added to a section go after the ones it got from the original
+        all.add(Coord.get(-100, -100), 1000, "new");
+        assertEquals(Integer.valueOf(1000), all.rectangleSection(-200, -200, 500, 500).identities().last());
+        for (int i = 0; i < 600; i++) {
+            map.remove(Integer.valueOf(i));
+        }
+        assertTrue(map.cells.isEmpty());
+        map.clear();
+        assertTrue(map.circleSection(50, 50, 200).isEmpty());
+    }
+
+    @Test
+    public void testNearest()
+    {
+        SpatialMap<Integer, String> map = new SpatialMap<>();
+        for (int i = 0; i < 800; i++) {
+            map.add(Coord.get(srng.between(-40, 160), srng.between(-10, 90)), i, (i & 1) == 0 ? "hostile" : "ally");
+        }
+        SpatialMap.SpatialFilter<Integer, String> hostile = new SpatialMap.SpatialFilter<Integer, String>() {
+            @Override
+            public boolean accept(SpatialMap.SpatialTriple<Integer, String> triple) {
+                return "hostile".equals(triple.element);
+            }
+        };
+        ArrayList<SpatialMap.SpatialTriple<Integer, String>> buffer = new ArrayList<>();
+        for (int q = 0; q < 200; q++) {
+            int x = srng.between(-100, 220), y = srng.between(-100, 150), k = srng.between(0, 12);
+            Radius r = q % 3 == 0 ? Radius.CIRCLE : q % 3 == 1 ? Radius.DIAMOND : Radius.SQUARE;
+            SpatialMap.SpatialFilter<Integer, String> filter = (q & 1) == 0 ? hostile : null;
+            ArrayList<Double> all = new ArrayList<>();
+            for (SpatialMap.SpatialTriple<Integer, String> t : map.triples()) {
+                if(filter == null || filter.accept(t))
+                    all.add(r.radius(x, y, t.position.x, t.position.y));
+            }
+            Double[] sorted = all.toArray(new Double[all.size()]);
+            Arrays.sort(sorted);
+            assertSame(buffer, map.nearest(x, y, k, r, filter, buffer));
+            assertEquals(Math.min(k, sorted.length), buffer.size());
+            for (int i = 0; i < buffer.size(); i++) {
+                SpatialMap.SpatialTriple<Integer, String> t = buffer.get(i);
+                assertEquals(sorted[i], r.radius(x, y, t.position.x, t.position.y), 0.0);
+                if(filter != null)
+                    assertEquals("hostile", t.element);
+            }
+        }
+        assertEquals(5, map.nearest(0, 0, 5, Radius.CIRCLE, null).size());
+        map.clear();
+        assertTrue(map.nearest(0, 0, 5, Radius.CIRCLE, null, buffer).isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package squidpony.squidgrid;
+
+import org.junit.Test;
+import squidpony.squidgrid.mapping.DungeonGenerator;
+import squidpony.squidgrid.mapping.DungeonUtility;
+import squidpony.squidmath.Coord;
+import squidpony.squidmath.GreasedRegion;
+import squidpony.squidmath.StatefulRNG;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that VisibilityMatrix agrees with the shadowcasting LOS it is built from, in both directions.
+ */
+public class VisibilityMatrixTest {
+    public static StatefulRNG srng = new StatefulRNG(0x515AB1EL);
+    public static DungeonGenerator dungeonGen = new DungeonGenerator(40, 30, srng);
+
+    @Test
+    public void testFromResistances() throws IOException
+    {
+        char[][] map = dungeonGen.generate();
+        double[][] res = DungeonUtility.generateResistances(map);
+        VisibilityMatrix vm = new VisibilityMatrix(res);
+        int floors = 0;
+        for (int x = 0; x < vm.width; x++) {
+            for (int y = 0; y < vm.height; y++) {
+                if(res[x][y] < 1.0) floors++;
+            }
+        }
+        assertEquals(floors, vm.getCellCount());
+        GreasedRegion ra = new GreasedRegion(vm.width, vm.height), rb = new GreasedRegion(vm.width, vm.height);
+        for (int i = 0; i < 200; i++) {
+            Coord a = dungeonGen.utility.randomFloor(map), b = dungeonGen.utility.randomFloor(map);
+            assertTrue(vm.covers(a.x, a.y, b.x, b.y));
+            boolean expected = FOV.reuseLOS(res, ra, a.x, a.y).contains(b.x, b.y)
+                    || FOV.reuseLOS(res, rb, b.x, b.y).contains(a.x, a.y);
+            assertEquals(expected, vm.isVisible(a, b));
+            assertEquals(expected, vm.isVisible(b, a));
+        }
+        Coord a = dungeonGen.utility.randomFloor(map);
+        assertTrue(vm.isVisible(a, a));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VisibilityMatrixTools.writeTo(vm, out);
+        VisibilityMatrix loaded = VisibilityMatrixTools.readFrom(ByteBuffer.wrap(out.toByteArray()));
+        assertEquals(vm.getCellCount(), loaded.getCellCount());
+        assertEquals(vm.radiusKind, loaded.radiusKind);
+        assertArrayEquals(vm.cellIndex, loaded.cellIndex);
+        assertArrayEquals(vm.bits, loaded.bits);
+
+        LOS los = new LOS(LOS.BRESENHAM);
+        los.setVisibilityMatrix(loaded);
+        for (int i = 0; i < 50; i++) {
+            Coord s = dungeonGen.utility.randomFloor(map), t = dungeonGen.utility.randomFloor(map);
+            assertEquals(vm.isVisible(s, t), los.isReachable(map, s.x, s.y, t.x, t.y));
+            assertEquals(vm.isVisible(s, t), los.isReachable(res, s.x, s.y, t.x, t.y));
+            assertTrue(los.getLastPath().isEmpty());
+        }
+        // a map of another size doesn't use the matrix
+        assertTrue(los.isReachable(new char[3][3], 0, 0, 2, 2));
+        assertFalse(los.getLastPath().isEmpty());
+    }
+
+    @Test
+    public void testFromCache()
+    {
+        char[][] map = dungeonGen.generate();
+        FOVCache cache = new FOVCache(map, 4, 12, Radius.SQUARE, 2);
+        cache.awaitCache();
+        VisibilityMatrix vm = VisibilityMatrixTools.fromCache(cache);
+        assertEquals(12, vm.range);
+        int covered = 0;
+        boolean[] expected = new boolean[400];
+        Coord[] as = new Coord[400], bs = new Coord[400];
+        for (int i = 0; i < 400; i++) {
+            Coord a = as[i] = dungeonGen.utility.randomFloor(map), b = bs[i] = dungeonGen.utility.randomFloor(map);
+            expected[i] = cache.queryLOS(a.x, a.y, b.x, b.y) || cache.queryLOS(b.x, b.y, a.x, a.y);
+            if(vm.covers(a.x, a.y, b.x, b.y)) {
+                covered++;
+                assertEquals(expected[i], vm.isVisible(a, b));
+                assertEquals(expected[i], vm.isVisible(b, a));
+            }
+            else
+                assertFalse(vm.isVisible(a, b));
+        }
+        assertTrue(covered > 0);
+        cache.setVisibilityMatrix(vm);
+        for (int i = 0; i < 400; i++) {
+            if(vm.covers(as[i].x, as[i].y, bs[i].x, bs[i].y))
+                assertEquals(expected[i], cache.queryLOS(as[i].x, as[i].y, bs[i].x, bs[i].y));
+        }
+        cache.destroy();
+    }
+}
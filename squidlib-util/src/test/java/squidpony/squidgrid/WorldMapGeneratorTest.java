@@ -0,0 +1,61 @@
+package squidpony.squidgrid;
+
+import org.junit.Test;
+import squidpony.squidgrid.mapping.ParallelWorldMapGenerator;
+import squidpony.squidgrid.mapping.WorldMapGenerator;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that ParallelWorldMapGenerator makes exactly the same maps and biomes as WorldMapGenerator.
+ */
+public class WorldMapGeneratorTest {
+    private static void assertSame(WorldMapGenerator expected, WorldMapGenerator actual)
+    {
+        for (int x = 0; x < expected.width; x++) {
+            assertArrayEquals(expected.heightData[x], actual.heightData[x], 0.0);
+            assertArrayEquals(expected.heatData[x], actual.heatData[x], 0.0);
+            assertArrayEquals(expected.moistureData[x], actual.moistureData[x], 0.0);
+            assertArrayEquals(expected.heightCodeData[x], actual.heightCodeData[x]);
+        }
+        assertEquals(expected.landData, actual.landData);
+        assertEquals(expected.riverData, actual.riverData);
+        assertEquals(expected.lakeData, actual.lakeData);
+        assertEquals(expected.minHeight, actual.minHeight, 0.0);
+        assertEquals(expected.maxHeight, actual.maxHeight, 0.0);
+        assertEquals(expected.minHeat, actual.minHeat, 0.0);
+        assertEquals(expected.maxHeat, actual.maxHeat, 0.0);
+        assertEquals(expected.minWet, actual.minWet, 0.0);
+        assertEquals(expected.maxWet, actual.maxWet, 0.0);
+        WorldMapGenerator.SimpleBiomeMapper biomes = new WorldMapGenerator.SimpleBiomeMapper(),
+                pBiomes = new WorldMapGenerator.SimpleBiomeMapper();
+        biomes.makeBiomes(expected);
+        pBiomes.makeBiomes(actual);
+        for (int x = 0; x < expected.width; x++) {
+            assertArrayEquals(biomes.heatCodeData[x], pBiomes.heatCodeData[x]);
+            assertArrayEquals(biomes.moistureCodeData[x], pBiomes.moistureCodeData[x]);
+            assertArrayEquals(biomes.biomeCodeData[x], pBiomes.biomeCodeData[x]);
+        }
+    }
+
+    @Test
+    public void testParallel()
+    {
+        // odd sizes so the strips don't all have the same width
+        WorldMapGenerator world = new WorldMapGenerator(0xFEEDL, 67, 45);
+        ParallelWorldMapGenerator parallel = new ParallelWorldMapGenerator(0xFEEDL, 67, 45);
+        parallel.threshold = 4;
+        world.generate(0x1234L);
+        parallel.generate(0x1234L);
+        assertSame(world, parallel);
+        world.zoomIn(1, 20, 30);
+        parallel.zoomIn(1, 20, 30);
+        assertSame(world, parallel);
+        world.zoomOut(1, 40, 10);
+        parallel.zoomOut(1, 40, 10);
+        assertSame(world, parallel);
+        world.generate(0.2, 1.3, 0x9876L);
+        parallel.generate(0.2, 1.3, 0x9876L);
+        assertSame(world, parallel);
+    }
+}
@@ -0,0 +1,107 @@
+package squidpony.squidmath;
+
+import org.junit.Test;
+import squidpony.squidai.DijkstraMap;
+import squidpony.squidgrid.mapping.DungeonGenerator;
+import squidpony.squidgrid.mapping.DungeonUtility;
+
+import java.util.Collections;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks AStarSearch paths against the distances a DijkstraMap finds.
+ */
+public class AStarSearchTest {
+    public static StatefulRNG srng = new StatefulRNG(0x1337BEEF);
+    public static DungeonGenerator dungeonGen = new DungeonGenerator(80, 60, srng);
+
+    @Test
+    public void testPaths()
+    {
+        char[][] map = dungeonGen.generate();
+        double[][] costs = DungeonUtility.generateAStarCostMap(map, Collections.<Character, Double>emptyMap(), 1);
+        AStarSearch astar = new AStarSearch(costs, AStarSearch.SearchType.CHEBYSHEV);
+        DijkstraMap dm = new DijkstraMap(map, DijkstraMap.Measurement.CHEBYSHEV);
+        dm.setBlockingRequirement(0);
+        IntVLA buffer = new IntVLA();
+        for (int i = 0; i < 50; i++) {
+            Coord start = dungeonGen.utility.randomFloor(map), goal = dungeonGen.utility.randomFloor(map);
+            dm.reset();
+            dm.setGoal(goal);
+            dm.scan(start, null);
+            astar.path(start.x, start.y, goal.x, goal.y, buffer);
+            if(start.equals(goal) || dm.gradientMap[start.x][start.y] >= DijkstraMap.FLOOR)
+            {
+                assertEquals(0, buffer.size);
+                continue;
+            }
+            assertEquals((int) dm.gradientMap[start.x][start.y], buffer.size);
+            int px = start.x, py = start.y;
+            for (int j = 0; j < buffer.size; j++) {
+                int x = astar.decodeX(buffer.get(j)), y = astar.decodeY(buffer.get(j));
+                assertEquals(1, Math.max(Math.abs(x - px), Math.abs(y - py)));
+                assertNotEquals('#', map[x][y]);
+                px = x;
+                py = y;
+            }
+            assertEquals(goal, Coord.get(px, py));
+            Queue<Coord> queue = astar.path(start, goal);
+            assertEquals(buffer.size, queue.size());
+            for (int j = 0; j < buffer.size; j++) {
+                Coord c = queue.poll();
+                assertEquals(buffer.get(j), astar.encode(c.x, c.y));
+            }
+        }
+    }
+
+    @Test
+    public void testJumpPaths()
+    {
+        char[][] map = dungeonGen.generate();
+        double[][] costs = DungeonUtility.generateAStarCostMap(map, Collections.<Character, Double>emptyMap(), 1);
+        IntVLA plain = new IntVLA(), jumped = new IntVLA(), table = new IntVLA();
+        for (int blocking = 0; blocking <= 2; blocking++) {
+            AStarSearch astar = new AStarSearch(costs, AStarSearch.SearchType.CHEBYSHEV),
+                    plus = new AStarSearch(costs, AStarSearch.SearchType.CHEBYSHEV);
+            astar.setBlockingRequirement(blocking);
+            plus.setBlockingRequirement(blocking);
+            plus.precomputeJumps();
+            DijkstraMap dm = new DijkstraMap(map, DijkstraMap.Measurement.CHEBYSHEV);
+            dm.setBlockingRequirement(blocking);
+            for (int i = 0; i < 200; i++) {
+                Coord start = dungeonGen.utility.randomFloor(map), goal = dungeonGen.utility.randomFloor(map);
+                dm.reset();
+                dm.setGoal(goal);
+                dm.scan(null, null);
+                astar.path(start.x, start.y, goal.x, goal.y, plain);
+                astar.jumpPath(start.x, start.y, goal.x, goal.y, jumped);
+                plus.jumpPath(start.x, start.y, goal.x, goal.y, table);
+                double best = dm.gradientMap[start.x][start.y];
+                int expected = best >= DijkstraMap.FLOOR ? 0 : (int) best;
+                assertEquals(expected, plain.size);
+                assertEquals(expected, jumped.size);
+                assertEquals(expected, table.size);
+                checkSteps(map, blocking, start, goal, astar, jumped);
+                checkSteps(map, blocking, start, goal, plus, table);
+            }
+        }
+    }
+
+    private static void checkSteps(char[][] map, int blocking, Coord start, Coord goal, AStarSearch astar, IntVLA path)
+    {
+        int px = start.x, py = start.y;
+        for (int j = 0; j < path.size; j++) {
+            int x = astar.decodeX(path.get(j)), y = astar.decodeY(path.get(j));
+            assertEquals(1, Math.max(Math.abs(x - px), Math.abs(y - py)));
+            assertNotEquals('#', map[x][y]);
+            if(x != px && y != py && blocking > 0)
+                assertTrue((map[x][py] == '#' ? 1 : 0) + (map[px][y] == '#' ? 1 : 0) < blocking);
+            px = x;
+            py = y;
+        }
+        if(path.size > 0)
+            assertEquals(goal, Coord.get(px, py));
+    }
+}
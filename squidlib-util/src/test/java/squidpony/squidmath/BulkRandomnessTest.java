@@ -0,0 +1,104 @@
+package squidpony.squidmath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the bulk generation methods give the same numbers as generating one at a time.
+ */
+public class BulkRandomnessTest {
+    private static BulkRandomness[] sources() {
+        return new BulkRandomness[]{new LightRNG(123L), new XoRoRNG(123L), new ThunderRNG(123L),
+                new LongPeriodRNG(123L), new PermutedRNG(123L), new XorRNG(123L)};
+    }
+
+    /**
+     * Hides whether a RandomnessSource supports bulk generation, so RNG has to use its fallback.
+     */
+    private static RandomnessSource plain(final RandomnessSource source) {
+        return new RandomnessSource() {
+            @Override
+            public int next(int bits) {
+                return source.next(bits);
+            }
+
+            @Override
+            public long nextLong() {
+                return source.nextLong();
+            }
+
+            @Override
+            public RandomnessSource copy() {
+                return plain(source.copy());
+            }
+        };
+    }
+
+    @Test
+    public void testNextLongs()
+    {
+        for (BulkRandomness source : sources()) {
+            RandomnessSource single = source.copy();
+            long[] bulk = new long[1000];
+            source.nextLongs(bulk, 3, 990);
+            assertEquals(0L, bulk[2]);
+            assertEquals(0L, bulk[993]);
+            for (int i = 3; i < 993; i++) {
+                assertEquals(source.getClass().getSimpleName(), single.nextLong(), bulk[i]);
+            }
+            assertEquals(single.nextLong(), source.nextLong());
+        }
+    }
+
+    @Test
+    public void testRNG()
+    {
+        for (BulkRandomness source : sources()) {
+            RNG fast = new RNG(source), slow = new RNG(plain(source.copy())), single = new RNG(source.copy());
+            double[] doubles = new double[700], doubles2 = new double[700];
+            fast.nextDoubles(doubles);
+            slow.nextDoubles(doubles2);
+            assertArrayEquals(doubles2, doubles, 0.0);
+            for (int i = 0; i < doubles.length; i++) {
+                assertEquals(single.nextDouble(), doubles[i], 0.0);
+            }
+            int[] ints = new int[600], ints2 = new int[600];
+            fast.nextInts(ints, 1, 598, 1000000007);
+            slow.nextInts(ints2, 1, 598, 1000000007);
+            assertArrayEquals(ints2, ints);
+            for (int i = 1; i < 599; i++) {
+                assertTrue(ints[i] >= 0 && ints[i] < 1000000007);
+                assertEquals(single.nextInt(1000000007), ints[i]);
+            }
+            assertEquals(slow.nextLong(), fast.nextLong());
+            fast.nextInts(ints, 7);
+            int[] counts = new int[7];
+            for (int i = 0; i < ints.length; i++) {
+                counts[ints[i]]++;
+            }
+            for (int i = 0; i < 7; i++) {
+                assertTrue(counts[i] > 50);
+            }
+            fast.nextInts(ints, 0);
+            assertEquals(0, ints[599]);
+        }
+    }
+
+    @Test
+    public void testSubclasses()
+    {
+        DeckRNG deck = new DeckRNG(55L), deck2 = new DeckRNG(55L);
+        double[] doubles = new double[100];
+        deck.nextDoubles(doubles);
+        for (int i = 0; i < doubles.length; i++) {
+            assertEquals(deck2.nextDouble(), doubles[i], 0.0);
+        }
+        DharmaRNG dharma = new DharmaRNG(55L), dharma2 = new DharmaRNG(55L);
+        int[] ints = new int[100];
+        dharma.nextInts(ints, 10);
+        for (int i = 0; i < ints.length; i++) {
+            assertEquals(dharma2.nextInt(10), ints[i]);
+        }
+    }
+}
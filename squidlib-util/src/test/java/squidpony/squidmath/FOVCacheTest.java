@@ -1,13 +1,14 @@
 package squidpony.squidmath;
 
 import org.junit.Test;
+import squidpony.ArrayTools;
 import squidpony.squidgrid.FOVCache;
 import squidpony.squidgrid.Radius;
 import squidpony.squidgrid.mapping.DungeonGenerator;
 import squidpony.squidgrid.mapping.DungeonUtility;
 import squidpony.squidgrid.mapping.styled.TilesetType;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Created by Tommy Ettinger on 10/8/2015.
@@ -117,4 +118,79 @@ public class FOVCacheTest {
 
         }
     }
+
+    @Test
+    public void testLazyCache()
+    {
+        StatefulRNG rng = new StatefulRNG(new LightRNG(0xfeedL));
+        DungeonGenerator dungeonGenerator = new DungeonGenerator(60, 60, rng);
+        char[][] map = dungeonGenerator.generate();
+        FOVCache lazy = new FOVCache(map, 8, 30, Radius.SQUARE, 2),
+                eager = new FOVCache(map, 8, 30, Radius.SQUARE, 2);
+        lazy.cacheLazily(16);
+        assertTrue(lazy.isLazy());
+        assertEquals(0, lazy.getLazyCount());
+        for (int i = 0; i < 40; i++) {
+            Coord c = dungeonGenerator.utility.randomFloor(map), t = dungeonGenerator.utility.randomFloor(map);
+            short[][] expected = eager.calculatePackedSlopeShadowFOV(c.x, c.y);
+            short[][] entry = lazy.getCacheEntry(c.x, c.y);
+            assertEquals(expected.length, entry.length);
+            for (int j = 0; j < expected.length; j++) {
+                assertArrayEquals(expected[j], entry[j]);
+            }
+            assertSame(entry, lazy.getCacheEntry(c.x, c.y));
+            assertArrayEquals(eager.calculatePackedLOS(c.x, c.y), lazy.getLOSEntry(c.x, c.y));
+            assertEquals(CoordPacker.queryPacked(expected[8 - 5], t.x, t.y), lazy.queryCache(5, c.x, c.y, t.x, t.y));
+            assertTrue(lazy.getLazyCount() <= 16);
+        }
+        Coord c = dungeonGenerator.utility.randomFloor(map);
+        lazy.prefetch(c.x, c.y, 2);
+        assertTrue(lazy.queryLOS(c.x, c.y, c.x, c.y));
+        lazy.destroy();
+        eager.destroy();
+    }
+
+    @Test
+    public void testRefresh()
+    {
+        StatefulRNG rng = new StatefulRNG(new LightRNG(0xdeadL));
+        DungeonGenerator dungeonGenerator = new DungeonGenerator(50, 50, rng);
+        char[][] map = ArrayTools.copy(dungeonGenerator.generate());
+        FOVCache cache = new FOVCache(map, 6, 10, Radius.SQUARE, 4);
+        cache.awaitCache();
+        Coord c = dungeonGenerator.utility.randomFloor(map), far = null;
+        for (int i = 0; i < 100 && far == null; i++) {
+            Coord f = dungeonGenerator.utility.randomFloor(map);
+            if(Math.max(Math.abs(f.x - c.x), Math.abs(f.y - c.y)) > 12)
+                far = f;
+        }
+        assertNotNull(far);
+        short[][] farEntry = cache.getCacheEntry(far.x, far.y);
+        short[] farLOS = cache.getLOSEntry(far.x, far.y);
+        assertTrue(cache.queryLOS(c.x, c.y, c.x, c.y));
+
+        map[c.x][c.y] = '#';
+        assertTrue(cache.awaitRefresh(map));
+        assertEquals(0, cache.getLOSEntry(c.x, c.y).length);
+        assertEquals(0, cache.getCacheEntry(c.x, c.y, 6).length);
+        assertSame(farEntry, cache.getCacheEntry(far.x, far.y));
+        assertSame(farLOS, cache.getLOSEntry(far.x, far.y));
+
+        map[c.x][c.y] = '.';
+        assertTrue(cache.awaitRefresh(map));
+        assertTrue(cache.queryLOS(c.x, c.y, c.x, c.y));
+        assertTrue(cache.queryCache(6, c.x, c.y, c.x, c.y));
+        cache.destroy();
+
+        FOVCache lazy = new FOVCache(map, 6, 10, Radius.SQUARE, 2);
+        lazy.cacheLazily(64);
+        lazy.getCacheEntry(far.x, far.y);
+        lazy.getLOSEntry(c.x, c.y);
+        farEntry = lazy.getCacheEntry(far.x, far.y);
+        map[c.x][c.y] = '#';
+        assertTrue(lazy.awaitRefresh(map));
+        assertSame(farEntry, lazy.getCacheEntry(far.x, far.y));
+        assertEquals(0, lazy.getLOSEntry(c.x, c.y).length);
+        lazy.destroy();
+    }
 }
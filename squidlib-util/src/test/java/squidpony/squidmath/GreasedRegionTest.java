@@ -2,12 +2,14 @@ package squidpony.squidmath;
 
 import org.junit.Test;
 import squidpony.ArrayTools;
+import squidpony.squidgrid.FOV;
 import squidpony.squidgrid.Radius;
 import squidpony.squidgrid.mapping.DungeonGenerator;
 import squidpony.squidgrid.mapping.DungeonUtility;
 
 import java.util.ArrayList;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 
@@ -241,6 +243,37 @@ public class GreasedRegionTest {
             printRegion(gr);
     }
     @Test
+    public void testBulkMorphology() {
+        int[][] sizes = {{2, 2}, {3, 70}, {5, 1}, {64, 64}, {70, 130}, {9, 200}, {130, 64}};
+        for (int[] size : sizes) {
+            int w = size[0], h = size[1];
+            for (int t = 0; t < 4; t++) {
+                GreasedRegion start = new GreasedRegion(srng, 0.3 + 0.15 * t, w, h), expanded = start.copy().expand(),
+                        retracted = start.copy().retract();
+                for (int x = 0; x < w; x++) {
+                    for (int y = 0; y < h; y++) {
+                        boolean near = start.contains(x, y) || start.contains(x - 1, y) || start.contains(x + 1, y)
+                                || start.contains(x, y - 1) || start.contains(x, y + 1);
+                        assertEquals(near, expanded.contains(x, y));
+                        // retract() leaves regions with width 2 or less unchanged
+                        boolean inner = w <= 2 ? start.contains(x, y) : start.contains(x, y) && start.contains(x - 1, y)
+                                && start.contains(x + 1, y) && start.contains(x, y - 1) && start.contains(x, y + 1);
+                        assertEquals(inner, retracted.contains(x, y));
+                    }
+                }
+                assertEquals(expanded.copy().expand().expand(), start.copy().expand(3));
+                assertEquals(retracted.copy().retract().retract(), start.copy().retract(3));
+                assertEquals(expanded.copy().andNot(start), start.copy().fringe());
+                assertEquals(start.copy().andNot(retracted), start.copy().surface());
+                assertEquals(start.copy().expand(2).andNot(start), start.copy().fringe(2));
+                assertEquals(start.copy().andNot(start.copy().retract(2)), start.copy().surface(2));
+                GreasedRegion other = new GreasedRegion(srng, w, h);
+                assertEquals(start.copy().xor(other), start.copy().or(other).andNot(start.copy().and(other)));
+                assertEquals(start.copy().notAnd(other), other.copy().andNot(start));
+            }
+        }
+    }
+    @Test
     public void testFitting()
     {
         GreasedRegion wrecked = new GreasedRegion(dataCross);
@@ -285,5 +318,39 @@ public class GreasedRegionTest {
         midCross.zoom(30, 33);
         printRegion(midCross);
     }
-}
 
+    @Test
+    public void testFOVRegion()
+    {
+        // taller than 64 cells, so each column needs more than one long
+        DungeonGenerator tallGen = new DungeonGenerator(50, 90, srng);
+        char[][] tall = tallGen.generate();
+        GreasedRegion visible = new GreasedRegion(8, 8);
+        for (char[][] map : new char[][][]{dungeon, tall}) {
+            double[][] res = DungeonUtility.generateResistances(map), light = new double[map.length][map[0].length];
+            for (Radius radius : new Radius[]{Radius.CIRCLE, Radius.SQUARE, Radius.DIAMOND}) {
+                for (int i = 0; i < 20; i++) {
+                    Coord c = (map == dungeon ? dungeonGen : tallGen).utility.randomFloor(map);
+                    ArrayTools.fill(light, 0.0);
+                    FOV.reuseFOV(res, light, c.x, c.y, 9.0, radius);
+                    FOV.reuseFOV(res, visible, c.x, c.y, 9.0, radius);
+                    assertEquals(map.length, visible.width);
+                    assertEquals(map[0].length, visible.height);
+                    for (int x = 0; x < map.length; x++) {
+                        for (int y = 0; y < map[0].length; y++) {
+                            assertEquals(light[x][y] > 0.0, visible.contains(x, y));
+                        }
+                    }
+                }
+            }
+            Coord c = (map == dungeon ? dungeonGen : tallGen).utility.randomFloor(map);
+            double[][] los = new FOV().calculateLOSMap(res, c.x, c.y);
+            FOV.reuseLOS(res, visible, c.x, c.y);
+            for (int x = 0; x < map.length; x++) {
+                for (int y = 0; y < map[0].length; y++) {
+                    assertEquals(los[x][y] > 0.0, visible.contains(x, y));
+                }
+            }
+        }
+    }
+}
@@ -23,7 +23,33 @@ public class LightRNGTest {
 		assertEquals(1, rng.next(1));
 		assertEquals(-1877671296, rng.nextInt());
 		rng.setState(rng.state * 11234L);
-		assertEquals(125, rng.nextInt(10, 230));
+		assertEquals(218, rng.nextInt(10, 230));
+	}
+
+	/**
+	 * With a bound of 3 * pow(2, 29), multiplying 31 random bits by the bound and shifting without rejecting anything
+	 * would give every third result twice as often as the others; this checks the rejection step removes that bias.
+	 */
+	@Test
+	public void testNextIntUnbiased() {
+		final int bound = 3 << 29;
+		LightRNG light = new LightRNG(3L);
+		RNG rng = new RNG(new XoRoRNG(3L));
+		int[] lightCounts = new int[3], rngCounts = new int[3], bulkCounts = new int[3], bulk = new int[30000];
+		for (int i = 0; i < 30000; i++) {
+			lightCounts[light.nextInt(bound) % 3]++;
+			rngCounts[rng.nextInt(bound) % 3]++;
+		}
+		rng.nextInts(bulk, bound);
+		for (int i = 0; i < bulk.length; i++) {
+			assertTrue(bulk[i] >= 0 && bulk[i] < bound);
+			bulkCounts[bulk[i] % 3]++;
+		}
+		for (int i = 0; i < 3; i++) {
+			assertEquals(10000, lightCounts[i], 500);
+			assertEquals(10000, rngCounts[i], 500);
+			assertEquals(10000, bulkCounts[i], 500);
+		}
 	}
 
 	@Test
@@ -76,6 +102,11 @@ public class LightRNGTest {
 	@Test
 	public void testNextIntException() {
 		assertEquals(0, l.nextInt(0));
+		// the other sources share RNG's bounded nextInt, so they agree on non-positive bounds
+		assertEquals(0, new XoRoRNG(1L).nextInt(-5));
+		assertEquals(0, new PermutedRNG(1L).nextInt(0));
+		assertEquals(0, new XorRNG(1L).nextInt(0));
+		assertEquals(0, new RNG(1L).nextInt(-1));
 	}
 
 	@Test(expected = IllegalArgumentException.class)
@@ -0,0 +1,139 @@
+package squidpony.squidmath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that filling a grid of noise gives the same results as sampling each point of the grid by itself.
+ */
+public class NoiseGridTest {
+    private static final int WIDTH = 37, HEIGHT = 29;
+
+    /**
+     * Returns evenly-spaced coordinates if step is positive, or coordinates in no particular order spread over about
+     * -step * count if step is negative.
+     */
+    private static double[] coordinates(final double start, final double step, final int count, final RNG rng) {
+        final double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = step > 0 ? start + i * step : start - rng.nextDouble() * count * step;
+        }
+        return values;
+    }
+
+    private static double[][][] grids(final RNG rng) {
+        return new double[][][]{
+                {coordinates(0.0, 0.0625, WIDTH, rng), coordinates(0.0, 0.0625, HEIGHT, rng)},
+                {coordinates(-31.7, 0.03, WIDTH, rng), coordinates(12.3, 0.11, HEIGHT, rng)},
+                // far too sparse to share hashes between samples
+                {coordinates(-500.0, 41.5, WIDTH, rng), coordinates(300.0, 67.0, HEIGHT, rng)},
+                {coordinates(-2.0, -0.1, WIDTH, rng), coordinates(5.0, -0.2, HEIGHT, rng)},
+                {new double[]{1.5, Double.NaN, -0.25}, new double[]{0.5, 2.0}},
+                {new double[0], new double[]{0.5, 2.0}},
+        };
+    }
+
+    @Test
+    public void test2D()
+    {
+        RNG rng = new RNG(0x1337L);
+        Noise.Noise2D[] noises = {SeededNoise.instance, WhirlingNoise.instance,
+                new Noise.Layered2D(SeededNoise.instance, 4, 1.7), new Noise.Ridged2D(WhirlingNoise.instance, 3, 2.3),
+                new Noise.Scaled2D(new Noise.Layered2D(), 0.3, 3.0),
+                new Noise.Turbulent2D(new Noise.Ridged2D(), new SeededNoise(77), 3, 0.8),
+                new Noise.Layered2D(new Noise.Viny2D(), 2)};
+        for (double[][] grid : grids(rng)) {
+            double[] xs = grid[0], ys = grid[1];
+            double[][] out = new double[xs.length][ys.length], seeded = new double[xs.length][ys.length];
+            for (Noise.Noise2D noise : noises) {
+                Noise.fillGrid(noise, out, xs, ys);
+                Noise.fillGridWithSeed(noise, seeded, xs, ys, 12345);
+                for (int i = 0; i < xs.length; i++) {
+                    for (int j = 0; j < ys.length; j++) {
+                        assertEquals(noise.getClass().getSimpleName(), noise.getNoise(xs[i], ys[j]), out[i][j], 0.0);
+                        assertEquals(noise.getClass().getSimpleName(), noise.getNoiseWithSeed(xs[i], ys[j], 12345),
+                                seeded[i][j], 0.0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test3D()
+    {
+        RNG rng = new RNG(0xBEEFL);
+        Noise.Noise3D[] noises = {SeededNoise.instance, WhirlingNoise.instance,
+                new Noise.Layered3D(SeededNoise.instance, 4, 1.7), new Noise.Ridged3D(WhirlingNoise.instance, 3, 2.3),
+                new Noise.Scaled3D(new Noise.Layered3D(), 0.3, 3.0, 1.5),
+                new Noise.Turbulent3D(new Noise.Ridged3D(), new SeededNoise(77), 3, 0.8)};
+        for (double[][] grid : grids(rng)) {
+            double[] xs = grid[0], ys = grid[1];
+            double[][] out = new double[xs.length][ys.length], seeded = new double[xs.length][ys.length];
+            for (Noise.Noise3D noise : noises) {
+                for (double z : new double[]{0.0, -7.3, 2.9}) {
+                    Noise.fillGrid(noise, out, xs, ys, z);
+                    Noise.fillGridWithSeed(noise, seeded, xs, ys, z, -999);
+                    for (int i = 0; i < xs.length; i++) {
+                        for (int j = 0; j < ys.length; j++) {
+                            assertEquals(noise.getClass().getSimpleName(), noise.getNoise(xs[i], ys[j], z),
+                                    out[i][j], 0.0);
+                            assertEquals(noise.getClass().getSimpleName(), noise.getNoiseWithSeed(xs[i], ys[j], z, -999),
+                                    seeded[i][j], 0.0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test4D()
+    {
+        RNG rng = new RNG(0xFACEL);
+        Noise.Noise4D[] noises = {SeededNoise.instance, WhirlingNoise.instance,
+                new Noise.Layered4D(SeededNoise.instance, 4, 1.7), new Noise.Ridged4D(WhirlingNoise.instance, 3, 2.3),
+                new Noise.Scaled4D(new Noise.Layered4D(), 0.3, 3.0, 1.5, 0.75),
+                new Noise.Turbulent4D(new Noise.Ridged4D(), new SeededNoise(77), 3, 0.8)};
+        for (double[][] grid : grids(rng)) {
+            double[] xs = grid[0], ys = grid[1];
+            double[][] out = new double[xs.length][ys.length], seeded = new double[xs.length][ys.length];
+            for (Noise.Noise4D noise : noises) {
+                for (double z : new double[]{0.0, -7.3}) {
+                    for (double w : new double[]{1.0, 0.45}) {
+                        Noise.fillGrid(noise, out, xs, ys, z, w);
+                        Noise.fillGridWithSeed(noise, seeded, xs, ys, z, w, 31337);
+                        for (int i = 0; i < xs.length; i++) {
+                            for (int j = 0; j < ys.length; j++) {
+                                assertEquals(noise.getClass().getSimpleName(), noise.getNoise(xs[i], ys[j], z, w),
+                                        out[i][j], 0.0);
+                                assertEquals(noise.getClass().getSimpleName(),
+                                        noise.getNoiseWithSeed(xs[i], ys[j], z, w, 31337), seeded[i][j], 0.0);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFill()
+    {
+        double[][] out = new double[WIDTH][HEIGHT];
+        Noise.fill(SeededNoise.instance, out, -3.0, 4.0, 0.125, 0.25);
+        for (int i = 0; i < WIDTH; i++) {
+            for (int j = 0; j < HEIGHT; j++) {
+                assertEquals(SeededNoise.instance.getNoise(-3.0 + i * 0.125, 4.0 + j * 0.25), out[i][j], 0.0);
+            }
+        }
+        Noise.Viny4D viny = new Noise.Viny4D();
+        Noise.fillWithSeed(viny, out, -3.0, 4.0, 0.5, 1.5, 0.125, 0.25, 10);
+        for (int i = 0; i < WIDTH; i++) {
+            for (int j = 0; j < HEIGHT; j++) {
+                assertEquals(viny.getNoiseWithSeed(-3.0 + i * 0.125, 4.0 + j * 0.25, 0.5, 1.5, 10), out[i][j], 0.0);
+            }
+        }
+    }
+}
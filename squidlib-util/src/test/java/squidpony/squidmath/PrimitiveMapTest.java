@@ -0,0 +1,168 @@
+package squidpony.squidmath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the primitive-keyed maps against HashMap and LinkedHashMap over many random puts and removes, with small key
+ * ranges so keys (including 0) are often reused, and enough entries to make the tables grow.
+ */
+public class PrimitiveMapTest {
+    public static StatefulRNG srng = new StatefulRNG(0x9A9L);
+
+    @Test
+    public void testIntIntMaps()
+    {
+        IntIntMap plain = new IntIntMap(4);
+        IntIntOrderedMap ordered = new IntIntOrderedMap(4);
+        LinkedHashMap<Integer, Integer> expected = new LinkedHashMap<>();
+        plain.defaultReturnValue(-1);
+        ordered.defaultReturnValue(-1);
+        for (int i = 0; i < 20000; i++) {
+            int k = srng.between(-300, 300) * (i < 10000 ? 1 : 0x10001), v = srng.nextInt();
+            Integer old;
+            if (srng.nextInt(3) == 0) {
+                old = expected.remove(k);
+                assertEquals(old == null ? -1 : old, plain.remove(k));
+                assertEquals(old == null ? -1 : old, ordered.remove(k));
+            } else {
+                old = expected.put(k, v);
+                assertEquals(old == null ? -1 : old, plain.put(k, v));
+                assertEquals(old == null ? -1 : old, ordered.put(k, v));
+            }
+            assertEquals(expected.size(), plain.size());
+            assertEquals(expected.size(), ordered.size());
+            if ((i & 1023) == 0) {
+                checkOrder(expected, ordered);
+                for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+                    assertEquals((int) e.getValue(), plain.get(e.getKey()));
+                }
+                assertEquals(plain, ordered);
+                assertEquals(plain.hashCode(), ordered.hashCode());
+            }
+        }
+        checkOrder(expected, ordered);
+        assertEquals(expected.containsKey(0), plain.containsKey(0));
+        assertEquals(new IntIntMap(plain), plain);
+        assertArrayEquals(ordered.keys(), new IntIntOrderedMap(ordered).keys());
+
+        IntIntMap counts = new IntIntMap();
+        for (int i = 0; i < 1000; i++) {
+            counts.addTo(i % 7, 1);
+        }
+        assertEquals(143, counts.get(0));
+        assertEquals(142, counts.get(6));
+        counts.clear();
+        assertTrue(counts.isEmpty());
+        assertEquals(-1, counts.firstSlot());
+        assertFalse(counts.containsKey(0));
+    }
+
+    private static void checkOrder(LinkedHashMap<Integer, Integer> expected, IntIntOrderedMap ordered)
+    {
+        int s = ordered.firstSlot();
+        for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+            assertEquals((int) e.getKey(), ordered.keyAt(s));
+            assertEquals((int) e.getValue(), ordered.valueAt(s));
+            s = ordered.nextSlot(s);
+        }
+        assertEquals(-1, s);
+        if (!expected.isEmpty()) {
+            ArrayList<Integer> keys = new ArrayList<>(expected.keySet());
+            assertEquals((int) keys.get(0), ordered.firstKey());
+            assertEquals((int) keys.get(keys.size() - 1), ordered.lastKey());
+            assertEquals(-1, ordered.prevSlot(ordered.firstSlot()));
+            if (keys.size() > 1)
+                assertEquals((int) keys.get(keys.size() - 2), ordered.keyAt(ordered.prevSlot(ordered.lastSlot())));
+        }
+    }
+
+    @Test
+    public void testObjectMaps()
+    {
+        IntObjectMap<String> ints = new IntObjectMap<>();
+        IntObjectOrderedMap<String> orderedInts = new IntObjectOrderedMap<>();
+        LongObjectMap<String> longs = new LongObjectMap<>();
+        LongObjectOrderedMap<String> orderedLongs = new LongObjectOrderedMap<>();
+        HashMap<Integer, String> expectedInts = new HashMap<>();
+        LinkedHashMap<Long, String> expectedLongs = new LinkedHashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int k = srng.between(-200, 200);
+            long lk = (long) k << 40 ^ srng.between(0, 3);
+            String v = srng.nextInt(10) == 0 ? null : "v" + i;
+            if (srng.nextInt(3) == 0) {
+                assertEquals(expectedInts.remove(k), ints.remove(k));
+                orderedInts.remove(k);
+                assertEquals(expectedLongs.remove(lk), longs.remove(lk));
+                orderedLongs.remove(lk);
+            } else {
+                assertEquals(expectedInts.put(k, v), ints.put(k, v));
+                orderedInts.put(k, v);
+                assertEquals(expectedLongs.put(lk, v), longs.put(lk, v));
+                orderedLongs.put(lk, v);
+            }
+            assertEquals(expectedInts.size(), ints.size());
+            assertEquals(expectedLongs.size(), orderedLongs.size());
+        }
+        for (Map.Entry<Integer, String> e : expectedInts.entrySet()) {
+            assertTrue(ints.containsKey(e.getKey()));
+            assertEquals(e.getValue(), ints.get(e.getKey()));
+        }
+        assertEquals(ints, orderedInts);
+        assertEquals(longs, orderedLongs);
+        int s = orderedLongs.firstSlot();
+        for (Map.Entry<Long, String> e : expectedLongs.entrySet()) {
+            assertEquals((long) e.getKey(), orderedLongs.keyAt(s));
+            assertEquals(e.getValue(), orderedLongs.valueAt(s));
+            assertEquals(e.getValue(), longs.get(e.getKey()));
+            s = orderedLongs.nextSlot(s);
+        }
+        assertEquals(-1, s);
+        assertEquals("x", ints.getOrDefault(1000, "x"));
+        assertNull(ints.putIfAbsent(1000, "y"));
+        assertEquals("y", ints.putIfAbsent(1000, "z"));
+        longs.clear();
+        assertNull(longs.get(0L));
+        assertEquals(-1, longs.firstSlot());
+    }
+
+    @Test
+    public void testCoordMaps()
+    {
+        CoordObjectMap<Coord> plain = new CoordObjectMap<>();
+        CoordObjectOrderedMap<Coord> ordered = new CoordObjectOrderedMap<>();
+        LinkedHashMap<Coord, Coord> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            Coord c = Coord.get(srng.between(-100, 100), srng.between(-100, 100)),
+                    v = Coord.get(srng.nextInt(10), srng.nextInt(10));
+            if (srng.nextInt(4) == 0) {
+                assertEquals(expected.remove(c), plain.remove(c.x, c.y));
+                ordered.remove(c);
+            } else {
+                assertEquals(expected.put(c, v), plain.put(c, v));
+                ordered.put(c.x, c.y, v);
+            }
+        }
+        assertEquals(expected.size(), plain.size());
+        assertEquals(plain, ordered);
+        int s = ordered.firstSlot();
+        for (Map.Entry<Coord, Coord> e : expected.entrySet()) {
+            Coord c = e.getKey();
+            assertEquals(c, ordered.coordAt(s));
+            assertEquals(c.x, ordered.xAt(s));
+            assertEquals(c.y, ordered.yAt(s));
+            assertEquals(e.getValue(), plain.get(c.x, c.y));
+            assertTrue(plain.containsKey(c));
+            s = ordered.nextSlot(s);
+        }
+        assertEquals(-1, s);
+        assertEquals(-7, CoordObjectMap.unpackX(CoordObjectMap.pack(-7, -9)));
+        assertEquals(-9, CoordObjectMap.unpackY(CoordObjectMap.pack(-7, -9)));
+    }
+}
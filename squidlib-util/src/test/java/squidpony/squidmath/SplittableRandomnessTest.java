@@ -0,0 +1,99 @@
+package squidpony.squidmath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks jump(), split() and RNG.fork() on the generators that implement SplittableRandomness.
+ */
+public class SplittableRandomnessTest {
+    private static SplittableRandomness[] sources() {
+        return new SplittableRandomness[]{new LightRNG(123L), new XoRoRNG(123L), new XorRNG(123L),
+                new PermutedRNG(123L), new LongPeriodRNG(123L)};
+    }
+
+    @Test
+    public void testJump()
+    {
+        for (SplittableRandomness source : sources()) {
+            // a jump is a power of the generator's step function, so it has to commute with stepping once
+            RandomnessSource stepFirst = source.copy(), jumpFirst = source.copy();
+            stepFirst.nextLong();
+            ((SplittableRandomness) stepFirst).jump();
+            ((SplittableRandomness) jumpFirst).jump();
+            jumpFirst.nextLong();
+            for (int i = 0; i < 20; i++) {
+                assertEquals(source.getClass().getSimpleName(), stepFirst.nextLong(), jumpFirst.nextLong());
+            }
+            RandomnessSource jumped = source.copy();
+            ((SplittableRandomness) jumped).jump();
+            assertNotEquals(source.copy().nextLong(), jumped.nextLong());
+        }
+        LightRNG light = new LightRNG(-1L), skipped = new LightRNG(-1L);
+        light.jump();
+        skipped.skip(1L << 48);
+        assertEquals(skipped.getState(), light.getState());
+        PermutedRNG permuted = new PermutedRNG(-1L), skippedPermuted = new PermutedRNG(-1L);
+        permuted.jump();
+        skippedPermuted.skip(1L << 48);
+        assertEquals(skippedPermuted.getState(), permuted.getState());
+    }
+
+    @Test
+    public void testSplit()
+    {
+        for (SplittableRandomness source : sources()) {
+            RandomnessSource before = source.copy(), after = source.copy();
+            ((SplittableRandomness) after).jump();
+            SplittableRandomness split = source.split();
+            assertEquals(source.getClass(), split.getClass());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(before.nextLong(), split.nextLong());
+                assertEquals(after.nextLong(), source.nextLong());
+            }
+        }
+    }
+
+    @Test
+    public void testFork()
+    {
+        for (SplittableRandomness source : sources()) {
+            RNG rng = new RNG(source), same = new RNG(source.copy());
+            long[] firsts = new long[8];
+            for (int i = 7; i >= 0; i--) {
+                firsts[i] = rng.fork(i).nextLong();
+            }
+            for (int i = 0; i < 8; i++) {
+                assertEquals(firsts[i], same.fork(i).nextLong());
+                for (int j = 0; j < i; j++) {
+                    assertNotEquals(firsts[j], firsts[i]);
+                }
+            }
+            RNG[] forks = rng.fork(2, 6);
+            assertEquals(6, forks.length);
+            for (int i = 0; i < 6; i++) {
+                assertEquals(firsts[i + 2], forks[i].nextLong());
+            }
+            assertEquals(same.nextLong(), rng.nextLong());
+        }
+        StatefulRNG stateful = new StatefulRNG(77L);
+        assertTrue(stateful.fork(3) instanceof StatefulRNG);
+        assertEquals(stateful.fork(3).nextLong(), new StatefulRNG(77L).fork(3).nextLong());
+        RNG[] statefulForks = stateful.fork(3, 2);
+        assertTrue(statefulForks[1] instanceof StatefulRNG);
+        assertEquals(stateful.fork(4).nextLong(), statefulForks[1].nextLong());
+
+        RNG thunder = new RNG(new ThunderRNG(77L)), thunder2 = thunder.copy();
+        assertEquals(thunder.fork(2).nextLong(), thunder2.fork(2).nextLong());
+        assertNotEquals(thunder.fork(1).nextLong(), thunder.fork(2).nextLong());
+        assertEquals(thunder.fork(2).nextLong(), thunder.fork(1, 2)[1].nextLong());
+        assertEquals(thunder2.nextLong(), thunder.nextLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeFork()
+    {
+        new RNG(1L).fork(-1);
+    }
+}